@@ -332,7 +332,7 @@ countNodes
 
 // Select Statement
 selectStatement
-    : TRACING? selectClause intoClause? fromClause whereClause? specialClause?
+    : (TRACING | EXPLAIN ANALYZE)? selectClause intoClause? fromClause whereClause? specialClause?
     ;
 
 intoClause
@@ -65,6 +65,10 @@ ALTER
     : A L T E R
     ;
 
+ANALYZE
+    : A N A L Y Z E
+    ;
+
 ANY
     : A N Y
     ;
@@ -633,7 +637,11 @@ TEXT
 // Encoding Type Keywords
 
 ENCODING_VALUE
-    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF
+    : CHIMP | DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF
+    ;
+
+CHIMP
+    : C H I M P
     ;
 
 DICTIONARY
@@ -668,7 +676,7 @@ TS_2DIFF
 // Compressor Type Keywords
 
 COMPRESSOR_VALUE
-    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED
+    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED | ZSTD
     ;
 
 GZIP
@@ -687,6 +695,10 @@ UNCOMPRESSED
     : U N C O M P R E S S E D
     ;
 
+ZSTD
+    : Z S T D
+    ;
+
 
 // Privileges Keywords
 
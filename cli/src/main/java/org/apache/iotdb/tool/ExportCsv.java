@@ -25,7 +25,8 @@ import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.session.Session;
-import org.apache.iotdb.session.SessionDataSet;
+import org.apache.iotdb.session.pool.SessionDataSetWrapper;
+import org.apache.iotdb.session.pool.SessionPool;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 
@@ -51,7 +52,14 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Export CSV file.
@@ -75,6 +83,9 @@ public class ExportCsv extends AbstractCsvTool {
   private static final String QUERY_COMMAND_ARGS = "q";
   private static final String QUERY_COMMAND_NAME = "queryCommand";
 
+  private static final String EXPORT_THREAD_NUM_ARGS = "tn";
+  private static final String EXPORT_THREAD_NUM_NAME = "export thread number";
+
   private static final String TSFILEDB_CLI_PREFIX = "ExportCsv";
 
   private static final String DUMP_FILE_NAME_DEFAULT = "dump";
@@ -90,6 +101,18 @@ public class ExportCsv extends AbstractCsvTool {
 
   private static final int EXPORT_PER_LINE_COUNT = 10000;
 
+  private static int exportThreadNum = 1;
+
+  /**
+   * Each query is executed with a session of the pool, so that the queries are dumped in parallel
+   */
+  private static SessionPool sessionPool;
+
+  /** Threads that fetch the rows of the queries while the fetched rows are written to files */
+  private static ExecutorService fetchPool;
+
+  private static final RowRecord END_OF_ROWS = new RowRecord(0);
+
   /** main function of export csv tool. */
   public static void main(String[] args) {
     Options options = createOptions();
@@ -127,6 +150,10 @@ public class ExportCsv extends AbstractCsvTool {
       session.open(false);
       timestampPrecision = session.getTimestampPrecision();
       setTimeZone();
+      sessionPool =
+          new SessionPool(
+              host, Integer.parseInt(port), username, password, exportThreadNum, zoneId);
+      fetchPool = Executors.newCachedThreadPool();
 
       if (queryCommand == null) {
         String sqlFile = commandLine.getOptionValue(SQL_FILE_ARGS);
@@ -136,15 +163,12 @@ public class ExportCsv extends AbstractCsvTool {
           LineReader lineReader = JlineUtils.getLineReader(username, host, port);
           sql = lineReader.readLine(TSFILEDB_CLI_PREFIX + "> please input query: ");
           System.out.println(sql);
-          String[] values = sql.trim().split(";");
-          for (int i = 0; i < values.length; i++) {
-            dumpResult(values[i], i);
-          }
+          dumpResults(Arrays.asList(sql.trim().split(";")));
         } else {
           dumpFromSqlFile(sqlFile);
         }
       } else {
-        dumpResult(queryCommand, 0);
+        dumpResults(Arrays.asList(queryCommand));
       }
 
     } catch (IOException e) {
@@ -161,6 +185,12 @@ public class ExportCsv extends AbstractCsvTool {
           "Can not get the timestamp precision from server because " + e.getMessage());
       exitCode = CODE_ERROR;
     } finally {
+      if (fetchPool != null) {
+        fetchPool.shutdownNow();
+      }
+      if (sessionPool != null) {
+        sessionPool.close();
+      }
       if (session != null) {
         try {
           session.close();
@@ -179,6 +209,10 @@ public class ExportCsv extends AbstractCsvTool {
     targetFile = commandLine.getOptionValue(TARGET_FILE_ARGS);
     needDataTypePrinted = Boolean.valueOf(commandLine.getOptionValue(DATA_TYPE_ARGS));
     queryCommand = commandLine.getOptionValue(QUERY_COMMAND_ARGS);
+    if (commandLine.getOptionValue(EXPORT_THREAD_NUM_ARGS) != null) {
+      exportThreadNum =
+          Math.max(1, Integer.parseInt(commandLine.getOptionValue(EXPORT_THREAD_NUM_ARGS)));
+    }
 
     if (needDataTypePrinted == null) {
       needDataTypePrinted = true;
@@ -267,6 +301,16 @@ public class ExportCsv extends AbstractCsvTool {
             .build();
     options.addOption(opQuery);
 
+    Option opExportThreadNum =
+        Option.builder(EXPORT_THREAD_NUM_ARGS)
+            .argName(EXPORT_THREAD_NUM_NAME)
+            .hasArg()
+            .desc(
+                "The number of queries that are dumped concurrently, e.g., the queries of "
+                    + "different time ranges in the sql file, 1 by default (optional)")
+            .build();
+    options.addOption(opExportThreadNum);
+
     Option opHelp =
         Option.builder(HELP_ARGS)
             .longOpt(HELP_ARGS)
@@ -285,14 +329,41 @@ public class ExportCsv extends AbstractCsvTool {
    * @throws IOException
    */
   private static void dumpFromSqlFile(String filePath) throws IOException {
+    List<String> sqls = new ArrayList<>();
     try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
       String sql;
-      int index = 0;
       while ((sql = reader.readLine()) != null) {
-        dumpResult(sql, index);
-        index++;
+        sqls.add(sql);
       }
     }
+    dumpResults(sqls);
+  }
+
+  /**
+   * Dump the results of the queries by at most exportThreadNum threads, the result of the i-th
+   * query is dumped into the i-th file.
+   *
+   * @param sqls the queries to export
+   */
+  private static void dumpResults(List<String> sqls) {
+    ExecutorService dumpPool = Executors.newFixedThreadPool(exportThreadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < sqls.size(); i++) {
+        String sql = sqls.get(i);
+        int index = i;
+        futures.add(dumpPool.submit(() -> dumpResult(sql, index)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      System.out.println("Cannot dump result because: " + e.getMessage());
+    } finally {
+      dumpPool.shutdownNow();
+    }
   }
 
   /**
@@ -303,10 +374,8 @@ public class ExportCsv extends AbstractCsvTool {
    */
   private static void dumpResult(String sql, int index) {
     final String path = targetDirectory + targetFile + index + ".csv";
-    try {
-      SessionDataSet sessionDataSet = session.executeQueryStatement(sql);
+    try (SessionDataSetWrapper sessionDataSet = sessionPool.executeQueryStatement(sql)) {
       writeCsvFile(sessionDataSet, path);
-      sessionDataSet.closeOperationHandle();
       System.out.println("Export completely!");
     } catch (StatementExecutionException | IoTDBConnectionException | IOException e) {
       System.out.println("Cannot dump result because: " + e.getMessage());
@@ -328,7 +397,11 @@ public class ExportCsv extends AbstractCsvTool {
     }
   }
 
-  public static Boolean writeCsvFile(SessionDataSet sessionDataSet, String filePath)
+  /**
+   * Write the rows of the result into the file, while the following rows are fetched by another
+   * thread.
+   */
+  public static Boolean writeCsvFile(SessionDataSetWrapper sessionDataSet, String filePath)
       throws IOException, IoTDBConnectionException, StatementExecutionException {
     CSVPrinter printer =
         CSVFormat.Builder.create(CSVFormat.DEFAULT)
@@ -356,32 +429,62 @@ public class ExportCsv extends AbstractCsvTool {
     }
     printer.printRecord(headers);
 
-    while (sessionDataSet.hasNext()) {
-      RowRecord rowRecord = sessionDataSet.next();
-      ArrayList<String> record = new ArrayList<>();
-      if (rowRecord.getTimestamp() != 0) {
-        record.add(timeTrans(rowRecord.getTimestamp()));
-      }
-      rowRecord
-          .getFields()
-          .forEach(
-              field -> {
-                String fieldStringValue = field.getStringValue();
-                if (!"null".equals(field.getStringValue())) {
-                  if (field.getDataType() == TSDataType.TEXT
-                      && !fieldStringValue.startsWith("root.")) {
-                    fieldStringValue = "\"" + fieldStringValue + "\"";
+    BlockingQueue<RowRecord> rows = new ArrayBlockingQueue<>(EXPORT_PER_LINE_COUNT);
+    Future<Void> fetcher = fetchPool.submit(() -> fetchRows(sessionDataSet, rows));
+    try {
+      RowRecord rowRecord;
+      while ((rowRecord = rows.take()) != END_OF_ROWS) {
+        ArrayList<String> record = new ArrayList<>();
+        if (rowRecord.getTimestamp() != 0) {
+          record.add(timeTrans(rowRecord.getTimestamp()));
+        }
+        rowRecord
+            .getFields()
+            .forEach(
+                field -> {
+                  String fieldStringValue = field.getStringValue();
+                  if (!"null".equals(field.getStringValue())) {
+                    if (field.getDataType() == TSDataType.TEXT
+                        && !fieldStringValue.startsWith("root.")) {
+                      fieldStringValue = "\"" + fieldStringValue + "\"";
+                    }
+                    record.add(fieldStringValue);
+                  } else {
+                    record.add("");
                   }
-                  record.add(fieldStringValue);
-                } else {
-                  record.add("");
-                }
-              });
-      printer.printRecord(record);
+                });
+        printer.printRecord(record);
+      }
+      // rethrow the exception met by the fetcher
+      fetcher.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when exporting " + filePath);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof StatementExecutionException) {
+        throw (StatementExecutionException) e.getCause();
+      } else if (e.getCause() instanceof IoTDBConnectionException) {
+        throw (IoTDBConnectionException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      fetcher.cancel(true);
+      printer.flush();
+      printer.close();
     }
-
-    printer.flush();
-    printer.close();
     return true;
   }
+
+  private static Void fetchRows(SessionDataSetWrapper sessionDataSet, BlockingQueue<RowRecord> rows)
+      throws IoTDBConnectionException, StatementExecutionException, InterruptedException {
+    try {
+      while (sessionDataSet.hasNext()) {
+        rows.put(sessionDataSet.next());
+      }
+    } finally {
+      // wake up the writer however the fetching ends, the exception is rethrown by fetcher.get()
+      rows.put(END_OF_ROWS);
+    }
+    return null;
+  }
 }
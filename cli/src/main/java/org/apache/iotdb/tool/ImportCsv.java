@@ -24,6 +24,7 @@ import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.session.Session;
 import org.apache.iotdb.session.SessionDataSet;
+import org.apache.iotdb.session.pool.SessionPool;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import org.apache.commons.cli.CommandLine;
@@ -51,6 +52,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
@@ -79,6 +87,9 @@ public class ImportCsv extends AbstractCsvTool {
   private static final String ALIGNED_ARGS = "aligned";
   private static final String ALIGNED_NAME = "use the aligned interface";
 
+  private static final String INSERT_THREAD_NUM_ARGS = "tn";
+  private static final String INSERT_THREAD_NUM_NAME = "insert thread number";
+
   private static final String CSV_SUFFIXS = "csv";
   private static final String TXT_SUFFIXS = "txt";
 
@@ -93,6 +104,18 @@ public class ImportCsv extends AbstractCsvTool {
 
   private static int batchPointSize = 100_000;
 
+  private static int insertThreadNum = 1;
+
+  /**
+   * The batches are inserted by the insertion threads, each with a session of the pool, while the
+   * following records are parsed and converted by the main thread.
+   */
+  private static SessionPool sessionPool;
+
+  private static ExecutorService insertionPool;
+
+  private static final List<Future<?>> pendingInsertions = new ArrayList<>();
+
   /**
    * create the commandline options.
    *
@@ -153,6 +176,18 @@ public class ImportCsv extends AbstractCsvTool {
             .build();
     options.addOption(opBatchPointSize);
 
+    Option opInsertThreadNum =
+        Option.builder(INSERT_THREAD_NUM_ARGS)
+            .argName(INSERT_THREAD_NUM_NAME)
+            .hasArg()
+            .desc(
+                "The number of threads and sessions that insert the batches concurrently. "
+                    + "1 by default, which inserts the batches one by one in the order of the file, "
+                    + "while more threads may insert the rows of the same timestamp in any order "
+                    + "(optional)")
+            .build();
+    options.addOption(opInsertThreadNum);
+
     return options;
   }
 
@@ -167,6 +202,10 @@ public class ImportCsv extends AbstractCsvTool {
     if (commandLine.getOptionValue(BATCH_POINT_SIZE_ARGS) != null) {
       batchPointSize = Integer.parseInt(commandLine.getOptionValue(BATCH_POINT_SIZE_ARGS));
     }
+    if (commandLine.getOptionValue(INSERT_THREAD_NUM_ARGS) != null) {
+      insertThreadNum =
+          Math.max(1, Integer.parseInt(commandLine.getOptionValue(INSERT_THREAD_NUM_ARGS)));
+    }
     if (commandLine.getOptionValue(FAILED_FILE_ARGS) != null) {
       failedFileDirectory = commandLine.getOptionValue(FAILED_FILE_ARGS);
       File file = new File(failedFileDirectory);
@@ -247,6 +286,19 @@ public class ImportCsv extends AbstractCsvTool {
       session.open(false);
       timeZoneID = timeZone;
       setTimeZone();
+      sessionPool = new SessionPool(host, port, username, password, insertThreadNum);
+      if (insertThreadNum > 1) {
+        // at most insertThreadNum batches are waiting, otherwise the parsing thread waits for a
+        // free slot, so that the memory of the pending batches is bounded
+        insertionPool =
+            new ThreadPoolExecutor(
+                insertThreadNum,
+                insertThreadNum,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(insertThreadNum),
+                ImportCsv::waitForQueue);
+      }
 
       File file = new File(targetPath);
       if (file.isFile()) {
@@ -270,6 +322,13 @@ public class ImportCsv extends AbstractCsvTool {
       System.out.println("Encounter an error when connecting to server, because " + e.getMessage());
       return CODE_ERROR;
     } finally {
+      if (insertionPool != null) {
+        insertionPool.shutdownNow();
+        insertionPool = null;
+      }
+      if (sessionPool != null) {
+        sessionPool.close();
+      }
       if (session != null) {
         session.close();
       }
@@ -355,7 +414,7 @@ public class ImportCsv extends AbstractCsvTool {
             hasStarted.set(true);
             timeFormatter.set(formatterInit(record.get(0)));
           } else if (pointSize.get() >= batchPointSize) {
-            writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
+            writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList);
             pointSize.set(0);
           }
 
@@ -423,9 +482,10 @@ public class ImportCsv extends AbstractCsvTool {
           }
         });
     if (!deviceIds.isEmpty()) {
-      writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList, 3);
+      writeAndEmptyDataSet(deviceIds, times, typesList, valuesList, measurementsList);
       pointSize.set(0);
     }
+    waitForInsertions();
 
     if (!failedRecords.isEmpty()) {
       writeCsvFile(headerNames, failedRecords, failedFilePath);
@@ -473,14 +533,12 @@ public class ImportCsv extends AbstractCsvTool {
             timeFormatter.set(formatterInit(record.get(0)));
           } else if (!Objects.equals(deviceName.get(), record.get(1))) {
             // if device changed
-            writeAndEmptyDataSet(
-                deviceName.get(), times, typesList, valuesList, measurementsList, 3);
+            writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList);
             deviceName.set(record.get(1));
             pointSize.set(0);
           } else if (pointSize.get() >= batchPointSize) {
             // insert a batch
-            writeAndEmptyDataSet(
-                deviceName.get(), times, typesList, valuesList, measurementsList, 3);
+            writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList);
             pointSize.set(0);
           }
 
@@ -557,46 +615,44 @@ public class ImportCsv extends AbstractCsvTool {
           }
         });
     if (times.size() != 0) {
-      writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList, 3);
+      writeAndEmptyDataSet(deviceName.get(), times, typesList, valuesList, measurementsList);
       pointSize.set(0);
     }
+    waitForInsertions();
     if (!failedRecords.isEmpty()) {
       writeCsvFile(headerNames, failedRecords, failedFilePath);
     }
     System.out.println("Import completely!");
   }
 
+  /**
+   * Submit the batch to the insertion threads and empty the lists for the following records. The
+   * sessions of the pool retry the insertion with another connection if the connection is broken.
+   */
   private static void writeAndEmptyDataSet(
       String device,
       List<Long> times,
       List<List<TSDataType>> typesList,
       List<List<Object>> valuesList,
-      List<List<String>> measurementsList,
-      int retryTime) {
-    try {
-      if (!aligned) {
-        session.insertRecordsOfOneDevice(device, times, measurementsList, typesList, valuesList);
-      } else {
-        session.insertAlignedRecordsOfOneDevice(
-            device, times, measurementsList, typesList, valuesList);
-      }
-    } catch (IoTDBConnectionException e) {
-      if (retryTime > 0) {
-        try {
-          session.open();
-        } catch (IoTDBConnectionException ex) {
-          System.out.println("Meet error when insert csv because " + e.getMessage());
-        }
-        writeAndEmptyDataSet(device, times, typesList, valuesList, measurementsList, --retryTime);
-      }
-    } catch (StatementExecutionException e) {
-      System.out.println("Meet error when insert csv because " + e.getMessage());
-    } finally {
-      times.clear();
-      typesList.clear();
-      valuesList.clear();
-      measurementsList.clear();
-    }
+      List<List<String>> measurementsList) {
+    List<Long> batchTimes = new ArrayList<>(times);
+    List<List<TSDataType>> batchTypesList = new ArrayList<>(typesList);
+    List<List<Object>> batchValuesList = new ArrayList<>(valuesList);
+    List<List<String>> batchMeasurementsList = new ArrayList<>(measurementsList);
+    times.clear();
+    typesList.clear();
+    valuesList.clear();
+    measurementsList.clear();
+    submitInsertion(
+        () -> {
+          if (!aligned) {
+            sessionPool.insertRecordsOfOneDevice(
+                device, batchTimes, batchMeasurementsList, batchTypesList, batchValuesList);
+          } else {
+            sessionPool.insertAlignedRecordsOfOneDevice(
+                device, batchTimes, batchMeasurementsList, batchTypesList, batchValuesList);
+          }
+        });
   }
 
   private static void writeAndEmptyDataSet(
@@ -604,31 +660,81 @@ public class ImportCsv extends AbstractCsvTool {
       List<Long> times,
       List<List<TSDataType>> typesList,
       List<List<Object>> valuesList,
-      List<List<String>> measurementsList,
-      int retryTime) {
+      List<List<String>> measurementsList) {
+    List<String> batchDeviceIds = new ArrayList<>(deviceIds);
+    List<Long> batchTimes = new ArrayList<>(times);
+    List<List<TSDataType>> batchTypesList = new ArrayList<>(typesList);
+    List<List<Object>> batchValuesList = new ArrayList<>(valuesList);
+    List<List<String>> batchMeasurementsList = new ArrayList<>(measurementsList);
+    deviceIds.clear();
+    times.clear();
+    typesList.clear();
+    valuesList.clear();
+    measurementsList.clear();
+    submitInsertion(
+        () ->
+            sessionPool.insertAlignedRecords(
+                batchDeviceIds,
+                batchTimes,
+                batchMeasurementsList,
+                batchTypesList,
+                batchValuesList));
+  }
+
+  /**
+   * Insert the batch by the parsing thread if there is only one insertion thread, so that the
+   * batches are inserted in order, otherwise submit it to the insertion threads.
+   */
+  private static void submitInsertion(Insertion insertion) {
+    Runnable task =
+        () -> {
+          try {
+            insertion.insert();
+          } catch (IoTDBConnectionException | StatementExecutionException e) {
+            System.out.println("Meet error when insert csv because " + e.getMessage());
+          }
+        };
+    if (insertionPool == null) {
+      task.run();
+    } else {
+      pendingInsertions.add(insertionPool.submit(task));
+    }
+  }
+
+  /** Block the parsing thread until the insertion queue has room for the batch. */
+  private static void waitForQueue(Runnable task, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("The insertion threads are shut down");
+    }
     try {
-      session.insertAlignedRecords(deviceIds, times, measurementsList, typesList, valuesList);
-    } catch (IoTDBConnectionException e) {
-      if (retryTime > 0) {
-        try {
-          session.open();
-        } catch (IoTDBConnectionException ex) {
-          System.out.println("Meet error when insert csv because " + e.getMessage());
-        }
-        writeAndEmptyDataSet(
-            deviceIds, times, typesList, valuesList, measurementsList, --retryTime);
+      executor.getQueue().put(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted when submitting a batch", e);
+    }
+  }
+
+  /** Wait for the batches of the current file to be inserted. */
+  private static void waitForInsertions() {
+    try {
+      for (Future<?> future : pendingInsertions) {
+        future.get();
       }
-    } catch (StatementExecutionException e) {
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
       System.out.println("Meet error when insert csv because " + e.getMessage());
     } finally {
-      deviceIds.clear();
-      times.clear();
-      typesList.clear();
-      valuesList.clear();
-      measurementsList.clear();
+      pendingInsertions.clear();
     }
   }
 
+  @FunctionalInterface
+  private interface Insertion {
+
+    void insert() throws IoTDBConnectionException, StatementExecutionException;
+  }
+
   /**
    * read data from the CSV file
    *
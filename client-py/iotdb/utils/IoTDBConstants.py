@@ -48,6 +48,7 @@ class TSEncoding(Enum):
     GORILLA_V1 = 6
     REGULAR = 7
     GORILLA = 8
+    CHIMP = 9
 
     # this method is implemented to avoid the issue reported by:
     # https://bugs.python.org/issue30545
@@ -68,6 +69,7 @@ class Compressor(Enum):
     PAA = 5
     PLA = 6
     LZ4 = 7
+    ZSTD = 8
 
     # this method is implemented to avoid the issue reported by:
     # https://bugs.python.org/issue30545
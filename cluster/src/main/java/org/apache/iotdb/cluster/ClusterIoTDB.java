@@ -131,6 +131,9 @@ public class ClusterIoTDB implements ClusterIoTDBMBean {
   /** hardLinkCleaner will periodically clean expired hardlinks created during snapshots. */
   private ScheduledExecutorService hardLinkCleanerThread;
 
+  /** slotBalancerThread will periodically move slots among data groups to balance their loads. */
+  private ScheduledExecutorService slotBalancerThread;
+
   /**
    * The clientManager is only used by those instances who do not belong to any DataGroup or
    * MetaGroup.
@@ -209,6 +212,16 @@ public class ClusterIoTDB implements ClusterIoTDBMBean {
         ClusterConstant.CLEAN_HARDLINK_INTERVAL_SEC,
         ClusterConstant.CLEAN_HARDLINK_INTERVAL_SEC,
         TimeUnit.SECONDS);
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    if (config.isEnableSlotLoadBalance()) {
+      slotBalancerThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor("SlotLoadBalancer");
+      slotBalancerThread.scheduleWithFixedDelay(
+          metaGroupMember::balanceSlotLoads,
+          config.getSlotLoadBalanceIntervalMs(),
+          config.getSlotLoadBalanceIntervalMs(),
+          TimeUnit.MILLISECONDS);
+    }
   }
 
   /**
@@ -307,6 +320,16 @@ public class ClusterIoTDB implements ClusterIoTDBMBean {
               (config.getAllocateMemoryForWrite()
                   * (1 - clusterConfig.getRaftLogMemoryProportion())));
     }
+    // the raft logs can only take the place of the WAL when they are persisted
+    if (clusterConfig.isUseRaftLogAsWal()) {
+      if (clusterConfig.isEnableRaftLogPersistence()) {
+        config.setEnableWal(false);
+        logger.info("Raft logs are used as the write-ahead log, the WAL of the server is disabled");
+      } else {
+        logger.warn("use_raft_log_as_wal is ignored because raft log persistence is disabled");
+        clusterConfig.setUseRaftLogAsWal(false);
+      }
+    }
     return true;
   }
 
@@ -607,6 +630,7 @@ public class ClusterIoTDB implements ClusterIoTDBMBean {
   private void stopThreadPools() {
     stopThreadPool(reportThread, "reportThread");
     stopThreadPool(hardLinkCleanerThread, "hardLinkCleanerThread");
+    stopThreadPool(slotBalancerThread, "slotBalancerThread");
   }
 
   private void stopThreadPool(ExecutorService pool, String name) {
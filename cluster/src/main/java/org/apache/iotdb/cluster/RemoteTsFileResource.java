@@ -45,6 +45,14 @@ public class RemoteTsFileResource extends TsFileResource {
    */
   private boolean isPlanRangeUnique = false;
 
+  /**
+   * The length and the MD5 of the data file on the source node, by which a pulled file is verified.
+   * The length is -1 if they are unknown.
+   */
+  private long fileLength = -1;
+
+  private String fileDigest = "";
+
   public RemoteTsFileResource() {
     setClosed(true);
     this.timeIndex = IoTDBDescriptor.getInstance().getConfig().getTimeIndexLevel().getTimeIndex();
@@ -96,6 +104,9 @@ public class RemoteTsFileResource extends TsFileResource {
       dataOutputStream.writeLong(minPlanIndex);
 
       dataOutputStream.writeByte(isPlanRangeUnique ? 1 : 0);
+
+      dataOutputStream.writeLong(fileLength);
+      SerializeUtils.serialize(fileDigest, dataOutputStream);
     } catch (IOException ignored) {
       // unreachable
     }
@@ -120,6 +131,9 @@ public class RemoteTsFileResource extends TsFileResource {
 
     isPlanRangeUnique = buffer.get() == 1;
 
+    fileLength = buffer.getLong();
+    fileDigest = SerializeUtils.deserializeString(buffer);
+
     isRemote = true;
   }
 
@@ -146,4 +160,17 @@ public class RemoteTsFileResource extends TsFileResource {
   public void setPlanRangeUnique(boolean planRangeUnique) {
     isPlanRangeUnique = planRangeUnique;
   }
+
+  public long getFileLength() {
+    return fileLength;
+  }
+
+  public String getFileDigest() {
+    return fileDigest;
+  }
+
+  public void setFileLengthAndDigest(long fileLength, String fileDigest) {
+    this.fileLength = fileLength;
+    this.fileDigest = fileDigest;
+  }
 }
@@ -19,12 +19,19 @@
 
 package org.apache.iotdb.cluster.client;
 
+/**
+ * The categories of intra-cluster clients. Each category has its own pools of connections, so that
+ * the requests of one category never wait for the connections occupied by another one. Heartbeats
+ * use dedicated connections to the heartbeat ports, log replication uses the APPEND categories, and
+ * the other requests, e.g., queries, snapshots and forwarded plans, use the remaining ones.
+ */
 public enum ClientCategory {
   META("MetaClient"),
   META_HEARTBEAT("MetaHeartbeatClient"),
+  META_APPEND("MetaAppendClient"),
   DATA("DataClient"),
   DATA_HEARTBEAT("DataHeartbeatClient"),
-  DATA_ASYNC_APPEND_CLIENT("DataAsyncAppendClient");
+  DATA_APPEND("DataAppendClient");
 
   private final String name;
 
@@ -36,6 +36,10 @@ import java.util.Map;
  * underlying client pool is powered by Apache Commons Pool. The class provided 3 default pool group
  * according to current usage: RequestForwardClient, DataGroupClients, MetaGroupClients.
  *
+ * <p>The clients of a raft group are further divided into the lanes of heartbeats, log appending
+ * and the other requests (see {@link ClientCategory}), so that heartbeats and log replication are
+ * not delayed by bulk requests like snapshot pulling when the pool of the latter is exhausted.
+ *
  * <p>TODO: We can refine the client structure by reorg the interfaces defined in cluster-thrift.
  */
 public class ClientManager implements IClientManager {
@@ -86,6 +90,9 @@ public class ClientManager implements IClientManager {
         asyncClientPoolMap.put(
             ClientCategory.META_HEARTBEAT,
             clientPoolFactory.createAsyncMetaPool(ClientCategory.META_HEARTBEAT));
+        asyncClientPoolMap.put(
+            ClientCategory.META_APPEND,
+            clientPoolFactory.createAsyncMetaPool(ClientCategory.META_APPEND));
         break;
       case DataGroupClient:
         asyncClientPoolMap.put(
@@ -94,8 +101,8 @@ public class ClientManager implements IClientManager {
             ClientCategory.DATA_HEARTBEAT,
             clientPoolFactory.createAsyncDataPool(ClientCategory.DATA_HEARTBEAT));
         asyncClientPoolMap.put(
-            ClientCategory.DATA_ASYNC_APPEND_CLIENT,
-            clientPoolFactory.createSingleManagerAsyncDataPool());
+            ClientCategory.DATA_APPEND,
+            clientPoolFactory.createSingleManagerAsyncDataPool(ClientCategory.DATA_APPEND));
         break;
       default:
         logger.warn("unsupported ClientManager type: {}", type);
@@ -115,6 +122,9 @@ public class ClientManager implements IClientManager {
         syncClientPoolMap.put(
             ClientCategory.META_HEARTBEAT,
             clientPoolFactory.createSyncMetaPool(ClientCategory.META_HEARTBEAT));
+        syncClientPoolMap.put(
+            ClientCategory.META_APPEND,
+            clientPoolFactory.createSyncMetaPool(ClientCategory.META_APPEND));
         break;
       case DataGroupClient:
         syncClientPoolMap.put(
@@ -122,6 +132,9 @@ public class ClientManager implements IClientManager {
         syncClientPoolMap.put(
             ClientCategory.DATA_HEARTBEAT,
             clientPoolFactory.createSyncDataPool(ClientCategory.DATA_HEARTBEAT));
+        syncClientPoolMap.put(
+            ClientCategory.DATA_APPEND,
+            clientPoolFactory.createSyncDataPool(ClientCategory.DATA_APPEND));
         break;
       default:
         logger.warn("unsupported ClientManager type: {}", type);
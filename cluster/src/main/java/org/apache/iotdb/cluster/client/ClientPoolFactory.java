@@ -42,7 +42,8 @@ public class ClientPoolFactory {
   protected int maxConnectionForEachNode;
   protected int maxIdleConnectionForEachNode;
   private final TProtocolFactory protocolFactory;
-  private GenericKeyedObjectPoolConfig poolConfig;
+  private final GenericKeyedObjectPoolConfig poolConfig;
+  private final GenericKeyedObjectPoolConfig heartbeatPoolConfig;
   private IClientManager clientManager;
 
   public ClientPoolFactory() {
@@ -54,12 +55,27 @@ public class ClientPoolFactory {
         config.isRpcThriftCompressionEnabled()
             ? new TCompactProtocol.Factory()
             : new TBinaryProtocol.Factory();
-    poolConfig = new GenericKeyedObjectPoolConfig();
-    poolConfig.setMaxTotalPerKey(maxConnectionForEachNode);
-    poolConfig.setMaxIdlePerKey(maxIdleConnectionForEachNode);
-    poolConfig.setMaxWait(Duration.ofMillis(waitClientTimeoutMS));
-    poolConfig.setTestOnReturn(true);
-    poolConfig.setTestOnBorrow(true);
+    poolConfig = createPoolConfig(waitClientTimeoutMS);
+    // a heartbeat is superseded by the next one, so it should not wait for a client longer than
+    // the heartbeat interval, or the heartbeat thread will be blocked and delay the others
+    heartbeatPoolConfig =
+        createPoolConfig(Math.min(waitClientTimeoutMS, config.getHeartbeatIntervalMs()));
+  }
+
+  private GenericKeyedObjectPoolConfig createPoolConfig(long maxWaitMS) {
+    GenericKeyedObjectPoolConfig config = new GenericKeyedObjectPoolConfig();
+    config.setMaxTotalPerKey(maxConnectionForEachNode);
+    config.setMaxIdlePerKey(maxIdleConnectionForEachNode);
+    config.setMaxWait(Duration.ofMillis(maxWaitMS));
+    config.setTestOnReturn(true);
+    config.setTestOnBorrow(true);
+    return config;
+  }
+
+  private GenericKeyedObjectPoolConfig getPoolConfig(ClientCategory category) {
+    return category == ClientCategory.META_HEARTBEAT || category == ClientCategory.DATA_HEARTBEAT
+        ? heartbeatPoolConfig
+        : poolConfig;
   }
 
   public void setClientManager(IClientManager clientManager) {
@@ -70,32 +86,39 @@ public class ClientPoolFactory {
       ClientCategory category) {
     return new GenericKeyedObjectPool<>(
         new SyncDataClient.SyncDataClientFactory(protocolFactory, category, clientManager),
-        poolConfig);
+        getPoolConfig(category));
   }
 
   public GenericKeyedObjectPool<Node, RaftService.Client> createSyncMetaPool(
       ClientCategory category) {
     return new GenericKeyedObjectPool<>(
         new SyncMetaClient.SyncMetaClientFactory(protocolFactory, category, clientManager),
-        poolConfig);
+        getPoolConfig(category));
   }
 
   public GenericKeyedObjectPool<Node, RaftService.AsyncClient> createAsyncDataPool(
       ClientCategory category) {
     return new GenericKeyedObjectPool<>(
         new AsyncDataClient.AsyncDataClientFactory(protocolFactory, category, clientManager),
-        poolConfig);
+        getPoolConfig(category));
   }
 
   public GenericKeyedObjectPool<Node, RaftService.AsyncClient> createAsyncMetaPool(
       ClientCategory category) {
     return new GenericKeyedObjectPool<>(
         new AsyncMetaClient.AsyncMetaClientFactory(protocolFactory, category, clientManager),
-        poolConfig);
+        getPoolConfig(category));
   }
 
-  public GenericKeyedObjectPool<Node, RaftService.AsyncClient> createSingleManagerAsyncDataPool() {
+  /**
+   * All clients of the pool share one selector thread, which is enough for the small number of
+   * connections of a lane like log appending and keeps their callbacks away from the busy selectors
+   * of the other categories.
+   */
+  public GenericKeyedObjectPool<Node, RaftService.AsyncClient> createSingleManagerAsyncDataPool(
+      ClientCategory category) {
     return new GenericKeyedObjectPool<>(
-        new AsyncDataClient.SingleManagerFactory(protocolFactory, clientManager), poolConfig);
+        new AsyncDataClient.SingleManagerFactory(protocolFactory, category, clientManager),
+        getPoolConfig(category));
   }
 }
@@ -178,7 +178,11 @@ public class AsyncDataClient extends TSDataService.AsyncClient {
   public static class SingleManagerFactory extends BaseFactory<Node, AsyncDataClient> {
 
     public SingleManagerFactory(TProtocolFactory protocolFactory) {
-      super(protocolFactory, ClientCategory.DATA);
+      this(protocolFactory, ClientCategory.DATA);
+    }
+
+    public SingleManagerFactory(TProtocolFactory protocolFactory, ClientCategory category) {
+      super(protocolFactory, category);
       managers = new TAsyncClientManager[1];
       try {
         managers[0] = new TAsyncClientManager();
@@ -192,6 +196,12 @@ public class AsyncDataClient extends TSDataService.AsyncClient {
       this.clientPoolManager = clientManager;
     }
 
+    public SingleManagerFactory(
+        TProtocolFactory protocolFactory, ClientCategory category, IClientManager clientManager) {
+      this(protocolFactory, category);
+      this.clientPoolManager = clientManager;
+    }
+
     @Override
     public void activateObject(Node node, PooledObject<AsyncDataClient> pooledObject) {}
 
@@ -203,8 +213,7 @@ public class AsyncDataClient extends TSDataService.AsyncClient {
     @Override
     public PooledObject<AsyncDataClient> makeObject(Node node) throws Exception {
       return new DefaultPooledObject<>(
-          new AsyncDataClient(
-              protocolFactory, managers[0], node, ClientCategory.DATA, clientPoolManager));
+          new AsyncDataClient(protocolFactory, managers[0], node, category, clientPoolManager));
     }
 
     @Override
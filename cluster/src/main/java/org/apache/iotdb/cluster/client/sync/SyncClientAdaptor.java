@@ -30,6 +30,7 @@ import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
@@ -413,6 +414,24 @@ public class SyncClientAdaptor {
     return handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
   }
 
+  public static List<ByteBuffer> getGroupedAggrResult(
+      AsyncDataClient client, GroupedAggrRequest request) throws TException, InterruptedException {
+    AtomicReference<List<ByteBuffer>> result = new AtomicReference<>();
+    GenericHandler<List<ByteBuffer>> handler = new GenericHandler<>(client.getNode(), result);
+
+    client.getGroupedAggrResult(request, handler);
+    return handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
+  }
+
+  public static Long getGroupedGroupByExecutor(AsyncDataClient client, GroupedAggrRequest request)
+      throws TException, InterruptedException {
+    AtomicReference<Long> result = new AtomicReference<>();
+    GenericHandler<Long> handler = new GenericHandler<>(client.getNode(), result);
+
+    client.getGroupedGroupByExecutor(request, handler);
+    return handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
+  }
+
   public static ByteBuffer previousFill(AsyncDataClient client, PreviousFillRequest request)
       throws TException, InterruptedException {
     AtomicReference<ByteBuffer> resultRef = new AtomicReference<>();
@@ -20,6 +20,7 @@ package org.apache.iotdb.cluster.config;
 
 import org.apache.iotdb.cluster.utils.ClusterConsistent;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,6 +115,13 @@ public class ClusterConfig {
 
   private boolean enableRaftLogPersistence = true;
 
+  /**
+   * Whether to use the persisted raft logs as the write-ahead log of the storage engine. If
+   * enabled, the WAL of the storage engine is disabled and the raft logs that are not flushed into
+   * TsFiles are kept and replayed during recovery.
+   */
+  private boolean useRaftLogAsWal = false;
+
   private int flushRaftLogThreshold = 10000;
 
   /**
@@ -179,12 +187,97 @@ public class ClusterConfig {
    */
   private int maxNumberOfLogsPerFetchOnDisk = 1000;
 
+  /**
+   * The max number of batches a remote series reader fetches ahead of the consumption. The reader
+   * starts with one batch and enlarges the window each time the query has to wait for a batch. Set
+   * it to 0 to fetch a batch only when the previous one is consumed.
+   */
+  private int maxPrefetchBatchNumOfRemoteReader = 8;
+
+  /**
+   * The max number of points of a series returned by a batched fetch of a multi-series reader, and
+   * a series is fetched again only when it has fewer points cached than this number.
+   */
+  private int maxPointNumPerSeriesInMultFetch = 10000;
+
+  /** The remaining series are not fetched once the result of a batched fetch exceeds this size. */
+  private int maxMultFetchResultSizeInByte = 16 * 1024 * 1024;
+
   /**
    * When set to true, if the log queue of a follower fills up, LogDispatcher will wait for a while
    * until the queue becomes available, otherwise LogDispatcher will just ignore that slow node.
    */
   private boolean waitForSlowNode = true;
 
+  /**
+   * The max number of AppendEntries requests that a leader sends to a follower without waiting for
+   * their responses. Set it to 1 to send the next batch only after the previous one is answered.
+   */
+  private int maxInFlightAppendEntriesPerFollower = 4;
+
+  /**
+   * The compression of the logs in an AppendEntries request, the logs are sent uncompressed if the
+   * compressed ones are not smaller.
+   */
+  private CompressionType appendEntriesCompressionType = CompressionType.UNCOMPRESSED;
+
+  /**
+   * Whether a leader serves reads locally while a quorum has acknowledged its heartbeats within the
+   * lease, and followers reuse a read index obtained from the leader for a short window, instead of
+   * synchronizing with the leader for each read.
+   */
+  private boolean enableLeaseRead = false;
+
+  /**
+   * The lease of a leader in milliseconds, counted from the sending of the last heartbeats
+   * acknowledged by a quorum. It must be below the election timeout minus a margin for clock drift
+   * so that no new leader can be elected while the lease is valid.
+   */
+  private long leaderLeaseMs = 10 * 1000L;
+
+  /**
+   * The time window in milliseconds within which a follower reuses the read index it has obtained
+   * from the leader for the reads that follow.
+   */
+  private long readIndexReuseWindowMs = 10L;
+
+  /**
+   * Whether the meta leader periodically moves slots from the data groups with heavy ingestion,
+   * queries or disk usage to the light ones.
+   */
+  private boolean enableSlotLoadBalance = false;
+
+  /** The interval in milliseconds between two rounds of slot load balancing. */
+  private long slotLoadBalanceIntervalMs = 10 * 60 * 1000L;
+
+  /** The max number of slots moved in one round of slot load balancing. */
+  private int maxSlotMigrationsPerRound = 4;
+
+  /**
+   * The data groups are considered balanced if the load of the busiest group does not exceed the
+   * average by this ratio.
+   */
+  private double slotLoadImbalanceThreshold = 0.2;
+
+  /**
+   * The max number of data files that a data group member pulls concurrently when it catches up
+   * with snapshots or pulls the slots migrated to it.
+   */
+  private int concurrentSnapshotFilePullNum = 4;
+
+  /**
+   * The max throughput in MB/s of pulling snapshot files from one node, 0 means unlimited. It keeps
+   * a catching-up node from saturating the network of its peers.
+   */
+  private int snapshotPullThroughputMbPerSec = 0;
+
+  /**
+   * Whether the data groups merge the aggregation results of GROUP BY LEVEL queries by the target
+   * paths before returning them, so that the coordinator receives one partial result per target
+   * path from each group instead of one result per series.
+   */
+  private boolean enableGroupByLevelPushdown = true;
+
   /**
    * When consistency level is set to mid, query will fail if the log lag exceeds max_read_log_lag.
    */
@@ -385,6 +478,14 @@ public class ClusterConfig {
     this.enableRaftLogPersistence = enableRaftLogPersistence;
   }
 
+  public boolean isUseRaftLogAsWal() {
+    return useRaftLogAsWal;
+  }
+
+  public void setUseRaftLogAsWal(boolean useRaftLogAsWal) {
+    this.useRaftLogAsWal = useRaftLogAsWal;
+  }
+
   public boolean isUseAsyncApplier() {
     return useAsyncApplier;
   }
@@ -514,10 +615,130 @@ public class ClusterConfig {
     this.maxNumberOfLogsPerFetchOnDisk = maxNumberOfLogsPerFetchOnDisk;
   }
 
+  public int getMaxPrefetchBatchNumOfRemoteReader() {
+    return maxPrefetchBatchNumOfRemoteReader;
+  }
+
+  public void setMaxPrefetchBatchNumOfRemoteReader(int maxPrefetchBatchNumOfRemoteReader) {
+    this.maxPrefetchBatchNumOfRemoteReader = maxPrefetchBatchNumOfRemoteReader;
+  }
+
+  public int getMaxPointNumPerSeriesInMultFetch() {
+    return maxPointNumPerSeriesInMultFetch;
+  }
+
+  public void setMaxPointNumPerSeriesInMultFetch(int maxPointNumPerSeriesInMultFetch) {
+    this.maxPointNumPerSeriesInMultFetch = maxPointNumPerSeriesInMultFetch;
+  }
+
+  public int getMaxMultFetchResultSizeInByte() {
+    return maxMultFetchResultSizeInByte;
+  }
+
+  public void setMaxMultFetchResultSizeInByte(int maxMultFetchResultSizeInByte) {
+    this.maxMultFetchResultSizeInByte = maxMultFetchResultSizeInByte;
+  }
+
   public boolean isWaitForSlowNode() {
     return waitForSlowNode;
   }
 
+  public int getMaxInFlightAppendEntriesPerFollower() {
+    return maxInFlightAppendEntriesPerFollower;
+  }
+
+  public void setMaxInFlightAppendEntriesPerFollower(int maxInFlightAppendEntriesPerFollower) {
+    this.maxInFlightAppendEntriesPerFollower = maxInFlightAppendEntriesPerFollower;
+  }
+
+  public CompressionType getAppendEntriesCompressionType() {
+    return appendEntriesCompressionType;
+  }
+
+  public void setAppendEntriesCompressionType(CompressionType appendEntriesCompressionType) {
+    this.appendEntriesCompressionType = appendEntriesCompressionType;
+  }
+
+  public boolean isEnableLeaseRead() {
+    return enableLeaseRead;
+  }
+
+  public void setEnableLeaseRead(boolean enableLeaseRead) {
+    this.enableLeaseRead = enableLeaseRead;
+  }
+
+  public long getLeaderLeaseMs() {
+    return leaderLeaseMs;
+  }
+
+  public void setLeaderLeaseMs(long leaderLeaseMs) {
+    this.leaderLeaseMs = leaderLeaseMs;
+  }
+
+  public long getReadIndexReuseWindowMs() {
+    return readIndexReuseWindowMs;
+  }
+
+  public void setReadIndexReuseWindowMs(long readIndexReuseWindowMs) {
+    this.readIndexReuseWindowMs = readIndexReuseWindowMs;
+  }
+
+  public boolean isEnableSlotLoadBalance() {
+    return enableSlotLoadBalance;
+  }
+
+  public void setEnableSlotLoadBalance(boolean enableSlotLoadBalance) {
+    this.enableSlotLoadBalance = enableSlotLoadBalance;
+  }
+
+  public long getSlotLoadBalanceIntervalMs() {
+    return slotLoadBalanceIntervalMs;
+  }
+
+  public void setSlotLoadBalanceIntervalMs(long slotLoadBalanceIntervalMs) {
+    this.slotLoadBalanceIntervalMs = slotLoadBalanceIntervalMs;
+  }
+
+  public int getMaxSlotMigrationsPerRound() {
+    return maxSlotMigrationsPerRound;
+  }
+
+  public void setMaxSlotMigrationsPerRound(int maxSlotMigrationsPerRound) {
+    this.maxSlotMigrationsPerRound = maxSlotMigrationsPerRound;
+  }
+
+  public double getSlotLoadImbalanceThreshold() {
+    return slotLoadImbalanceThreshold;
+  }
+
+  public void setSlotLoadImbalanceThreshold(double slotLoadImbalanceThreshold) {
+    this.slotLoadImbalanceThreshold = slotLoadImbalanceThreshold;
+  }
+
+  public int getConcurrentSnapshotFilePullNum() {
+    return concurrentSnapshotFilePullNum;
+  }
+
+  public void setConcurrentSnapshotFilePullNum(int concurrentSnapshotFilePullNum) {
+    this.concurrentSnapshotFilePullNum = concurrentSnapshotFilePullNum;
+  }
+
+  public int getSnapshotPullThroughputMbPerSec() {
+    return snapshotPullThroughputMbPerSec;
+  }
+
+  public void setSnapshotPullThroughputMbPerSec(int snapshotPullThroughputMbPerSec) {
+    this.snapshotPullThroughputMbPerSec = snapshotPullThroughputMbPerSec;
+  }
+
+  public boolean isEnableGroupByLevelPushdown() {
+    return enableGroupByLevelPushdown;
+  }
+
+  public void setEnableGroupByLevelPushdown(boolean enableGroupByLevelPushdown) {
+    this.enableGroupByLevelPushdown = enableGroupByLevelPushdown;
+  }
+
   public long getMaxReadLogLag() {
     return maxReadLogLag;
   }
@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.exception.BadSeedUrlFormatException;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import com.google.common.net.InetAddresses;
 import org.slf4j.Logger;
@@ -42,6 +43,9 @@ import java.util.Properties;
 public class ClusterDescriptor {
 
   private static final Logger logger = LoggerFactory.getLogger(ClusterDescriptor.class);
+  // the proportion of election_timeout_ms reserved for the clock drift between the nodes, the
+  // leader lease must end before it
+  private static final double LEASE_CLOCK_DRIFT_RATIO = 0.1;
   private static final ClusterDescriptor INSTANCE = new ClusterDescriptor();
   private final ClusterConfig config = new ClusterConfig();
 
@@ -205,6 +209,85 @@ public class ClusterDescriptor {
             properties.getProperty(
                 "use_batch_in_catch_up", String.valueOf(config.isUseBatchInLogCatchUp()))));
 
+    config.setMaxInFlightAppendEntriesPerFollower(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_in_flight_append_entries_per_follower",
+                String.valueOf(config.getMaxInFlightAppendEntriesPerFollower()))));
+
+    config.setAppendEntriesCompressionType(
+        CompressionType.valueOf(
+            properties.getProperty(
+                "append_entries_compression_type",
+                config.getAppendEntriesCompressionType().name())));
+
+    config.setEnableLeaseRead(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_lease_read", String.valueOf(config.isEnableLeaseRead()))));
+
+    config.setLeaderLeaseMs(
+        Long.parseLong(
+            properties.getProperty("leader_lease_ms", String.valueOf(config.getLeaderLeaseMs()))));
+    long maxLeaderLeaseMs = (long) (config.getElectionTimeoutMs() * (1 - LEASE_CLOCK_DRIFT_RATIO));
+    if (config.isEnableLeaseRead() && config.getLeaderLeaseMs() >= maxLeaderLeaseMs) {
+      // a lease as long as the election timeout may outlive the leadership if the clocks drift
+      logger.error(
+          "leader_lease_ms {} must be below {} ({}% less than election_timeout_ms {}), lease read "
+              + "is disabled",
+          config.getLeaderLeaseMs(),
+          maxLeaderLeaseMs,
+          (int) (LEASE_CLOCK_DRIFT_RATIO * 100),
+          config.getElectionTimeoutMs());
+      config.setEnableLeaseRead(false);
+    }
+
+    config.setReadIndexReuseWindowMs(
+        Long.parseLong(
+            properties.getProperty(
+                "read_index_reuse_window_ms", String.valueOf(config.getReadIndexReuseWindowMs()))));
+
+    config.setEnableSlotLoadBalance(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_slot_load_balance", String.valueOf(config.isEnableSlotLoadBalance()))));
+
+    config.setSlotLoadBalanceIntervalMs(
+        Long.parseLong(
+            properties.getProperty(
+                "slot_load_balance_interval_ms",
+                String.valueOf(config.getSlotLoadBalanceIntervalMs()))));
+
+    config.setMaxSlotMigrationsPerRound(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_slot_migrations_per_round",
+                String.valueOf(config.getMaxSlotMigrationsPerRound()))));
+
+    config.setSlotLoadImbalanceThreshold(
+        Double.parseDouble(
+            properties.getProperty(
+                "slot_load_imbalance_threshold",
+                String.valueOf(config.getSlotLoadImbalanceThreshold()))));
+
+    config.setConcurrentSnapshotFilePullNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "concurrent_snapshot_file_pull_num",
+                String.valueOf(config.getConcurrentSnapshotFilePullNum()))));
+
+    config.setSnapshotPullThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "snapshot_pull_throughput_mb_per_sec",
+                String.valueOf(config.getSnapshotPullThroughputMbPerSec()))));
+
+    config.setEnableGroupByLevelPushdown(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_group_by_level_pushdown",
+                String.valueOf(config.isEnableGroupByLevelPushdown()))));
+
     config.setMinNumOfLogsInMem(
         Integer.parseInt(
             properties.getProperty(
@@ -253,6 +336,11 @@ public class ClusterDescriptor {
                 "is_enable_raft_log_persistence",
                 String.valueOf(config.isEnableRaftLogPersistence()))));
 
+    config.setUseRaftLogAsWal(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "use_raft_log_as_wal", String.valueOf(config.isUseRaftLogAsWal()))));
+
     config.setFlushRaftLogThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -305,6 +393,24 @@ public class ClusterDescriptor {
                 "max_number_of_logs_per_fetch_on_disk",
                 String.valueOf(config.getMaxNumberOfLogsPerFetchOnDisk()))));
 
+    config.setMaxPrefetchBatchNumOfRemoteReader(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_prefetch_batch_num_of_remote_reader",
+                String.valueOf(config.getMaxPrefetchBatchNumOfRemoteReader()))));
+
+    config.setMaxPointNumPerSeriesInMultFetch(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_point_num_per_series_in_mult_fetch",
+                String.valueOf(config.getMaxPointNumPerSeriesInMultFetch()))));
+
+    config.setMaxMultFetchResultSizeInByte(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_mult_fetch_result_size_in_byte",
+                String.valueOf(config.getMaxMultFetchResultSizeInByte()))));
+
     config.setEnableUsePersistLogOnDiskToCatchUp(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.cluster.log;
 
+import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.rpc.thrift.AppendEntriesRequest;
 import org.apache.iotdb.cluster.rpc.thrift.AppendEntryRequest;
@@ -30,16 +31,20 @@ import org.apache.iotdb.cluster.server.member.RaftMember;
 import org.apache.iotdb.cluster.server.monitor.Peer;
 import org.apache.iotdb.cluster.server.monitor.Timer;
 import org.apache.iotdb.cluster.utils.ClientUtils;
+import org.apache.iotdb.cluster.utils.LogCompressionUtils;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.ConnectException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,7 +52,9 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -58,6 +65,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * logs for too long. For example: if the leader send 3 logs, log1, log2, log3, concurrently to
  * follower A, the actual reach order may be log3, log2, and log1. According to the protocol, log3
  * and log2 must halt until log1 reaches, as a result, the total delay may increase significantly.
+ *
+ * <p>Batches of logs are pipelined: up to max_in_flight_append_entries_per_follower AppendEntries
+ * requests are sent to a follower before the responses of the previous ones arrive, so the
+ * replication of large logs is not bounded by the round trip time.
  */
 public class LogDispatcher {
 
@@ -65,9 +76,13 @@ public class LogDispatcher {
   private RaftMember member;
   private boolean useBatchInLogCatchUp =
       ClusterDescriptor.getInstance().getConfig().isUseBatchInLogCatchUp();
+  private CompressionType compressionType =
+      ClusterDescriptor.getInstance().getConfig().getAppendEntriesCompressionType();
   // each follower has a queue and a dispatch thread is attached in executorService.
   private List<BlockingQueue<SendLogRequest>> nodeLogQueues = new ArrayList<>();
   private ExecutorService executorService;
+  // sends the AppendEntries requests concurrently when the sync server is used
+  private ExecutorService senderService;
 
   // TODO we have no way to close this pool.
   private static final ExecutorService serializationService =
@@ -78,6 +93,8 @@ public class LogDispatcher {
     this.member = member;
     executorService =
         IoTDBThreadPoolFactory.newCachedThreadPool("LogDispatcher-" + member.getName());
+    senderService =
+        IoTDBThreadPoolFactory.newCachedThreadPool("LogDispatcherSender-" + member.getName());
     for (Node node : member.getAllNodes()) {
       if (!node.equals(member.getThisNode())) {
         nodeLogQueues.add(createQueueAndBindingThread(node));
@@ -88,7 +105,9 @@ public class LogDispatcher {
   @TestOnly
   public void close() throws InterruptedException {
     executorService.shutdownNow();
+    senderService.shutdownNow();
     executorService.awaitTermination(10, TimeUnit.SECONDS);
+    senderService.awaitTermination(10, TimeUnit.SECONDS);
   }
 
   public void offer(SendLogRequest log) {
@@ -227,6 +246,14 @@ public class LogDispatcher {
     private BlockingQueue<SendLogRequest> logBlockingDeque;
     private List<SendLogRequest> currBatch = new ArrayList<>();
     private Peer peer;
+    // limits the number of AppendEntries requests that have not been answered by the receiver
+    private Semaphore inFlightWindow =
+        new Semaphore(
+            Math.max(
+                1,
+                ClusterDescriptor.getInstance()
+                    .getConfig()
+                    .getMaxInFlightAppendEntriesPerFollower()));
 
     DispatcherThread(Node receiver, BlockingQueue<SendLogRequest> logBlockingDeque) {
       this.receiver = receiver;
@@ -262,41 +289,78 @@ public class LogDispatcher {
       logger.info("Dispatcher exits");
     }
 
+    /**
+     * Wait until the number of AppendEntries requests that have not been answered is below the
+     * window. With the sync server, also wait until the receiver does not fall too far behind, as
+     * the requests are sent from the sender pool and cannot block the dispatcher themselves.
+     *
+     * @return false if the receiver does not respond within the timeout
+     */
+    private boolean acquireWindow(List<SendLogRequest> currBatch) throws InterruptedException {
+      if (!ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+        long startTime = Timer.Statistic.RAFT_SENDER_WAIT_FOR_PREV_LOG.getOperationStartTime();
+        if (!member.waitForPrevLog(peer, currBatch.get(0).getLog())) {
+          logger.warn(
+              "{}: node {} timed out when appending {}",
+              member.getName(),
+              receiver,
+              currBatch.get(0).getLog());
+          return false;
+        }
+        Timer.Statistic.RAFT_SENDER_WAIT_FOR_PREV_LOG.calOperationCostTimeFromStart(startTime);
+      }
+      if (inFlightWindow.tryAcquire(
+          ClusterConstant.getWriteOperationTimeoutMS(), TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+      logger.warn(
+          "{}: node {} timed out when appending {} logs from {}",
+          member.getName(),
+          receiver,
+          currBatch.size(),
+          currBatch.get(0).getLog());
+      return false;
+    }
+
+    /**
+     * Report the logs that will not be sent to the receiver as failed, so that their senders do not
+     * wait for the receiver until their own timeouts.
+     */
+    private void failLogs(List<SendLogRequest> logs, Exception cause) {
+      new AppendEntriesHandler(logs, null).onError(cause);
+    }
+
     private void appendEntriesAsync(
         List<ByteBuffer> logList, AppendEntriesRequest request, List<SendLogRequest> currBatch)
         throws TException {
-      AsyncMethodCallback<Long> handler = new AppendEntriesHandler(currBatch);
+      AsyncMethodCallback<Long> handler = new AppendEntriesHandler(currBatch, inFlightWindow);
       AsyncClient client = member.getSendLogAsyncClient(receiver);
       if (logger.isDebugEnabled()) {
         logger.debug(
             "{}: append entries {} with {} logs", member.getName(), receiver, logList.size());
       }
-      if (client != null) {
+      if (client == null) {
+        inFlightWindow.release();
+        return;
+      }
+      try {
         client.appendEntries(request, handler);
+      } catch (TException e) {
+        inFlightWindow.release();
+        throw e;
       }
     }
 
     private void appendEntriesSync(
         List<ByteBuffer> logList, AppendEntriesRequest request, List<SendLogRequest> currBatch) {
-
-      long startTime = Timer.Statistic.RAFT_SENDER_WAIT_FOR_PREV_LOG.getOperationStartTime();
-      if (!member.waitForPrevLog(peer, currBatch.get(0).getLog())) {
-        logger.warn(
-            "{}: node {} timed out when appending {}",
-            member.getName(),
-            receiver,
-            currBatch.get(0).getLog());
-        return;
-      }
-      Timer.Statistic.RAFT_SENDER_WAIT_FOR_PREV_LOG.calOperationCostTimeFromStart(startTime);
-
-      Client client = member.getSyncClient(receiver);
+      AsyncMethodCallback<Long> handler = new AppendEntriesHandler(currBatch, null);
+      Client client = member.getSendLogSyncClient(receiver);
       if (client == null) {
         logger.error("No available client for {}", receiver);
+        handler.onError(new ConnectException("No available client for " + receiver));
         return;
       }
-      AsyncMethodCallback<Long> handler = new AppendEntriesHandler(currBatch);
-      startTime = Timer.Statistic.RAFT_SENDER_SEND_LOG.getOperationStartTime();
+      long startTime = Timer.Statistic.RAFT_SENDER_SEND_LOG.getOperationStartTime();
       try {
         long result = client.appendEntries(request);
         Timer.Statistic.RAFT_SENDER_SEND_LOG.calOperationCostTimeFromStart(startTime);
@@ -333,6 +397,15 @@ public class LogDispatcher {
       }
 
       request.setEntries(logList);
+      try {
+        LogCompressionUtils.compress(request, compressionType);
+      } catch (IOException e) {
+        logger.warn(
+            "{}: cannot compress {} logs, send them uncompressed",
+            member.getName(),
+            logList.size(),
+            e);
+      }
       // set index for raft
       request.setPrevLogIndex(currBatch.get(firstIndex).getLog().getCurrLogIndex() - 1);
       try {
@@ -343,7 +416,7 @@ public class LogDispatcher {
       return request;
     }
 
-    private void sendLogs(List<SendLogRequest> currBatch) throws TException {
+    private void sendLogs(List<SendLogRequest> currBatch) throws TException, InterruptedException {
       int logIndex = 0;
       logger.debug(
           "send logs from index {} to {}",
@@ -365,11 +438,29 @@ public class LogDispatcher {
           logList.add(currBatch.get(logIndex).getAppendEntryRequest().entry);
         }
 
+        // the batch is cleared once it is sent, so the requests in flight keep a copy
+        List<SendLogRequest> subBatch = new ArrayList<>(currBatch.subList(prevIndex, logIndex));
+        if (!acquireWindow(subBatch)) {
+          // the following logs cannot be accepted by the receiver without this sub-batch, it
+          // will be brought up to date by the catch-up of the next heartbeat
+          failLogs(
+              currBatch.subList(prevIndex, currBatch.size()),
+              new TimeoutException(
+                  "Timed out when appending " + subBatch.size() + " logs to " + receiver));
+          return;
+        }
         AppendEntriesRequest appendEntriesRequest = prepareRequest(logList, currBatch, prevIndex);
         if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-          appendEntriesAsync(logList, appendEntriesRequest, currBatch.subList(prevIndex, logIndex));
+          appendEntriesAsync(logList, appendEntriesRequest, subBatch);
         } else {
-          appendEntriesSync(logList, appendEntriesRequest, currBatch.subList(prevIndex, logIndex));
+          senderService.submit(
+              () -> {
+                try {
+                  appendEntriesSync(logList, appendEntriesRequest, subBatch);
+                } finally {
+                  inFlightWindow.release();
+                }
+              });
         }
         for (; prevIndex < logIndex; prevIndex++) {
           Timer.Statistic.LOG_DISPATCHER_FROM_CREATE_TO_END.calOperationCostTimeFromStart(
@@ -378,7 +469,8 @@ public class LogDispatcher {
       }
     }
 
-    private void sendBatchLogs(List<SendLogRequest> currBatch) throws TException {
+    private void sendBatchLogs(List<SendLogRequest> currBatch)
+        throws TException, InterruptedException {
       if (currBatch.size() > 1) {
         if (useBatchInLogCatchUp) {
           sendLogs(currBatch);
@@ -409,8 +501,11 @@ public class LogDispatcher {
     class AppendEntriesHandler implements AsyncMethodCallback<Long> {
 
       private final List<AsyncMethodCallback<Long>> singleEntryHandlers;
+      // the window to be released when the response arrives, null if it is released by the sender
+      private final Semaphore window;
 
-      private AppendEntriesHandler(List<SendLogRequest> batch) {
+      private AppendEntriesHandler(List<SendLogRequest> batch, Semaphore window) {
+        this.window = window;
         singleEntryHandlers = new ArrayList<>(batch.size());
         for (SendLogRequest sendLogRequest : batch) {
           AppendNodeEntryHandler handler =
@@ -427,6 +522,7 @@ public class LogDispatcher {
 
       @Override
       public void onComplete(Long aLong) {
+        releaseWindow();
         for (AsyncMethodCallback<Long> singleEntryHandler : singleEntryHandlers) {
           singleEntryHandler.onComplete(aLong);
         }
@@ -434,11 +530,18 @@ public class LogDispatcher {
 
       @Override
       public void onError(Exception e) {
+        releaseWindow();
         for (AsyncMethodCallback<Long> singleEntryHandler : singleEntryHandlers) {
           singleEntryHandler.onError(e);
         }
       }
 
+      private void releaseWindow() {
+        if (window != null) {
+          window.release();
+        }
+      }
+
       private AppendNodeEntryHandler getAppendNodeEntryHandler(
           Log log,
           AtomicInteger voteCounter,
@@ -27,6 +27,7 @@ import org.apache.iotdb.cluster.log.logtypes.EmptyContentLog;
 import org.apache.iotdb.cluster.log.logtypes.LargeTestLog;
 import org.apache.iotdb.cluster.log.logtypes.PhysicalPlanLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -101,6 +102,11 @@ public class LogParser {
         largeLog.deserialize(buffer);
         log = largeLog;
         break;
+      case SLOT_MIGRATION:
+        SlotMigrationLog slotMigrationLog = new SlotMigrationLog();
+        slotMigrationLog.deserialize(buffer);
+        log = slotMigrationLog;
+        break;
       default:
         throw new IllegalArgumentException(type.toString());
     }
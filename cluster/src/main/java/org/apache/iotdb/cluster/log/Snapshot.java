@@ -67,4 +67,11 @@ public abstract class Snapshot {
    * @param minIndex
    */
   public void truncateBefore(long minIndex) {}
+
+  /**
+   * Record the digests by which the receiver verifies the files in the snapshot before it is
+   * serialized. As the files may be read in full, this should not be called while holding a lock
+   * that blocks the logs from being committed.
+   */
+  public void computeFileDigests() {}
 }
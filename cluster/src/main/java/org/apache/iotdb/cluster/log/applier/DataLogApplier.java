@@ -26,6 +26,7 @@ import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.CloseFileLog;
 import org.apache.iotdb.cluster.log.logtypes.PhysicalPlanLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.cluster.utils.IOUtils;
@@ -79,6 +80,12 @@ public class DataLogApplier extends BaseApplier {
             .preRemoveNodeForDataGroup((RemoveNodeLog) log, dataGroupMember);
         dataGroupMember.setAndSaveLastAppliedPartitionTableVersion(
             ((RemoveNodeLog) log).getMetaLogIndex());
+      } else if (log instanceof SlotMigrationLog) {
+        ClusterIoTDB.getInstance()
+            .getDataGroupEngine()
+            .preSlotMigrationForDataGroup((SlotMigrationLog) log, dataGroupMember);
+        dataGroupMember.setAndSaveLastAppliedPartitionTableVersion(
+            ((SlotMigrationLog) log).getMetaLogIndex());
       } else if (log instanceof PhysicalPlanLog) {
         PhysicalPlanLog physicalPlanLog = (PhysicalPlanLog) log;
         PhysicalPlan plan = physicalPlanLog.getPlan();
@@ -120,7 +127,9 @@ public class DataLogApplier extends BaseApplier {
       applyInsert((InsertPlan) plan);
     } else {
       applyPhysicalPlan(plan, dataGroupMember);
+      return;
     }
+    dataGroupMember.getSlotLoadRecorder().recordInsertion((InsertPlan) plan);
   }
 
   private void applyInsert(InsertMultiTabletPlan plan)
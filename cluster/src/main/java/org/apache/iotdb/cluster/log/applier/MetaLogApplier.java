@@ -25,6 +25,7 @@ import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.EmptyContentLog;
 import org.apache.iotdb.cluster.log.logtypes.PhysicalPlanLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.server.NodeCharacter;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 
@@ -52,6 +53,8 @@ public class MetaLogApplier extends BaseApplier {
         applyPhysicalPlan(((PhysicalPlanLog) log).getPlan(), null);
       } else if (log instanceof RemoveNodeLog) {
         applyRemoveNodeLog((RemoveNodeLog) log);
+      } else if (log instanceof SlotMigrationLog) {
+        applySlotMigrationLog((SlotMigrationLog) log);
       } else if (log instanceof EmptyContentLog) {
         // Do nothing
       } else {
@@ -87,4 +90,17 @@ public class MetaLogApplier extends BaseApplier {
     }
     member.applyRemoveNode(log);
   }
+
+  private void applySlotMigrationLog(SlotMigrationLog log) throws ChangeMembershipException {
+    if (!metaGroupMember.getPartitionTable().deserialize(log.getPartitionTable())) {
+      // ignore previous slot migration log
+      return;
+    }
+    if (metaGroupMember.getCharacter() == NodeCharacter.LEADER) {
+      // the slots are cut over at the index of this log in each data group, so the writes before
+      // it are in the snapshots pulled by the new holders
+      metaGroupMember.getCoordinator().sendLogToAllDataGroups(log);
+    }
+    member.applySlotMigration(log);
+  }
 }
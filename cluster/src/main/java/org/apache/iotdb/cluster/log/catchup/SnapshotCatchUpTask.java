@@ -65,6 +65,7 @@ public class SnapshotCatchUpTask extends LogCatchUpTask implements Callable<Bool
       request.setHeader(raftMember.getHeader());
     }
     logger.info("Start to send snapshot to {}", node);
+    snapshot.computeFileDigests();
     ByteBuffer data = snapshot.serialize();
     if (logger.isInfoEnabled()) {
       logger.info("Do snapshot catch up with size {}", data.array().length);
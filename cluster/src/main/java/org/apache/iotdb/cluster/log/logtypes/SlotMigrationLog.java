@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.log.logtypes;
+
+import org.apache.iotdb.cluster.log.Log;
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
+import org.apache.iotdb.cluster.utils.NodeSerializeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * SlotMigrationLog records the movement of slots between the existing data groups to balance their
+ * loads. It carries the new partition table and the previous holder of each moved slot.
+ */
+public class SlotMigrationLog extends Log {
+
+  private ByteBuffer partitionTable;
+
+  /** slot -> the header of the group that held the slot before the migration */
+  private Map<Integer, RaftNode> previousHolders;
+
+  private long metaLogIndex;
+
+  public SlotMigrationLog(ByteBuffer partitionTable, Map<Integer, RaftNode> previousHolders) {
+    this.partitionTable = partitionTable;
+    this.previousHolders = previousHolders;
+  }
+
+  public SlotMigrationLog() {}
+
+  public long getMetaLogIndex() {
+    return metaLogIndex;
+  }
+
+  public void setMetaLogIndex(long metaLogIndex) {
+    this.metaLogIndex = metaLogIndex;
+  }
+
+  public ByteBuffer getPartitionTable() {
+    partitionTable.rewind();
+    return partitionTable;
+  }
+
+  public void setPartitionTable(ByteBuffer partitionTable) {
+    this.partitionTable = partitionTable;
+  }
+
+  public Map<Integer, RaftNode> getPreviousHolders() {
+    return previousHolders;
+  }
+
+  public void setPreviousHolders(Map<Integer, RaftNode> previousHolders) {
+    this.previousHolders = previousHolders;
+  }
+
+  @Override
+  public ByteBuffer serialize() {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+      dataOutputStream.writeByte(Types.SLOT_MIGRATION.ordinal());
+      dataOutputStream.writeLong(getCurrLogIndex());
+      dataOutputStream.writeLong(getCurrLogTerm());
+      dataOutputStream.writeLong(getMetaLogIndex());
+
+      dataOutputStream.writeInt(previousHolders.size());
+      for (Entry<Integer, RaftNode> entry : previousHolders.entrySet()) {
+        dataOutputStream.writeInt(entry.getKey());
+        NodeSerializeUtils.serialize(entry.getValue().getNode(), dataOutputStream);
+        dataOutputStream.writeInt(entry.getValue().getRaftId());
+      }
+
+      dataOutputStream.writeInt(partitionTable.array().length);
+      dataOutputStream.write(partitionTable.array());
+    } catch (IOException e) {
+      // ignored
+    }
+    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+  }
+
+  @Override
+  public void deserialize(ByteBuffer buffer) {
+    setCurrLogIndex(buffer.getLong());
+    setCurrLogTerm(buffer.getLong());
+    setMetaLogIndex(buffer.getLong());
+
+    int size = buffer.getInt();
+    previousHolders = new HashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      int slot = buffer.getInt();
+      Node node = new Node();
+      NodeSerializeUtils.deserialize(node, buffer);
+      previousHolders.put(slot, new RaftNode(node, buffer.getInt()));
+    }
+
+    int len = buffer.getInt();
+    byte[] data = new byte[len];
+    System.arraycopy(buffer.array(), buffer.position(), data, 0, len);
+    partitionTable = ByteBuffer.wrap(data);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    SlotMigrationLog that = (SlotMigrationLog) o;
+    return Objects.equals(previousHolders, that.previousHolders)
+        && Objects.equals(partitionTable, that.partitionTable);
+  }
+
+  @Override
+  public String toString() {
+    return "SlotMigrationLog{" + "slots=" + previousHolders.keySet() + '}';
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), previousHolders, partitionTable);
+  }
+}
@@ -20,19 +20,23 @@
 package org.apache.iotdb.cluster.log.manage;
 
 import org.apache.iotdb.cluster.config.ClusterConstant;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.EntryCompactedException;
 import org.apache.iotdb.cluster.log.Log;
 import org.apache.iotdb.cluster.log.LogApplier;
 import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.log.snapshot.FileSnapshot;
 import org.apache.iotdb.cluster.log.snapshot.FileSnapshot.Factory;
 import org.apache.iotdb.cluster.partition.PartitionTable;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
+import org.apache.iotdb.cluster.partition.slot.SlotTimePartitionFilter;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor.TimePartitionFilter;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.TimeseriesSchema;
@@ -61,6 +65,16 @@ public class FilePartitionedSnapshotLogManager extends PartitionedSnapshotLogMan
   private static final Logger logger =
       LoggerFactory.getLogger(FilePartitionedSnapshotLogManager.class);
 
+  /** the interval of recalculating the recovery index when raft logs are used as the WAL */
+  private static final long RECOVERY_INDEX_REFRESH_INTERVAL_MS = 1000;
+
+  private final boolean useRaftLogAsWal =
+      ClusterDescriptor.getInstance().getConfig().isUseRaftLogAsWal();
+
+  private volatile long recoveryIndex = -1;
+
+  private volatile long lastRecoveryIndexRefreshTime = 0;
+
   public FilePartitionedSnapshotLogManager(
       LogApplier logApplier,
       PartitionTable partitionTable,
@@ -70,6 +84,54 @@ public class FilePartitionedSnapshotLogManager extends PartitionedSnapshotLogMan
     super(logApplier, partitionTable, header, thisNode, Factory.INSTANCE, dataGroupMember);
   }
 
+  /**
+   * When raft logs are used as the WAL, the logs whose data are still in memtables must be
+   * reapplied after a restart, so the recovery index is the min of maxHaveAppliedCommitIndex and
+   * the index before the first unflushed plan of the slots held by this group. The index is
+   * recalculated periodically, a stale value only causes more logs to be reapplied, which is safe
+   * as the log operation is idempotent.
+   */
+  @Override
+  protected long getRecoveryIndex() {
+    if (!useRaftLogAsWal) {
+      return super.getRecoveryIndex();
+    }
+    long currentTime = System.currentTimeMillis();
+    if (recoveryIndex < 0
+        || currentTime - lastRecoveryIndexRefreshTime >= RECOVERY_INDEX_REFRESH_INTERVAL_MS) {
+      // the applied index must be read before the unflushed plans are scanned, otherwise a plan
+      // applied and flushed in between may be missed
+      long appliedIndex = super.getRecoveryIndex();
+      long minUnflushedIndex = getMinUnflushedPlanIndex();
+      recoveryIndex =
+          minUnflushedIndex == Long.MAX_VALUE
+              ? appliedIndex
+              : Math.min(appliedIndex, minUnflushedIndex - 1);
+      lastRecoveryIndexRefreshTime = currentTime;
+    }
+    return recoveryIndex;
+  }
+
+  private long getMinUnflushedPlanIndex() {
+    TimePartitionFilter filter = null;
+    if (partitionTable instanceof SlotPartitionTable) {
+      filter =
+          new SlotTimePartitionFilter(
+              new HashSet<>(
+                  ((SlotPartitionTable) partitionTable).getNodeSlots(dataGroupMember.getHeader())));
+    }
+    long minPlanIndex = Long.MAX_VALUE;
+    for (Entry<String, Map<Long, Long>> sgEntry :
+        StorageEngine.getInstance().getMinUnflushedPlanIndexes().entrySet()) {
+      for (Entry<Long, Long> partitionEntry : sgEntry.getValue().entrySet()) {
+        if (filter == null || filter.satisfy(sgEntry.getKey(), partitionEntry.getKey())) {
+          minPlanIndex = Math.min(minPlanIndex, partitionEntry.getValue());
+        }
+      }
+    }
+    return minPlanIndex;
+  }
+
   /** send FlushPlan to all nodes in one dataGroup */
   private void syncFlushAllProcessor(List<Integer> requiredSlots, boolean needLeader) {
     logger.info("{}: Start flush all storage group processor in one data group", getName());
@@ -250,8 +312,11 @@ public class FilePartitionedSnapshotLogManager extends PartitionedSnapshotLogMan
   @Override
   public long append(Log entry) {
     long res = super.append(entry);
-    // For data group, it's necessary to apply remove/add log immediately after append
-    if (entry instanceof AddNodeLog || entry instanceof RemoveNodeLog) {
+    // For data group, it's necessary to apply remove/add/slot migration log immediately after
+    // append
+    if (entry instanceof AddNodeLog
+        || entry instanceof RemoveNodeLog
+        || entry instanceof SlotMigrationLog) {
       applyEntry(entry);
     }
     return res;
@@ -626,7 +626,7 @@ public abstract class RaftLogManager {
 
       if (ClusterDescriptor.getInstance().getConfig().isEnableRaftLogPersistence()) {
         // Cluster could continue provide service when exception is thrown here
-        getStableEntryManager().append(entries, maxHaveAppliedCommitIndex);
+        getStableEntryManager().append(entries, getRecoveryIndex());
       }
     } catch (TruncateCommittedEntryException e) {
       // fatal error, node won't recover from the error anymore
@@ -856,6 +856,16 @@ public abstract class RaftLogManager {
     return maxHaveAppliedCommitIndex;
   }
 
+  /**
+   * Get the index persisted with the logs, from which the logs will be reapplied when the node
+   * restarts.
+   *
+   * @return the index persisted as maxHaveAppliedCommitIndex in the meta of the stable logs
+   */
+  protected long getRecoveryIndex() {
+    return maxHaveAppliedCommitIndex;
+  }
+
   /** check whether delete the committed log */
   void checkDeleteLog() {
     try {
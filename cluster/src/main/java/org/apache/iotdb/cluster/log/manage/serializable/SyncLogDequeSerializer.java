@@ -127,6 +127,12 @@ public class SyncLogDequeSerializer implements StableEntryManager {
   private int maxPersistRaftLogNumberOnDisk =
       ClusterDescriptor.getInstance().getConfig().getMaxPersistRaftLogNumberOnDisk();
 
+  /**
+   * when raft logs are used as the write-ahead log of the storage engine, the logs that have not
+   * been flushed into TsFiles must be kept for recovery
+   */
+  private boolean useRaftLogAsWal = ClusterDescriptor.getInstance().getConfig().isUseRaftLogAsWal();
+
   private ScheduledExecutorService persistLogDeleteExecutorService;
   private ScheduledFuture<?> persistLogDeleteLogFuture;
 
@@ -959,7 +965,8 @@ public class SyncLogDequeSerializer implements StableEntryManager {
     // 2. check the persist log file number
     lock.lock();
     try {
-      while (logDataFileList.size() > maxNumberOfPersistRaftLogFiles) {
+      while (logDataFileList.size() > maxNumberOfPersistRaftLogFiles
+          && !isRequiredForRecovery(logDataFileList.get(0))) {
         deleteTheFirstLogDataAndIndexFile();
       }
     } finally {
@@ -972,7 +979,8 @@ public class SyncLogDequeSerializer implements StableEntryManager {
       while (logDataFileList.size() > 1) {
         File firstFile = logDataFileList.get(0);
         String[] splits = firstFile.getName().split(FILE_NAME_SEPARATOR);
-        if (meta.getCommitLogIndex() - Long.parseLong(splits[1]) > maxPersistRaftLogNumberOnDisk) {
+        if (meta.getCommitLogIndex() - Long.parseLong(splits[1]) > maxPersistRaftLogNumberOnDisk
+            && !isRequiredForRecovery(firstFile)) {
           deleteTheFirstLogDataAndIndexFile();
         } else {
           return;
@@ -983,6 +991,23 @@ public class SyncLogDequeSerializer implements StableEntryManager {
     }
   }
 
+  /**
+   * When raft logs are used as the write-ahead log, the logs after maxHaveAppliedCommitIndex in the
+   * meta are replayed during recovery, so a log file containing any of them cannot be deleted.
+   */
+  private boolean isRequiredForRecovery(File logDataFile) {
+    if (!useRaftLogAsWal) {
+      return false;
+    }
+    String[] splits = logDataFile.getName().split(FILE_NAME_SEPARATOR);
+    return Long.parseLong(splits[1]) >= meta.getMaxHaveAppliedCommitIndex();
+  }
+
+  @TestOnly
+  void setUseRaftLogAsWal(boolean useRaftLogAsWal) {
+    this.useRaftLogAsWal = useRaftLogAsWal;
+  }
+
   private void forceDeleteAllLogDataFiles() {
     FileFilter logFilter =
         pathname -> {
@@ -46,6 +46,7 @@ import org.apache.iotdb.tsfile.utils.FilePathUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.TimeseriesSchema;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,17 +55,30 @@ import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * FileSnapshot records the data files in a slot and their md5 (or other verification). When the
@@ -149,6 +163,53 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     return dataFiles;
   }
 
+  /**
+   * Record the length and the MD5 of each data file, by which the puller verifies the file. The MD5
+   * is cached on the source resource, so it is computed once for each data file however many times
+   * the file is sent.
+   */
+  @Override
+  public void computeFileDigests() {
+    for (RemoteTsFileResource dataFile : dataFiles) {
+      if (dataFile.getFileLength() >= 0) {
+        continue;
+      }
+      File file = dataFile.getTsFile();
+      AtomicReference<String> cachedDigest = dataFile.getDataFileDigest();
+      try {
+        String digest;
+        // concurrent pullings of the same file wait for one computation instead of repeating it
+        synchronized (cachedDigest) {
+          digest = cachedDigest.get();
+          if (digest == null) {
+            digest = getFileDigest(file);
+            cachedDigest.set(digest);
+          }
+        }
+        dataFile.setFileLengthAndDigest(file.length(), digest);
+      } catch (IOException e) {
+        logger.warn("Cannot get the digest of {}, the pulled file will not be verified", file, e);
+      }
+    }
+  }
+
+  static String getFileDigest(File file) throws IOException {
+    MessageDigest md;
+    try {
+      md = MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+    byte[] buffer = new byte[64 * 1024];
+    try (FileInputStream fis = new FileInputStream(file)) {
+      int dataLength;
+      while ((dataLength = fis.read(buffer)) != -1) {
+        md.update(buffer, 0, dataLength);
+      }
+    }
+    return new BigInteger(1, md.digest()).toString(16);
+  }
+
   @Override
   public Collection<TimeseriesSchema> getTimeseriesSchemas() {
     return timeseriesSchemas;
@@ -182,13 +243,22 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         IoTDBDescriptor.getInstance().getConfig().getSystemDir() + File.separator + "remote";
 
     private static final Logger logger = LoggerFactory.getLogger(Installer.class);
+
+    /** the suffix of the file recording which source file a temporary file is pulled from */
+    private static final String PULLING_MARKER_SUFFIX = ".pulling";
+
+    /** limit the bandwidth used to pull files from each node, shared by all local members */
+    private static final Map<Node, RateLimiter> PULL_RATE_LIMITERS = new ConcurrentHashMap<>();
+
     private DataGroupMember dataGroupMember;
     private SlotManager slotManager;
+    private SnapshotPullProgress progress;
     private String name;
 
     Installer(DataGroupMember dataGroupMember) {
       this.dataGroupMember = dataGroupMember;
       this.slotManager = dataGroupMember.getSlotManager();
+      this.progress = dataGroupMember.getSnapshotPullProgress();
       this.name = dataGroupMember.getName();
     }
 
@@ -207,7 +277,7 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
             logger.debug("{}: slot {} is now pulling writable", name, slot);
           }
         }
-        installFileSnapshotFiles(snapshot, slot, isDataMigration);
+        installFileSnapshotFiles(Collections.singletonMap(slot, snapshot), isDataMigration);
       } catch (PullFileException e) {
         throw new SnapshotInstallationException(e);
       }
@@ -247,14 +317,10 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         slotManager.save();
       }
 
-      for (Entry<Integer, FileSnapshot> integerSnapshotEntry : snapshotMap.entrySet()) {
-        Integer slot = integerSnapshotEntry.getKey();
-        FileSnapshot snapshot = integerSnapshotEntry.getValue();
-        try {
-          installFileSnapshotFiles(snapshot, slot, isDataMigration);
-        } catch (PullFileException e) {
-          throw new SnapshotInstallationException(e);
-        }
+      try {
+        installFileSnapshotFiles(snapshotMap, isDataMigration);
+      } catch (PullFileException e) {
+        throw new SnapshotInstallationException(e);
       }
       slotManager.save();
     }
@@ -267,40 +333,88 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       }
     }
 
-    private void installFileSnapshotFiles(FileSnapshot snapshot, int slot, boolean isDataMigration)
-        throws PullFileException {
-      List<RemoteTsFileResource> remoteTsFileResources = snapshot.getDataFiles();
-      // pull file
-      for (int i = 0, remoteTsFileResourcesSize = remoteTsFileResources.size();
-          i < remoteTsFileResourcesSize;
-          i++) {
-        RemoteTsFileResource resource = remoteTsFileResources.get(i);
-        logger.info(
-            "Pulling {}/{} files, current: {}", i + 1, remoteTsFileResources.size(), resource);
-        try {
-          if (isDataMigration) {
-            // This means that the minimum plan index and maximum plan index of some files are the
-            // same,
-            // so the logic of judging index coincidence needs to remove the case of equal
-            resource.setMinPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
-            resource.setMaxPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
-            loadRemoteFile(resource);
-          } else {
-            if (!isFileAlreadyPulled(resource)) {
-              loadRemoteFile(resource);
-            } else {
+    /**
+     * Pull the data files of the snapshots concurrently, and load each file once it and the files
+     * before it are pulled, so that the slots get ready one by one while the later files are still
+     * being transferred.
+     */
+    private void installFileSnapshotFiles(
+        Map<Integer, FileSnapshot> snapshotMap, boolean isDataMigration) throws PullFileException {
+      List<Entry<Integer, FileSnapshot>> snapshots = new ArrayList<>(snapshotMap.entrySet());
+      // the pulling of each file, or null if the file is already replicated locally
+      List<List<Future<File>>> pulledFiles = new ArrayList<>();
+      try {
+        for (Entry<Integer, FileSnapshot> entry : snapshots) {
+          List<Future<File>> slotFiles = new ArrayList<>();
+          pulledFiles.add(slotFiles);
+          for (RemoteTsFileResource resource : entry.getValue().getDataFiles()) {
+            slotFiles.add(
+                isDataMigration || !isFileAlreadyPulled(resource) ? pull(resource) : null);
+          }
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+          int slot = snapshots.get(i).getKey();
+          List<RemoteTsFileResource> remoteTsFileResources =
+              snapshots.get(i).getValue().getDataFiles();
+          for (int j = 0; j < remoteTsFileResources.size(); j++) {
+            RemoteTsFileResource resource = remoteTsFileResources.get(j);
+            logger.info(
+                "Loading {}/{} files of slot {}, current: {}",
+                j + 1,
+                remoteTsFileResources.size(),
+                slot,
+                resource);
+            Future<File> pulledFile = pulledFiles.get(i).set(j, null);
+            if (pulledFile == null) {
               // notify the snapshot provider to remove the hardlink
               removeRemoteHardLink(resource);
+              continue;
+            }
+            try {
+              if (isDataMigration) {
+                // This means that the minimum plan index and maximum plan index of some files are
+                // the same, so the logic of judging index coincidence needs to remove the case of
+                // equal
+                resource.setMinPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
+                resource.setMaxPlanIndex(dataGroupMember.getLogManager().getLastLogIndex());
+              }
+              loadRemoteFile(resource, pulledFile);
+              progress.onFileLoaded();
+            } finally {
+              progress.addPendingFiles(-1);
+            }
+          }
+
+          // all files are loaded, the slot can be queried without accessing the previous holder
+          slotManager.setToNull(slot, !isDataMigration);
+          logger.info("{}: slot {} is ready", name, slot);
+        }
+      } finally {
+        // stop pulling the remaining files if a file cannot be loaded
+        for (List<Future<File>> slotFiles : pulledFiles) {
+          for (Future<File> pulledFile : slotFiles) {
+            if (pulledFile != null) {
+              pulledFile.cancel(true);
+              progress.addPendingFiles(-1);
             }
           }
-        } catch (IllegalPathException e) {
-          throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
         }
       }
+    }
 
-      // all files are loaded, the slot can be queried without accessing the previous holder
-      slotManager.setToNull(slot, !isDataMigration);
-      logger.info("{}: slot {} is ready", name, slot);
+    /** Pull the file of "resource" in the file pulling pool of the member. */
+    private Future<File> pull(RemoteTsFileResource resource) {
+      progress.addPendingFiles(1);
+      Callable<File> pullTask = () -> pullRemoteFile(resource, resource.getSource());
+      ExecutorService pullFileService = dataGroupMember.getPullFileService();
+      if (pullFileService != null) {
+        return pullFileService.submit(pullTask);
+      }
+      // the member is not started, pull the file in the current thread
+      FutureTask<File> pulledFile = new FutureTask<>(pullTask);
+      pulledFile.run();
+      return pulledFile;
     }
 
     /**
@@ -312,15 +426,19 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
      * @param resource
      * @return
      */
-    private boolean isFileAlreadyPulled(RemoteTsFileResource resource) throws IllegalPathException {
+    private boolean isFileAlreadyPulled(RemoteTsFileResource resource) throws PullFileException {
       Pair<String, Long> sgNameAndTimePartitionIdPair =
           FilePathUtils.getLogicalSgNameAndTimePartitionIdPair(
               resource.getTsFile().getAbsolutePath());
-      return StorageEngine.getInstance()
-          .isFileAlreadyExist(
-              resource,
-              new PartialPath(sgNameAndTimePartitionIdPair.left),
-              sgNameAndTimePartitionIdPair.right);
+      try {
+        return StorageEngine.getInstance()
+            .isFileAlreadyExist(
+                resource,
+                new PartialPath(sgNameAndTimePartitionIdPair.left),
+                sgNameAndTimePartitionIdPair.right);
+      } catch (IllegalPathException e) {
+        throw new PullFileException(resource.getTsFilePath(), resource.getSource(), e);
+      }
     }
 
     private void removeRemoteHardLink(RemoteTsFileResource resource) {
@@ -367,14 +485,18 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
      * from the header currently.
      *
      * @param resource
+     * @param pulledFile the pulling of the file to a temporary directory
      */
-    private void loadRemoteFile(RemoteTsFileResource resource) throws PullFileException {
+    private void loadRemoteFile(RemoteTsFileResource resource, Future<File> pulledFile)
+        throws PullFileException {
       Node sourceNode = resource.getSource();
-      // pull the file to a temporary directory
       File tempFile;
       try {
-        tempFile = pullRemoteFile(resource, sourceNode);
-      } catch (IOException e) {
+        tempFile = pulledFile.get();
+      } catch (ExecutionException e) {
+        throw new PullFileException(resource.toString(), sourceNode, e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         throw new PullFileException(resource.toString(), sourceNode, e);
       }
       if (tempFile != null) {
@@ -455,11 +577,13 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
               + tempFileName;
       File tempFile = new File(REMOTE_FILE_TEMP_DIR, tempFilePath);
       tempFile.getParentFile().mkdirs();
-      if (pullRemoteFile(resource.getTsFile().getAbsolutePath(), node, tempFile)) {
+      if (pullAndVerifyRemoteFile(resource, node, tempFile)) {
         // TODO-Cluster#353: implement file examination, may be replaced with other algorithm
         if (resource.isWithModification()) {
           File tempModFile =
               new File(REMOTE_FILE_TEMP_DIR, tempFilePath + ModificationFile.FILE_SUFFIX);
+          // the modifications may be appended since the last pulling, so pull them again
+          Files.deleteIfExists(tempModFile.toPath());
           pullRemoteFile(resource.getModFile().getFilePath(), node, tempModFile);
         }
         return tempFile;
@@ -467,9 +591,73 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return null;
     }
 
+    /**
+     * Pull the data file of "resource" to "dest" and verify it by the length and the MD5 recorded
+     * by the source. As the pulling resumes from the end of "dest", a stale temporary file, e.g.,
+     * one left by an earlier pulling of a different file with the same name, must not be resumed.
+     * So the source file being pulled is recorded in a marker file beside "dest", and "dest" is
+     * only resumed if the marker matches. If the pulled file does not match the source, it is
+     * deleted and pulled again from the beginning.
+     *
+     * @return true if the file is pulled and matches the source
+     */
+    private boolean pullAndVerifyRemoteFile(RemoteTsFileResource resource, Node node, File dest)
+        throws IOException {
+      String remotePath = resource.getTsFile().getAbsolutePath();
+      File marker = new File(dest.getPath() + PULLING_MARKER_SUFFIX);
+      String source = resource.getFileLength() + " " + resource.getFileDigest();
+      if (dest.exists() && (resource.getFileLength() < 0 || !isMarkedAs(marker, source))) {
+        logger.info("{}: {} is not pulled from {}, pull it again", name, dest, remotePath);
+        Files.delete(dest.toPath());
+      }
+      Files.write(marker.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+      int verifyRetry = 2;
+      for (int i = 0; i < verifyRetry; i++) {
+        if (!pullRemoteFile(remotePath, node, dest)) {
+          if (!dest.exists()) {
+            // the partially pulled file is deleted
+            Files.deleteIfExists(marker.toPath());
+          }
+          return false;
+        }
+        if (isPulledFileValid(resource, dest)) {
+          Files.deleteIfExists(marker.toPath());
+          return true;
+        }
+        logger.warn(
+            "{}: {} pulled from {} does not match the source {}, pull it again",
+            name,
+            dest,
+            node,
+            remotePath);
+        Files.delete(dest.toPath());
+      }
+      Files.deleteIfExists(marker.toPath());
+      return false;
+    }
+
+    private boolean isMarkedAs(File marker, String source) throws IOException {
+      return marker.exists()
+          && source.equals(new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private boolean isPulledFileValid(RemoteTsFileResource resource, File pulledFile)
+        throws IOException {
+      if (resource.getFileLength() < 0) {
+        // the source did not record the digest
+        return true;
+      }
+      return pulledFile.length() == resource.getFileLength()
+          && resource.getFileDigest().equals(getFileDigest(pulledFile));
+    }
+
     /**
      * Download the file "remotePath" from "node" and store it to "dest" using up to 64KB chunks. If
-     * the network is bad, this method will retry upto 5 times before returning a failure.
+     * the network is bad, this method will retry upto 5 times before returning a failure, and the
+     * partially pulled file is deleted. Each try resumes from the end of "dest", so the bytes
+     * pulled by the previous tries, or before the pulling is interrupted by a restart, are not
+     * transferred again.
      *
      * @param remotePath the file to be downloaded
      * @param node where to download the file
@@ -480,12 +668,16 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
     private boolean pullRemoteFile(String remotePath, Node node, File dest) throws IOException {
       int pullFileRetry = 5;
       for (int i = 0; i < pullFileRetry; i++) {
+        long offset = dest.length();
+        if (offset > 0) {
+          logger.info("{}: resume pulling file {} from {} at {}", name, remotePath, node, offset);
+        }
         try (BufferedOutputStream bufferedOutputStream =
-            new BufferedOutputStream(new FileOutputStream(dest))) {
+            new BufferedOutputStream(new FileOutputStream(dest, true))) {
           if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-            downloadFileAsync(node, remotePath, bufferedOutputStream);
+            downloadFileAsync(node, remotePath, offset, bufferedOutputStream);
           } else {
-            downloadFileSync(node, remotePath, bufferedOutputStream);
+            downloadFileSync(node, remotePath, offset, bufferedOutputStream);
           }
 
           if (logger.isInfoEnabled()) {
@@ -507,10 +699,8 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         }
 
         try {
-          Files.delete(dest.toPath());
+          // the pulled part is kept for the next try
           Thread.sleep(PULL_FILE_RETRY_INTERVAL_MS);
-        } catch (IOException e) {
-          logger.warn("Cannot delete file when pulling {} from {} failed", remotePath, node);
         } catch (InterruptedException ex) {
           Thread.currentThread().interrupt();
           logger.warn("{}: Pulling file {} from {} interrupted", name, remotePath, node, ex);
@@ -518,12 +708,16 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
         }
         // next try
       }
+      try {
+        Files.deleteIfExists(dest.toPath());
+      } catch (IOException e) {
+        logger.warn("Cannot delete file when pulling {} from {} failed", remotePath, node);
+      }
       return false;
     }
 
-    private void downloadFileAsync(Node node, String remotePath, OutputStream dest)
+    private void downloadFileAsync(Node node, String remotePath, long offset, OutputStream dest)
         throws IOException, TException, InterruptedException {
-      long offset = 0;
       // TODO-Cluster: use elaborate downloading techniques
       int fetchSize = 64 * 1024;
 
@@ -539,10 +733,23 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
           break;
         }
         offset += len;
+        onBytesPulled(node, len);
       }
       dest.flush();
     }
 
+    /** Record the progress and wait if the bandwidth to pull files from "node" is exhausted. */
+    private void onBytesPulled(Node node, int bytes) {
+      progress.onBytesPulled(bytes);
+      int throughputMbPerSec =
+          ClusterDescriptor.getInstance().getConfig().getSnapshotPullThroughputMbPerSec();
+      if (throughputMbPerSec > 0) {
+        PULL_RATE_LIMITERS
+            .computeIfAbsent(node, n -> RateLimiter.create(throughputMbPerSec * 1024.0 * 1024.0))
+            .acquire(bytes);
+      }
+    }
+
     private int writeBuffer(ByteBuffer buffer, OutputStream dest) throws IOException {
       if (buffer == null || buffer.limit() - buffer.position() == 0) {
         return 0;
@@ -558,14 +765,13 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
       return buffer.limit() - buffer.position();
     }
 
-    private void downloadFileSync(Node node, String remotePath, OutputStream dest)
-        throws IOException {
+    private void downloadFileSync(Node node, String remotePath, long offset, OutputStream dest)
+        throws IOException, TException {
       SyncDataClient client = (SyncDataClient) dataGroupMember.getSyncClient(node);
       if (client == null) {
         throw new IOException("No available client for " + node.toString());
       }
 
-      long offset = 0;
       // TODO-Cluster: use elaborate downloading techniques
       int fetchSize = 64 * 1024;
 
@@ -577,9 +783,11 @@ public class FileSnapshot extends Snapshot implements TimeseriesSchemaSnapshot {
             break;
           }
           offset += len;
+          onBytesPulled(node, len);
         }
       } catch (TException e) {
         client.close();
+        throw e;
       } finally {
         client.returnSelf();
       }
@@ -213,4 +213,11 @@ public class PartitionedSnapshot<T extends Snapshot> extends Snapshot {
       value.truncateBefore(minIndex);
     }
   }
+
+  @Override
+  public void computeFileDigests() {
+    for (T value : slotSnapshots.values()) {
+      value.computeFileDigests();
+    }
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.log.snapshot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of pulling the data files in snapshots of a member, which is shown in the report of
+ * the member to see how far a catching-up node is from being fully replicated.
+ */
+public class SnapshotPullProgress {
+
+  /** number of files that are going to be pulled or being pulled */
+  private final AtomicInteger pendingFileNum = new AtomicInteger();
+  /** number of files that are pulled and loaded */
+  private final AtomicLong loadedFileNum = new AtomicLong();
+  /** number of bytes pulled, including those of the files being pulled */
+  private final AtomicLong pulledBytes = new AtomicLong();
+
+  void addPendingFiles(int fileNum) {
+    pendingFileNum.addAndGet(fileNum);
+  }
+
+  void onBytesPulled(long bytes) {
+    pulledBytes.addAndGet(bytes);
+  }
+
+  void onFileLoaded() {
+    loadedFileNum.incrementAndGet();
+  }
+
+  public int getPendingFileNum() {
+    return pendingFileNum.get();
+  }
+
+  public long getLoadedFileNum() {
+    return loadedFileNum.get();
+  }
+
+  public long getPulledBytes() {
+    return pulledBytes.get();
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotPullProgress{"
+        + "pendingFileNum="
+        + pendingFileNum
+        + ", loadedFileNum="
+        + loadedFileNum
+        + ", pulledBytes="
+        + pulledBytes
+        + '}';
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.partition.balancer;
+
+import org.apache.iotdb.cluster.config.ClusterConfig;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.cluster.partition.slot.SlotLoad;
+import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * This balancer moves slots between the existing raft groups according to their loads, while
+ * DefaultSlotBalancer only evens the slot numbers when a node is added or removed. The load of a
+ * slot is the sum of its shares of the points ingested and the queries received since the last
+ * round, and of the disk usage.
+ */
+public class LoadAwareSlotBalancer {
+
+  private ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+
+  /** the loads collected in the last round, the differences to them are the recent loads */
+  private Map<Integer, SlotLoad> previousLoads;
+
+  /**
+   * Plan the slot migrations with the loads reported by the leader of each group.
+   *
+   * @param groupLoads the header of each group -> the loads of its slots
+   * @return slot -> new holder, empty if the loads are balanced or some groups do not report, or
+   *     the loads are collected for the first time
+   */
+  public Map<Integer, RaftNode> planMigrations(
+      SlotPartitionTable table, Map<RaftNode, Map<Integer, SlotLoad>> groupLoads) {
+    Map<RaftNode, List<Integer>> nodeSlots = table.getAllNodeSlots();
+    if (!groupLoads.keySet().containsAll(nodeSlots.keySet())) {
+      // the loads of a group are unknown without a leader, wait for the next round
+      return Collections.emptyMap();
+    }
+    Map<Integer, SlotLoad> loads = new HashMap<>();
+    for (Map<Integer, SlotLoad> slotLoads : groupLoads.values()) {
+      loads.putAll(slotLoads);
+    }
+    Map<Integer, SlotLoad> lastLoads = previousLoads;
+    previousLoads = loads;
+    if (lastLoads == null) {
+      return Collections.emptyMap();
+    }
+    return planMigrations(
+        nodeSlots,
+        computeScores(loads, lastLoads),
+        config.getMaxSlotMigrationsPerRound(),
+        config.getSlotLoadImbalanceThreshold());
+  }
+
+  /**
+   * Sum the shares of the recent ingestion, the recent queries and the disk usage of each slot, so
+   * that the three kinds of load are comparable.
+   */
+  static Map<Integer, Double> computeScores(
+      Map<Integer, SlotLoad> loads, Map<Integer, SlotLoad> lastLoads) {
+    Map<Integer, long[]> slotValues = new HashMap<>();
+    long[] totals = new long[3];
+    for (Entry<Integer, SlotLoad> entry : loads.entrySet()) {
+      SlotLoad load = entry.getValue();
+      SlotLoad lastLoad = lastLoads.getOrDefault(entry.getKey(), new SlotLoad());
+      long[] values =
+          new long[] {
+            increase(load.getIngestedPoints(), lastLoad.getIngestedPoints()),
+            increase(load.getQueryCount(), lastLoad.getQueryCount()),
+            load.getDiskSize()
+          };
+      for (int i = 0; i < values.length; i++) {
+        totals[i] += values[i];
+      }
+      slotValues.put(entry.getKey(), values);
+    }
+
+    Map<Integer, Double> scores = new HashMap<>();
+    for (Entry<Integer, long[]> entry : slotValues.entrySet()) {
+      double score = 0;
+      for (int i = 0; i < totals.length; i++) {
+        if (totals[i] > 0) {
+          score += (double) entry.getValue()[i] / totals[i];
+        }
+      }
+      scores.put(entry.getKey(), score);
+    }
+    return scores;
+  }
+
+  private static long increase(long current, long last) {
+    // the counters restart from zero when a member restarts or the slot is moved to another group
+    return current >= last ? current - last : current;
+  }
+
+  /**
+   * Repeatedly move the heaviest slot that narrows the gap between the busiest group and the idlest
+   * group. A hot slot heavier than the gap stays, and the other slots of its group are moved away
+   * instead, as a slot is the smallest unit of data placement.
+   *
+   * @param maxMigrations the max number of slots to move, which throttles the data transfers
+   * @param imbalanceThreshold the groups are balanced if the load of the busiest group does not
+   *     exceed the average by this ratio
+   * @return slot -> new holder
+   */
+  static Map<Integer, RaftNode> planMigrations(
+      Map<RaftNode, List<Integer>> nodeSlots,
+      Map<Integer, Double> scores,
+      int maxMigrations,
+      double imbalanceThreshold) {
+    Map<RaftNode, List<Integer>> groupSlots = new HashMap<>();
+    Map<RaftNode, Double> groupLoads = new HashMap<>();
+    double totalLoad = 0;
+    for (Entry<RaftNode, List<Integer>> entry : nodeSlots.entrySet()) {
+      double groupLoad = 0;
+      for (Integer slot : entry.getValue()) {
+        groupLoad += scores.getOrDefault(slot, 0.0);
+      }
+      groupSlots.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+      groupLoads.put(entry.getKey(), groupLoad);
+      totalLoad += groupLoad;
+    }
+    Map<Integer, RaftNode> migrations = new HashMap<>();
+    if (groupLoads.size() < 2 || totalLoad <= 0) {
+      return migrations;
+    }
+    double maxAllowedLoad = totalLoad / groupLoads.size() * (1 + imbalanceThreshold);
+
+    while (migrations.size() < maxMigrations) {
+      RaftNode busiest = Collections.max(groupLoads.entrySet(), Entry.comparingByValue()).getKey();
+      RaftNode idlest = Collections.min(groupLoads.entrySet(), Entry.comparingByValue()).getKey();
+      double gap = groupLoads.get(busiest) - groupLoads.get(idlest);
+      if (groupLoads.get(busiest) <= maxAllowedLoad) {
+        break;
+      }
+
+      Integer candidate = null;
+      double candidateScore = 0;
+      for (Integer slot : groupSlots.get(busiest)) {
+        double score = scores.getOrDefault(slot, 0.0);
+        if (score > candidateScore && score < gap && !migrations.containsKey(slot)) {
+          candidate = slot;
+          candidateScore = score;
+        }
+      }
+      if (candidate == null) {
+        break;
+      }
+
+      groupSlots.get(busiest).remove(candidate);
+      groupSlots.get(idlest).add(candidate);
+      groupLoads.put(busiest, groupLoads.get(busiest) - candidateScore);
+      groupLoads.put(idlest, groupLoads.get(idlest) + candidateScore);
+      migrations.put(candidate, idlest);
+    }
+    return migrations;
+  }
+}
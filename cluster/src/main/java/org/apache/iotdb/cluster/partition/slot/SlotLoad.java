@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.partition.slot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * SlotLoad describes the load of a slot: the number of points ingested into it and the number of
+ * queries on it since the data group member started, and the size of its sealed TsFiles.
+ */
+public class SlotLoad {
+
+  private long ingestedPoints;
+  private long queryCount;
+  private long diskSize;
+
+  public SlotLoad() {}
+
+  public SlotLoad(long ingestedPoints, long queryCount, long diskSize) {
+    this.ingestedPoints = ingestedPoints;
+    this.queryCount = queryCount;
+    this.diskSize = diskSize;
+  }
+
+  public long getIngestedPoints() {
+    return ingestedPoints;
+  }
+
+  public long getQueryCount() {
+    return queryCount;
+  }
+
+  public long getDiskSize() {
+    return diskSize;
+  }
+
+  public void serialize(DataOutputStream dataOutputStream) throws IOException {
+    dataOutputStream.writeLong(ingestedPoints);
+    dataOutputStream.writeLong(queryCount);
+    dataOutputStream.writeLong(diskSize);
+  }
+
+  public void deserialize(ByteBuffer buffer) {
+    ingestedPoints = buffer.getLong();
+    queryCount = buffer.getLong();
+    diskSize = buffer.getLong();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SlotLoad slotLoad = (SlotLoad) o;
+    return ingestedPoints == slotLoad.ingestedPoints
+        && queryCount == slotLoad.queryCount
+        && diskSize == slotLoad.diskSize;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(ingestedPoints, queryCount, diskSize);
+  }
+
+  @Override
+  public String toString() {
+    return "SlotLoad{"
+        + "ingestedPoints="
+        + ingestedPoints
+        + ", queryCount="
+        + queryCount
+        + ", diskSize="
+        + diskSize
+        + '}';
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.partition.slot;
+
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertMultiTabletPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowsOfOneDevicePlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowsPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.db.utils.TimeValuePairUtils.Intervals;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SlotLoadRecorder records the ingested points and the queries of each slot of a data group member,
+ * so that the meta leader can move slots from the busy groups to the idle ones.
+ */
+public class SlotLoadRecorder {
+
+  private final int totalSlotNumber;
+  private final AtomicLongArray ingestedPoints;
+  private final AtomicLongArray queryCounts;
+
+  public SlotLoadRecorder(int totalSlotNumber) {
+    this.totalSlotNumber = totalSlotNumber;
+    this.ingestedPoints = new AtomicLongArray(totalSlotNumber);
+    this.queryCounts = new AtomicLongArray(totalSlotNumber);
+  }
+
+  /** Record the points of an applied insertion. */
+  public void recordInsertion(InsertPlan plan) {
+    if (plan instanceof InsertMultiTabletPlan) {
+      for (InsertTabletPlan tabletPlan : ((InsertMultiTabletPlan) plan).getInsertTabletPlanList()) {
+        recordInsertion(tabletPlan);
+      }
+    } else if (plan instanceof InsertRowsPlan) {
+      for (InsertRowPlan rowPlan : ((InsertRowsPlan) plan).getInsertRowPlanList()) {
+        recordInsertion(rowPlan);
+      }
+    } else if (plan instanceof InsertRowsOfOneDevicePlan) {
+      for (InsertRowPlan rowPlan : ((InsertRowsOfOneDevicePlan) plan).getRowPlans()) {
+        recordInsertion(rowPlan);
+      }
+    } else if (plan instanceof InsertTabletPlan) {
+      recordTablet((InsertTabletPlan) plan);
+    } else if (plan instanceof InsertRowPlan) {
+      String storageGroup = getStorageGroup(plan.getDevicePath());
+      if (storageGroup != null) {
+        ingestedPoints.addAndGet(
+            getSlot(storageGroup, StorageEngine.getTimePartition(((InsertRowPlan) plan).getTime())),
+            plan.getMeasurements().length);
+      }
+    }
+  }
+
+  private void recordTablet(InsertTabletPlan plan) {
+    String storageGroup = getStorageGroup(plan.getDevicePath());
+    if (storageGroup == null) {
+      return;
+    }
+    long[] times = plan.getTimes();
+    int rowCount = plan.getRowCount();
+    int columnNum = plan.getMeasurements().length;
+    int start = 0;
+    // the rows are usually sorted by time, so the rows of a time partition are counted together
+    while (start < rowCount) {
+      long partition = StorageEngine.getTimePartition(times[start]);
+      int end = start + 1;
+      while (end < rowCount && StorageEngine.getTimePartition(times[end]) == partition) {
+        end++;
+      }
+      ingestedPoints.addAndGet(getSlot(storageGroup, partition), (long) (end - start) * columnNum);
+      start = end;
+    }
+  }
+
+  /**
+   * Record a query of a series. A query is counted on the slot of the latest time partition it
+   * touches, as most queries focus on the recent data.
+   */
+  public void recordQuery(PartialPath path, Filter timeFilter) {
+    String storageGroup = getStorageGroup(path);
+    if (storageGroup == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long upperBound = now;
+    if (timeFilter != null) {
+      Intervals intervals = TimeValuePairUtils.extractTimeInterval(timeFilter);
+      if (intervals.getIntervalSize() == 0) {
+        return;
+      }
+      upperBound = Math.min(intervals.getUpperBound(intervals.getIntervalSize() - 1), now);
+    }
+    queryCounts.incrementAndGet(getSlot(storageGroup, StorageEngine.getTimePartition(upperBound)));
+  }
+
+  /** @return the loads of the given slots, including the sizes of their sealed TsFiles */
+  public Map<Integer, SlotLoad> getSlotLoads(Collection<Integer> slots) {
+    Map<Integer, Long> diskSizes = new HashMap<>();
+    for (Entry<PartialPath, Map<Long, List<TsFileResource>>> sgEntry :
+        StorageEngine.getInstance().getAllClosedStorageGroupTsFile().entrySet()) {
+      String storageGroup = sgEntry.getKey().getFullPath();
+      for (Entry<Long, List<TsFileResource>> partitionEntry : sgEntry.getValue().entrySet()) {
+        long size = 0;
+        for (TsFileResource resource : partitionEntry.getValue()) {
+          size += resource.getTsFileSize();
+        }
+        diskSizes.merge(getSlot(storageGroup, partitionEntry.getKey()), size, Long::sum);
+      }
+    }
+
+    Map<Integer, SlotLoad> loads = new HashMap<>();
+    for (Integer slot : slots) {
+      loads.put(
+          slot,
+          new SlotLoad(
+              ingestedPoints.get(slot), queryCounts.get(slot), diskSizes.getOrDefault(slot, 0L)));
+    }
+    return loads;
+  }
+
+  private int getSlot(String storageGroup, long partition) {
+    return SlotPartitionTable.getSlotStrategy()
+        .calculateSlotByPartitionNum(storageGroup, partition, totalSlotNumber);
+  }
+
+  private static String getStorageGroup(PartialPath path) {
+    try {
+      return IoTDB.metaManager.getBelongedStorageGroup(path).getFullPath();
+    } catch (MetadataException e) {
+      // the load of an unknown storage group is ignored
+      return null;
+    }
+  }
+}
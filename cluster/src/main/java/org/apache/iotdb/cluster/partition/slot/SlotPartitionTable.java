@@ -331,6 +331,35 @@ public class SlotPartitionTable implements PartitionTable {
     this.nodeRemovalResult = new SlotNodeRemovalResult();
   }
 
+  /**
+   * Move the slots to new holders without changing the nodes. The previous holders are recorded in
+   * the previous node map so that the new holders can pull the data of the slots from them.
+   *
+   * @param migrations slot -> new holder
+   * @return slot -> previous holder of the slots that are actually moved
+   */
+  public Map<Integer, RaftNode> migrateSlots(Map<Integer, RaftNode> migrations) {
+    Map<Integer, RaftNode> previousHolders = new HashMap<>();
+    synchronized (nodeRing) {
+      for (Entry<Integer, RaftNode> entry : migrations.entrySet()) {
+        int slot = entry.getKey();
+        RaftNode previousHolder = slotNodes[slot];
+        RaftNode newHolder = entry.getValue();
+        if (previousHolder.equals(newHolder) || !nodeSlotMap.containsKey(newHolder)) {
+          continue;
+        }
+        nodeSlotMap.get(previousHolder).remove((Integer) slot);
+        nodeSlotMap.get(newHolder).add(slot);
+        previousNodeMap
+            .computeIfAbsent(newHolder, n -> new HashMap<>())
+            .put(slot, getPartitionGroup(previousHolder));
+        slotNodes[slot] = newHolder;
+        previousHolders.put(slot, previousHolder);
+      }
+    }
+    return previousHolders;
+  }
+
   @Override
   public NodeAdditionResult getNodeAdditionResult(Node node) {
     SlotNodeAdditionResult result = new SlotNodeAdditionResult();
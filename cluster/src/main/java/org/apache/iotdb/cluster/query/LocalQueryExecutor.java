@@ -26,13 +26,17 @@ import org.apache.iotdb.cluster.metadata.MetaPuller;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.query.filter.SlotTsFileFilter;
+import org.apache.iotdb.cluster.query.groupby.GroupedGroupByExecutor;
 import org.apache.iotdb.cluster.query.manage.ClusterQueryManager;
 import org.apache.iotdb.cluster.query.reader.ClusterReaderFactory;
 import org.apache.iotdb.cluster.query.reader.mult.IMultBatchReader;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.PreviousFillRequest;
@@ -88,6 +92,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -202,6 +207,52 @@ public class LocalQueryExecutor {
     return pathByteBuffers;
   }
 
+  /**
+   * Fetch the batches of the series in the request from the reader whose id is "request.readerId".
+   * The batches of a series are serialized one after another until the point limit of a series is
+   * reached, and the remaining series are skipped once the result size limit is reached, at least
+   * one batch is fetched so that the requester always makes progress.
+   *
+   * @param request the reader id, the indexes of the series and the limits
+   */
+  public MultSeriesFetchResult fetchMultSeriesBatches(MultSeriesFetchRequest request)
+      throws ReaderNotFoundException, IOException {
+    IMultBatchReader reader =
+        (IMultBatchReader) dataGroupMember.getQueryManager().getReader(request.getReaderId());
+    if (reader == null) {
+      throw new ReaderNotFoundException(request.getReaderId());
+    }
+
+    List<ByteBuffer> batches = new ArrayList<>(request.getSeriesIndexesSize());
+    List<Boolean> hasMore = new ArrayList<>(request.getSeriesIndexesSize());
+    int resultSize = 0;
+    for (int seriesIndex : request.getSeriesIndexes()) {
+      String fullPath = reader.getFullPath(seriesIndex);
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      if (resultSize == 0 || resultSize < request.getMaxResultSize()) {
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+        int pointNum = 0;
+        while (pointNum < request.getMaxPointNumPerSeries() && reader.hasNextBatch(fullPath)) {
+          BatchData batchData = reader.nextBatch(fullPath);
+          if (!batchData.isEmpty()) {
+            SerializeUtils.serializeBatchData(batchData, dataOutputStream);
+            pointNum += batchData.length();
+          }
+        }
+        resultSize += byteArrayOutputStream.size();
+      }
+      batches.add(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
+      hasMore.add(reader.hasNextBatch(fullPath));
+    }
+    logger.debug(
+        "{}: Send results of {} series of reader {}, size:{}",
+        dataGroupMember.getName(),
+        batches.size(),
+        request.getReaderId(),
+        resultSize);
+    return new MultSeriesFetchResult(batches, hasMore);
+  }
+
   /**
    * Create an IBatchReader of a path, register it in the query manager to get a reader id for it
    * and send the id back to the requester. If the reader does not have any data, an id of -1 will
@@ -235,6 +286,7 @@ public class LocalQueryExecutor {
     if (request.isSetValueFilterBytes()) {
       valueFilter = FilterFactory.deserialize(request.valueFilterBytes);
     }
+    dataGroupMember.getSlotLoadRecorder().recordQuery(path, timeFilter);
     Set<String> deviceMeasurements = request.getDeviceMeasurements();
 
     // the same query from a requester correspond to a context here
@@ -325,6 +377,8 @@ public class LocalQueryExecutor {
     if (request.isSetValueFilterBytes()) {
       valueFilter = FilterFactory.deserialize(request.valueFilterBytes);
     }
+    // the series of a multi-series query share one device, so the query is counted once
+    dataGroupMember.getSlotLoadRecorder().recordQuery(paths.get(0), timeFilter);
     Map<String, Set<String>> deviceMeasurements = request.getDeviceMeasurements();
 
     // the same query from a requester correspond to a context here
@@ -669,6 +723,7 @@ public class LocalQueryExecutor {
     if (request.isSetTimeFilterBytes()) {
       timeFilter = FilterFactory.deserialize(request.timeFilterBytes);
     }
+    dataGroupMember.getSlotLoadRecorder().recordQuery(path, timeFilter);
     RemoteQueryContext queryContext =
         queryManager.getQueryContext(request.getRequestor(), request.queryId);
     Set<String> deviceMeasurements = request.getDeviceMeasurements();
@@ -754,6 +809,110 @@ public class LocalQueryExecutor {
     return results;
   }
 
+  /**
+   * Execute the aggregations of several series and merge the results by their result indexes, e.g.,
+   * the series that are grouped into the same path by GROUP BY LEVEL.
+   *
+   * @return the serialized results of each result index
+   */
+  public List<ByteBuffer> getGroupedAggrResult(GroupedAggrRequest request)
+      throws StorageEngineException, QueryProcessException, IOException {
+    logger.debug(
+        "{}: {} is querying {} series by grouped aggregation, queryId: {}",
+        name,
+        request.getRequestor(),
+        request.getPathsSize(),
+        request.getQueryId());
+    RemoteQueryContext queryContext =
+        queryManager.getQueryContext(request.getRequestor(), request.queryId);
+    List<AggregateResult> results = getGroupedAggrResult(request, queryContext, true);
+    logger.trace(
+        "{}: grouped aggregation results {}, queryId: {}", name, results, request.getQueryId());
+
+    List<ByteBuffer> resultBuffers = new ArrayList<>();
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    for (AggregateResult result : results) {
+      result.serializeTo(byteArrayOutputStream);
+      resultBuffers.add(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
+      byteArrayOutputStream.reset();
+    }
+    return resultBuffers;
+  }
+
+  /**
+   * Execute the aggregations of several series and merge the results by their result indexes.
+   *
+   * @param isRemote whether the request comes from another node, whose queries are recorded in the
+   *     slot loads
+   */
+  public List<AggregateResult> getGroupedAggrResult(
+      GroupedAggrRequest request, QueryContext context, boolean isRemote)
+      throws StorageEngineException, QueryProcessException, IOException {
+    Filter timeFilter = getTimeFilter(request);
+    List<PartialPath> paths = getPaths(request);
+    AggregateResult[] results = createGroupedResults(request);
+    for (int i = 0; i < paths.size(); i++) {
+      PartialPath path = paths.get(i);
+      if (isRemote) {
+        dataGroupMember.getSlotLoadRecorder().recordQuery(path, timeFilter);
+      }
+      List<AggregateResult> seriesResults =
+          getAggrResult(
+              request.getAggregations().get(i),
+              request.getDeviceMeasurements().get(path.getDevice()),
+              ((MeasurementPath) path).getSeriesType(),
+              path,
+              timeFilter,
+              context,
+              request.isAscending());
+      List<Integer> resultIndexes = request.getResultIndexes().get(i);
+      for (int j = 0; j < seriesResults.size(); j++) {
+        results[resultIndexes.get(j)].merge(seriesResults.get(j));
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  private Filter getTimeFilter(GroupedAggrRequest request) {
+    return request.isSetTimeFilterBytes()
+        ? FilterFactory.deserialize(request.timeFilterBytes.duplicate())
+        : null;
+  }
+
+  private List<PartialPath> getPaths(GroupedAggrRequest request) throws QueryProcessException {
+    List<PartialPath> paths = new ArrayList<>(request.getPathsSize());
+    for (int i = 0; i < request.getPathsSize(); i++) {
+      try {
+        paths.add(
+            new MeasurementPath(
+                request.getPaths().get(i),
+                TSDataType.values()[request.getDataTypeOrdinals().get(i)]));
+      } catch (IllegalPathException e) {
+        throw new QueryProcessException(e);
+      }
+    }
+    return paths;
+  }
+
+  /** Create the empty result of each result index, to which the results of the series merge. */
+  private AggregateResult[] createGroupedResults(GroupedAggrRequest request) {
+    AggregateResult[] results = new AggregateResult[request.getResultNum()];
+    for (int i = 0; i < request.getPathsSize(); i++) {
+      TSDataType dataType = TSDataType.values()[request.getDataTypeOrdinals().get(i)];
+      List<String> aggregations = request.getAggregations().get(i);
+      List<Integer> resultIndexes = request.getResultIndexes().get(i);
+      for (int j = 0; j < aggregations.size(); j++) {
+        int resultIndex = resultIndexes.get(j);
+        if (results[resultIndex] == null) {
+          results[resultIndex] =
+              AggregateResultFactory.getAggrResultByName(
+                  aggregations.get(j), dataType, request.isAscending());
+        }
+      }
+    }
+    return results;
+  }
+
   /**
    * Check if the given measurements are registered or not
    *
@@ -847,6 +1006,7 @@ public class LocalQueryExecutor {
     if (request.isSetTimeFilterBytes()) {
       timeFilter = FilterFactory.deserialize(request.timeFilterBytes);
     }
+    dataGroupMember.getSlotLoadRecorder().recordQuery(path, timeFilter);
     long queryId = request.getQueryId();
     logger.debug(
         "{}: {} is querying {} using group by, queryId: {}",
@@ -895,6 +1055,83 @@ public class LocalQueryExecutor {
     }
   }
 
+  /**
+   * Create a GroupedGroupByExecutor over the series of the request, which merges the results of
+   * each interval by their result indexes. The method currently requires strong consistency.
+   */
+  public GroupedGroupByExecutor getGroupedGroupByExecutor(
+      GroupedAggrRequest request, QueryContext context, boolean isRemote)
+      throws StorageEngineException, QueryProcessException {
+    Filter timeFilter = getTimeFilter(request);
+    List<PartialPath> paths = getPaths(request);
+    GroupedGroupByExecutor groupedExecutor =
+        new GroupedGroupByExecutor(createGroupedResults(request));
+    for (int i = 0; i < paths.size(); i++) {
+      PartialPath path = paths.get(i);
+      if (isRemote) {
+        dataGroupMember.getSlotLoadRecorder().recordQuery(path, timeFilter);
+      }
+      TSDataType dataType = ((MeasurementPath) path).getSeriesType();
+      List<Integer> aggregationTypes = new ArrayList<>();
+      for (String aggregation : request.getAggregations().get(i)) {
+        aggregationTypes.add(
+            AggregateResultFactory.getAggrResultByName(aggregation, dataType, request.isAscending())
+                .getAggregationType()
+                .ordinal());
+      }
+      groupedExecutor.addSeriesExecutor(
+          getGroupByExecutor(
+              path,
+              request.getDeviceMeasurements().get(path.getDevice()),
+              dataType,
+              timeFilter == null ? null : timeFilter.copy(),
+              aggregationTypes,
+              context,
+              request.isAscending()),
+          request.getResultIndexes().get(i));
+    }
+    return groupedExecutor;
+  }
+
+  /**
+   * Create a GroupedGroupByExecutor over the series of the request, register it in the query
+   * manager to generate the executor id, and send it back to the requester.
+   *
+   * @return the executor id, or -1 if there is no data
+   */
+  public long getGroupedGroupByExecutor(GroupedAggrRequest request)
+      throws QueryProcessException, StorageEngineException {
+    long queryId = request.getQueryId();
+    logger.debug(
+        "{}: {} is querying {} series using grouped group by, queryId: {}",
+        name,
+        request.getRequestor(),
+        request.getPathsSize(),
+        queryId);
+    RemoteQueryContext queryContext = queryManager.getQueryContext(request.getRequestor(), queryId);
+    GroupedGroupByExecutor executor = getGroupedGroupByExecutor(request, queryContext, true);
+    boolean isEmpty;
+    try {
+      isEmpty = executor.isEmpty();
+    } catch (IOException e) {
+      logger.error("Something wrong happened", e);
+      throw new QueryProcessException(e, TSStatusCode.INTERNAL_SERVER_ERROR.ordinal());
+    }
+    if (isEmpty) {
+      logger.debug("{}: There is no data for {}#{}", name, request.getRequestor(), queryId);
+      return -1;
+    }
+    long executorId = queryManager.registerGroupByExecutor(executor);
+    queryContext.registerLocalGroupByExecutor(executorId);
+    logger.debug(
+        "{}: Build a GroupedGroupByExecutor of {} series for {}, executorId: {}",
+        name,
+        request.getPathsSize(),
+        request.getRequestor(),
+        executorId);
+    return executorId;
+  }
+
   /**
    * Fetch the aggregation results between [startTime, endTime] of the executor whose id is
    * "executorId". This method currently requires strong consistency.
@@ -32,9 +32,12 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.executor.AggregationExecutor;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -58,6 +61,32 @@ public class ClusterAggregateExecutor extends AggregationExecutor {
     this.aggregator = new ClusterAggregator(metaMember);
   }
 
+  /**
+   * The aggregations of GROUP BY LEVEL are merged by the data groups if possible, so that only the
+   * partial results of each result path are sent back, otherwise the series are aggregated one by
+   * one.
+   */
+  @Override
+  public QueryDataSet executeWithoutValueFilter(AggregationPlan aggregationPlan)
+      throws StorageEngineException, IOException, QueryProcessException {
+    if (!GroupedAggregation.canPushDown(aggregationPlan)) {
+      return super.executeWithoutValueFilter(aggregationPlan);
+    }
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+    GroupedAggregation groupedAggregation =
+        GroupedAggregation.split(aggregationPlan, timeFilter, context, metaMember);
+    AggregateResult[] results = groupedAggregation.createResults();
+    for (PartialAggregation partialAggregation : groupedAggregation.getPartialAggregations()) {
+      partialAggregation.mergeInto(
+          aggregator.getGroupedAggregateResult(partialAggregation, context), results);
+    }
+    return constructGroupByLevelDataSet(
+        aggregationPlan.setGroupedAggResults(groupedAggregation.toResultMap(results)));
+  }
+
   @Override
   protected void aggregateOneSeries(
       PartialPath seriesPath,
@@ -33,6 +33,7 @@ import org.apache.iotdb.cluster.query.LocalQueryExecutor;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
 import org.apache.iotdb.cluster.query.manage.QueryCoordinator;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.server.member.DataGroupMember;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
@@ -261,6 +262,119 @@ public class ClusterAggregator {
         new RequestTimeOutException("Query aggregate: " + path + " in " + partitionGroup));
   }
 
+  /**
+   * Perform the aggregations of a GROUP BY LEVEL query over the series of a data group, whose
+   * results are merged by the result paths within the group.
+   *
+   * @return the partial results of the group, indexed by the local result indexes
+   */
+  public List<AggregateResult> getGroupedAggregateResult(
+      PartialAggregation partialAggregation, QueryContext context) throws StorageEngineException {
+    PartitionGroup partitionGroup = partialAggregation.getPartitionGroup();
+    if (!partitionGroup.contains(metaGroupMember.getThisNode())) {
+      return getRemoteGroupedAggregateResult(partialAggregation, context);
+    }
+    DataGroupMember dataMember =
+        metaGroupMember.getLocalDataMember(partitionGroup.getHeader(), partitionGroup.getRaftId());
+    try {
+      List<AggregateResult> results =
+          new LocalQueryExecutor(dataMember)
+              .getGroupedAggrResult(partialAggregation.getRequest(), context, false);
+      logger.debug(
+          "{}: queried grouped aggregation {} locally are {}",
+          metaGroupMember.getName(),
+          partialAggregation,
+          results);
+      return results;
+    } catch (IOException | QueryProcessException e) {
+      throw new StorageEngineException(e);
+    }
+  }
+
+  private List<AggregateResult> getRemoteGroupedAggregateResult(
+      PartialAggregation partialAggregation, QueryContext context) throws StorageEngineException {
+    PartitionGroup partitionGroup = partialAggregation.getPartitionGroup();
+    // put nodes with lowest delay at first
+    List<Node> reorderedNodes = QueryCoordinator.getINSTANCE().reorderNodes(partitionGroup);
+    for (Node node : reorderedNodes) {
+      try {
+        List<ByteBuffer> resultBuffers =
+            getRemoteGroupedAggregateResult(node, partialAggregation.getRequest());
+        if (resultBuffers != null) {
+          List<AggregateResult> results = new ArrayList<>(resultBuffers.size());
+          for (ByteBuffer resultBuffer : resultBuffers) {
+            results.add(AggregateResult.deserializeFrom(resultBuffer));
+          }
+          // register the queried node to release resources when the query ends
+          ((RemoteQueryContext) context).registerRemoteNode(node, partitionGroup.getHeader());
+          logger.debug(
+              "{}: queried grouped aggregation {} from {} are {}",
+              metaGroupMember.getName(),
+              partialAggregation,
+              node,
+              results);
+          return results;
+        }
+      } catch (TApplicationException e) {
+        logger.error(
+            metaGroupMember.getName()
+                + " query grouped aggregation error "
+                + partialAggregation
+                + " from "
+                + node,
+            e);
+        throw new StorageEngineException(e.getMessage());
+      } catch (TException | IOException e) {
+        logger.error(
+            metaGroupMember.getName()
+                + " cannot query grouped aggregation "
+                + partialAggregation
+                + " from "
+                + node,
+            e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error(
+            metaGroupMember.getName()
+                + " query interrupted "
+                + partialAggregation
+                + " from "
+                + node,
+            e);
+      }
+    }
+    throw new StorageEngineException(
+        new RequestTimeOutException("Query grouped aggregate: " + partialAggregation));
+  }
+
+  private List<ByteBuffer> getRemoteGroupedAggregateResult(Node node, GroupedAggrRequest request)
+      throws IOException, TException, InterruptedException {
+    List<ByteBuffer> resultBuffers = null;
+    if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+      AsyncDataClient client =
+          ClusterIoTDB.getInstance()
+              .getAsyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+      resultBuffers = SyncClientAdaptor.getGroupedAggrResult(client, request);
+    } else {
+      SyncDataClient syncDataClient = null;
+      try {
+        syncDataClient =
+            ClusterIoTDB.getInstance()
+                .getSyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+        resultBuffers = syncDataClient.getGroupedAggrResult(request);
+      } catch (TException e) {
+        // the connection may be broken, close it to avoid it being reused
+        syncDataClient.close();
+        throw e;
+      } finally {
+        if (syncDataClient != null) {
+          syncDataClient.returnSelf();
+        }
+      }
+    }
+    return resultBuffers;
+  }
+
   private List<ByteBuffer> getRemoteAggregateResult(Node node, GetAggrResultRequest request)
       throws IOException, TException, InterruptedException {
     List<ByteBuffer> resultBuffers = null;
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.query.aggregate;
+
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.cluster.exception.CheckConsistencyException;
+import org.apache.iotdb.cluster.exception.EmptyIntervalException;
+import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
+import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.factory.AggregateResultFactory;
+import org.apache.iotdb.db.utils.SerializeUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GroupedAggregation splits the aggregations of a GROUP BY LEVEL query by the data groups that hold
+ * the series, so that each group merges the results of its series by the result paths of the query
+ * and returns only one partial result for each result path. The coordinator then merges O(groups *
+ * result paths) partial results instead of one result for each series in each group.
+ */
+public class GroupedAggregation {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupedAggregation.class);
+
+  /** result path -> global result index, in the order of the first aggregation of each path */
+  private final Map<String, Integer> resultIndexes = new LinkedHashMap<>();
+
+  private final List<String> resultAggregations = new ArrayList<>();
+  private final List<TSDataType> resultDataTypes = new ArrayList<>();
+  private final Map<RaftNode, PartialAggregation> partialAggregations = new LinkedHashMap<>();
+  private final boolean ascending;
+
+  private GroupedAggregation(boolean ascending) {
+    this.ascending = ascending;
+  }
+
+  /**
+   * Whether the GROUP BY LEVEL aggregations of the plan can be merged by the data groups. Aligned
+   * series are still aggregated one by one.
+   */
+  public static boolean canPushDown(AggregationPlan plan) {
+    if (!plan.isGroupByLevel()
+        || !ClusterDescriptor.getInstance().getConfig().isEnableGroupByLevelPushdown()) {
+      return false;
+    }
+    for (PartialPath path : plan.getDeduplicatedPaths()) {
+      if (!(path instanceof MeasurementPath) || ((MeasurementPath) path).isUnderAlignedEntity()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Route each deduplicated aggregation of the plan to the data groups that hold its series.
+   *
+   * @param timeFilter nullable, when null, all groups of the series will be queried
+   */
+  public static GroupedAggregation split(
+      AggregationPlan plan,
+      Filter timeFilter,
+      QueryContext context,
+      MetaGroupMember metaGroupMember)
+      throws StorageEngineException {
+    // make sure the partition table is new
+    try {
+      metaGroupMember.syncLeaderWithConsistencyCheck(false);
+    } catch (CheckConsistencyException e) {
+      throw new StorageEngineException(e);
+    }
+    GroupedAggregation groupedAggregation = new GroupedAggregation(plan.isAscending());
+    ByteBuffer timeFilterBytes =
+        timeFilter == null ? null : SerializeUtils.serializeFilter(timeFilter);
+    List<PartialPath> paths = plan.getDeduplicatedPaths();
+    List<String> aggregations = plan.getDeduplicatedAggregations();
+    for (int i = 0; i < paths.size(); i++) {
+      MeasurementPath path = (MeasurementPath) paths.get(i);
+      int globalIndex =
+          groupedAggregation.getOrCreateResultIndex(
+              plan.getGroupedPath(i), aggregations.get(i), path.getSeriesType());
+      List<PartitionGroup> partitionGroups;
+      try {
+        partitionGroups = metaGroupMember.routeFilter(timeFilter, path);
+      } catch (EmptyIntervalException e) {
+        logger.info(e.getMessage());
+        continue;
+      }
+      for (PartitionGroup partitionGroup : partitionGroups) {
+        PartialAggregation partialAggregation =
+            groupedAggregation.partialAggregations.computeIfAbsent(
+                partitionGroup.getHeader(),
+                h -> {
+                  PartialAggregation partial =
+                      new PartialAggregation(
+                          partitionGroup, metaGroupMember.getThisNode(), context.getQueryId());
+                  partial.getRequest().setAscending(plan.isAscending());
+                  if (timeFilterBytes != null) {
+                    partial.getRequest().setTimeFilterBytes(timeFilterBytes.duplicate());
+                  }
+                  return partial;
+                });
+        partialAggregation.addAggregation(
+            path,
+            path.getSeriesType(),
+            aggregations.get(i),
+            globalIndex,
+            plan.getAllMeasurementsInDevice(path.getDevice()));
+      }
+    }
+    logger.debug(
+        "{}: split {} aggregations into {} groups: {}",
+        metaGroupMember.getName(),
+        paths.size(),
+        groupedAggregation.partialAggregations.size(),
+        groupedAggregation.partialAggregations.values());
+    return groupedAggregation;
+  }
+
+  private int getOrCreateResultIndex(String resultPath, String aggregation, TSDataType dataType) {
+    return resultIndexes.computeIfAbsent(
+        resultPath,
+        p -> {
+          resultAggregations.add(aggregation);
+          resultDataTypes.add(dataType);
+          return resultAggregations.size() - 1;
+        });
+  }
+
+  public Collection<PartialAggregation> getPartialAggregations() {
+    return partialAggregations.values();
+  }
+
+  /** Create an empty result for the given global result index. */
+  public AggregateResult createResult(int index) {
+    return AggregateResultFactory.getAggrResultByName(
+        resultAggregations.get(index), resultDataTypes.get(index), ascending);
+  }
+
+  /** Create the empty results of all result paths, to which the partial results are merged. */
+  public AggregateResult[] createResults() {
+    AggregateResult[] results = new AggregateResult[resultAggregations.size()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = createResult(i);
+    }
+    return results;
+  }
+
+  /** @return result path -> merged result, in the order of the result columns */
+  public Map<String, AggregateResult> toResultMap(AggregateResult[] results) {
+    Map<String, AggregateResult> resultMap = new LinkedHashMap<>();
+    for (Map.Entry<String, Integer> entry : resultIndexes.entrySet()) {
+      resultMap.put(entry.getKey(), results[entry.getValue()]);
+    }
+    return resultMap;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.query.aggregate;
+
+import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PartialAggregation is the part of a GroupedAggregation that is executed by one data group. The
+ * results of the group are indexed locally, i.e., only the result paths that the series of the
+ * group contribute to are included, and they are mapped to the global result indexes when merged.
+ */
+public class PartialAggregation {
+
+  private final PartitionGroup partitionGroup;
+  private final GroupedAggrRequest request;
+  /** local result index -> global result index */
+  private final List<Integer> globalIndexes = new ArrayList<>();
+
+  private final Map<Integer, Integer> localIndexes = new HashMap<>();
+  private final Map<String, Integer> pathPositions = new HashMap<>();
+
+  PartialAggregation(PartitionGroup partitionGroup, Node requestor, long queryId) {
+    this.partitionGroup = partitionGroup;
+    this.request = new GroupedAggrRequest();
+    request.setPaths(new ArrayList<>());
+    request.setDataTypeOrdinals(new ArrayList<>());
+    request.setAggregations(new ArrayList<>());
+    request.setResultIndexes(new ArrayList<>());
+    request.setDeviceMeasurements(new HashMap<>());
+    request.setHeader(partitionGroup.getHeader());
+    request.setRequestor(requestor);
+    request.setQueryId(queryId);
+  }
+
+  /** Add an aggregation of a series whose result is merged into the given global result. */
+  void addAggregation(
+      PartialPath path,
+      TSDataType dataType,
+      String aggregation,
+      int globalIndex,
+      Set<String> deviceMeasurements) {
+    String fullPath = path.getFullPath();
+    Integer position = pathPositions.get(fullPath);
+    if (position == null) {
+      position = request.getPathsSize();
+      pathPositions.put(fullPath, position);
+      request.getPaths().add(fullPath);
+      request.getDataTypeOrdinals().add(dataType.ordinal());
+      request.getAggregations().add(new ArrayList<>());
+      request.getResultIndexes().add(new ArrayList<>());
+      request.getDeviceMeasurements().put(path.getDevice(), deviceMeasurements);
+    }
+    Integer localIndex = localIndexes.get(globalIndex);
+    if (localIndex == null) {
+      localIndex = globalIndexes.size();
+      localIndexes.put(globalIndex, localIndex);
+      globalIndexes.add(globalIndex);
+    }
+    request.getAggregations().get(position).add(aggregation);
+    request.getResultIndexes().get(position).add(localIndex);
+    request.setResultNum(globalIndexes.size());
+  }
+
+  /** Merge the results of the group into the global results. */
+  public void mergeInto(List<AggregateResult> partialResults, AggregateResult[] results) {
+    for (int i = 0; i < partialResults.size(); i++) {
+      results[globalIndexes.get(i)].merge(partialResults.get(i));
+    }
+  }
+
+  public PartitionGroup getPartitionGroup() {
+    return partitionGroup;
+  }
+
+  public GroupedAggrRequest getRequest() {
+    return request;
+  }
+
+  public int getGlobalIndex(int localIndex) {
+    return globalIndexes.get(localIndex);
+  }
+
+  public int getResultNum() {
+    return globalIndexes.size();
+  }
+
+  @Override
+  public String toString() {
+    return "PartialAggregation{"
+        + "header="
+        + partitionGroup.getHeader()
+        + ", seriesNum="
+        + request.getPathsSize()
+        + ", resultNum="
+        + globalIndexes.size()
+        + '}';
+  }
+}
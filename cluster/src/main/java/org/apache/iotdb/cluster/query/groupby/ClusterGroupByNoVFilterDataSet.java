@@ -19,16 +19,29 @@
 
 package org.apache.iotdb.cluster.query.groupby;
 
+import org.apache.iotdb.cluster.query.aggregate.GroupedAggregation;
+import org.apache.iotdb.cluster.query.aggregate.PartialAggregation;
+import org.apache.iotdb.cluster.query.reader.ClusterReaderFactory;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.dataset.groupby.GroupByExecutor;
 import org.apache.iotdb.db.query.dataset.groupby.GroupByWithoutValueFilterDataSet;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.Pair;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @SuppressWarnings("common-java:DuplicatedBlocks")
@@ -36,6 +49,12 @@ public class ClusterGroupByNoVFilterDataSet extends GroupByWithoutValueFilterDat
 
   private MetaGroupMember metaGroupMember;
 
+  /** not null if the aggregations of GROUP BY LEVEL are merged by the data groups */
+  private GroupedAggregation groupedAggregation;
+
+  private List<Pair<PartialAggregation, GroupByExecutor>> groupedExecutors;
+  private AggregateResult[] curGroupedResults;
+
   public ClusterGroupByNoVFilterDataSet(
       QueryContext context, GroupByTimePlan groupByPlan, MetaGroupMember metaGroupMember) {
     initQueryDataSetFields(
@@ -47,6 +66,69 @@ public class ClusterGroupByNoVFilterDataSet extends GroupByWithoutValueFilterDat
     this.metaGroupMember = metaGroupMember;
   }
 
+  @Override
+  public void initGroupBy(QueryContext context, GroupByTimePlan groupByTimePlan)
+      throws StorageEngineException, QueryProcessException {
+    if (!GroupedAggregation.canPushDown(groupByTimePlan)) {
+      super.initGroupBy(context, groupByTimePlan);
+      return;
+    }
+    IExpression expression = groupByTimePlan.getExpression();
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+    if (timeFilter == null) {
+      throw new QueryProcessException("TimeFilter cannot be null in GroupBy query.");
+    }
+    groupedAggregation =
+        GroupedAggregation.split(groupByTimePlan, timeFilter, context, metaGroupMember);
+    ClusterReaderFactory readerFactory = new ClusterReaderFactory(metaGroupMember);
+    groupedExecutors = new ArrayList<>();
+    for (PartialAggregation partialAggregation : groupedAggregation.getPartialAggregations()) {
+      groupedExecutors.add(
+          new Pair<>(
+              partialAggregation,
+              readerFactory.getGroupedGroupByExecutor(
+                  groupedAggregation, partialAggregation, context)));
+    }
+  }
+
+  @Override
+  public RowRecord nextWithoutConstraint() throws IOException {
+    if (groupedAggregation == null) {
+      return super.nextWithoutConstraint();
+    }
+    if (!hasCachedTimeInterval) {
+      throw new IOException(
+          "need to call hasNext() before calling next() in ClusterGroupByNoVFilterDataSet.");
+    }
+    hasCachedTimeInterval = false;
+    RowRecord record = new RowRecord(leftCRightO ? curStartTime : curEndTime - 1);
+
+    curGroupedResults = groupedAggregation.createResults();
+    try {
+      for (Pair<PartialAggregation, GroupByExecutor> groupedExecutor : groupedExecutors) {
+        groupedExecutor.left.mergeInto(
+            groupedExecutor.right.calcResult(curStartTime, curEndTime), curGroupedResults);
+      }
+    } catch (QueryProcessException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    for (AggregateResult result : curGroupedResults) {
+      record.addField(result.getResult(), result.getResultDataType());
+    }
+    return record;
+  }
+
+  @Override
+  public Map<String, AggregateResult> groupCurAggregateResultsByLevel(GroupByTimePlan plan) {
+    if (groupedAggregation == null) {
+      return super.groupCurAggregateResultsByLevel(plan);
+    }
+    return plan.setGroupedAggResults(groupedAggregation.toResultMap(curGroupedResults));
+  }
+
   @Override
   protected GroupByExecutor getGroupByExecutor(
       PartialPath path,
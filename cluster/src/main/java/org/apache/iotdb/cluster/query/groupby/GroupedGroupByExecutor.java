@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.cluster.query.groupby;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.query.aggregation.AggregateResult;
+import org.apache.iotdb.db.query.dataset.groupby.GroupByExecutor;
+import org.apache.iotdb.db.query.dataset.groupby.LocalGroupByExecutor;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GroupedGroupByExecutor runs the aggregations of several series in a data group and merges the
+ * results of each interval by their result indexes, e.g., the series grouped into the same path by
+ * GROUP BY LEVEL, so that only one partial result for each result index is sent back.
+ */
+public class GroupedGroupByExecutor implements GroupByExecutor {
+
+  private final AggregateResult[] results;
+  private final List<LocalGroupByExecutor> seriesExecutors = new ArrayList<>();
+  /** the result indexes of the aggregations of each series executor */
+  private final List<List<Integer>> seriesResultIndexes = new ArrayList<>();
+
+  public GroupedGroupByExecutor(AggregateResult[] results) {
+    this.results = results;
+  }
+
+  /**
+   * @param executor the executor of a series, whose aggregate results have been added
+   * @param resultIndexes the result index of each aggregation of the executor
+   */
+  public void addSeriesExecutor(LocalGroupByExecutor executor, List<Integer> resultIndexes) {
+    seriesExecutors.add(executor);
+    seriesResultIndexes.add(resultIndexes);
+  }
+
+  /** The results are merged into the given results, use addSeriesExecutor instead. */
+  @Override
+  public void addAggregateResult(AggregateResult aggrResult) {
+    throw new UnsupportedOperationException(
+        "GroupedGroupByExecutor merges the results of its series executors, use addSeriesExecutor"
+            + " to add the aggregations of a series instead");
+  }
+
+  public boolean isEmpty() throws IOException {
+    for (LocalGroupByExecutor executor : seriesExecutors) {
+      if (!executor.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public List<AggregateResult> calcResult(long curStartTime, long curEndTime)
+      throws QueryProcessException, IOException {
+    for (AggregateResult result : results) {
+      result.reset();
+    }
+    for (int i = 0; i < seriesExecutors.size(); i++) {
+      List<AggregateResult> seriesResults =
+          seriesExecutors.get(i).calcResult(curStartTime, curEndTime);
+      List<Integer> resultIndexes = seriesResultIndexes.get(i);
+      for (int j = 0; j < seriesResults.size(); j++) {
+        results[resultIndexes.get(j)].merge(seriesResults.get(j));
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  @Override
+  public Pair<Long, Object> peekNextNotNullValue(long nextStartTime, long nextEndTime)
+      throws IOException {
+    Pair<Long, Object> result = null;
+    for (LocalGroupByExecutor executor : seriesExecutors) {
+      Pair<Long, Object> pair = executor.peekNextNotNullValue(nextStartTime, nextEndTime);
+      if (pair != null && (result == null || result.left > pair.left)) {
+        result = pair;
+      }
+    }
+    return result;
+  }
+}
@@ -32,6 +32,8 @@ import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.query.LocalQueryExecutor;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
+import org.apache.iotdb.cluster.query.aggregate.GroupedAggregation;
+import org.apache.iotdb.cluster.query.aggregate.PartialAggregation;
 import org.apache.iotdb.cluster.query.filter.SlotTsFileFilter;
 import org.apache.iotdb.cluster.query.groupby.RemoteGroupByExecutor;
 import org.apache.iotdb.cluster.query.manage.QueryCoordinator;
@@ -42,6 +44,7 @@ import org.apache.iotdb.cluster.query.reader.mult.MultEmptyReader;
 import org.apache.iotdb.cluster.query.reader.mult.MultSeriesRawDataPointReader;
 import org.apache.iotdb.cluster.query.reader.mult.RemoteMultSeriesReader;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
@@ -913,6 +916,108 @@ public class ClusterReaderFactory {
         new RequestTimeOutException("Query " + path + " in " + partitionGroup));
   }
 
+  /**
+   * Get a GroupByExecutor that runs the aggregations of a GROUP BY LEVEL query over the series of a
+   * data group and merges the results of each interval by the result paths within the group.
+   *
+   * @return an executor whose results are indexed by the local result indexes of the group
+   */
+  public GroupByExecutor getGroupedGroupByExecutor(
+      GroupedAggregation groupedAggregation,
+      PartialAggregation partialAggregation,
+      QueryContext context)
+      throws StorageEngineException, QueryProcessException {
+    PartitionGroup partitionGroup = partialAggregation.getPartitionGroup();
+    if (partitionGroup.contains(metaGroupMember.getThisNode())) {
+      DataGroupMember dataGroupMember =
+          metaGroupMember.getLocalDataMember(
+              partitionGroup.getHeader(), partitionGroup.getRaftId());
+      logger.debug(
+          "{}: creating a local grouped group by executor for {}#{}",
+          metaGroupMember.getName(),
+          partialAggregation,
+          context.getQueryId());
+      return new LocalQueryExecutor(dataGroupMember)
+          .getGroupedGroupByExecutor(partialAggregation.getRequest(), context, false);
+    }
+
+    // select a node with lowest latency or highest throughput with high priority
+    List<Node> orderedNodes = QueryCoordinator.getINSTANCE().reorderNodes(partitionGroup);
+    for (Node node : orderedNodes) {
+      try {
+        Long executorId = getRemoteGroupedGroupByExecutorId(node, partialAggregation.getRequest());
+        if (executorId == null) {
+          continue;
+        }
+        if (executorId == -1) {
+          logger.debug(
+              "{}: no data for {} from {}", metaGroupMember.getName(), partialAggregation, node);
+          return new EmptyReader();
+        }
+        logger.debug(
+            "{}: get an executorId {} for {} from {}",
+            metaGroupMember.getName(),
+            executorId,
+            partialAggregation,
+            node);
+        RemoteGroupByExecutor remoteGroupByExecutor =
+            new RemoteGroupByExecutor(executorId, node, partitionGroup.getHeader());
+        for (int i = 0; i < partialAggregation.getResultNum(); i++) {
+          remoteGroupByExecutor.addAggregateResult(
+              groupedAggregation.createResult(partialAggregation.getGlobalIndex(i)));
+        }
+        return remoteGroupByExecutor;
+      } catch (TApplicationException e) {
+        logger.error(
+            metaGroupMember.getName() + ": Cannot query " + partialAggregation + " from " + node,
+            e);
+        throw new StorageEngineException(e.getMessage());
+      } catch (TException | IOException e) {
+        logger.error(
+            metaGroupMember.getName() + ": Cannot query " + partialAggregation + " from " + node,
+            e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error(
+            metaGroupMember.getName() + ": Cannot query " + partialAggregation + " from " + node,
+            e);
+      } finally {
+        // record the queried node to release resources later
+        ((RemoteQueryContext) context).registerRemoteNode(node, partitionGroup.getHeader());
+      }
+    }
+    throw new StorageEngineException(
+        new RequestTimeOutException("Query " + partialAggregation + " in " + partitionGroup));
+  }
+
+  private Long getRemoteGroupedGroupByExecutorId(Node node, GroupedAggrRequest request)
+      throws IOException, TException, InterruptedException {
+    Long executorId;
+    if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+      AsyncDataClient client =
+          ClusterIoTDB.getInstance()
+              .getAsyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+      executorId = SyncClientAdaptor.getGroupedGroupByExecutor(client, request);
+    } else {
+      SyncDataClient syncDataClient = null;
+      try {
+        syncDataClient =
+            ClusterIoTDB.getInstance()
+                .getSyncDataClient(node, ClusterConstant.getReadOperationTimeoutMS());
+        executorId = syncDataClient.getGroupedGroupByExecutor(request);
+      } catch (TException e) {
+        // the connection may be broken, close it to avoid it being reused
+        syncDataClient.close();
+        throw e;
+      } finally {
+        if (syncDataClient != null) {
+          syncDataClient.returnSelf();
+        }
+      }
+    }
+    return executorId;
+  }
+
   private Long getRemoteGroupByExecutorId(Node node, GroupByRequest request)
       throws IOException, TException, InterruptedException {
     Long executorId;
@@ -1099,7 +1204,8 @@ public class ClusterReaderFactory {
       throw new StorageEngineException(e);
     }
 
-    Map<String, IBatchReader> partialPathBatchReaderMap = Maps.newHashMap();
+    // keep the order of the paths, so that a series can be fetched by its index in the request
+    Map<String, IBatchReader> partialPathBatchReaderMap = Maps.newLinkedHashMap();
 
     for (int i = 0; i < paths.size(); i++) {
       PartialPath partialPath = paths.get(i);
@@ -19,42 +19,74 @@
 
 package org.apache.iotdb.cluster.query.reader;
 
+import org.apache.iotdb.cluster.client.async.AsyncDataClient;
 import org.apache.iotdb.cluster.client.sync.SyncDataClient;
 import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
-import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.utils.SerializeUtils;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
-import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.apache.thrift.TException;
+import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.NoSuchElementException;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * RemoteSimpleSeriesReader is a reader without value filter that reads points from a remote side.
+ *
+ * <p>The batches are fetched ahead of the consumption so that the query does not wait for a round
+ * trip whenever a batch is exhausted. At most one fetch of a reader is in progress, and the number
+ * of batches fetched ahead starts at one and is doubled, up to
+ * max_prefetch_batch_num_of_remote_reader, each time the query has to wait for a batch.
  */
 public class RemoteSimpleSeriesReader implements IPointReader {
 
   private static final Logger logger = LoggerFactory.getLogger(RemoteSimpleSeriesReader.class);
+
+  /** runs the fetches of sync clients and chains the next fetches after a batch arrives */
+  private static final ExecutorService prefetchPool =
+      IoTDBThreadPoolFactory.newCachedThreadPoolWithDaemon("RemoteSeriesPrefetch");
+
   private DataSourceInfo sourceInfo;
+
+  /** timestamp of the last fetched point, the remote reader is resumed after it on a new node */
   private long lastTimestamp;
 
   private BatchData cachedBatch;
+  private TimeValuePair cachedPair;
+
+  private final int maxPrefetchBatchNum =
+      ClusterDescriptor.getInstance().getConfig().getMaxPrefetchBatchNumOfRemoteReader();
+
+  /** number of batches to fetch ahead, guarded by this */
+  private int prefetchBatchNum = Math.min(1, maxPrefetchBatchNum);
+
+  /** the fetched batches that are not consumed, guarded by this */
+  private final Deque<BatchData> prefetchedBatches = new ArrayDeque<>();
+
+  /** the fetch in progress, guarded by this */
+  private CompletableFuture<ByteBuffer> pendingFetch;
 
-  private AtomicReference<ByteBuffer> fetchResult = new AtomicReference<>();
-  private GenericHandler<ByteBuffer> handler;
+  /** the error of the last fetch, which is handled after the fetched batches are consumed */
+  private Throwable fetchError;
+
+  private boolean noMoreBatch = false;
+  private boolean closed = false;
 
   public RemoteSimpleSeriesReader(DataSourceInfo sourceInfo) {
     this.sourceInfo = sourceInfo;
-    handler = new GenericHandler<>(sourceInfo.getCurrentNode(), fetchResult);
     lastTimestamp = Long.MIN_VALUE;
   }
 
@@ -63,20 +95,15 @@ public class RemoteSimpleSeriesReader implements IPointReader {
     if (cachedBatch != null && cachedBatch.hasCurrent()) {
       return true;
     }
-    fetchBatch();
+    cachedPair = null;
+    cachedBatch = nextBatch();
     return cachedBatch != null && cachedBatch.hasCurrent();
   }
 
   @Override
   public TimeValuePair nextTimeValuePair() throws IOException {
-    if (!hasNextTimeValuePair()) {
-      throw new NoSuchElementException();
-    }
-    this.lastTimestamp = cachedBatch.currentTime();
-    TimeValuePair timeValuePair =
-        new TimeValuePair(
-            cachedBatch.currentTime(),
-            TsPrimitiveType.getByType(sourceInfo.getDataType(), cachedBatch.currentValue()));
+    TimeValuePair timeValuePair = currentTimeValuePair();
+    cachedPair = null;
     cachedBatch.next();
     return timeValuePair;
   }
@@ -86,74 +113,172 @@ public class RemoteSimpleSeriesReader implements IPointReader {
     if (!hasNextTimeValuePair()) {
       throw new NoSuchElementException();
     }
-    return new TimeValuePair(
-        cachedBatch.currentTime(),
-        TsPrimitiveType.getByType(sourceInfo.getDataType(), cachedBatch.currentValue()));
+    if (cachedPair == null) {
+      // read the primitive value directly instead of boxing it through currentValue()
+      cachedPair =
+          new TimeValuePair(cachedBatch.currentTime(), cachedBatch.currentTsPrimitiveType());
+    }
+    return cachedPair;
   }
 
   @Override
   public void close() {
-    // closed by Resource manager
+    // the remote reader is closed by Resource manager, only stop fetching here
+    synchronized (this) {
+      closed = true;
+      prefetchedBatches.clear();
+    }
+  }
+
+  /**
+   * Take the next fetched batch, wait for it if it has not arrived yet.
+   *
+   * @return the next batch or null if there is no more data
+   */
+  private synchronized BatchData nextBatch() throws IOException {
+    long waitStart = 0;
+    while (true) {
+      BatchData batch = prefetchedBatches.poll();
+      if (batch != null) {
+        fetchAhead(false);
+        return batch;
+      }
+      if (fetchError != null) {
+        switchNode();
+        continue;
+      }
+      if (noMoreBatch || closed) {
+        return null;
+      }
+      if (pendingFetch == null) {
+        if (!sourceInfo.checkCurClient()) {
+          noMoreBatch = true;
+          return null;
+        }
+        fetchAhead(true);
+        continue;
+      }
+      if (waitStart == 0) {
+        waitStart = System.currentTimeMillis();
+        // the query is faster than the fetching, fetch more batches ahead
+        prefetchBatchNum = Math.min(maxPrefetchBatchNum, prefetchBatchNum * 2);
+      } else if (System.currentTimeMillis() - waitStart
+          > ClusterConstant.getReadOperationTimeoutMS()) {
+        throw new IOException("Fetching a batch timed out, " + sourceInfo);
+      }
+      try {
+        wait(ClusterConstant.getReadOperationTimeoutMS());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.warn("Query {} interrupted", sourceInfo);
+        return null;
+      }
+    }
+  }
+
+  /** Resume the remote reader on another node of the group after the last fetched point. */
+  private void switchNode() throws IOException {
+    logger.debug("Cannot fetch a batch from {}, try other nodes", sourceInfo, fetchError);
+    fetchError = null;
+    if (!sourceInfo.switchNode(false, lastTimestamp)) {
+      noMoreBatch = true;
+    }
   }
 
-  private void fetchBatch() throws IOException {
-    if (!sourceInfo.checkCurClient()) {
-      cachedBatch = null;
+  /**
+   * Start fetching the next batch if no fetch is in progress and the fetched batches are fewer than
+   * the prefetch window.
+   *
+   * @param required whether the batch is required by the query right now
+   */
+  private synchronized void fetchAhead(boolean required) {
+    if (pendingFetch != null
+        || fetchError != null
+        || noMoreBatch
+        || closed
+        || (!required && prefetchedBatches.size() >= prefetchBatchNum)) {
+      return;
+    }
+    try {
+      if (!sourceInfo.checkCurClient()) {
+        // leave it to the query to find out
+        return;
+      }
+    } catch (IOException e) {
       return;
     }
 
-    ByteBuffer result;
+    CompletableFuture<ByteBuffer> fetch;
     if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-      result = fetchResultAsync();
+      fetch = fetchResultAsync();
     } else {
-      result = fetchResultSync();
-    }
-
-    cachedBatch = SerializeUtils.deserializeBatchData(result);
-    if (logger.isDebugEnabled()) {
-      logger.debug(
-          "Fetched a batch from {}, size:{}",
-          sourceInfo.getCurrentNode(),
-          cachedBatch == null ? 0 : cachedBatch.length());
+      fetch = CompletableFuture.supplyAsync(this::fetchResultSync, prefetchPool);
     }
+    pendingFetch = fetch;
+    fetch.whenComplete(this::onFetched);
   }
 
-  @SuppressWarnings("java:S2274") // enable timeout
-  private ByteBuffer fetchResultAsync() throws IOException {
-    synchronized (fetchResult) {
-      fetchResult.set(null);
-      try {
-        sourceInfo
-            .getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS())
-            .fetchSingleSeries(sourceInfo.getHeader(), sourceInfo.getReaderId(), handler);
-        fetchResult.wait(ClusterConstant.getReadOperationTimeoutMS());
-      } catch (TException e) {
-        // try other node
-        if (!sourceInfo.switchNode(false, lastTimestamp)) {
-          return null;
+  private synchronized void onFetched(ByteBuffer result, Throwable error) {
+    pendingFetch = null;
+    if (error != null) {
+      fetchError = error instanceof CompletionException ? error.getCause() : error;
+    } else {
+      BatchData batch = SerializeUtils.deserializeBatchData(result);
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            "Fetched a batch from {}, size:{}",
+            sourceInfo.getCurrentNode(),
+            batch == null ? 0 : batch.length());
+      }
+      if (batch == null || batch.isEmpty()) {
+        noMoreBatch = true;
+      } else if (!closed) {
+        lastTimestamp = batch.getTimeByIndex(batch.length() - 1);
+        prefetchedBatches.add(batch);
+        if (prefetchedBatches.size() < prefetchBatchNum) {
+          // do not issue the next fetch in the callback thread of the client
+          prefetchPool.execute(() -> fetchAhead(false));
         }
-        return fetchResultAsync();
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        logger.warn("Query {} interrupted", sourceInfo);
-        return null;
       }
     }
-    return fetchResult.get();
+    notifyAll();
+  }
+
+  private CompletableFuture<ByteBuffer> fetchResultAsync() {
+    CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+    try {
+      AsyncDataClient client =
+          sourceInfo.getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS());
+      client.fetchSingleSeries(
+          sourceInfo.getHeader(),
+          sourceInfo.getReaderId(),
+          new AsyncMethodCallback<ByteBuffer>() {
+            @Override
+            public void onComplete(ByteBuffer response) {
+              future.complete(response);
+            }
+
+            @Override
+            public void onError(Exception exception) {
+              future.completeExceptionally(exception);
+            }
+          });
+    } catch (TException | IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
   }
 
-  private ByteBuffer fetchResultSync() throws IOException {
+  private ByteBuffer fetchResultSync() {
     SyncDataClient curSyncClient = null;
     try {
       curSyncClient = sourceInfo.getCurSyncClient(ClusterConstant.getReadOperationTimeoutMS());
       return curSyncClient.fetchSingleSeries(sourceInfo.getHeader(), sourceInfo.getReaderId());
     } catch (TException e) {
       curSyncClient.close();
-      // try other node
-      if (!sourceInfo.switchNode(false, lastTimestamp)) {
-        return null;
-      }
-      return fetchResultSync();
+      throw new CompletionException(e);
+    } catch (IOException e) {
+      throw new CompletionException(e);
     } finally {
       if (curSyncClient != null) {
         curSyncClient.returnSelf();
@@ -161,7 +286,19 @@ public class RemoteSimpleSeriesReader implements IPointReader {
     }
   }
 
-  void clearCurDataForTest() {
+  synchronized void clearCurDataForTest() {
+    while (pendingFetch != null) {
+      try {
+        wait(ClusterConstant.getReadOperationTimeoutMS());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
     this.cachedBatch = null;
+    this.cachedPair = null;
+    this.prefetchedBatches.clear();
+    this.fetchError = null;
+    this.noMoreBatch = false;
   }
 }
@@ -28,4 +28,10 @@ public interface IMultBatchReader extends IBatchReader {
   boolean hasNextBatch(String fullPath) throws IOException;
 
   BatchData nextBatch(String fullPath) throws IOException;
+
+  /**
+   * @param index index of the path in the query request
+   * @return full path of the series
+   */
+  String getFullPath(int index);
 }
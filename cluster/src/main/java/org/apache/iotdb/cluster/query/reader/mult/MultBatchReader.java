@@ -22,14 +22,20 @@ import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.reader.IBatchReader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class MultBatchReader implements IMultBatchReader {
 
   private Map<String, IBatchReader> pathBatchReaders;
 
+  /** full paths in the iteration order of pathBatchReaders, which is the order of the request */
+  private List<String> fullPaths;
+
   public MultBatchReader(Map<String, IBatchReader> pathBatchReaders) {
     this.pathBatchReaders = pathBatchReaders;
+    this.fullPaths = new ArrayList<>(pathBatchReaders.keySet());
   }
 
   /**
@@ -59,6 +65,11 @@ public class MultBatchReader implements IMultBatchReader {
     return pathBatchReaders.get(fullPath).nextBatch();
   }
 
+  @Override
+  public String getFullPath(int index) {
+    return fullPaths.get(index);
+  }
+
   @Override
   public BatchData nextBatch() throws IOException {
     throw new UnsupportedOperationException();
@@ -212,6 +212,10 @@ public class MultDataSourceInfo {
     return partitionGroup.getHeader();
   }
 
+  public boolean isAscending() {
+    return request.isAscending();
+  }
+
   AsyncDataClient getCurAsyncClient(int timeout) throws IOException {
     return isNoClient
         ? null
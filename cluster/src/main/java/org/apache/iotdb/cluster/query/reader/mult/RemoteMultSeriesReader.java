@@ -19,177 +19,239 @@
 
 package org.apache.iotdb.cluster.query.reader.mult;
 
+import org.apache.iotdb.cluster.client.async.AsyncDataClient;
 import org.apache.iotdb.cluster.client.sync.SyncDataClient;
+import org.apache.iotdb.cluster.config.ClusterConfig;
 import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.server.handlers.caller.GenericHandler;
 import org.apache.iotdb.db.utils.SerializeUtils;
-import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
-import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
 
-/** multi reader without value filter that reads points from a remote side. */
+/**
+ * multi reader without value filter that reads points from a remote side.
+ *
+ * <p>All series of the reader are fetched by fetchMultSeriesBatches. When a series runs out of
+ * cached points, the series that have fewer than max_point_num_per_series_in_mult_fetch points
+ * cached are fetched together with it in one request. A cursor is kept for each series, which
+ * records whether the series has more data and the last fetched timestamp, so the series can be
+ * resumed on another node without returning the points fetched before.
+ */
 public class RemoteMultSeriesReader extends AbstractMultPointReader {
 
   private static final Logger logger = LoggerFactory.getLogger(RemoteMultSeriesReader.class);
-  private static final int FETCH_BATCH_DATA_SIZE = 10;
 
   private MultDataSourceInfo sourceInfo;
 
-  private Map<String, Queue<BatchData>> cachedBatchs;
-
-  private AtomicReference<Map<String, ByteBuffer>> fetchResult = new AtomicReference<>();
-  private GenericHandler<Map<String, ByteBuffer>> handler;
+  /** the cursors of the series, in the order of the paths of the query request */
+  private SeriesCursor[] cursors;
 
-  private BatchStrategy batchStrategy;
+  private Map<String, Integer> pathIndexes;
 
-  private Map<String, BatchData> currentBatchDatas;
+  private int maxPointNumPerSeries;
 
-  private Map<String, TSDataType> pathToDataType;
+  private int maxResultSize;
 
   public RemoteMultSeriesReader(MultDataSourceInfo sourceInfo) {
     this.sourceInfo = sourceInfo;
-    this.handler = new GenericHandler<>(sourceInfo.getCurrentNode(), fetchResult);
-    this.currentBatchDatas = Maps.newHashMap();
-    this.batchStrategy = new DefaultBatchStrategy();
-
-    this.cachedBatchs = Maps.newHashMap();
-    this.pathToDataType = Maps.newHashMap();
-    for (int i = 0; i < sourceInfo.getPartialPaths().size(); i++) {
-      String fullPath = sourceInfo.getPartialPaths().get(i).getFullPath();
-      this.cachedBatchs.put(fullPath, new ConcurrentLinkedQueue<>());
-      this.pathToDataType.put(fullPath, sourceInfo.getDataTypes().get(i));
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    this.maxPointNumPerSeries = config.getMaxPointNumPerSeriesInMultFetch();
+    this.maxResultSize = config.getMaxMultFetchResultSizeInByte();
+
+    int seriesNum = sourceInfo.getPartialPaths().size();
+    this.cursors = new SeriesCursor[seriesNum];
+    this.pathIndexes = new HashMap<>(seriesNum);
+    for (int i = 0; i < seriesNum; i++) {
+      cursors[i] = new SeriesCursor(sourceInfo.isAscending());
+      pathIndexes.put(sourceInfo.getPartialPaths().get(i).getFullPath(), i);
     }
   }
 
   @Override
   public synchronized boolean hasNextTimeValuePair(String fullPath) throws IOException {
-    BatchData batchData = currentBatchDatas.get(fullPath);
-    if (batchData != null && batchData.hasCurrent()) {
-      return true;
+    int index = pathIndexes.get(fullPath);
+    SeriesCursor cursor = cursors[index];
+    while (true) {
+      if (cursor.currentBatch != null && cursor.currentBatch.hasCurrent()) {
+        return true;
+      }
+      BatchData batchData = cursor.batches.poll();
+      if (batchData != null) {
+        cursor.cachedPointNum -= batchData.length();
+        cursor.currentBatch = batchData;
+        continue;
+      }
+      if (!cursor.hasMore) {
+        return false;
+      }
+      fetchBatches(index);
     }
-    fetchBatch();
-    return checkPathBatchData(fullPath);
-  }
-
-  private boolean checkPathBatchData(String fullPath) {
-    BatchData batchData = cachedBatchs.get(fullPath).peek();
-    return batchData != null && !batchData.isEmpty();
   }
 
   @Override
   public synchronized TimeValuePair nextTimeValuePair(String fullPath) throws IOException {
-    BatchData batchData = currentBatchDatas.get(fullPath);
-    if ((batchData == null || !batchData.hasCurrent()) && checkPathBatchData(fullPath)) {
-      batchData = cachedBatchs.get(fullPath).poll();
-      currentBatchDatas.put(fullPath, batchData);
-    }
-
     if (!hasNextTimeValuePair(fullPath)) {
       throw new NoSuchElementException();
     }
-
+    BatchData batchData = cursors[pathIndexes.get(fullPath)].currentBatch;
     TimeValuePair timeValuePair =
-        new TimeValuePair(
-            batchData.currentTime(),
-            TsPrimitiveType.getByType(pathToDataType.get(fullPath), batchData.currentValue()));
+        new TimeValuePair(batchData.currentTime(), batchData.currentTsPrimitiveType());
     batchData.next();
     return timeValuePair;
   }
 
   @Override
   public Set<String> getAllPaths() {
-    return cachedBatchs.keySet();
+    return pathIndexes.keySet();
   }
 
   /** query resource deal close there is not dealing. */
   @Override
   public void close() {}
 
-  private void fetchBatch() throws IOException {
+  /**
+   * Fetch the required series together with the other series that are running out of cached points.
+   *
+   * @param requiredIndex index of the series that has no cached point
+   */
+  private void fetchBatches(int requiredIndex) throws IOException {
     if (!sourceInfo.checkCurClient()) {
-      cachedBatchs = null;
+      for (SeriesCursor cursor : cursors) {
+        cursor.hasMore = false;
+      }
       return;
     }
-    List<String> paths = batchStrategy.selectBatchPaths(this.cachedBatchs);
-    if (paths.isEmpty()) {
+    List<Integer> seriesIndexes = selectSeries(requiredIndex);
+    MultSeriesFetchRequest request =
+        new MultSeriesFetchRequest(
+            sourceInfo.getHeader(),
+            sourceInfo.getReaderId(),
+            seriesIndexes,
+            maxPointNumPerSeries,
+            maxResultSize);
+
+    MultSeriesFetchResult result;
+    try {
+      if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
+        result = fetchResultAsync(request);
+      } else {
+        result = fetchResultSync(request);
+      }
+    } catch (TException e) {
+      logger.warn("Failed to fetch results from {}, try other nodes", sourceInfo, e);
+      switchNode();
       return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when fetching results from " + sourceInfo, e);
     }
 
-    Map<String, ByteBuffer> result;
-    if (ClusterDescriptor.getInstance().getConfig().isUseAsyncServer()) {
-      result = fetchResultAsync(paths);
-    } else {
-      result = fetchResultSync(paths);
+    int fetchedPointNum = 0;
+    for (int i = 0; i < seriesIndexes.size(); i++) {
+      SeriesCursor cursor = cursors[seriesIndexes.get(i)];
+      ByteBuffer buffer = result.getBatches().get(i);
+      while (buffer.hasRemaining()) {
+        BatchData batchData = cursor.skipFetchedPoints(SerializeUtils.deserializeBatchData(buffer));
+        if (batchData != null) {
+          cursor.add(batchData);
+          fetchedPointNum += batchData.length();
+        }
+      }
+      cursor.hasMore = result.getHasMore().get(i);
     }
-
-    if (result == null) {
-      return;
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Fetched {} series from {}, points:{}",
+          seriesIndexes.size(),
+          sourceInfo.getCurrentNode(),
+          fetchedPointNum);
     }
+  }
 
-    for (String path : result.keySet()) {
+  /**
+   * Select the series to be fetched, the required one first, then the other ones that have more
+   * data and fewer cached points than a fetch can return.
+   */
+  List<Integer> selectSeries(int requiredIndex) {
+    List<Integer> seriesIndexes = new ArrayList<>();
+    seriesIndexes.add(requiredIndex);
+    for (int i = 0; i < cursors.length; i++) {
+      if (i != requiredIndex
+          && cursors[i].hasMore
+          && cursors[i].cachedPointNum < maxPointNumPerSeries) {
+        seriesIndexes.add(i);
+      }
+    }
+    return seriesIndexes;
+  }
 
-      BatchData batchData = SerializeUtils.deserializeBatchData(result.get(path));
-      if (logger.isDebugEnabled()) {
-        logger.debug(
-            "Fetched a batch from {}, size:{}",
-            sourceInfo.getCurrentNode(),
-            batchData == null ? 0 : batchData.length());
+  /**
+   * Create a reader on another node of the group. As the series have been read to different
+   * timestamps, the new reader starts from the smallest one in ascending queries (and from the
+   * beginning in descending queries), and the points fetched before are skipped by the cursors.
+   */
+  private void switchNode() throws IOException {
+    long timestamp = Long.MIN_VALUE;
+    if (sourceInfo.isAscending()) {
+      timestamp = Long.MAX_VALUE;
+      for (SeriesCursor cursor : cursors) {
+        if (cursor.hasMore) {
+          timestamp = Math.min(timestamp, cursor.lastTimestamp);
+        }
       }
-      // if data query end, batchData is null,
-      // will create empty BatchData, and add queue.
-      if (batchData == null) {
-        batchData = new BatchData();
+    }
+    if (!sourceInfo.hasNextDataClient(timestamp)) {
+      if (!sourceInfo.isNoData()) {
+        throw new IOException("no available client.");
+      }
+      for (SeriesCursor cursor : cursors) {
+        cursor.hasMore = false;
       }
-      cachedBatchs
-          .computeIfAbsent(path, n -> new ConcurrentLinkedQueue<BatchData>())
-          .add(batchData);
     }
   }
 
-  @SuppressWarnings("java:S2274") // enable timeout
-  private Map<String, ByteBuffer> fetchResultAsync(List<String> paths) throws IOException {
-    synchronized (fetchResult) {
-      fetchResult.set(null);
-      try {
-        sourceInfo
-            .getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS())
-            .fetchMultSeries(sourceInfo.getHeader(), sourceInfo.getReaderId(), paths, handler);
-        fetchResult.wait(ClusterConstant.getReadOperationTimeoutMS());
-      } catch (TException | InterruptedException e) {
-        logger.error("Failed to fetch result async, connect to {}", sourceInfo, e);
-        return null;
-      }
+  private MultSeriesFetchResult fetchResultAsync(MultSeriesFetchRequest request)
+      throws IOException, TException, InterruptedException {
+    AsyncDataClient client =
+        sourceInfo.getCurAsyncClient(ClusterConstant.getReadOperationTimeoutMS());
+    GenericHandler<MultSeriesFetchResult> handler =
+        new GenericHandler<>(sourceInfo.getCurrentNode(), new AtomicReference<>());
+    client.fetchMultSeriesBatches(request, handler);
+    MultSeriesFetchResult result = handler.getResult(ClusterConstant.getReadOperationTimeoutMS());
+    if (result == null) {
+      throw new TException("Fetching results timed out");
     }
-    return fetchResult.get();
+    return result;
   }
 
-  private Map<String, ByteBuffer> fetchResultSync(List<String> paths) throws IOException {
+  private MultSeriesFetchResult fetchResultSync(MultSeriesFetchRequest request)
+      throws IOException, TException {
     SyncDataClient curSyncClient = null;
     try {
       curSyncClient = sourceInfo.getCurSyncClient(ClusterConstant.getReadOperationTimeoutMS());
-      return curSyncClient.fetchMultSeries(sourceInfo.getHeader(), sourceInfo.getReaderId(), paths);
+      return curSyncClient.fetchMultSeriesBatches(request);
     } catch (TException e) {
       curSyncClient.close();
-      logger.error("Failed to fetch result sync, connect to {}", sourceInfo, e);
-      return null;
+      throw e;
     } finally {
       if (curSyncClient != null) {
         curSyncClient.returnSelf();
@@ -197,31 +259,73 @@ public class RemoteMultSeriesReader extends AbstractMultPointReader {
     }
   }
 
-  /** select path, which could batch-fetch result */
-  interface BatchStrategy {
-    List<String> selectBatchPaths(Map<String, Queue<BatchData>> cacheBatchs);
-  }
+  private static class SeriesCursor {
+
+    private final boolean ascending;
+
+    private final Queue<BatchData> batches = new ArrayDeque<>();
 
-  static class DefaultBatchStrategy implements BatchStrategy {
+    private BatchData currentBatch;
 
-    @Override
-    public List<String> selectBatchPaths(Map<String, Queue<BatchData>> cacheBatchs) {
-      List<String> paths = Lists.newArrayList();
+    private int cachedPointNum;
 
-      for (String path : cacheBatchs.keySet()) {
-        Queue<BatchData> batchDataQueue = cacheBatchs.get(path);
-        BatchData batchData = batchDataQueue.peek();
+    private boolean hasMore = true;
 
-        // data read finished, so can not batch get data
-        if (batchData != null && batchData.isEmpty()) {
-          continue;
+    /** timestamp of the last fetched point */
+    private long lastTimestamp;
+
+    private SeriesCursor(boolean ascending) {
+      this.ascending = ascending;
+      this.lastTimestamp = ascending ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    private void add(BatchData batchData) {
+      batches.add(batchData);
+      cachedPointNum += batchData.length();
+    }
+
+    /**
+     * Remove the points that have been fetched, which may be returned again after the reader is
+     * switched to another node, and move the last timestamp forward.
+     *
+     * @return the batch with the new points only or null if there is no new point
+     */
+    private BatchData skipFetchedPoints(BatchData batchData) {
+      if (batchData == null || batchData.isEmpty()) {
+        return null;
+      }
+      long prevTimestamp = lastTimestamp;
+      boolean allNew = true;
+      while (batchData.hasCurrent()) {
+        long time = batchData.currentTime();
+        if (isNew(time, prevTimestamp)) {
+          if (isNew(time, lastTimestamp)) {
+            lastTimestamp = time;
+          }
+        } else {
+          allNew = false;
         }
+        batchData.next();
+      }
+      batchData.resetBatchData();
+      if (allNew) {
+        return batchData;
+      }
 
-        if (batchDataQueue.size() < FETCH_BATCH_DATA_SIZE) {
-          paths.add(path);
+      // the points are put in the order they are read
+      BatchData newPoints = new BatchData(batchData.getDataType());
+      while (batchData.hasCurrent()) {
+        long time = batchData.currentTime();
+        if (isNew(time, prevTimestamp)) {
+          newPoints.putAnObject(time, batchData.currentValue());
         }
+        batchData.next();
       }
-      return paths;
+      return newPoints.isEmpty() ? null : newPoints;
+    }
+
+    private boolean isNew(long time, long fetchedTimestamp) {
+      return ascending ? time > fetchedTimestamp : time < fetchedTimestamp;
     }
   }
 }
@@ -19,12 +19,33 @@
 
 package org.apache.iotdb.cluster.server;
 
+import org.apache.iotdb.cluster.ClusterIoTDB;
+import org.apache.iotdb.cluster.config.ClusterConstant;
+import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.partition.PartitionTable;
+import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.server.basic.ClusterServiceProvider;
+import org.apache.iotdb.cluster.server.member.DataGroupMember;
+import org.apache.iotdb.cluster.server.member.MetaGroupMember;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.thrift.impl.TSServiceImpl;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.EndPoint;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * ClusterTSServiceImpl is the cluster version of TSServiceImpl, which is responsible for the
  * processing of the user requests (sqls and session api). It inherits the basic procedures from
@@ -44,4 +65,76 @@ public class ClusterTSServiceImpl extends TSServiceImpl {
   protected TSStatus executeNonQueryPlan(PhysicalPlan plan) {
     return clusterServiceProvider.executeNonQueryPlan(plan);
   }
+
+  /**
+   * Provide the slot table so that the clients can route the insertions to the owners of the data
+   * directly. The commit index of the meta group is used as the version of the table, as the
+   * partition table only changes with the meta logs.
+   */
+  @Override
+  public TSFetchPartitionTableResp fetchPartitionTable(TSFetchPartitionTableReq req) {
+    if (!serviceProvider.checkLogin(req.getSessionId())) {
+      return new TSFetchPartitionTableResp(getNotLoggedInStatus(), 0);
+    }
+    TSFetchPartitionTableResp resp =
+        new TSFetchPartitionTableResp(RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS), 0);
+    MetaGroupMember metaGroupMember = ClusterIoTDB.getInstance().getMetaGroupMember();
+    PartitionTable partitionTable = metaGroupMember.getPartitionTable();
+    if (!(partitionTable instanceof SlotPartitionTable)) {
+      return resp;
+    }
+    long version = Math.max(1, metaGroupMember.getLogManager().getCommitLogIndex() + 1);
+    resp.setVersion(version);
+    if (version == req.getVersion()) {
+      // the client already has the latest table
+      return resp;
+    }
+
+    List<String> storageGroups = new ArrayList<>();
+    for (PartialPath storageGroup : IoTDB.metaManager.getAllStorageGroupPaths()) {
+      storageGroups.add(storageGroup.getFullPath());
+    }
+    resp.setStorageGroups(storageGroups);
+    resp.setPartitionInterval(
+        StorageEngine.isEnablePartition() ? StorageEngine.getTimePartitionInterval() : 0);
+    resp.setHashSalt(ClusterConstant.HASH_SALT);
+
+    SlotPartitionTable slotPartitionTable = (SlotPartitionTable) partitionTable;
+    Map<RaftNode, DataGroupMember> headerGroupMap =
+        ClusterIoTDB.getInstance().getDataGroupEngine().getHeaderGroupMap();
+    Map<RaftNode, Integer> groupIndexes = new HashMap<>();
+    List<List<EndPoint>> groupEndPoints = new ArrayList<>();
+    RaftNode[] slotNodes = slotPartitionTable.getSlotNodes();
+    List<Integer> slotGroups = new ArrayList<>(slotNodes.length);
+    for (RaftNode header : slotNodes) {
+      Integer groupIndex = groupIndexes.get(header);
+      if (groupIndex == null) {
+        groupIndex = groupEndPoints.size();
+        groupIndexes.put(header, groupIndex);
+        groupEndPoints.add(
+            getGroupEndPoints(slotPartitionTable.getPartitionGroup(header), headerGroupMap));
+      }
+      slotGroups.add(groupIndex);
+    }
+    resp.setGroupEndPoints(groupEndPoints);
+    resp.setSlotGroups(slotGroups);
+    return resp;
+  }
+
+  /** The client endpoints of a data group, the leader is put first if it is known locally. */
+  private List<EndPoint> getGroupEndPoints(
+      PartitionGroup group, Map<RaftNode, DataGroupMember> headerGroupMap) {
+    List<EndPoint> endPoints = new ArrayList<>(group.size());
+    DataGroupMember localMember = headerGroupMap.get(group.getHeader());
+    Node leader = localMember == null ? null : localMember.getLeader();
+    for (Node node : group) {
+      EndPoint endPoint = new EndPoint(node.getClientIp(), node.getClientPort());
+      if (node.equals(leader)) {
+        endPoints.add(0, endPoint);
+      } else {
+        endPoints.add(endPoint);
+      }
+    }
+    return endPoints;
+  }
 }
@@ -101,7 +101,7 @@ public class AppendNodeEntryHandler implements AsyncMethodCallback<Long> {
               log);
           voteCounter.notifyAll();
         }
-        peer.setMatchIndex(Math.max(log.getCurrLogIndex(), peer.getMatchIndex()));
+        peer.updateMatchIndex(log.getCurrLogIndex());
       } else if (resp > 0) {
         // a response > 0 is the follower's term
         // the leader ship is stale, wait for the new leader's heartbeat
@@ -43,11 +43,16 @@ public class HeartbeatHandler implements AsyncMethodCallback<HeartBeatResponse>
   private RaftMember localMember;
   private String memberName;
   private Node receiver;
+  // the leader lease is counted from the sending of the heartbeat rather than the receiving of
+  // its response, so that it never outlives the follower's election timeout. It is measured with
+  // System.nanoTime() so that wall clock adjustments do not extend the lease
+  private long sendTime;
 
   public HeartbeatHandler(RaftMember localMember, Node receiver) {
     this.localMember = localMember;
     this.receiver = receiver;
     this.memberName = localMember.getName();
+    this.sendTime = System.nanoTime();
   }
 
   @Override
@@ -138,10 +143,11 @@ public class HeartbeatHandler implements AsyncMethodCallback<HeartBeatResponse>
       }
     } else {
       // the follower is up-to-date
-      peer.setMatchIndex(Math.max(peer.getMatchIndex(), lastLogIdx));
+      peer.updateMatchIndex(lastLogIdx);
       peer.resetInconsistentHeartbeatNum();
     }
     peer.setLastHeartBeatIndex(lastLogIdx);
+    peer.updateLastHeartbeatAckTime(sendTime);
   }
 
   @Override
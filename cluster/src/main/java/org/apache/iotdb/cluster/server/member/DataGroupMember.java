@@ -36,16 +36,20 @@ import org.apache.iotdb.cluster.log.applier.DataLogApplier;
 import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.CloseFileLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.log.manage.FilePartitionedSnapshotLogManager;
 import org.apache.iotdb.cluster.log.manage.PartitionedSnapshotLogManager;
 import org.apache.iotdb.cluster.log.snapshot.FileSnapshot;
 import org.apache.iotdb.cluster.log.snapshot.PartitionedSnapshot;
 import org.apache.iotdb.cluster.log.snapshot.PullSnapshotTask;
 import org.apache.iotdb.cluster.log.snapshot.PullSnapshotTaskDescriptor;
+import org.apache.iotdb.cluster.log.snapshot.SnapshotPullProgress;
 import org.apache.iotdb.cluster.metadata.CMManager;
 import org.apache.iotdb.cluster.partition.NodeAdditionResult;
 import org.apache.iotdb.cluster.partition.NodeRemovalResult;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.partition.slot.SlotLoad;
+import org.apache.iotdb.cluster.partition.slot.SlotLoadRecorder;
 import org.apache.iotdb.cluster.partition.slot.SlotManager;
 import org.apache.iotdb.cluster.partition.slot.SlotManager.SlotStatus;
 import org.apache.iotdb.cluster.partition.slot.SlotNodeAdditionResult;
@@ -139,6 +143,12 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
   /** The thread pool that runs the pull snapshot tasks. Pool size is the # of CPU cores. */
   private ExecutorService pullSnapshotService;
 
+  /** The thread pool that pulls the data files of snapshots concurrently. */
+  private ExecutorService pullFileService;
+
+  /** The progress of pulling the data files of snapshots, shown in the report of the member. */
+  private final SnapshotPullProgress snapshotPullProgress = new SnapshotPullProgress();
+
   /**
    * When the member applies a pulled snapshot, it register hints in this service which will
    * periodically inform the data source that one member has pulled snapshot.
@@ -158,6 +168,9 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
    */
   protected SlotManager slotManager;
 
+  /** "slotLoadRecorder" records the ingestion and queries of each slot for load balancing. */
+  private final SlotLoadRecorder slotLoadRecorder = new SlotLoadRecorder(ClusterConstant.SLOT_NUM);
+
   private LocalQueryExecutor localQueryExecutor;
 
   LogApplier dataLogApplier;
@@ -248,6 +261,10 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
     pullSnapshotService =
         IoTDBThreadPoolFactory.newFixedThreadPool(
             Runtime.getRuntime().availableProcessors(), "pullSnapshot");
+    pullFileService =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            ClusterDescriptor.getInstance().getConfig().getConcurrentSnapshotFilePullNum(),
+            "pullSnapshotFile");
     pullSnapshotHintService = new PullSnapshotHintService(this);
     pullSnapshotHintService.start();
     resumePullSnapshotTasks();
@@ -273,6 +290,10 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
       pullSnapshotService = null;
       pullSnapshotHintService.stop();
     }
+    if (pullFileService != null) {
+      pullFileService.shutdownNow();
+      pullFileService = null;
+    }
 
     try {
       getQueryManager().endAllQueries();
@@ -476,9 +497,8 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
 
     // this synchronized should work with the one in AppendEntry when a log is going to commit,
     // which may prevent the newly arrived data from being invisible to the new header.
+    Map<Integer, Snapshot> snapshotMap = new HashMap<>();
     synchronized (logManager) {
-      PullSnapshotResp resp = new PullSnapshotResp();
-      Map<Integer, ByteBuffer> resultMap = new HashMap<>();
       ((PartitionedSnapshotLogManager) logManager)
           .takeSnapshotForSpecificSlots(requiredSlots, false);
 
@@ -486,13 +506,22 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
       for (int requiredSlot : requiredSlots) {
         Snapshot snapshot = allSnapshot.getSnapshot(requiredSlot);
         if (snapshot != null) {
-          resultMap.put(requiredSlot, snapshot.serialize());
+          snapshotMap.put(requiredSlot, snapshot);
         }
       }
-      resp.setSnapshotBytes(resultMap);
-      logger.debug("{}: Sending {} snapshots to the requester", name, resultMap.size());
-      return resp;
     }
+
+    // the taken snapshots consist of hardlinks that do not change, so the files are read to compute
+    // their digests without blocking the logs from being committed
+    PullSnapshotResp resp = new PullSnapshotResp();
+    Map<Integer, ByteBuffer> resultMap = new HashMap<>();
+    for (Entry<Integer, Snapshot> entry : snapshotMap.entrySet()) {
+      entry.getValue().computeFileDigests();
+      resultMap.put(entry.getKey(), entry.getValue().serialize());
+    }
+    resp.setSnapshotBytes(resultMap);
+    logger.debug("{}: Sending {} snapshots to the requester", name, resultMap.size());
+    return resp;
   }
 
   /** Pull snapshots from the previous holders after newNode joins the cluster. */
@@ -790,6 +819,14 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
       }
       preRemoveNode(((RemoveNodeLog) log).getRemovedNode());
       setAndSaveLastAppliedPartitionTableVersion(((RemoveNodeLog) log).getMetaLogIndex());
+    } else if (log instanceof SlotMigrationLog) {
+      if (!metaGroupMember
+          .getPartitionTable()
+          .deserialize(((SlotMigrationLog) log).getPartitionTable())) {
+        return;
+      }
+      preSlotMigration(((SlotMigrationLog) log).getPreviousHolders());
+      setAndSaveLastAppliedPartitionTableVersion(((SlotMigrationLog) log).getMetaLogIndex());
     } else {
       logger.error("Unsupported log: {}", log);
     }
@@ -982,6 +1019,47 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
     }
   }
 
+  /**
+   * Mark the slots moved out of the group by the load balancer as SENDING. This is called when the
+   * slot migration log is applied in the log of this group, so the writes to the slots before the
+   * log are included in the snapshots pulled by the new holders.
+   *
+   * @param previousHolders slot -> previous holder of the migrated slots
+   */
+  public void preSlotMigration(Map<Integer, RaftNode> previousHolders) {
+    boolean hasLostSlots = false;
+    for (Entry<Integer, RaftNode> entry : previousHolders.entrySet()) {
+      if (entry.getValue().equals(getHeader())) {
+        slotManager.setToSending(entry.getKey(), false);
+        hasLostSlots = true;
+      }
+    }
+    if (hasLostSlots) {
+      slotManager.save();
+    }
+  }
+
+  /**
+   * Pull the data of the slots moved into the group by the load balancer from their previous
+   * holders.
+   *
+   * @param previousHolders slot -> previous holder of the migrated slots
+   */
+  public void migrateSlots(Map<Integer, RaftNode> previousHolders) {
+    RaftNode[] slotNodes =
+        ((SlotPartitionTable) metaGroupMember.getPartitionTable()).getSlotNodes();
+    List<Integer> gainedSlots = new ArrayList<>();
+    for (Integer slot : previousHolders.keySet()) {
+      if (getHeader().equals(slotNodes[slot])) {
+        gainedSlots.add(slot);
+      }
+    }
+    if (!gainedSlots.isEmpty()) {
+      logger.info("{}: pulling {} migrated slots", name, gainedSlots.size());
+      pullNodeAdditionSnapshots(gainedSlots, getHeader().getNode());
+    }
+  }
+
   public void pullSlots(NodeRemovalResult removalResult) {
     List<Integer> slotsToPull =
         ((SlotNodeRemovalResult) removalResult).getNewSlotOwners().get(getHeader());
@@ -1001,20 +1079,23 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
   public DataMemberReport genReport() {
     long prevLastLogIndex = lastReportedLogIndex;
     lastReportedLogIndex = logManager.getLastLogIndex();
-    return new DataMemberReport(
-        character,
-        leader.get(),
-        term.get(),
-        logManager.getLastLogTerm(),
-        lastReportedLogIndex,
-        logManager.getCommitLogIndex(),
-        logManager.getCommitLogTerm(),
-        getHeader(),
-        readOnly,
-        NodeStatusManager.getINSTANCE().getLastResponseLatency(getHeader().getNode()),
-        lastHeartbeatReceivedTime,
-        prevLastLogIndex,
-        logManager.getMaxHaveAppliedCommitIndex());
+    DataMemberReport report =
+        new DataMemberReport(
+            character,
+            leader.get(),
+            term.get(),
+            logManager.getLastLogTerm(),
+            lastReportedLogIndex,
+            logManager.getCommitLogIndex(),
+            logManager.getCommitLogTerm(),
+            getHeader(),
+            readOnly,
+            NodeStatusManager.getINSTANCE().getLastResponseLatency(getHeader().getNode()),
+            lastHeartbeatReceivedTime,
+            prevLastLogIndex,
+            logManager.getMaxHaveAppliedCommitIndex());
+    report.setSnapshotPullProgress(snapshotPullProgress);
+    return report;
   }
 
   @TestOnly
@@ -1037,6 +1118,28 @@ public class DataGroupMember extends RaftMember implements DataGroupMemberMBean
     return slotManager;
   }
 
+  public SlotLoadRecorder getSlotLoadRecorder() {
+    return slotLoadRecorder;
+  }
+
+  public ExecutorService getPullFileService() {
+    return pullFileService;
+  }
+
+  public SnapshotPullProgress getSnapshotPullProgress() {
+    return snapshotPullProgress;
+  }
+
+  /** @return the loads of the slots held by this group */
+  public Map<Integer, SlotLoad> getSlotLoads() {
+    List<Integer> slots =
+        ((SlotPartitionTable) metaGroupMember.getPartitionTable()).getNodeSlots(getHeader());
+    if (slots == null) {
+      return Collections.emptyMap();
+    }
+    return slotLoadRecorder.getSlotLoads(slots);
+  }
+
   public boolean onSnapshotInstalled(List<Integer> slots) {
     if (getMetaGroupMember().getPartitionTable().getAllNodes().contains(thisNode)) {
       getMetaGroupMember()
@@ -42,12 +42,15 @@ import org.apache.iotdb.cluster.log.applier.MetaLogApplier;
 import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.EmptyContentLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.log.manage.MetaSingleSnapshotLogManager;
 import org.apache.iotdb.cluster.log.snapshot.MetaSimpleSnapshot;
 import org.apache.iotdb.cluster.partition.NodeAdditionResult;
 import org.apache.iotdb.cluster.partition.NodeRemovalResult;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.partition.PartitionTable;
+import org.apache.iotdb.cluster.partition.balancer.LoadAwareSlotBalancer;
+import org.apache.iotdb.cluster.partition.slot.SlotLoad;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.query.ClusterPlanRouter;
 import org.apache.iotdb.cluster.rpc.thrift.AddNodeResponse;
@@ -175,6 +178,8 @@ public class MetaGroupMember extends RaftMember implements IService, MetaGroupMe
   private PartitionTable partitionTable;
   /** router calculates the partition groups that a partitioned plan should be sent to */
   private ClusterPlanRouter router;
+  /** plans the slot migrations among the data groups according to their loads */
+  private final LoadAwareSlotBalancer slotLoadBalancer = new LoadAwareSlotBalancer();
 
   /**
    * containing configurations that should be kept the same cluster-wide, and must be checked before
@@ -981,6 +986,95 @@ public class MetaGroupMember extends RaftMember implements IService, MetaGroupMe
     }
   }
 
+  /**
+   * Collect the loads of the slots from the data group leaders and move some slots from the busy
+   * groups to the idle ones. A round is skipped if the migrations of the previous rounds or
+   * membership changes have not finished, so that the data transfers are throttled.
+   */
+  public void balanceSlotLoads() {
+    if (character != NodeCharacter.LEADER || !(partitionTable instanceof SlotPartitionTable)) {
+      return;
+    }
+    try {
+      Map<PartitionGroup, Integer> migrationStatus = collectAllPartitionMigrationStatus();
+      if (migrationStatus == null || !migrationStatus.isEmpty()) {
+        logger.info("{}: skip balancing the slots as the data migration is not finished", name);
+        return;
+      }
+      Map<RaftNode, Map<Integer, SlotLoad>> groupLoads = collectAllSlotLoads();
+      if (groupLoads == null) {
+        return;
+      }
+      Map<Integer, RaftNode> migrations =
+          slotLoadBalancer.planMigrations((SlotPartitionTable) partitionTable, groupLoads);
+      if (!migrations.isEmpty()) {
+        logger.info("{}: migrating slots {} to balance the loads", name, migrations);
+        migrateSlots(migrations);
+      }
+    } catch (CheckConsistencyException e) {
+      logger.warn("{}: cannot balance the slots", name, e);
+    } catch (Exception e) {
+      logger.error("{}: unexpected error when balancing the slots", name, e);
+    }
+  }
+
+  /**
+   * Move the slots to new holders through a meta log, the new holders will pull the data of the
+   * slots from the previous holders when the log is applied.
+   *
+   * @param migrations slot -> new holder
+   * @return whether the migrations are committed
+   */
+  public boolean migrateSlots(Map<Integer, RaftNode> migrations) throws LogExecutionException {
+    if (character != NodeCharacter.LEADER) {
+      return false;
+    }
+    SlotMigrationLog migrationLog = new SlotMigrationLog();
+    // serialized with membership changes to reduce potential concurrency problem
+    synchronized (logManager) {
+      SlotPartitionTable table = new SlotPartitionTable(thisNode);
+      table.deserialize(partitionTable.serialize());
+      Map<Integer, RaftNode> previousHolders = table.migrateSlots(migrations);
+      if (previousHolders.isEmpty()) {
+        return false;
+      }
+      table.setLastMetaLogIndex(logManager.getLastLogIndex() + 1);
+
+      migrationLog.setPartitionTable(table.serialize());
+      migrationLog.setPreviousHolders(previousHolders);
+      migrationLog.setCurrLogTerm(getTerm().get());
+      migrationLog.setCurrLogIndex(logManager.getLastLogIndex() + 1);
+      migrationLog.setMetaLogIndex(logManager.getLastLogIndex() + 1);
+
+      logManager.append(migrationLog);
+    }
+
+    int retryTime = 0;
+    while (true) {
+      logger.info(
+          "{}: Send the slot migration log to other nodes, retry time: {}", name, retryTime);
+      AppendLogResult result = sendLogToFollowers(migrationLog);
+      switch (result) {
+        case OK:
+          commitLog(migrationLog);
+          return true;
+        case TIME_OUT:
+          logger.debug("{}: log {} timed out, retrying...", name, migrationLog);
+          try {
+            Thread.sleep(ClusterConstant.RETRY_WAIT_TIME_MS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+          }
+          retryTime++;
+          break;
+        case LEADERSHIP_STALE:
+        default:
+          return false;
+      }
+    }
+  }
+
   private boolean checkNodeConfig(StartUpStatus remoteStartUpStatus, AddNodeResponse response) {
     long remotePartitionInterval = remoteStartUpStatus.getPartitionInterval();
     int remoteHashSalt = remoteStartUpStatus.getHashSalt();
@@ -1586,6 +1680,54 @@ public class MetaGroupMember extends RaftMember implements IService, MetaGroupMe
     }
   }
 
+  public Map<RaftNode, Map<Integer, SlotLoad>> collectSlotLoads(Node node) {
+    try {
+      if (config.isUseAsyncServer()) {
+        return collectSlotLoadsAsync(node);
+      } else {
+        return collectSlotLoadsSync(node);
+      }
+    } catch (TException e) {
+      logger.error("{}: Cannot get the slot loads of node {}", name, node, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("{}: Cannot get the slot loads of node {}", name, node, e);
+    }
+    return null;
+  }
+
+  private Map<RaftNode, Map<Integer, SlotLoad>> collectSlotLoadsAsync(Node node)
+      throws TException, InterruptedException {
+    AtomicReference<ByteBuffer> resultRef = new AtomicReference<>();
+    GenericHandler<ByteBuffer> slotLoadsHandler = new GenericHandler<>(node, resultRef);
+    AsyncMetaClient client = (AsyncMetaClient) getAsyncClient(node);
+    if (client == null) {
+      return null;
+    }
+    client.collectSlotLoads(slotLoadsHandler);
+    synchronized (resultRef) {
+      if (resultRef.get() == null) {
+        resultRef.wait(ClusterConstant.getConnectionTimeoutInMS());
+      }
+    }
+    return resultRef.get() == null ? null : ClusterUtils.deserializeSlotLoads(resultRef.get());
+  }
+
+  private Map<RaftNode, Map<Integer, SlotLoad>> collectSlotLoadsSync(Node node) throws TException {
+    SyncMetaClient client = (SyncMetaClient) getSyncClient(node);
+    if (client == null) {
+      return null;
+    }
+    try {
+      return ClusterUtils.deserializeSlotLoads(client.collectSlotLoads());
+    } catch (TException e) {
+      client.close();
+      throw e;
+    } finally {
+      client.returnSelf();
+    }
+  }
+
   @TestOnly
   public void setPartitionTable(PartitionTable partitionTable) {
     this.partitionTable = partitionTable;
@@ -1705,6 +1847,19 @@ public class MetaGroupMember extends RaftMember implements IService, MetaGroupMe
     }
   }
 
+  /**
+   * Save the partition table in which some slots are moved to other groups by the load balancer,
+   * and make the new holders of the slots pull their data. The previous holders have marked the
+   * slots as SENDING when the log was applied in their own data group logs.
+   */
+  public void applySlotMigration(SlotMigrationLog migrationLog) {
+    synchronized (allNodes) {
+      savePartitionTable();
+      getDataGroupEngine().migrateSlots(migrationLog.getPreviousHolders());
+    }
+    logger.info("{}: {} slots are migrated", name, migrationLog.getPreviousHolders().size());
+  }
+
   /**
    * Remove a node from the node list, partition table and update DataGroupMembers. If the removed
    * node is the local node, also stop heartbeat and catch-up service of metadata, but the heartbeat
@@ -1882,6 +2037,51 @@ public class MetaGroupMember extends RaftMember implements IService, MetaGroupMe
     return groupSlotMap;
   }
 
+  /**
+   * Collect the loads of the slots from the leaders of all data groups.
+   *
+   * @return the header of each group -> the loads of its slots, or null if some nodes cannot be
+   *     reached
+   */
+  public Map<RaftNode, Map<Integer, SlotLoad>> collectAllSlotLoads() {
+    Map<RaftNode, Map<Integer, SlotLoad>> res = new HashMap<>();
+    for (Node node : allNodes) {
+      Map<RaftNode, Map<Integer, SlotLoad>> oneNodeRes;
+      if (node.equals(thisNode)) {
+        oneNodeRes = collectSlotLoads();
+      } else {
+        oneNodeRes = collectSlotLoads(node);
+      }
+      if (oneNodeRes == null) {
+        return null;
+      }
+      res.putAll(oneNodeRes);
+    }
+    return res;
+  }
+
+  /**
+   * Collect the loads of the slots of the data groups led by this node, as only the leaders apply
+   * the logs of all insertions and receive the queries with strong consistency.
+   *
+   * @return key: header of data group; value: loads of the slots of the group
+   */
+  public Map<RaftNode, Map<Integer, SlotLoad>> collectSlotLoads() {
+    Map<RaftNode, Map<Integer, SlotLoad>> groupLoads = new HashMap<>();
+    if (getPartitionTable() == null) {
+      return groupLoads;
+    }
+    Map<RaftNode, DataGroupMember> headerMap = getDataGroupEngine().getHeaderGroupMap();
+    synchronized (headerMap) {
+      for (DataGroupMember dataMember : headerMap.values()) {
+        if (dataMember.getCharacter() == NodeCharacter.LEADER) {
+          groupLoads.put(dataMember.getHeader(), dataMember.getSlotLoads());
+        }
+      }
+    }
+    return groupLoads;
+  }
+
   @Override
   public void setAllNodes(PartitionGroup allNodes) {
     super.setAllNodes(new PartitionGroup(allNodes));
@@ -63,6 +63,7 @@ import org.apache.iotdb.cluster.server.monitor.Timer;
 import org.apache.iotdb.cluster.server.monitor.Timer.Statistic;
 import org.apache.iotdb.cluster.utils.ClientUtils;
 import org.apache.iotdb.cluster.utils.IOUtils;
+import org.apache.iotdb.cluster.utils.LogCompressionUtils;
 import org.apache.iotdb.cluster.utils.PlanSerializer;
 import org.apache.iotdb.cluster.utils.StatusUtils;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
@@ -177,6 +178,25 @@ public abstract class RaftMember implements RaftMemberMBean {
    * offline.
    */
   volatile long lastHeartbeatReceivedTime;
+  /**
+   * when this node is a leader, this records the System.nanoTime() when it became the leader, so
+   * that the heartbeats acknowledged in previous leaderships are not counted in its lease.
+   */
+  volatile long leaderSince = Long.MAX_VALUE;
+  /**
+   * when this node is a follower, this records the System.nanoTime() when it last heard from a
+   * valid leader. While lease read is enabled, this node refuses to vote within leaderLeaseMs from
+   * it, as the lease of that leader may still be valid.
+   */
+  volatile long lastLeaderContactTime = Long.MIN_VALUE;
+  /**
+   * when lease read is enabled, a follower reuses the read index (the commit index of the leader)
+   * requested within the reuse window, and concurrent reads wait on this lock for the same request.
+   */
+  private final Object readIndexLock = new Object();
+
+  private RequestCommitIndexResponse cachedReadIndex;
+  private long cachedReadIndexTime = Long.MIN_VALUE;
   /** the raft logs are all stored and maintained in the log manager */
   RaftLogManager logManager;
   /**
@@ -478,6 +498,15 @@ public abstract class RaftMember implements RaftMemberMBean {
           electorTerm);
       return currentTerm;
     }
+    if (isLeaderLeaseHeld()) {
+      // a leader may still serve reads with its lease, electing another one may make them stale
+      logger.info(
+          "{} sending rejection to the elector {} because the lease of the leader {} may be valid.",
+          name,
+          elector,
+          leader.get());
+      return Response.RESPONSE_LEADER_STILL_ONLINE;
+    }
     if (currentTerm == electorTerm && voteFor != null && !Objects.equals(voteFor, elector)) {
       // this node has voted in this round, but not for the elector, as one node cannot vote
       // twice, reject the request
@@ -527,7 +556,8 @@ public abstract class RaftMember implements RaftMemberMBean {
   }
 
   /** Similar to appendEntry, while the incoming load is batch of logs instead of a single log. */
-  public long appendEntries(AppendEntriesRequest request) throws UnknownLogTypeException {
+  public long appendEntries(AppendEntriesRequest request)
+      throws UnknownLogTypeException, IOException {
     logger.debug("{} received an AppendEntriesRequest", name);
 
     // the term checked here is that of the leader, not that of the log
@@ -540,6 +570,7 @@ public abstract class RaftMember implements RaftMemberMBean {
     List<Log> logs = new ArrayList<>();
     int logByteSize = 0;
     long startTime = Timer.Statistic.RAFT_RECEIVER_LOG_PARSE.getOperationStartTime();
+    LogCompressionUtils.uncompress(request);
     for (ByteBuffer buffer : request.getEntries()) {
       buffer.mark();
       Log log;
@@ -606,6 +637,9 @@ public abstract class RaftMember implements RaftMemberMBean {
   public void setCharacter(NodeCharacter character) {
     if (!Objects.equals(character, this.character)) {
       logger.info("{} has become a {}", name, character);
+      if (character == NodeCharacter.LEADER) {
+        leaderSince = System.nanoTime();
+      }
       this.character = character;
     }
   }
@@ -738,12 +772,12 @@ public abstract class RaftMember implements RaftMemberMBean {
     } else {
       switch (config.getConsistencyLevel()) {
         case STRONG_CONSISTENCY:
-          syncLeader(new StrongCheckConsistency());
+          syncLeaderForRead(new StrongCheckConsistency());
           return;
         case MID_CONSISTENCY:
           // if leaderCommitId bigger than localAppliedId a value,
           // will throw CHECK_MID_CONSISTENCY_EXCEPTION
-          syncLeader(new MidCheckConsistency());
+          syncLeaderForRead(new MidCheckConsistency());
           return;
         case WEAK_CONSISTENCY:
           // do nothing
@@ -756,6 +790,97 @@ public abstract class RaftMember implements RaftMemberMBean {
     }
   }
 
+  /**
+   * A leader serves a read locally only if its lease is valid, otherwise another leader may have
+   * been elected and accepted newer writes.
+   */
+  private void syncLeaderForRead(CheckConsistency checkConsistency)
+      throws CheckConsistencyException {
+    if (character == NodeCharacter.LEADER && !checkLeaderLease()) {
+      checkConsistency.postCheckConsistency(
+          Long.MIN_VALUE, logManager.getMaxHaveAppliedCommitIndex());
+      return;
+    }
+    syncLeader(checkConsistency);
+  }
+
+  /**
+   * The lease of a leader is valid if a quorum of the followers have acknowledged the heartbeats
+   * sent within leaderLeaseMs and after this node became the leader. As the lease is shorter than
+   * the election timeout, no other leader can be elected before it expires.
+   */
+  public boolean isLeaseValid() {
+    if (character != NodeCharacter.LEADER) {
+      return false;
+    }
+    int requiredQuorum = Math.min(allNodes.size() / 2, allNodes.size() - 1);
+    long leaseStart =
+        Math.max(
+            leaderSince,
+            System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getLeaderLeaseMs()));
+    int validNum = 0;
+    for (Node node : allNodes) {
+      Peer peer = peerMap.get(node);
+      if (peer != null && peer.getLastHeartbeatAckTime() >= leaseStart) {
+        validNum++;
+      }
+    }
+    return validNum >= requiredQuorum;
+  }
+
+  /**
+   * Whether this node should refuse to vote because a leader may still hold a valid lease, i.e.,
+   * this node is a leader with a valid lease, or it has heard from a leader within leaderLeaseMs.
+   */
+  private boolean isLeaderLeaseHeld() {
+    if (!config.isEnableLeaseRead()) {
+      return false;
+    }
+    if (character == NodeCharacter.LEADER) {
+      return isLeaseValid();
+    }
+    long contactTime = lastLeaderContactTime;
+    return contactTime != Long.MIN_VALUE
+        && System.nanoTime() - contactTime
+            < TimeUnit.MILLISECONDS.toNanos(config.getLeaderLeaseMs());
+  }
+
+  /**
+   * Check the lease before a leader serves a read. A new leader has to wait for the responses of
+   * its first heartbeats, so the check waits for at most two heartbeat intervals.
+   *
+   * @return false if lease read is enabled and this node is a leader whose lease is not valid, true
+   *     otherwise
+   */
+  public boolean checkLeaderLease() {
+    long startTime = System.nanoTime();
+    long maxWaitTime = TimeUnit.MILLISECONDS.toNanos(2 * ClusterConstant.getHeartbeatIntervalMs());
+    while (!checkLeaderLeaseNow()) {
+      if (System.nanoTime() - startTime > maxWaitTime) {
+        logger.warn("{}: the leader lease is not valid, the read is rejected", name);
+        return false;
+      }
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check the lease before a leader answers a read index request. Unlike checkLeaderLease(), it
+   * does not wait for a new lease, so the RPC threads are not held and the requester retries.
+   *
+   * @return false if lease read is enabled and this node is a leader whose lease is not valid, true
+   *     otherwise
+   */
+  public boolean checkLeaderLeaseNow() {
+    return !config.isEnableLeaseRead() || character != NodeCharacter.LEADER || isLeaseValid();
+  }
+
   public String getMBeanName() {
     return String.format(
         "%s:%s=%s", "org.apache.iotdb.cluster.service", IoTDBConstant.JMX_TYPE, "Engine");
@@ -878,7 +1003,7 @@ public abstract class RaftMember implements RaftMemberMBean {
     long leaderCommitId = Long.MIN_VALUE;
     RequestCommitIndexResponse response;
     try {
-      response = config.isUseAsyncServer() ? requestCommitIdAsync() : requestCommitIdSync();
+      response = requestReadIndex();
       leaderCommitId = response.getCommitLogIndex();
 
       tryUpdateCommitIndex(
@@ -1158,6 +1283,33 @@ public abstract class RaftMember implements RaftMemberMBean {
     RaftMember.waitLeaderTimeMs = waitLeaderTimeMs;
   }
 
+  /**
+   * Request the commit index of the leader as the read index. If lease read is enabled, the read
+   * index requested within the reuse window is shared by the following reads, so that a batch of
+   * reads only costs one request to the leader.
+   */
+  private RequestCommitIndexResponse requestReadIndex() throws TException, InterruptedException {
+    if (!config.isEnableLeaseRead()) {
+      return config.isUseAsyncServer() ? requestCommitIdAsync() : requestCommitIdSync();
+    }
+    synchronized (readIndexLock) {
+      long requestTime = System.currentTimeMillis();
+      if (cachedReadIndex != null
+          && requestTime - cachedReadIndexTime <= config.getReadIndexReuseWindowMs()) {
+        return cachedReadIndex;
+      }
+      RequestCommitIndexResponse response =
+          config.isUseAsyncServer() ? requestCommitIdAsync() : requestCommitIdSync();
+      if (response.getCommitLogIndex() != Long.MAX_VALUE) {
+        // only a successful response can be reused, and it is only as fresh as the time it is
+        // requested
+        cachedReadIndex = response;
+        cachedReadIndexTime = requestTime;
+      }
+      return response;
+    }
+  }
+
   @SuppressWarnings("java:S2274") // enable timeout
   protected RequestCommitIndexResponse requestCommitIdAsync()
       throws TException, InterruptedException {
@@ -1449,15 +1601,46 @@ public abstract class RaftMember implements RaftMemberMBean {
     }
   }
 
+  /**
+   * Get an asynchronous thrift client of the log appending lane, which is not shared with the other
+   * requests to the node.
+   */
   public AsyncClient getSendLogAsyncClient(Node node) {
     try {
-      return clientManager.borrowAsyncClient(node, ClientCategory.DATA_ASYNC_APPEND_CLIENT);
+      return clientManager.borrowAsyncClient(node, getAppendClientCategory());
     } catch (Exception e) {
       logger.error("borrow send log async client fail", e);
       return null;
     }
   }
 
+  /**
+   * NOTICE: ClientManager.returnClient() must be called after use.
+   *
+   * @return a synchronous thrift client of the log appending lane, or null if the node is not
+   *     available
+   */
+  public Client getSendLogSyncClient(Node node) {
+    try {
+      return clientManager.borrowSyncClient(node, getAppendClientCategory());
+    } catch (IOException e) {
+      logger.error("borrow send log sync client fail", e);
+      return null;
+    }
+  }
+
+  private ClientCategory getAppendClientCategory() {
+    return ClientCategory.META == getClientCategory()
+        ? ClientCategory.META_APPEND
+        : ClientCategory.DATA_APPEND;
+  }
+
+  private ClientCategory getHeartbeatClientCategory() {
+    return ClientCategory.META == getClientCategory()
+        ? ClientCategory.META_HEARTBEAT
+        : ClientCategory.DATA_HEARTBEAT;
+  }
+
   /**
    * NOTICE: ClientManager.returnClient() must be called after use. the caller needs to check to see
    * if the return value is null
@@ -1492,13 +1675,8 @@ public abstract class RaftMember implements RaftMemberMBean {
    * @return an asynchronous thrift client or null if the caller tries to connect the local node.
    */
   public AsyncClient getAsyncHeartbeatClient(Node node) {
-    ClientCategory category =
-        ClientCategory.META == getClientCategory()
-            ? ClientCategory.META_HEARTBEAT
-            : ClientCategory.DATA_HEARTBEAT;
-
     try {
-      return clientManager.borrowAsyncClient(node, category);
+      return clientManager.borrowAsyncClient(node, getHeartbeatClientCategory());
     } catch (Exception e) {
       logger.error("borrow async heartbeat client fail", e);
       return null;
@@ -1511,12 +1689,8 @@ public abstract class RaftMember implements RaftMemberMBean {
    * @return the heartbeat client for the node
    */
   public Client getSyncHeartbeatClient(Node node) {
-    ClientCategory category =
-        ClientCategory.META == getClientCategory()
-            ? ClientCategory.META_HEARTBEAT
-            : ClientCategory.DATA_HEARTBEAT;
     try {
-      return clientManager.borrowSyncClient(node, category);
+      return clientManager.borrowSyncClient(node, getHeartbeatClientCategory());
     } catch (IOException e) {
       logger.error("borrow sync heartbeat client fail", e);
       return null;
@@ -1697,6 +1871,7 @@ public abstract class RaftMember implements RaftMemberMBean {
         // otherwise the node may be stuck in FOLLOWER state by a stale node.
         setCharacter(NodeCharacter.FOLLOWER);
         lastHeartbeatReceivedTime = System.currentTimeMillis();
+        lastLeaderContactTime = System.nanoTime();
       }
     }
   }
@@ -1928,7 +2103,7 @@ public abstract class RaftMember implements RaftMemberMBean {
       AtomicLong newLeaderTerm,
       AppendEntryRequest request,
       Peer peer) {
-    Client client = getSyncClient(node);
+    Client client = getSendLogSyncClient(node);
     if (client != null) {
       AppendNodeEntryHandler handler =
           getAppendNodeEntryHandler(log, voteCounter, node, leaderShipStale, newLeaderTerm, peer);
@@ -2148,6 +2323,7 @@ public abstract class RaftMember implements RaftMemberMBean {
           stepDown(leaderTerm, true);
         } else {
           lastHeartbeatReceivedTime = System.currentTimeMillis();
+          lastLeaderContactTime = System.nanoTime();
         }
         setLeader(leader);
         if (character != NodeCharacter.FOLLOWER) {
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.cluster.server.monitor;
 
+import org.apache.iotdb.cluster.log.snapshot.SnapshotPullProgress;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.server.NodeCharacter;
@@ -198,6 +199,7 @@ public class NodeReport {
   public static class DataMemberReport extends RaftMemberReport {
     RaftNode header;
     long headerLatency;
+    SnapshotPullProgress snapshotPullProgress;
 
     public DataMemberReport(
         NodeCharacter character,
@@ -229,6 +231,10 @@ public class NodeReport {
       this.headerLatency = headerLatency;
     }
 
+    public void setSnapshotPullProgress(SnapshotPullProgress snapshotPullProgress) {
+      this.snapshotPullProgress = snapshotPullProgress;
+    }
+
     @Override
     public String toString() {
       return "DataMemberReport{"
@@ -262,6 +268,8 @@ public class NodeReport {
           + "ms ago"
           + ", logIncrement="
           + (lastLogIndex - prevLastLogIndex)
+          + ", snapshotPullProgress="
+          + snapshotPullProgress
           + '}';
     }
   }
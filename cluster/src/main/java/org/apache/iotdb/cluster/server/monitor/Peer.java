@@ -28,6 +28,8 @@ public class Peer {
   private AtomicInteger inconsistentHeartbeatNum = new AtomicInteger();
   // lastLogIndex from the last heartbeat
   private long lastHeartBeatIndex;
+  // the sending time of the latest heartbeat acknowledged by the follower, used in leader leases
+  private long lastHeartbeatAckTime = Long.MIN_VALUE;
 
   public Peer(long nextIndex) {
     this.nextIndex = nextIndex;
@@ -52,6 +54,16 @@ public class Peer {
     this.notifyAll();
   }
 
+  /**
+   * Move the match index forward only, as the responses of the requests sent concurrently may
+   * arrive out of order.
+   */
+  public synchronized void updateMatchIndex(long matchIndex) {
+    if (matchIndex > this.matchIndex) {
+      setMatchIndex(matchIndex);
+    }
+  }
+
   public int incInconsistentHeartbeatNum() {
     return inconsistentHeartbeatNum.incrementAndGet();
   }
@@ -67,4 +79,18 @@ public class Peer {
   public void setLastHeartBeatIndex(long lastHeartBeatIndex) {
     this.lastHeartBeatIndex = lastHeartBeatIndex;
   }
+
+  public synchronized long getLastHeartbeatAckTime() {
+    return lastHeartbeatAckTime;
+  }
+
+  /**
+   * Move the acknowledged heartbeat time forward only, as the responses of heartbeats may arrive
+   * out of order.
+   */
+  public synchronized void updateLastHeartbeatAckTime(long heartbeatSendTime) {
+    if (heartbeatSendTime > lastHeartbeatAckTime) {
+      lastHeartbeatAckTime = heartbeatSendTime;
+    }
+  }
 }
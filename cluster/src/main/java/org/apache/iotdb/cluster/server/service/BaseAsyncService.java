@@ -91,6 +91,11 @@ public abstract class BaseAsyncService implements RaftService.AsyncIface {
     long commitIndex;
     long commitTerm;
     long curTerm;
+    if (!member.checkLeaderLeaseNow()) {
+      // the leadership may have been taken over, so the commit index may be stale
+      resultHandler.onError(new LeaderUnknownException(member.getAllNodes()));
+      return;
+    }
     synchronized (member.getTerm()) {
       commitIndex = member.getLogManager().getCommitLogIndex();
       commitTerm = member.getLogManager().getCommitLogTerm();
@@ -99,6 +99,10 @@ public abstract class BaseSyncService implements RaftService.Iface {
     long commitIndex;
     long commitTerm;
     long curTerm;
+    if (!member.checkLeaderLeaseNow()) {
+      // the leadership may have been taken over, so the commit index may be stale
+      throw new TException(new LeaderUnknownException(member.getAllNodes()));
+    }
     synchronized (member.getTerm()) {
       commitIndex = member.getLogManager().getCommitLogIndex();
       commitTerm = member.getLogManager().getCommitLogTerm();
@@ -28,8 +28,11 @@ import org.apache.iotdb.cluster.metadata.CMManager;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.PreviousFillRequest;
@@ -272,6 +275,17 @@ public class DataAsyncService extends BaseAsyncService implements TSDataService.
     }
   }
 
+  @Override
+  public void fetchMultSeriesBatches(
+      MultSeriesFetchRequest request, AsyncMethodCallback<MultSeriesFetchResult> resultHandler) {
+    try {
+      resultHandler.onComplete(
+          dataGroupMember.getLocalQueryExecutor().fetchMultSeriesBatches(request));
+    } catch (ReaderNotFoundException | IOException e) {
+      resultHandler.onError(e);
+    }
+  }
+
   @Override
   public void fetchSingleSeriesByTimestamps(
       RaftNode header,
@@ -406,6 +420,28 @@ public class DataAsyncService extends BaseAsyncService implements TSDataService.
     }
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GroupedAggrRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    try {
+      resultHandler.onComplete(
+          dataGroupMember.getLocalQueryExecutor().getGroupedAggrResult(request));
+    } catch (StorageEngineException | QueryProcessException | IOException e) {
+      resultHandler.onError(e);
+    }
+  }
+
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedAggrRequest request, AsyncMethodCallback<Long> resultHandler) {
+    try {
+      resultHandler.onComplete(
+          dataGroupMember.getLocalQueryExecutor().getGroupedGroupByExecutor(request));
+    } catch (QueryProcessException | StorageEngineException e) {
+      resultHandler.onError(e);
+    }
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
@@ -27,6 +27,7 @@ import org.apache.iotdb.cluster.exception.NotInSameGroupException;
 import org.apache.iotdb.cluster.exception.PartitionTableUnavailableException;
 import org.apache.iotdb.cluster.log.logtypes.AddNodeLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
 import org.apache.iotdb.cluster.partition.NodeAdditionResult;
 import org.apache.iotdb.cluster.partition.NodeRemovalResult;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
@@ -456,6 +457,33 @@ public class DataGroupEngine implements IService, DataGroupEngineMBean {
     }
   }
 
+  public void preSlotMigrationForDataGroup(
+      SlotMigrationLog log, DataGroupMember targetDataGroupMember) {
+
+    // Make sure the previous add/remove node or slot migration log has applied
+    metaGroupMember.syncLocalApply(log.getMetaLogIndex() - 1, false);
+
+    // Check the validity of the partition table
+    if (!metaGroupMember.getPartitionTable().deserialize(log.getPartitionTable())) {
+      return;
+    }
+
+    targetDataGroupMember.preSlotMigration(log.getPreviousHolders());
+  }
+
+  /**
+   * Update the local members after some slots are moved between the groups by the load balancer.
+   *
+   * @param previousHolders slot -> previous holder of the migrated slots
+   */
+  public void migrateSlots(Map<Integer, RaftNode> previousHolders) {
+    synchronized (headerGroupMap) {
+      for (DataGroupMember dataGroupMember : headerGroupMap.values()) {
+        dataGroupMember.migrateSlots(previousHolders);
+      }
+    }
+  }
+
   public void setPartitionTable(PartitionTable partitionTable) {
     this.partitionTable = partitionTable;
   }
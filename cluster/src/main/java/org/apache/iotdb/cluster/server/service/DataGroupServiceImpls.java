@@ -26,10 +26,13 @@ import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.HeartBeatRequest;
 import org.apache.iotdb.cluster.rpc.thrift.HeartBeatResponse;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.PreviousFillRequest;
@@ -202,6 +205,19 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
     }
   }
 
+  @Override
+  public void fetchMultSeriesBatches(
+      MultSeriesFetchRequest request, AsyncMethodCallback<MultSeriesFetchResult> resultHandler)
+      throws TException {
+    DataAsyncService service =
+        DataGroupEngine.getInstance()
+            .getDataAsyncService(
+                request.getHeader(), resultHandler, "Fetch reader:" + request.getReaderId());
+    if (service != null) {
+      service.fetchMultSeriesBatches(request, resultHandler);
+    }
+  }
+
   @Override
   public void getAllPaths(
       RaftNode header,
@@ -385,6 +401,28 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
     }
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GroupedAggrRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    DataAsyncService service =
+        DataGroupEngine.getInstance()
+            .getDataAsyncService(request.getHeader(), resultHandler, request);
+    if (service != null) {
+      service.getGroupedAggrResult(request, resultHandler);
+    }
+  }
+
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedAggrRequest request, AsyncMethodCallback<Long> resultHandler) {
+    DataAsyncService service =
+        DataGroupEngine.getInstance()
+            .getDataAsyncService(request.getHeader(), resultHandler, request);
+    if (service != null) {
+      service.getGroupedGroupByExecutor(request, resultHandler);
+    }
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
@@ -494,6 +532,14 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
         .fetchMultSeries(header, readerId, paths);
   }
 
+  @Override
+  public MultSeriesFetchResult fetchMultSeriesBatches(MultSeriesFetchRequest request)
+      throws TException {
+    return DataGroupEngine.getInstance()
+        .getDataSyncService(request.getHeader())
+        .fetchMultSeriesBatches(request);
+  }
+
   @Override
   public long querySingleSeriesByTimestamp(SingleSeriesQueryRequest request) throws TException {
     return DataGroupEngine.getInstance()
@@ -592,6 +638,20 @@ public class DataGroupServiceImpls implements TSDataService.AsyncIface, TSDataSe
         .getGroupByExecutor(request);
   }
 
+  @Override
+  public List<ByteBuffer> getGroupedAggrResult(GroupedAggrRequest request) throws TException {
+    return DataGroupEngine.getInstance()
+        .getDataSyncService(request.getHeader())
+        .getGroupedAggrResult(request);
+  }
+
+  @Override
+  public long getGroupedGroupByExecutor(GroupedAggrRequest request) throws TException {
+    return DataGroupEngine.getInstance()
+        .getDataSyncService(request.getHeader())
+        .getGroupedGroupByExecutor(request);
+  }
+
   @Override
   public List<ByteBuffer> getGroupByResult(
       RaftNode header, long executorId, long startTime, long endTime) throws TException {
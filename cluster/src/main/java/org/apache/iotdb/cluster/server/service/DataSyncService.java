@@ -28,8 +28,11 @@ import org.apache.iotdb.cluster.metadata.CMManager;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.PreviousFillRequest;
@@ -269,6 +272,16 @@ public class DataSyncService extends BaseSyncService implements TSDataService.If
     }
   }
 
+  @Override
+  public MultSeriesFetchResult fetchMultSeriesBatches(MultSeriesFetchRequest request)
+      throws TException {
+    try {
+      return dataGroupMember.getLocalQueryExecutor().fetchMultSeriesBatches(request);
+    } catch (ReaderNotFoundException | IOException e) {
+      throw new TException(e);
+    }
+  }
+
   @Override
   public ByteBuffer fetchSingleSeriesByTimestamps(
       RaftNode header, long readerId, List<Long> timestamps) throws TException {
@@ -396,6 +409,28 @@ public class DataSyncService extends BaseSyncService implements TSDataService.If
     }
   }
 
+  @Override
+  public List<ByteBuffer> getGroupedAggrResult(GroupedAggrRequest request) throws TException {
+    try {
+      return dataGroupMember.getLocalQueryExecutor().getGroupedAggrResult(request);
+    } catch (StorageEngineException
+        | QueryProcessException
+        | IOException
+        | StatisticsClassException
+        | UnSupportedDataTypeException e) {
+      throw new TApplicationException(e.getMessage());
+    }
+  }
+
+  @Override
+  public long getGroupedGroupByExecutor(GroupedAggrRequest request) throws TException {
+    try {
+      return dataGroupMember.getLocalQueryExecutor().getGroupedGroupByExecutor(request);
+    } catch (QueryProcessException | StorageEngineException e) {
+      throw new TException(e);
+    }
+  }
+
   @Override
   public ByteBuffer previousFill(PreviousFillRequest request) throws TException {
     try {
@@ -169,6 +169,11 @@ public class MetaAsyncService extends BaseAsyncService implements TSMetaService.
         ClusterUtils.serializeMigrationStatus(metaGroupMember.collectMigrationStatus()));
   }
 
+  @Override
+  public void collectSlotLoads(AsyncMethodCallback<ByteBuffer> resultHandler) {
+    resultHandler.onComplete(ClusterUtils.serializeSlotLoads(metaGroupMember.collectSlotLoads()));
+  }
+
   @Override
   public void removeNode(Node node, AsyncMethodCallback<Long> resultHandler) {
     if (!metaGroupMember.isReady()) {
@@ -172,6 +172,11 @@ public class MetaSyncService extends BaseSyncService implements TSMetaService.If
     return ClusterUtils.serializeMigrationStatus(metaGroupMember.collectMigrationStatus());
   }
 
+  @Override
+  public ByteBuffer collectSlotLoads() {
+    return ClusterUtils.serializeSlotLoads(metaGroupMember.collectSlotLoads());
+  }
+
   @Override
   public long removeNode(Node node) throws TException {
     if (!metaGroupMember.isReady()) {
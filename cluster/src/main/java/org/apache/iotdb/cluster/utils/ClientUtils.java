@@ -35,21 +35,19 @@ public class ClientUtils {
     int port = -1;
     switch (category) {
       case DATA:
+      case DATA_APPEND:
         port = node.getDataPort();
         break;
       case DATA_HEARTBEAT:
         port = node.getDataPort() + ClusterUtils.DATA_HEARTBEAT_PORT_OFFSET;
         break;
       case META:
+      case META_APPEND:
         port = node.getMetaPort();
         break;
       case META_HEARTBEAT:
         port = node.getMetaPort() + ClusterUtils.META_HEARTBEAT_PORT_OFFSET;
         break;
-      case DATA_ASYNC_APPEND_CLIENT:
-        // special data client type
-        port = node.getDataPort();
-        break;
       default:
         break;
     }
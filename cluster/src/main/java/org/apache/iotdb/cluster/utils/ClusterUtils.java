@@ -24,9 +24,11 @@ import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.exception.CheckConsistencyException;
 import org.apache.iotdb.cluster.exception.ConfigInconsistentException;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.partition.slot.SlotLoad;
 import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
 import org.apache.iotdb.cluster.rpc.thrift.CheckStatusResponse;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.rpc.thrift.StartUpStatus;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
@@ -368,6 +370,45 @@ public class ClusterUtils {
     return migrationStatus;
   }
 
+  public static ByteBuffer serializeSlotLoads(Map<RaftNode, Map<Integer, SlotLoad>> groupLoads) {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
+      dataOutputStream.writeInt(groupLoads.size());
+      for (Entry<RaftNode, Map<Integer, SlotLoad>> groupEntry : groupLoads.entrySet()) {
+        NodeSerializeUtils.serialize(groupEntry.getKey().getNode(), dataOutputStream);
+        dataOutputStream.writeInt(groupEntry.getKey().getRaftId());
+        dataOutputStream.writeInt(groupEntry.getValue().size());
+        for (Entry<Integer, SlotLoad> slotEntry : groupEntry.getValue().entrySet()) {
+          dataOutputStream.writeInt(slotEntry.getKey());
+          slotEntry.getValue().serialize(dataOutputStream);
+        }
+      }
+    } catch (IOException e) {
+      // ignored
+    }
+    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+  }
+
+  public static Map<RaftNode, Map<Integer, SlotLoad>> deserializeSlotLoads(ByteBuffer buffer) {
+    Map<RaftNode, Map<Integer, SlotLoad>> groupLoads = new HashMap<>();
+    int groupNum = buffer.getInt();
+    while (groupNum-- > 0) {
+      Node node = new Node();
+      NodeSerializeUtils.deserialize(node, buffer);
+      RaftNode header = new RaftNode(node, buffer.getInt());
+      Map<Integer, SlotLoad> slotLoads = new HashMap<>();
+      int slotNum = buffer.getInt();
+      while (slotNum-- > 0) {
+        int slot = buffer.getInt();
+        SlotLoad slotLoad = new SlotLoad();
+        slotLoad.deserialize(buffer);
+        slotLoads.put(slot, slotLoad);
+      }
+      groupLoads.put(header, slotLoads);
+    }
+    return groupLoads;
+  }
+
   public static boolean nodeEqual(Node node1, Node node2) {
     ClusterNode clusterNode1 = new ClusterNode(node1);
     ClusterNode clusterNode2 = new ClusterNode(node2);
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.utils;
+
+import org.apache.iotdb.cluster.rpc.thrift.AppendEntriesRequest;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compress the entries of an AppendEntriesRequest as a whole, so that the similar parts of
+ * consecutive logs, e.g., the paths of the insertions into the same devices, are compressed
+ * together. The entries are serialized as (length, bytes) pairs before compression.
+ */
+public class LogCompressionUtils {
+
+  private LogCompressionUtils() {
+    // util class
+  }
+
+  /**
+   * Replace the entries of the request with the compressed ones if they are smaller.
+   *
+   * @return whether the entries are compressed
+   */
+  public static boolean compress(AppendEntriesRequest request, CompressionType compressionType)
+      throws IOException {
+    if (compressionType == CompressionType.UNCOMPRESSED || request.getEntries().isEmpty()) {
+      return false;
+    }
+    int uncompressedSize = 0;
+    for (ByteBuffer entry : request.getEntries()) {
+      uncompressedSize += Integer.BYTES + entry.remaining();
+    }
+    ByteBuffer uncompressed = ByteBuffer.allocate(uncompressedSize);
+    for (ByteBuffer entry : request.getEntries()) {
+      uncompressed.putInt(entry.remaining());
+      uncompressed.put(entry.duplicate());
+    }
+
+    byte[] compressed =
+        ICompressor.getCompressor(compressionType)
+            .compress(uncompressed.array(), 0, uncompressedSize);
+    if (compressed.length >= uncompressedSize) {
+      return false;
+    }
+    request.setCompressedEntries(compressed);
+    request.setCompressionType(compressionType.serialize());
+    request.setUncompressedSize(uncompressedSize);
+    request.setEntries(Collections.emptyList());
+    return true;
+  }
+
+  /** Restore the entries of the request if they are compressed. */
+  public static void uncompress(AppendEntriesRequest request) throws IOException {
+    if (!request.isSetCompressedEntries()) {
+      return;
+    }
+    ByteBuffer compressedBuffer = request.bufferForCompressedEntries();
+    byte[] compressed = new byte[compressedBuffer.remaining()];
+    compressedBuffer.duplicate().get(compressed);
+    byte[] uncompressed = new byte[request.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(CompressionType.deserialize(request.getCompressionType()))
+        .uncompress(compressed, 0, compressed.length, uncompressed, 0);
+
+    ByteBuffer buffer = ByteBuffer.wrap(uncompressed);
+    List<ByteBuffer> entries = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      int length = buffer.getInt();
+      ByteBuffer entry = buffer.slice();
+      entry.limit(length);
+      entries.add(entry);
+      buffer.position(buffer.position() + length);
+    }
+    request.setEntries(entries);
+    request.setCompressedEntries((ByteBuffer) null);
+  }
+}
@@ -118,8 +118,17 @@ public class ClientManagerTest extends BaseClientTest {
     Assert.assertTrue(dataHeartClient.getInputProtocol().getTransport().isOpen());
     ((SyncDataClient) dataHeartClient).returnSelf();
 
+    RaftService.Client dataAppendClient =
+        dataManager.borrowSyncClient(defaultNode, ClientCategory.DATA_APPEND);
+    Assert.assertNotNull(dataAppendClient);
+    Assert.assertTrue(dataAppendClient instanceof SyncDataClient);
+    Assert.assertNotSame(dataClient, dataAppendClient);
+    Assert.assertTrue(dataAppendClient.getInputProtocol().getTransport().isOpen());
+    ((SyncDataClient) dataAppendClient).returnSelf();
+
     // cluster test
     Assert.assertNull(dataManager.borrowSyncClient(defaultNode, ClientCategory.META));
+    Assert.assertNull(dataManager.borrowSyncClient(defaultNode, ClientCategory.META_APPEND));
     Assert.assertNull(dataManager.borrowSyncClient(defaultNode, ClientCategory.META_HEARTBEAT));
 
     Assert.assertNull(dataManager.borrowAsyncClient(defaultNode, ClientCategory.DATA));
@@ -200,8 +209,16 @@ public class ClientManagerTest extends BaseClientTest {
     Assert.assertTrue(((AsyncDataClient) dataHeartClient).isValid());
     Assert.assertTrue(((AsyncDataClient) dataHeartClient).isReady());
 
+    RaftService.AsyncClient dataAppendClient =
+        dataManager.borrowAsyncClient(defaultNode, ClientCategory.DATA_APPEND);
+    Assert.assertNotNull(dataAppendClient);
+    Assert.assertTrue(dataAppendClient instanceof AsyncDataClient);
+    Assert.assertNotSame(dataClient, dataAppendClient);
+    Assert.assertTrue(((AsyncDataClient) dataAppendClient).isReady());
+
     // cluster test
     Assert.assertNull(dataManager.borrowAsyncClient(defaultNode, ClientCategory.META));
+    Assert.assertNull(dataManager.borrowAsyncClient(defaultNode, ClientCategory.META_APPEND));
     Assert.assertNull(dataManager.borrowAsyncClient(defaultNode, ClientCategory.META_HEARTBEAT));
 
     Assert.assertNull(dataManager.borrowSyncClient(defaultNode, ClientCategory.DATA));
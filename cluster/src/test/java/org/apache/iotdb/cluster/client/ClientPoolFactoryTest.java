@@ -200,7 +200,10 @@ public class ClientPoolFactoryTest {
         clientPoolFactory.createSyncDataPool(ClientCategory.DATA_HEARTBEAT);
 
     Assert.assertEquals(pool.getMaxTotalPerKey(), mockMaxClientPerMember);
-    Assert.assertEquals(pool.getMaxWaitDuration(), Duration.ofMillis(mockMaxWaitTimeoutMs));
+    // heartbeats do not wait for clients longer than the heartbeat interval
+    Assert.assertEquals(
+        pool.getMaxWaitDuration(),
+        Duration.ofMillis(Math.min(mockMaxWaitTimeoutMs, clusterConfig.getHeartbeatIntervalMs())));
 
     Node node = constructDefaultNode();
 
@@ -245,7 +248,9 @@ public class ClientPoolFactoryTest {
         clientPoolFactory.createSyncMetaPool(ClientCategory.META_HEARTBEAT);
 
     Assert.assertEquals(pool.getMaxTotalPerKey(), mockMaxClientPerMember);
-    Assert.assertEquals(pool.getMaxWaitDuration(), Duration.ofMillis(mockMaxWaitTimeoutMs));
+    Assert.assertEquals(
+        pool.getMaxWaitDuration(),
+        Duration.ofMillis(Math.min(mockMaxWaitTimeoutMs, clusterConfig.getHeartbeatIntervalMs())));
 
     Node node = constructDefaultNode();
 
@@ -27,8 +27,11 @@ import org.apache.iotdb.cluster.rpc.thrift.ExecutNonQueryReq;
 import org.apache.iotdb.cluster.rpc.thrift.GetAggrResultRequest;
 import org.apache.iotdb.cluster.rpc.thrift.GetAllPathsResult;
 import org.apache.iotdb.cluster.rpc.thrift.GroupByRequest;
+import org.apache.iotdb.cluster.rpc.thrift.GroupedAggrRequest;
 import org.apache.iotdb.cluster.rpc.thrift.LastQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.MeasurementSchemaRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.PreviousFillRequest;
@@ -103,6 +106,16 @@ public class TestAsyncDataClient extends AsyncDataClient {
         .start();
   }
 
+  @Override
+  public void fetchMultSeriesBatches(
+      MultSeriesFetchRequest request, AsyncMethodCallback<MultSeriesFetchResult> resultHandler) {
+    new Thread(
+            () ->
+                new DataAsyncService(dataGroupMemberMap.get(request.getHeader()))
+                    .fetchMultSeriesBatches(request, resultHandler))
+        .start();
+  }
+
   @Override
   public void getAggrResult(
       GetAggrResultRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
@@ -257,6 +270,26 @@ public class TestAsyncDataClient extends AsyncDataClient {
         .start();
   }
 
+  @Override
+  public void getGroupedAggrResult(
+      GroupedAggrRequest request, AsyncMethodCallback<List<ByteBuffer>> resultHandler) {
+    new Thread(
+            () ->
+                new DataAsyncService(dataGroupMemberMap.get(request.getHeader()))
+                    .getGroupedAggrResult(request, resultHandler))
+        .start();
+  }
+
+  @Override
+  public void getGroupedGroupByExecutor(
+      GroupedAggrRequest request, AsyncMethodCallback<Long> resultHandler) {
+    new Thread(
+            () ->
+                new DataAsyncService(dataGroupMemberMap.get(request.getHeader()))
+                    .getGroupedGroupByExecutor(request, resultHandler))
+        .start();
+  }
+
   @Override
   public void getGroupByResult(
       RaftNode header,
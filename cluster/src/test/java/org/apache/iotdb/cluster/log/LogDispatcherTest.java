@@ -23,6 +23,7 @@ import org.apache.iotdb.cluster.common.TestAsyncClient;
 import org.apache.iotdb.cluster.common.TestMetaGroupMember;
 import org.apache.iotdb.cluster.common.TestSyncClient;
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.UnknownLogTypeException;
 import org.apache.iotdb.cluster.log.LogDispatcher.SendLogRequest;
@@ -35,9 +36,11 @@ import org.apache.iotdb.cluster.rpc.thrift.RaftService.Client;
 import org.apache.iotdb.cluster.server.NodeCharacter;
 import org.apache.iotdb.cluster.server.Response;
 import org.apache.iotdb.cluster.server.member.RaftMember;
+import org.apache.iotdb.cluster.utils.LogCompressionUtils;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
@@ -45,6 +48,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -54,6 +58,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
+
 public class LogDispatcherTest {
 
   private RaftMember raftMember;
@@ -104,7 +110,7 @@ public class LogDispatcherTest {
           }
 
           @Override
-          public Client getSyncClient(Node node) {
+          public Client getSendLogSyncClient(Node node) {
             return new TestSyncClient() {
               @Override
               public long appendEntry(AppendEntryRequest request) throws TException {
@@ -148,6 +154,11 @@ public class LogDispatcherTest {
   }
 
   private long mockedAppendEntries(AppendEntriesRequest request) throws UnknownLogTypeException {
+    try {
+      LogCompressionUtils.uncompress(request);
+    } catch (IOException e) {
+      return Response.RESPONSE_NULL;
+    }
     List<ByteBuffer> entries = request.getEntries();
     List<Log> logs = new ArrayList<>();
     for (ByteBuffer entry : entries) {
@@ -244,6 +255,78 @@ public class LogDispatcherTest {
     }
   }
 
+  @Test
+  public void testCompressedLogs() throws InterruptedException {
+    CompressionType compressionType =
+        ClusterDescriptor.getInstance().getConfig().getAppendEntriesCompressionType();
+    int maxInFlightNum =
+        ClusterDescriptor.getInstance().getConfig().getMaxInFlightAppendEntriesPerFollower();
+    ClusterDescriptor.getInstance()
+        .getConfig()
+        .setAppendEntriesCompressionType(CompressionType.LZ4);
+    ClusterDescriptor.getInstance().getConfig().setMaxInFlightAppendEntriesPerFollower(1);
+    LogDispatcher dispatcher = new LogDispatcher(raftMember);
+    try {
+      List<Log> logs = TestUtils.prepareLargeTestLogs(20);
+      for (Log log : logs) {
+        SendLogRequest request = raftMember.buildSendLogRequest(log);
+        dispatcher.offer(request);
+      }
+      while (!checkResult(logs, 9)) {
+        // wait
+      }
+    } finally {
+      dispatcher.close();
+      ClusterDescriptor.getInstance().getConfig().setAppendEntriesCompressionType(compressionType);
+      ClusterDescriptor.getInstance()
+          .getConfig()
+          .setMaxInFlightAppendEntriesPerFollower(maxInFlightNum);
+    }
+  }
+
+  @Test
+  public void testWindowTimeout() throws InterruptedException {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setThriftMaxFrameSize(64 * 1024 + IoTDBConstant.LEFT_SIZE_IN_REQUEST);
+    boolean useAsyncServer = ClusterDescriptor.getInstance().getConfig().isUseAsyncServer();
+    int maxInFlightNum =
+        ClusterDescriptor.getInstance().getConfig().getMaxInFlightAppendEntriesPerFollower();
+    int writeOperationTimeout = ClusterConstant.getWriteOperationTimeoutMS();
+    ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(true);
+    ClusterDescriptor.getInstance().getConfig().setMaxInFlightAppendEntriesPerFollower(1);
+    ClusterConstant.setWriteOperationTimeoutMS(100);
+    // no follower answers, so the first request of each follower holds the window forever
+    for (int i = 1; i < 10; i++) {
+      downNode.add(TestUtils.getNode(i));
+    }
+    LogDispatcher dispatcher = new LogDispatcher(raftMember);
+    try {
+      List<Log> logs = TestUtils.prepareLargeTestLogs(20);
+      List<SendLogRequest> requests = new ArrayList<>();
+      for (Log log : logs) {
+        SendLogRequest request = raftMember.buildSendLogRequest(log);
+        requests.add(request);
+        dispatcher.offer(request);
+      }
+      // the logs that cannot be sent are reported as failed instead of being dropped silently
+      AtomicInteger lastVoteCounter = requests.get(requests.size() - 1).getVoteCounter();
+      long waitStart = System.currentTimeMillis();
+      while (lastVoteCounter.get() != Integer.MAX_VALUE
+          && System.currentTimeMillis() - waitStart < 10_000) {
+        Thread.sleep(10);
+      }
+      assertEquals(Integer.MAX_VALUE, lastVoteCounter.get());
+    } finally {
+      dispatcher.close();
+      ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(useAsyncServer);
+      ClusterDescriptor.getInstance()
+          .getConfig()
+          .setMaxInFlightAppendEntriesPerFollower(maxInFlightNum);
+      ClusterConstant.setWriteOperationTimeoutMS(writeOperationTimeout);
+    }
+  }
+
   @SuppressWarnings("java:S2925")
   public boolean checkResult(List<Log> logs, int requestedSuccess) throws InterruptedException {
     for (Log log : logs) {
@@ -26,6 +26,8 @@ import org.apache.iotdb.cluster.log.logtypes.CloseFileLog;
 import org.apache.iotdb.cluster.log.logtypes.EmptyContentLog;
 import org.apache.iotdb.cluster.log.logtypes.PhysicalPlanLog;
 import org.apache.iotdb.cluster.log.logtypes.RemoveNodeLog;
+import org.apache.iotdb.cluster.log.logtypes.SlotMigrationLog;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.utils.PlanSerializer;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
@@ -37,6 +39,8 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -96,6 +100,23 @@ public class LogParserTest {
     assertEquals(log, serialized);
   }
 
+  @Test
+  public void testSlotMigrationLog() throws UnknownLogTypeException {
+    SlotMigrationLog log = new SlotMigrationLog();
+    log.setPartitionTable(TestUtils.getSeralizePartitionTable());
+    Map<Integer, RaftNode> previousHolders = new HashMap<>();
+    previousHolders.put(1, new RaftNode(TestUtils.getNode(0), 0));
+    previousHolders.put(2, new RaftNode(TestUtils.getNode(1), 0));
+    log.setPreviousHolders(previousHolders);
+    log.setMetaLogIndex(8);
+    log.setCurrLogIndex(8);
+    log.setCurrLogTerm(8);
+
+    ByteBuffer buffer = log.serialize();
+    Log serialized = logParser.parse(buffer);
+    assertEquals(log, serialized);
+  }
+
   @Test
   public void testEmptyContentLog() throws UnknownLogTypeException {
     EmptyContentLog log = new EmptyContentLog();
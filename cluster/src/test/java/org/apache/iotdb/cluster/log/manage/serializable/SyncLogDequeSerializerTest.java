@@ -566,6 +566,30 @@ public class SyncLogDequeSerializerTest extends IoTDBTest {
     }
   }
 
+  @Test
+  public void testRetainLogsForRecovery() {
+    SyncLogDequeSerializer syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
+    try {
+      prepareFiles(syncLogDequeSerializer);
+      syncLogDequeSerializer.setUseRaftLogAsWal(true);
+      syncLogDequeSerializer.setMaxNumberOfPersistRaftLogFiles(2);
+      // all logs are after the recovery index, so no file can be deleted
+      syncLogDequeSerializer.checkDeletePersistRaftLog();
+      Assert.assertEquals(5, syncLogDequeSerializer.getLogDataFileList().size());
+
+      // the logs before 20 are flushed, file1 (0-8) and file2 (9-17) can be deleted
+      syncLogDequeSerializer.getMeta().setMaxHaveAppliedCommitIndex(20);
+      syncLogDequeSerializer.checkDeletePersistRaftLog();
+      Assert.assertEquals(3, syncLogDequeSerializer.getLogDataFileList().size());
+      Assert.assertEquals(3, syncLogDequeSerializer.getLogIndexFileList().size());
+      String[] splits =
+          syncLogDequeSerializer.getLogDataFileList().get(0).getName().split(FILE_NAME_SEPARATOR);
+      Assert.assertEquals(18, Long.parseLong(splits[0]));
+    } finally {
+      syncLogDequeSerializer.close();
+    }
+  }
+
   @Test
   public void testRecoverFromTemp() {
     SyncLogDequeSerializer syncLogDequeSerializer = new SyncLogDequeSerializer(testIdentifier);
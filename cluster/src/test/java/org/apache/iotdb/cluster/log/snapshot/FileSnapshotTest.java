@@ -24,6 +24,7 @@ import org.apache.iotdb.cluster.common.TestUtils;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.exception.SnapshotInstallationException;
 import org.apache.iotdb.cluster.partition.slot.SlotManager.SlotStatus;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -35,6 +36,7 @@ import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
 import org.apache.iotdb.tsfile.write.schema.TimeseriesSchema;
 
 import org.junit.Test;
@@ -42,13 +44,16 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class FileSnapshotTest extends DataSnapshotTest {
@@ -247,6 +252,11 @@ public class FileSnapshotTest extends DataSnapshotTest {
         snapshotMap.get(0).getDefaultInstaller(dataGroupMember);
     defaultInstaller.install(snapshotMap, false);
 
+    SnapshotPullProgress progress = dataGroupMember.getSnapshotPullProgress();
+    assertEquals(100, progress.getLoadedFileNum());
+    assertEquals(0, progress.getPendingFileNum());
+    assertTrue(progress.getPulledBytes() > 0);
+
     for (int j = 0; j < 10; j++) {
       VirtualStorageGroupProcessor processor =
           StorageEngine.getInstance().getProcessor(new PartialPath(TestUtils.getTestSg(j)));
@@ -303,4 +313,74 @@ public class FileSnapshotTest extends DataSnapshotTest {
     }
     assertEquals(1, processor.getUnSequenceFileList().size());
   }
+
+  @Test
+  public void testInstallWithStaleTempFile()
+      throws IOException, SnapshotInstallationException, IllegalPathException,
+          StorageEngineException, WriteProcessException {
+    FileSnapshot snapshot = new FileSnapshot();
+    List<TsFileResource> tsFileResources = TestUtils.prepareTsFileResources(0, 1, 10, 10, true);
+    File tsFile = tsFileResources.get(0).getTsFile();
+    String sourceDigest = FileSnapshot.getFileDigest(tsFile);
+    snapshot.addFile(tsFileResources.get(0), TestUtils.getNode(0));
+    snapshot.setTimeseriesSchemas(
+        Collections.singletonList(TestUtils.getTestTimeSeriesSchema(0, 0)));
+
+    snapshot.computeFileDigests();
+    FileSnapshot fileSnapshot = new FileSnapshot();
+    fileSnapshot.deserialize(snapshot.serialize());
+
+    // a temporary file of the same name left by an earlier pulling, which should not be resumed
+    File staleFile =
+        new File(
+            IoTDBDescriptor.getInstance().getConfig().getSystemDir()
+                + File.separator
+                + "remote"
+                + File.separator
+                + TestUtils.getNode(0).getNodeIdentifier()
+                + File.separator
+                + FilePathUtils.getTsFilePrefixPath(tsFile.getAbsolutePath())
+                + File.separator
+                + FilePathUtils.getTsFileNameWithoutHardLink(tsFile.getAbsolutePath()));
+    staleFile.getParentFile().mkdirs();
+    Files.write(staleFile.toPath(), new byte[] {1, 2, 3});
+
+    SnapshotInstaller<FileSnapshot> defaultInstaller =
+        fileSnapshot.getDefaultInstaller(dataGroupMember);
+    dataGroupMember.getSlotManager().setToPulling(0, TestUtils.getNode(0));
+    defaultInstaller.install(fileSnapshot, 0, false);
+
+    VirtualStorageGroupProcessor processor =
+        StorageEngine.getInstance().getProcessor(new PartialPath(TestUtils.getTestSg(0)));
+    List<TsFileResource> loadedFiles = processor.getSequenceFileTreeSet();
+    assertEquals(1, loadedFiles.size());
+    assertEquals(sourceDigest, FileSnapshot.getFileDigest(loadedFiles.get(0).getTsFile()));
+  }
+
+  @Test
+  public void testSerializeWithoutDigest() throws IOException, WriteProcessException {
+    List<TsFileResource> tsFileResources = TestUtils.prepareTsFileResources(0, 1, 10, 10, true);
+    TsFileResource source = tsFileResources.get(0);
+    FileSnapshot snapshot = new FileSnapshot();
+    snapshot.addFile(source, TestUtils.getNode(0));
+
+    // serializing does not read the data files
+    FileSnapshot deserialized = new FileSnapshot();
+    deserialized.deserialize(snapshot.serialize());
+    assertEquals(-1, deserialized.getDataFiles().get(0).getFileLength());
+    assertNull(source.getDataFileDigest().get());
+
+    // the digest is cached on the source resource and shared by its hardlinks
+    snapshot.computeFileDigests();
+    String digest = FileSnapshot.getFileDigest(source.getTsFile());
+    assertEquals(digest, source.getDataFileDigest().get());
+    TsFileResource hardlink = source.createHardlink();
+    assertEquals(digest, hardlink.getDataFileDigest().get());
+    hardlink.remove();
+
+    deserialized = new FileSnapshot();
+    deserialized.deserialize(snapshot.serialize());
+    assertEquals(source.getTsFile().length(), deserialized.getDataFiles().get(0).getFileLength());
+    assertEquals(digest, deserialized.getDataFiles().get(0).getFileDigest());
+  }
 }
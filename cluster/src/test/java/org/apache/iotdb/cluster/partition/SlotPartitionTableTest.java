@@ -543,4 +543,26 @@ public class SlotPartitionTableTest {
     }
     assertTrue(nodeSlots.isEmpty());
   }
+
+  @Test
+  public void testMigrateSlots() {
+    RaftNode previousHolder = getRaftNode(0, raftId);
+    RaftNode newHolder = getRaftNode(1, raftId);
+    int slot = localTable.getNodeSlots(previousHolder).get(0);
+    int newHolderSlotNum = localTable.getNodeSlots(newHolder).size();
+
+    Map<Integer, RaftNode> previousHolders =
+        localTable.migrateSlots(Collections.singletonMap(slot, newHolder));
+    assertEquals(Collections.singletonMap(slot, previousHolder), previousHolders);
+    assertEquals(newHolder, localTable.getSlotNodes()[slot]);
+    assertFalse(localTable.getNodeSlots(previousHolder).contains(slot));
+    assertEquals(newHolderSlotNum + 1, localTable.getNodeSlots(newHolder).size());
+    // the new holder pulls the data of the slot from the group of the previous holder
+    assertEquals(
+        localTable.getPartitionGroup(previousHolder),
+        localTable.getPreviousNodeMap(newHolder).get(slot));
+
+    // moving a slot to its current holder changes nothing
+    assertTrue(localTable.migrateSlots(Collections.singletonMap(slot, newHolder)).isEmpty());
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.partition.balancer;
+
+import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.partition.slot.SlotLoad;
+import org.apache.iotdb.cluster.partition.slot.SlotPartitionTable;
+import org.apache.iotdb.cluster.rpc.thrift.Node;
+import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadAwareSlotBalancerTest {
+
+  private RaftNode groupA = TestUtils.getRaftNode(0, 0);
+  private RaftNode groupB = TestUtils.getRaftNode(1, 0);
+  private RaftNode groupC = TestUtils.getRaftNode(2, 0);
+
+  @Test
+  public void testPlanMigrations() {
+    Map<RaftNode, List<Integer>> nodeSlots = new HashMap<>();
+    nodeSlots.put(groupA, Arrays.asList(0, 1, 2, 3));
+    nodeSlots.put(groupB, Arrays.asList(4));
+    nodeSlots.put(groupC, Arrays.asList(5));
+    Map<Integer, Double> scores = new HashMap<>();
+    for (int i = 0; i < 5; i++) {
+      scores.put(i, 1.0);
+    }
+    scores.put(5, 0.0);
+
+    Map<Integer, RaftNode> migrations =
+        LoadAwareSlotBalancer.planMigrations(nodeSlots, scores, 10, 0.2);
+    // two slots are moved out of the busiest group so that no group exceeds the threshold
+    assertEquals(2, migrations.size());
+    for (Integer slot : migrations.keySet()) {
+      assertTrue(nodeSlots.get(groupA).contains(slot));
+      assertFalse(migrations.get(slot).equals(groupA));
+    }
+
+    // the migrations are limited in a round
+    assertEquals(1, LoadAwareSlotBalancer.planMigrations(nodeSlots, scores, 1, 0.2).size());
+    // the groups are balanced with a loose threshold
+    assertTrue(LoadAwareSlotBalancer.planMigrations(nodeSlots, scores, 10, 2.0).isEmpty());
+  }
+
+  @Test
+  public void testIsolateHotSlot() {
+    Map<RaftNode, List<Integer>> nodeSlots = new HashMap<>();
+    nodeSlots.put(groupA, Arrays.asList(0, 1, 2));
+    nodeSlots.put(groupB, Arrays.asList(3));
+    nodeSlots.put(groupC, Arrays.asList(4));
+    Map<Integer, Double> scores = new HashMap<>();
+    scores.put(0, 5.0);
+    scores.put(1, 1.0);
+    scores.put(2, 1.0);
+    scores.put(3, 2.0);
+    scores.put(4, 3.0);
+
+    // the hot slot stays and the other slots of its group are moved away
+    Map<Integer, RaftNode> migrations =
+        LoadAwareSlotBalancer.planMigrations(nodeSlots, scores, 10, 0.2);
+    assertEquals(2, migrations.size());
+    assertTrue(migrations.containsKey(1));
+    assertTrue(migrations.containsKey(2));
+  }
+
+  @Test
+  public void testComputeScores() {
+    Map<Integer, SlotLoad> lastLoads = new HashMap<>();
+    lastLoads.put(0, new SlotLoad(100, 10, 0));
+    lastLoads.put(1, new SlotLoad(200, 20, 0));
+    Map<Integer, SlotLoad> loads = new HashMap<>();
+    // 300 points and 10 queries recently, 100 bytes on disk
+    loads.put(0, new SlotLoad(400, 20, 100));
+    // the counters restarted, 100 points and 10 queries recently, 100 bytes on disk
+    loads.put(1, new SlotLoad(100, 10, 100));
+
+    Map<Integer, Double> scores = LoadAwareSlotBalancer.computeScores(loads, lastLoads);
+    assertEquals(0.75 + 0.5 + 0.5, scores.get(0), 0.0001);
+    assertEquals(0.25 + 0.5 + 0.5, scores.get(1), 0.0001);
+  }
+
+  @Test
+  public void testFirstRound() {
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      nodes.add(TestUtils.getNode(i));
+    }
+    SlotPartitionTable table = new SlotPartitionTable(nodes, TestUtils.getNode(0));
+    Map<RaftNode, Map<Integer, SlotLoad>> groupLoads = new HashMap<>();
+    for (Map.Entry<RaftNode, List<Integer>> entry : table.getAllNodeSlots().entrySet()) {
+      Map<Integer, SlotLoad> slotLoads = new HashMap<>();
+      for (Integer slot : entry.getValue()) {
+        slotLoads.put(slot, new SlotLoad());
+      }
+      groupLoads.put(entry.getKey(), slotLoads);
+    }
+    groupLoads.get(groupA).put(table.getNodeSlots(groupA).get(0), new SlotLoad(0, 0, 1000));
+
+    LoadAwareSlotBalancer balancer = new LoadAwareSlotBalancer();
+    // the recent loads are unknown in the first round
+    assertTrue(balancer.planMigrations(table, groupLoads).isEmpty());
+
+    groupLoads.get(groupA).put(table.getNodeSlots(groupA).get(1), new SlotLoad(10000, 0, 0));
+    Map<Integer, RaftNode> migrations = balancer.planMigrations(table, groupLoads);
+    assertFalse(migrations.isEmpty());
+    for (Integer slot : migrations.keySet()) {
+      assertTrue(table.getNodeSlots(groupA).contains(slot));
+    }
+  }
+}
@@ -20,6 +20,8 @@
 package org.apache.iotdb.cluster.query;
 
 import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.config.ClusterConfig;
+import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
@@ -295,6 +297,74 @@ public class ClusterQueryRouterTest extends BaseQueryTest {
     }
   }
 
+  @Test
+  public void testGroupByLevelAggregation()
+      throws QueryProcessException, StorageEngineException, IOException {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    boolean prevEnablePushdown = config.isEnableGroupByLevelPushdown();
+    try {
+      for (boolean enablePushdown : new boolean[] {true, false}) {
+        config.setEnableGroupByLevelPushdown(enablePushdown);
+        AggregationPlan plan =
+            (AggregationPlan)
+                new ClusterPlanner()
+                    .parseSQLToPhysicalPlan(
+                        "select count(s0), sum(s1) from root.* group by level=0");
+        QueryContext context =
+            new RemoteQueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+        try {
+          QueryDataSet queryDataSet = clusterQueryRouter.aggregate(plan, context);
+          assertEquals(
+              Arrays.asList("count(root.*.s0)", "sum(root.*.s1)"),
+              new ArrayList<>(plan.getGroupPathsResultMap().keySet()));
+          RowRecord record = queryDataSet.next();
+          assertEquals(200L, record.getFields().get(0).getLongV());
+          assertEquals(1900.0, record.getFields().get(1).getDoubleV(), 0.00001);
+          assertFalse(queryDataSet.hasNext());
+        } finally {
+          QueryResourceManager.getInstance().endQuery(context.getQueryId());
+        }
+      }
+    } finally {
+      config.setEnableGroupByLevelPushdown(prevEnablePushdown);
+    }
+  }
+
+  @Test
+  public void testGroupByLevelNoVFilterGroupBy()
+      throws QueryProcessException, StorageEngineException, IOException,
+          QueryFilterOptimizationException {
+    ClusterConfig config = ClusterDescriptor.getInstance().getConfig();
+    boolean prevEnablePushdown = config.isEnableGroupByLevelPushdown();
+    try {
+      for (boolean enablePushdown : new boolean[] {true, false}) {
+        config.setEnableGroupByLevelPushdown(enablePushdown);
+        GroupByTimePlan plan =
+            (GroupByTimePlan)
+                new ClusterPlanner()
+                    .parseSQLToPhysicalPlan(
+                        "select count(s0), sum(s1) from root.* group by ([0, 20), 5ms), level=0");
+        QueryContext context =
+            new RemoteQueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+        try {
+          QueryDataSet queryDataSet = clusterQueryRouter.groupBy(plan, context);
+          for (int i = 0; i < 4; i++) {
+            RowRecord record = queryDataSet.next();
+            assertEquals(i * 5L, record.getTimestamp());
+            assertEquals(50L, record.getFields().get(0).getLongV());
+            // 10 series, each with the values [5i, 5i + 5)
+            assertEquals((25 * i + 10) * 10.0, record.getFields().get(1).getDoubleV(), 0.00001);
+          }
+          assertFalse(queryDataSet.hasNext());
+        } finally {
+          QueryResourceManager.getInstance().endQuery(context.getQueryId());
+        }
+      }
+    } finally {
+      config.setEnableGroupByLevelPushdown(prevEnablePushdown);
+    }
+  }
+
   @Test
   public void testUDTFQuery() throws QueryProcessException, StorageEngineException {
     ClusterPlanner processor = new ClusterPlanner();
@@ -51,8 +51,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
@@ -62,8 +65,8 @@ import static org.junit.Assert.fail;
 public class RemoteSimpleSeriesReaderTest {
 
   private RemoteSimpleSeriesReader reader;
-  private BatchData batchData;
-  private boolean batchUsed;
+  private Queue<BatchData> batches = new ConcurrentLinkedQueue<>();
+  private AtomicInteger fetchCount = new AtomicInteger();
   private MetaGroupMember metaGroupMember;
   private Set<Node> failedNodes = new ConcurrentSkipListSet<>();
   private boolean prevUseAsyncServer;
@@ -72,8 +75,7 @@ public class RemoteSimpleSeriesReaderTest {
   public void setUp() {
     prevUseAsyncServer = ClusterDescriptor.getInstance().getConfig().isUseAsyncServer();
     ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(true);
-    batchData = TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100);
-    batchUsed = false;
+    batches.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
     metaGroupMember = new TestMetaGroupMember();
     // TODO fixme : restore normal provider
     ClusterIoTDB.getInstance()
@@ -91,9 +93,11 @@ public class RemoteSimpleSeriesReaderTest {
                       throw new TException("Node down.");
                     }
 
+                    fetchCount.incrementAndGet();
                     new Thread(
                             () -> {
-                              if (batchUsed) {
+                              BatchData batchData = batches.poll();
+                              if (batchData == null) {
                                 resultHandler.onComplete(ByteBuffer.allocate(0));
                               } else {
                                 ByteArrayOutputStream byteArrayOutputStream =
@@ -101,7 +105,6 @@ public class RemoteSimpleSeriesReaderTest {
                                 DataOutputStream dataOutputStream =
                                     new DataOutputStream(byteArrayOutputStream);
                                 SerializeUtils.serializeBatchData(batchData, dataOutputStream);
-                                batchUsed = true;
                                 resultHandler.onComplete(
                                     ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
                               }
@@ -173,11 +176,43 @@ public class RemoteSimpleSeriesReaderTest {
     }
   }
 
+  @Test
+  public void testPrefetch() throws IOException, StorageEngineException {
+    for (int i = 1; i < 10; i++) {
+      batches.add(TestUtils.genBatchData(TSDataType.DOUBLE, i * 100, 100));
+    }
+    PartitionGroup group = new PartitionGroup();
+    group.add(TestUtils.getNode(0));
+
+    SingleSeriesQueryRequest request = new SingleSeriesQueryRequest();
+    RemoteQueryContext context = new RemoteQueryContext(1);
+
+    try {
+      DataSourceInfo sourceInfo =
+          new DataSourceInfo(group, TSDataType.DOUBLE, request, context, group);
+      sourceInfo.hasNextDataClient(false, Long.MIN_VALUE);
+      reader = new RemoteSimpleSeriesReader(sourceInfo);
+
+      assertTrue(reader.hasNextTimeValuePair());
+      // the next batch is requested before the current one is consumed
+      assertTrue(fetchCount.get() >= 2);
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(reader.hasNextTimeValuePair());
+        TimeValuePair pair = reader.nextTimeValuePair();
+        assertEquals(i, pair.getTimestamp());
+        assertEquals(i * 1.0, pair.getValue().getDouble(), 0.00001);
+      }
+      assertFalse(reader.hasNextTimeValuePair());
+      assertEquals(11, fetchCount.get());
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
+
   @Test
   public void testFailedNode() throws IOException, StorageEngineException {
     System.out.println("Start testFailedNode()");
 
-    batchData = TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100);
     PartitionGroup group = new PartitionGroup();
     group.add(TestUtils.getNode(0));
     group.add(TestUtils.getNode(1));
@@ -203,11 +238,11 @@ public class RemoteSimpleSeriesReaderTest {
         assertEquals(i * 1.0, pair.getValue().getDouble(), 0.00001);
       }
 
-      this.batchUsed = false;
-      this.batchData = TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100);
+      // wait for the batch being prefetched before the mocked data is reset
+      reader.clearCurDataForTest();
+      batches.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
       // a bad client, change to another node
       failedNodes.add(TestUtils.getNode(0));
-      reader.clearCurDataForTest();
       for (int i = 50; i < 80; i++) {
         TimeValuePair pair = reader.nextTimeValuePair();
         assertEquals(i - 50, pair.getTimestamp());
@@ -215,11 +250,10 @@ public class RemoteSimpleSeriesReaderTest {
       }
       Assert.assertEquals(TestUtils.getNode(1), sourceInfo.getCurrentNode());
 
-      this.batchUsed = false;
-      this.batchData = TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100);
+      reader.clearCurDataForTest();
+      batches.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
       // a bad client, change to another node again
       failedNodes.add(TestUtils.getNode(1));
-      reader.clearCurDataForTest();
       for (int i = 80; i < 90; i++) {
         TimeValuePair pair = reader.nextTimeValuePair();
         assertEquals(i - 80, pair.getTimestamp());
@@ -27,9 +27,10 @@ import org.apache.iotdb.cluster.common.TestUtils;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
-import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.db.exception.StorageEngineException;
@@ -42,7 +43,6 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
 import org.junit.After;
@@ -54,7 +54,6 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 
@@ -139,11 +138,9 @@ public class AssignPathManagedMergeReaderTest {
                   throws IOException {
                 return new AsyncDataClient(null, null, node, ClientCategory.DATA) {
                   @Override
-                  public void fetchMultSeries(
-                      RaftNode header,
-                      long readerId,
-                      List<String> paths,
-                      AsyncMethodCallback<Map<String, ByteBuffer>> resultHandler)
+                  public void fetchMultSeriesBatches(
+                      MultSeriesFetchRequest request,
+                      AsyncMethodCallback<MultSeriesFetchResult> resultHandler)
                       throws TException {
                     if (failedNodes.contains(node)) {
                       throw new TException("Node down.");
@@ -151,21 +148,17 @@ public class AssignPathManagedMergeReaderTest {
 
                     new Thread(
                             () -> {
-                              Map<String, ByteBuffer> stringByteBufferMap = Maps.newHashMap();
-                              if (batchUsed) {
-                                paths.forEach(
-                                    path -> {
-                                      stringByteBufferMap.put(path, ByteBuffer.allocate(0));
-                                    });
-                              } else {
-                                batchUsed = true;
-
-                                for (int i = 0; i < batchData.size(); i++) {
-                                  stringByteBufferMap.put(
-                                      paths.get(i), generateByteBuffer(batchData.get(i)));
-                                }
+                              List<ByteBuffer> batches = Lists.newArrayList();
+                              List<Boolean> hasMore = Lists.newArrayList();
+                              for (int index : request.getSeriesIndexes()) {
+                                batches.add(
+                                    batchUsed
+                                        ? ByteBuffer.allocate(0)
+                                        : generateByteBuffer(batchData.get(index)));
+                                hasMore.add(false);
                               }
-                              resultHandler.onComplete(stringByteBufferMap);
+                              batchUsed = true;
+                              resultHandler.onComplete(new MultSeriesFetchResult(batches, hasMore));
                             })
                         .start();
                   }
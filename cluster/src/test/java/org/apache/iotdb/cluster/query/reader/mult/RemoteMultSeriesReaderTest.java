@@ -29,9 +29,10 @@ import org.apache.iotdb.cluster.config.ClusterConstant;
 import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchRequest;
+import org.apache.iotdb.cluster.rpc.thrift.MultSeriesFetchResult;
 import org.apache.iotdb.cluster.rpc.thrift.MultSeriesQueryRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
-import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService;
 import org.apache.iotdb.cluster.server.member.MetaGroupMember;
 import org.apache.iotdb.cluster.utils.ClientUtils;
@@ -47,7 +48,6 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.apache.thrift.TException;
 import org.apache.thrift.async.AsyncMethodCallback;
 import org.apache.thrift.protocol.TBinaryProtocol;
@@ -64,7 +64,6 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -77,8 +76,9 @@ import static junit.framework.TestCase.assertTrue;
 public class RemoteMultSeriesReaderTest {
 
   private RemoteMultSeriesReader reader;
-  private List<BatchData> batchData;
-  private boolean batchUsed;
+  /** the batches to be returned for each series */
+  private List<Queue<BatchData>> seriesBatches;
+
   private MetaGroupMember metaGroupMember;
   private Set<Node> failedNodes = new ConcurrentSkipListSet<>();
   private boolean prevUseAsyncServer;
@@ -97,10 +97,11 @@ public class RemoteMultSeriesReaderTest {
     dataTypes.add(TSDataType.DOUBLE);
     dataTypes.add(TSDataType.INT32);
     prevUseAsyncServer = ClusterDescriptor.getInstance().getConfig().isUseAsyncServer();
-    batchData = Lists.newArrayList();
-    batchData.add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
-    batchData.add(TestUtils.genBatchData(TSDataType.INT32, 0, 100));
-    batchUsed = false;
+    seriesBatches = Lists.newArrayList();
+    seriesBatches.add(new ConcurrentLinkedQueue<>());
+    seriesBatches.add(new ConcurrentLinkedQueue<>());
+    seriesBatches.get(0).add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
+    seriesBatches.get(1).add(TestUtils.genBatchData(TSDataType.INT32, 0, 100));
     metaGroupMember = new TestMetaGroupMember();
     protocolFactory =
         ClusterDescriptor.getInstance().getConfig().isRpcThriftCompressionEnabled()
@@ -111,6 +112,7 @@ public class RemoteMultSeriesReaderTest {
   @After
   public void tearDown() {
     ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(prevUseAsyncServer);
+    ClusterDescriptor.getInstance().getConfig().setMaxPointNumPerSeriesInMultFetch(10000);
   }
 
   @Test
@@ -185,17 +187,84 @@ public class RemoteMultSeriesReaderTest {
   }
 
   @Test
-  public void testDefaultBatchStrategySelect() {
-    RemoteMultSeriesReader.DefaultBatchStrategy defaultBatchStrategy =
-        new RemoteMultSeriesReader.DefaultBatchStrategy();
-    Map cachedBatches = Maps.newHashMap();
-    Queue queue = new ConcurrentLinkedQueue<BatchData>();
-    batchData.forEach(
-        data -> {
-          queue.add(data);
-        });
-    cachedBatches.put("root.a.b", queue);
-    assertEquals(1, defaultBatchStrategy.selectBatchPaths(cachedBatches).size());
+  public void testSelectSeries() throws IOException, StorageEngineException {
+    ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(true);
+    ClusterDescriptor.getInstance().getConfig().setMaxPointNumPerSeriesInMultFetch(50);
+    setAsyncDataClient();
+    PartitionGroup group = new PartitionGroup();
+    group.add(TestUtils.getNode(0));
+    seriesBatches.get(1).add(TestUtils.genBatchData(TSDataType.INT32, 100, 10));
+
+    MultSeriesQueryRequest request = new MultSeriesQueryRequest();
+    RemoteQueryContext context = new RemoteQueryContext(1);
+
+    try {
+      MultDataSourceInfo sourceInfo =
+          new MultDataSourceInfo(group, paths, dataTypes, request, context, group);
+      sourceInfo.hasNextDataClient(Long.MIN_VALUE);
+      reader = new RemoteMultSeriesReader(sourceInfo);
+
+      // the required series goes first
+      assertEquals(Lists.newArrayList(1, 0), reader.selectSeries(1));
+      // both series are fetched in one request
+      assertTrue(reader.hasNextTimeValuePair(paths.get(0).getFullPath()));
+      // series 0 is finished and series 1 has enough points cached
+      assertEquals(Lists.newArrayList(0), reader.selectSeries(0));
+      for (int i = 0; i < 100; i++) {
+        reader.nextTimeValuePair(paths.get(1).getFullPath());
+      }
+      assertEquals(Lists.newArrayList(0, 1), reader.selectSeries(0));
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
+  }
+
+  @Test
+  public void testFailedNode() throws IOException, StorageEngineException {
+    ClusterDescriptor.getInstance().getConfig().setUseAsyncServer(true);
+    setAsyncDataClient();
+    PartitionGroup group = new PartitionGroup();
+    group.add(TestUtils.getNode(0));
+    group.add(TestUtils.getNode(1));
+    seriesBatches.get(0).clear();
+    seriesBatches.get(0).add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 50));
+    seriesBatches.get(0).add(TestUtils.genBatchData(TSDataType.DOUBLE, 50, 50));
+
+    MultSeriesQueryRequest request = new MultSeriesQueryRequest();
+    request.setAscending(true);
+    RemoteQueryContext context = new RemoteQueryContext(1);
+
+    try {
+      MultDataSourceInfo sourceInfo =
+          new MultDataSourceInfo(group, paths, dataTypes, request, context, group);
+      sourceInfo.hasNextDataClient(Long.MIN_VALUE);
+      reader = new RemoteMultSeriesReader(sourceInfo);
+
+      for (int i = 0; i < 50; i++) {
+        TimeValuePair pair = reader.nextTimeValuePair(paths.get(0).getFullPath());
+        assertEquals(i, pair.getTimestamp());
+      }
+      // the new node returns the series from the beginning, the fetched points are skipped
+      failedNodes.add(TestUtils.getNode(0));
+      seriesBatches.get(0).clear();
+      seriesBatches.get(0).add(TestUtils.genBatchData(TSDataType.DOUBLE, 0, 100));
+      for (int i = 50; i < 100; i++) {
+        TimeValuePair pair = reader.nextTimeValuePair(paths.get(0).getFullPath());
+        assertEquals(i, pair.getTimestamp());
+        assertEquals(i * 1.0, pair.getValue().getDouble(), 0.00001);
+      }
+      assertFalse(reader.hasNextTimeValuePair(paths.get(0).getFullPath()));
+      assertEquals(TestUtils.getNode(1), sourceInfo.getCurrentNode());
+
+      // series 1 has been fetched completely before the node fails
+      for (int i = 0; i < 100; i++) {
+        TimeValuePair pair = reader.nextTimeValuePair(paths.get(1).getFullPath());
+        assertEquals(i, pair.getTimestamp());
+      }
+      assertFalse(reader.hasNextTimeValuePair(paths.get(1).getFullPath()));
+    } finally {
+      QueryResourceManager.getInstance().endQuery(context.getQueryId());
+    }
   }
 
   private void setAsyncDataClient() {
@@ -207,35 +276,15 @@ public class RemoteMultSeriesReaderTest {
                   throws IOException {
                 return new AsyncDataClient(null, null, node, ClientCategory.DATA) {
                   @Override
-                  public void fetchMultSeries(
-                      RaftNode header,
-                      long readerId,
-                      List<String> paths,
-                      AsyncMethodCallback<Map<String, ByteBuffer>> resultHandler)
+                  public void fetchMultSeriesBatches(
+                      MultSeriesFetchRequest request,
+                      AsyncMethodCallback<MultSeriesFetchResult> resultHandler)
                       throws TException {
                     if (failedNodes.contains(node)) {
                       throw new TException("Node down.");
                     }
 
-                    new Thread(
-                            () -> {
-                              Map<String, ByteBuffer> stringByteBufferMap = Maps.newHashMap();
-                              if (batchUsed) {
-                                paths.forEach(
-                                    path -> {
-                                      stringByteBufferMap.put(path, ByteBuffer.allocate(0));
-                                    });
-                              } else {
-                                batchUsed = true;
-
-                                for (int i = 0; i < batchData.size(); i++) {
-                                  stringByteBufferMap.put(
-                                      paths.get(i), generateByteBuffer(batchData.get(i)));
-                                }
-                              }
-                              resultHandler.onComplete(stringByteBufferMap);
-                            })
-                        .start();
+                    new Thread(() -> resultHandler.onComplete(generateResult(request))).start();
                   }
 
                   @Override
@@ -290,26 +339,12 @@ public class RemoteMultSeriesReaderTest {
                       protocolFactory.getProtocol(
                           RpcTransportFactory.INSTANCE.getTransport(socket))) {
                     @Override
-                    public Map<String, ByteBuffer> fetchMultSeries(
-                        RaftNode header, long readerId, List<String> paths) throws TException {
+                    public MultSeriesFetchResult fetchMultSeriesBatches(
+                        MultSeriesFetchRequest request) throws TException {
                       if (failedNodes.contains(node)) {
                         throw new TException("Node down.");
                       }
-
-                      Map<String, ByteBuffer> stringByteBufferMap = Maps.newHashMap();
-                      if (batchUsed) {
-                        paths.forEach(
-                            path -> {
-                              stringByteBufferMap.put(path, ByteBuffer.allocate(0));
-                            });
-                      } else {
-                        batchUsed = true;
-                        for (int i = 0; i < batchData.size(); i++) {
-                          stringByteBufferMap.put(
-                              paths.get(i), generateByteBuffer(batchData.get(i)));
-                        }
-                      }
-                      return stringByteBufferMap;
+                      return generateResult(request);
                     }
 
                     @Override
@@ -336,6 +371,17 @@ public class RemoteMultSeriesReaderTest {
             });
   }
 
+  private MultSeriesFetchResult generateResult(MultSeriesFetchRequest request) {
+    List<ByteBuffer> batches = Lists.newArrayList();
+    List<Boolean> hasMore = Lists.newArrayList();
+    for (int index : request.getSeriesIndexes()) {
+      BatchData batchData = seriesBatches.get(index).poll();
+      batches.add(batchData == null ? ByteBuffer.allocate(0) : generateByteBuffer(batchData));
+      hasMore.add(!seriesBatches.get(index).isEmpty());
+    }
+    return new MultSeriesFetchResult(batches, hasMore);
+  }
+
   private ByteBuffer generateByteBuffer(BatchData batchData) {
     ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
     DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
@@ -36,6 +36,7 @@ import org.apache.iotdb.cluster.log.snapshot.FileSnapshot;
 import org.apache.iotdb.cluster.log.snapshot.PartitionedSnapshot;
 import org.apache.iotdb.cluster.partition.NodeRemovalResult;
 import org.apache.iotdb.cluster.partition.PartitionGroup;
+import org.apache.iotdb.cluster.partition.slot.SlotManager.SlotStatus;
 import org.apache.iotdb.cluster.partition.slot.SlotNodeAdditionResult;
 import org.apache.iotdb.cluster.partition.slot.SlotNodeRemovalResult;
 import org.apache.iotdb.cluster.query.RemoteQueryContext;
@@ -588,6 +589,38 @@ public class DataGroupMemberTest extends BaseMember {
     }
   }
 
+  @Test
+  public void testPullSnapshotDigestOutsideLock() throws IOException {
+    System.out.println("Start testPullSnapshotDigestOutsideLock()");
+    hasInitialSnapshots = true;
+    dataGroupMember.setCharacter(NodeCharacter.LEADER);
+    AtomicBoolean digestComputed = new AtomicBoolean(false);
+    AtomicBoolean lockHeld = new AtomicBoolean(false);
+    snapshotMap.put(
+        1,
+        new FileSnapshot() {
+          @Override
+          public void computeFileDigests() {
+            digestComputed.set(true);
+            lockHeld.compareAndSet(false, Thread.holdsLock(dataGroupMember.getLogManager()));
+          }
+
+          @Override
+          public ByteBuffer serialize() {
+            lockHeld.compareAndSet(false, Thread.holdsLock(dataGroupMember.getLogManager()));
+            return super.serialize();
+          }
+        });
+    PullSnapshotRequest request = new PullSnapshotRequest();
+    request.setRequiredSlots(Collections.singletonList(1));
+
+    PullSnapshotResp resp = dataGroupMember.getSnapshot(request);
+    assertEquals(1, resp.getSnapshotBytesSize());
+    // reading the files must not block the logs of the group from being committed
+    assertTrue(digestComputed.get());
+    assertFalse(lockHeld.get());
+  }
+
   @Test
   public void testFollowerExecuteNonQuery() throws IllegalPathException {
     System.out.println("Start testFollowerExecuteNonQuery()");
@@ -1144,6 +1177,19 @@ public class DataGroupMemberTest extends BaseMember {
     }
   }
 
+  @Test
+  public void testPreSlotMigration() {
+    System.out.println("Start testPreSlotMigration()");
+    Map<Integer, RaftNode> previousHolders = new HashMap<>();
+    previousHolders.put(1, TestUtils.getRaftNode(0, raftId));
+    previousHolders.put(2, TestUtils.getRaftNode(10, raftId));
+
+    dataGroupMember.preSlotMigration(previousHolders);
+    // only the slots moved out of this group are sent to their new holders
+    assertEquals(SlotStatus.SENDING, dataGroupMember.getSlotManager().getStatus(1));
+    assertEquals(SlotStatus.NULL, dataGroupMember.getSlotManager().getStatus(2));
+  }
+
   @Test
   public void testGroupBy()
       throws QueryProcessException, StorageGroupNotSetException, StorageEngineException,
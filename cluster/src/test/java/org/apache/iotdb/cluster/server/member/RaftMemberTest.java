@@ -26,7 +26,9 @@ import org.apache.iotdb.cluster.config.ClusterDescriptor;
 import org.apache.iotdb.cluster.config.ConsistencyLevel;
 import org.apache.iotdb.cluster.exception.CheckConsistencyException;
 import org.apache.iotdb.cluster.log.manage.PartitionedSnapshotLogManager;
+import org.apache.iotdb.cluster.partition.PartitionGroup;
 import org.apache.iotdb.cluster.rpc.thrift.AppendEntryRequest;
+import org.apache.iotdb.cluster.rpc.thrift.ElectionRequest;
 import org.apache.iotdb.cluster.rpc.thrift.Node;
 import org.apache.iotdb.cluster.rpc.thrift.RaftNode;
 import org.apache.iotdb.cluster.rpc.thrift.RaftService;
@@ -39,6 +41,8 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RaftMemberTest extends BaseMember {
   @Test
@@ -170,6 +174,142 @@ public class RaftMemberTest extends BaseMember {
     }
   }
 
+  @Test
+  public void testLeaderLease() throws CheckConsistencyException {
+    boolean prevEnableLeaseRead = ClusterDescriptor.getInstance().getConfig().isEnableLeaseRead();
+    ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(true);
+    ClusterDescriptor.getInstance()
+        .getConfig()
+        .setConsistencyLevel(ConsistencyLevel.STRONG_CONSISTENCY);
+    try {
+      DataGroupMember member = newDataGroupMemberWithSyncLeaderTrue(TestUtils.getNode(0), false);
+      PartitionGroup group = new PartitionGroup();
+      for (int i = 0; i < 3; i++) {
+        group.add(allNodes.get(i));
+      }
+      member.setAllNodes(group);
+      member.initPeerMap();
+      // no follower has acknowledged the heartbeats of the leader
+      Assert.assertFalse(member.isLeaseValid());
+      try {
+        member.syncLeaderWithConsistencyCheck(false);
+        Assert.fail();
+      } catch (CheckConsistencyException e) {
+        Assert.assertEquals(CheckConsistencyException.CHECK_STRONG_CONSISTENCY_EXCEPTION, e);
+      }
+      // writes do not depend on the lease
+      member.syncLeaderWithConsistencyCheck(true);
+
+      // one of the two followers makes a quorum with the leader
+      long now = System.nanoTime();
+      member.getPeerMap().get(group.get(1)).updateLastHeartbeatAckTime(now);
+      Assert.assertTrue(member.isLeaseValid());
+      member.syncLeaderWithConsistencyCheck(false);
+
+      // the heartbeats acknowledged before the node became the leader are not counted
+      member.leaderSince = now + 1;
+      Assert.assertFalse(member.isLeaseValid());
+    } finally {
+      ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(prevEnableLeaseRead);
+    }
+  }
+
+  @Test
+  public void testLeaderLeaseNoWait() {
+    boolean prevEnableLeaseRead = ClusterDescriptor.getInstance().getConfig().isEnableLeaseRead();
+    ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(true);
+    try {
+      DataGroupMember member = newDataGroupMemberWithSyncLeaderTrue(TestUtils.getNode(0), false);
+      PartitionGroup group = new PartitionGroup();
+      for (int i = 0; i < 3; i++) {
+        group.add(allNodes.get(i));
+      }
+      member.setAllNodes(group);
+      member.initPeerMap();
+      // a read index request is rejected at once instead of waiting for the lease
+      Assert.assertFalse(member.checkLeaderLeaseNow());
+
+      member.setCharacter(NodeCharacter.FOLLOWER);
+      Assert.assertTrue(member.checkLeaderLeaseNow());
+    } finally {
+      ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(prevEnableLeaseRead);
+    }
+  }
+
+  @Test
+  public void testRefuseVoteWithinLease() {
+    boolean prevEnableLeaseRead = ClusterDescriptor.getInstance().getConfig().isEnableLeaseRead();
+    ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(true);
+    try {
+      DataGroupMember member = newDataGroupMemberWithSyncLeaderTrue(TestUtils.getNode(0), false);
+      member.setCharacter(NodeCharacter.FOLLOWER);
+      member.getTerm().set(10);
+      ElectionRequest electionRequest = new ElectionRequest();
+      electionRequest.setTerm(11);
+      electionRequest.setLastLogIndex(100);
+      electionRequest.setLastLogTerm(100);
+      electionRequest.setElector(TestUtils.getNode(2));
+
+      // the leader has been heard from within the lease
+      member.lastLeaderContactTime = System.nanoTime();
+      Assert.assertEquals(
+          Response.RESPONSE_LEADER_STILL_ONLINE, member.processElectionRequest(electionRequest));
+      Assert.assertEquals(10, member.getTerm().get());
+
+      // the lease has expired
+      member.lastLeaderContactTime =
+          System.nanoTime()
+              - TimeUnit.MILLISECONDS.toNanos(
+                  ClusterDescriptor.getInstance().getConfig().getLeaderLeaseMs())
+              - 1;
+      Assert.assertNotEquals(
+          Response.RESPONSE_LEADER_STILL_ONLINE, member.processElectionRequest(electionRequest));
+      Assert.assertEquals(11, member.getTerm().get());
+    } finally {
+      ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(prevEnableLeaseRead);
+    }
+  }
+
+  @Test
+  public void testReuseReadIndex() throws CheckConsistencyException {
+    boolean prevEnableLeaseRead = ClusterDescriptor.getInstance().getConfig().isEnableLeaseRead();
+    long prevReuseWindow = ClusterDescriptor.getInstance().getConfig().getReadIndexReuseWindowMs();
+    ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(true);
+    ClusterDescriptor.getInstance().getConfig().setReadIndexReuseWindowMs(60 * 1000L);
+    AtomicInteger requestNum = new AtomicInteger();
+    try {
+      Node node = TestUtils.getNode(0);
+      DataGroupMember member =
+          new TestDataGroupMember(node, partitionTable.getPartitionGroup(new RaftNode(node, 0))) {
+            @Override
+            protected RequestCommitIndexResponse requestCommitIdAsync() {
+              requestNum.incrementAndGet();
+              return new RequestCommitIndexResponse(1000, 1000, 1000);
+            }
+          };
+      member.setThisNode(node);
+      member.setMetaGroupMember(testMetaMember);
+      member.setLeader(TestUtils.getNode(1));
+      member.setCharacter(NodeCharacter.FOLLOWER);
+      PartitionedSnapshotLogManager partitionedSnapshotLogManager =
+          Mockito.mock(PartitionedSnapshotLogManager.class);
+      Mockito.when(partitionedSnapshotLogManager.getMaxHaveAppliedCommitIndex()).thenReturn(1000L);
+      member.setLogManager(partitionedSnapshotLogManager);
+
+      // the read index is requested only once within the reuse window
+      Assert.assertTrue(member.waitUntilCatchUp(new RaftMember.StrongCheckConsistency()));
+      Assert.assertTrue(member.waitUntilCatchUp(new RaftMember.StrongCheckConsistency()));
+      Assert.assertEquals(1, requestNum.get());
+
+      ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(false);
+      Assert.assertTrue(member.waitUntilCatchUp(new RaftMember.StrongCheckConsistency()));
+      Assert.assertEquals(2, requestNum.get());
+    } finally {
+      ClusterDescriptor.getInstance().getConfig().setEnableLeaseRead(prevEnableLeaseRead);
+      ClusterDescriptor.getInstance().getConfig().setReadIndexReuseWindowMs(prevReuseWindow);
+    }
+  }
+
   private DataGroupMember newDataGroupMemberWithSyncLeaderFalse(Node node, boolean syncLeader) {
     DataGroupMember newMember =
         new TestDataGroupMember(node, partitionTable.getPartitionGroup(new RaftNode(node, 0))) {
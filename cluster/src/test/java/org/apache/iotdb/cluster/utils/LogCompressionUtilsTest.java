@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.cluster.utils;
+
+import org.apache.iotdb.cluster.common.TestUtils;
+import org.apache.iotdb.cluster.exception.UnknownLogTypeException;
+import org.apache.iotdb.cluster.log.Log;
+import org.apache.iotdb.cluster.log.LogParser;
+import org.apache.iotdb.cluster.rpc.thrift.AppendEntriesRequest;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LogCompressionUtilsTest {
+
+  @Test
+  public void testCompress() throws IOException, UnknownLogTypeException {
+    for (CompressionType compressionType :
+        new CompressionType[] {CompressionType.LZ4, CompressionType.SNAPPY}) {
+      List<Log> logs = TestUtils.prepareTestLogs(100);
+      AppendEntriesRequest request = createRequest(logs);
+      assertTrue(LogCompressionUtils.compress(request, compressionType));
+      assertTrue(request.getEntries().isEmpty());
+      assertTrue(request.isSetCompressedEntries());
+
+      LogCompressionUtils.uncompress(request);
+      assertFalse(request.isSetCompressedEntries());
+      assertEquals(logs.size(), request.getEntries().size());
+      for (int i = 0; i < logs.size(); i++) {
+        assertEquals(logs.get(i), LogParser.getINSTANCE().parse(request.getEntries().get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testUncompressed() throws IOException {
+    AppendEntriesRequest request = createRequest(TestUtils.prepareTestLogs(10));
+    assertFalse(LogCompressionUtils.compress(request, CompressionType.UNCOMPRESSED));
+    assertEquals(10, request.getEntries().size());
+
+    // the request stays unchanged when it is not compressed
+    LogCompressionUtils.uncompress(request);
+    assertEquals(10, request.getEntries().size());
+  }
+
+  private AppendEntriesRequest createRequest(List<Log> logs) {
+    List<ByteBuffer> entries = new ArrayList<>();
+    for (Log log : logs) {
+      entries.add(log.serialize());
+    }
+    AppendEntriesRequest request = new AppendEntriesRequest();
+    request.setEntries(entries);
+    return request;
+  }
+}
@@ -18,6 +18,15 @@
  */
 package org.apache.iotdb.hadoop.tsfile;
 
+import org.apache.iotdb.hadoop.fileSystem.HDFSInput;
+import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
@@ -30,7 +39,9 @@ import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -52,6 +63,10 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
   public static final String READ_DELTAOBJECTS = "tsfile.read.deltaobject";
   /** key to configure the reading measurementIds */
   public static final String READ_MEASUREMENTID = "tsfile.read.measurement";
+  /** key to configure the lower bound (inclusive) of the time range to read */
+  public static final String READ_TIME_LOWER_BOUND = "tsfile.read.time.lower";
+  /** key to configure the upper bound (inclusive) of the time range to read */
+  public static final String READ_TIME_UPPER_BOUND = "tsfile.read.time.upper";
 
   private static final Logger logger = LoggerFactory.getLogger(TSFInputFormat.class);
   private static final String SEPARATOR = ",";
@@ -163,6 +178,36 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
     return configuration.getBoolean(READ_TIME_ENABLE, true);
   }
 
+  /**
+   * Set the time range to read, the chunks out of the range are skipped when the splits are
+   * generated and when the splits are read.
+   *
+   * @param job hadoop job
+   * @param lowerBound the lower bound of the time range, inclusive
+   * @param upperBound the upper bound of the time range, inclusive
+   */
+  public static void setReadTimeRange(Job job, long lowerBound, long upperBound) {
+    job.getConfiguration().setLong(READ_TIME_LOWER_BOUND, lowerBound);
+    job.getConfiguration().setLong(READ_TIME_UPPER_BOUND, upperBound);
+  }
+
+  /**
+   * Get the filter of the time range to read
+   *
+   * @param configuration hadoop configuration
+   * @return null if the time range is not set
+   */
+  public static Filter getReadTimeFilter(Configuration configuration) {
+    String lowerBound = configuration.get(READ_TIME_LOWER_BOUND);
+    String upperBound = configuration.get(READ_TIME_UPPER_BOUND);
+    if (lowerBound == null && upperBound == null) {
+      return null;
+    }
+    return FilterFactory.and(
+        TimeFilter.gtEq(configuration.getLong(READ_TIME_LOWER_BOUND, Long.MIN_VALUE)),
+        TimeFilter.ltEq(configuration.getLong(READ_TIME_UPPER_BOUND, Long.MAX_VALUE)));
+  }
+
   /**
    * Set filter exist or not
    *
@@ -257,7 +302,7 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
         blockLocations = fileSystem.getFileBlockLocations(fileStatus, 0, length);
 
         logger.info("The block location information is {}", Arrays.toString(blockLocations));
-        splits.addAll(generateSplits(path, blockLocations));
+        splits.addAll(generateSplits(configuration, fileStatus, blockLocations));
       } else {
         logger.warn("The file length is " + length);
       }
@@ -269,21 +314,144 @@ public class TSFInputFormat extends FileInputFormat<NullWritable, MapWritable> {
   }
 
   /**
-   * get the TSFInputSplit from tsfMetaData and hdfs block location information with the filter
-   *
-   * @throws IOException
+   * Generate the splits of a file by packing the chunk groups to read, so that a chunk group is
+   * never divided into different splits and the splits without any chunk to read are not generated.
+   * Each split is roughly as large as a block, and its hosts are those of the block sharing the
+   * most bytes with it.
    */
-  private static List<TSFInputSplit> generateSplits(Path path, BlockLocation[] blockLocations)
+  private static List<TSFInputSplit> generateSplits(
+      Configuration configuration, FileStatus fileStatus, BlockLocation[] blockLocations)
       throws IOException {
+    Path path = fileStatus.getPath();
+    long splitSize = Math.max(1, fileStatus.getBlockSize());
     List<TSFInputSplit> splits = new ArrayList<>();
-    for (BlockLocation blockLocation : blockLocations) {
-      splits.add(
-          new TSFInputSplit(
-              path,
-              blockLocation.getHosts(),
-              blockLocation.getOffset(),
-              blockLocation.getLength()));
+    long splitStart = -1;
+    long splitEnd = -1;
+    long currentSize = 0;
+    for (long[] chunkGroup : getChunkGroupsToRead(configuration, path)) {
+      long chunkGroupSize = chunkGroup[1] - chunkGroup[0];
+      if (splitStart >= 0 && currentSize + chunkGroupSize > splitSize) {
+        splits.add(createSplit(path, blockLocations, splitStart, splitEnd));
+        splitStart = -1;
+        currentSize = 0;
+      }
+      if (splitStart < 0) {
+        splitStart = chunkGroup[0];
+      }
+      splitEnd = chunkGroup[1];
+      currentSize += chunkGroupSize;
+    }
+    if (splitStart >= 0) {
+      splits.add(createSplit(path, blockLocations, splitStart, splitEnd));
     }
     return splits;
   }
+
+  /**
+   * Get the byte ranges of the chunk groups containing at least one chunk of the selected devices
+   * and measurements that overlaps the time range to read. The chunks are located by the offsets in
+   * their metadata, which is read through the metadata index of the file.
+   *
+   * @return the [start, end) of the chunk groups in the order of their offsets
+   */
+  private static List<long[]> getChunkGroupsToRead(Configuration configuration, Path path)
+      throws IOException {
+    Set<String> deviceIds = new HashSet<>(getReadDeviceIds(configuration));
+    Set<String> measurementIds = new HashSet<>(getReadMeasurementIds(configuration));
+    Filter timeFilter = getReadTimeFilter(configuration);
+
+    // offset of chunk -> device of chunk
+    TreeMap<Long, String> chunkDevices = new TreeMap<>();
+    Set<Long> chunksToRead = new HashSet<>();
+    List<long[]> chunkGroups = new ArrayList<>();
+    TsFileInput input = new HDFSInput(path, configuration);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(input)) {
+      long dataEndOffset = reader.readFileMetadata().getMetaOffset();
+      for (String deviceId : reader.getAllDevices()) {
+        boolean deviceSelected = deviceIds.isEmpty() || deviceIds.contains(deviceId);
+        for (Map.Entry<String, List<ChunkMetadata>> entry :
+            reader.readChunkMetadataInDevice(deviceId).entrySet()) {
+          boolean selected =
+              deviceSelected
+                  && (measurementIds.isEmpty() || measurementIds.contains(entry.getKey()));
+          for (ChunkMetadata chunkMetadata : entry.getValue()) {
+            chunkDevices.put(chunkMetadata.getOffsetOfChunkHeader(), deviceId);
+            if (selected
+                && (timeFilter == null || timeFilter.satisfy(chunkMetadata.getStatistics()))) {
+              chunksToRead.add(chunkMetadata.getOffsetOfChunkHeader());
+            }
+          }
+        }
+      }
+
+      // the chunks of a chunk group are adjacent, so a chunk group starts where the device
+      // changes, or where a CHUNK_GROUP_HEADER of the same device precedes the chunk
+      Map<String, byte[]> chunkGroupHeaders = new HashMap<>();
+      String currentDevice = null;
+      long chunkGroupStart = -1;
+      boolean toRead = false;
+      for (Map.Entry<Long, String> entry : chunkDevices.entrySet()) {
+        if (!entry.getValue().equals(currentDevice)
+            || isChunkGroupStart(input, entry.getKey(), entry.getValue(), chunkGroupHeaders)) {
+          if (toRead) {
+            chunkGroups.add(new long[] {chunkGroupStart, entry.getKey()});
+          }
+          currentDevice = entry.getValue();
+          chunkGroupStart = entry.getKey();
+          toRead = false;
+        }
+        toRead |= chunksToRead.contains(entry.getKey());
+      }
+      if (toRead) {
+        chunkGroups.add(new long[] {chunkGroupStart, dataEndOffset});
+      }
+    }
+    return chunkGroups;
+  }
+
+  /** Check if the bytes right before the chunk at "chunkOffset" are a header of "deviceId". */
+  private static boolean isChunkGroupStart(
+      TsFileInput input, long chunkOffset, String deviceId, Map<String, byte[]> chunkGroupHeaders)
+      throws IOException {
+    byte[] header =
+        chunkGroupHeaders.computeIfAbsent(
+            deviceId,
+            d -> {
+              ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+              try {
+                new ChunkGroupHeader(d).serializeTo(outputStream);
+              } catch (IOException ignored) {
+                // unreachable
+              }
+              return outputStream.toByteArray();
+            });
+    long headerOffset = chunkOffset - header.length;
+    if (headerOffset < 0) {
+      return false;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(header.length);
+    input.position(headerOffset);
+    while (buffer.hasRemaining()) {
+      if (input.read(buffer) < 0) {
+        return false;
+      }
+    }
+    return Arrays.equals(header, buffer.array());
+  }
+
+  private static TSFInputSplit createSplit(
+      Path path, BlockLocation[] blockLocations, long start, long end) throws IOException {
+    String[] hosts = new String[0];
+    long maxOverlap = 0;
+    for (BlockLocation blockLocation : blockLocations) {
+      long overlap =
+          Math.min(end, blockLocation.getOffset() + blockLocation.getLength())
+              - Math.max(start, blockLocation.getOffset());
+      if (overlap > maxOverlap) {
+        maxOverlap = overlap;
+        hosts = blockLocation.getHosts();
+      }
+    }
+    return new TSFInputSplit(path, hosts, start, end - start);
+  }
 }
@@ -24,7 +24,10 @@ import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
 import org.apache.hadoop.conf.Configuration;
@@ -108,19 +111,23 @@ public class TSFRecordReader extends RecordReader<NullWritable, MapWritable> imp
     readerSet.setReadDeviceId(TSFInputFormat.getReadDeviceId(configuration));
     readerSet.setReadTime(TSFInputFormat.getReadTime(configuration));
 
-    try (TsFileReader queryEngine = new TsFileReader(reader)) {
-      for (String deviceId : deviceIds) {
-        List<Path> paths =
-            measurementIds.stream()
-                .map(measurementId -> new Path(deviceId, measurementId))
-                .collect(toList());
-        QueryExpression queryExpression = QueryExpression.create(paths, null);
-        QueryDataSet dataSet =
-            queryEngine.query(
-                queryExpression, split.getStart(), split.getStart() + split.getLength());
-        dataSetList.add(dataSet);
-        deviceIdList.add(deviceId);
-      }
+    // the chunks out of the time range are skipped by their statistics
+    Filter timeFilter = TSFInputFormat.getReadTimeFilter(configuration);
+    IExpression expression = timeFilter == null ? null : new GlobalTimeExpression(timeFilter);
+
+    // the data sets read the chunks lazily, so the reader is closed with the record reader
+    TsFileReader queryEngine = new TsFileReader(reader);
+    for (String deviceId : deviceIds) {
+      List<Path> paths =
+          measurementIds.stream()
+              .map(measurementId -> new Path(deviceId, measurementId))
+              .collect(toList());
+      QueryExpression queryExpression = QueryExpression.create(paths, expression);
+      QueryDataSet dataSet =
+          queryEngine.query(
+              queryExpression, split.getStart(), split.getStart() + split.getLength());
+      dataSetList.add(dataSet);
+      deviceIdList.add(deviceId);
     }
   }
 
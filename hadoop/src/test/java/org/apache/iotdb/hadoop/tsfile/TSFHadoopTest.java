@@ -21,9 +21,16 @@ package org.apache.iotdb.hadoop.tsfile;
 import org.apache.iotdb.hadoop.fileSystem.HDFSInput;
 import org.apache.iotdb.hadoop.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.Schema;
 
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.io.BooleanWritable;
 import org.apache.hadoop.io.DoubleWritable;
 import org.apache.hadoop.io.FloatWritable;
@@ -38,10 +45,14 @@ import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -53,6 +64,8 @@ import static org.junit.Assert.fail;
 
 public class TSFHadoopTest {
 
+  private static final Logger logger = LoggerFactory.getLogger(TSFHadoopTest.class);
+
   private TSFInputFormat inputFormat = null;
 
   private final String tsfilePath =
@@ -226,4 +239,106 @@ public class TSFHadoopTest {
       TSFileDescriptor.getInstance().getConfig().setTSFileStorageFs(beforeFSType);
     }
   }
+
+  @Test
+  public void ReadTimeRangeTest() {
+    TsFileTestHelper.writeTsFile(tsfilePath);
+    try {
+      Job job = Job.getInstance();
+      TSFInputFormat.setInputPaths(job, tsfilePath);
+      TSFInputFormat.setReadDeviceIds(job, new String[] {"device_1"});
+      TSFInputFormat.setReadMeasurementIds(job, new String[] {"sensor_1"});
+      TSFInputFormat.setReadDeviceId(job, false);
+      TSFInputFormat.setReadTime(job, true);
+
+      // no chunk overlaps the time range, so no split is generated
+      TSFInputFormat.setReadTimeRange(job, 2000000L, 3000000L);
+      assertTrue(inputFormat.getSplits(job).isEmpty());
+
+      TSFInputFormat.setReadTimeRange(job, 500001L, 600000L);
+      List<InputSplit> inputSplits = inputFormat.getSplits(job);
+      assertTrue(!inputSplits.isEmpty());
+      long count = 0;
+      for (InputSplit inputSplit : inputSplits) {
+        TSFRecordReader recordReader = new TSFRecordReader();
+        recordReader.initialize(
+            inputSplit, new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID()));
+        while (recordReader.nextKeyValue()) {
+          long time =
+              ((LongWritable) recordReader.getCurrentValue().get(new Text("time_stamp"))).get();
+          assertTrue(time >= 500001L && time <= 600000L);
+          assertEquals(
+              new LongWritable(time + 999999L),
+              recordReader.getCurrentValue().get(new Text("sensor_1")));
+          count++;
+        }
+        recordReader.close();
+      }
+      assertEquals(100000L, count);
+    } catch (IOException | TSFHadoopException | InterruptedException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+  }
+
+  @Test
+  public void SingleDeviceSplitTest() throws Exception {
+    // one device flushed in several chunk groups in a row
+    int chunkGroupNum = 8;
+    int rowNumPerChunkGroup = 10000;
+    Schema schema = new Schema();
+    List<MeasurementSchema> schemaList = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      MeasurementSchema measurementSchema =
+          new MeasurementSchema("sensor_" + (i + 1), TSDataType.INT64, TSEncoding.PLAIN);
+      schema.registerTimeseries(
+          new org.apache.iotdb.tsfile.read.common.Path("device_1"), measurementSchema);
+      schemaList.add(measurementSchema);
+    }
+    File file = new File(tsfilePath);
+    file.getParentFile().mkdirs();
+    try (TsFileWriter tsFileWriter = new TsFileWriter(file, schema)) {
+      Tablet tablet = new Tablet("device_1", schemaList, rowNumPerChunkGroup);
+      long timestamp = 1;
+      for (int g = 0; g < chunkGroupNum; g++) {
+        for (int r = 0; r < rowNumPerChunkGroup; r++, timestamp++) {
+          int row = tablet.rowSize++;
+          tablet.timestamps[row] = timestamp;
+          for (int i = 0; i < schemaList.size(); i++) {
+            ((long[]) tablet.values[i])[row] = timestamp;
+          }
+        }
+        tsFileWriter.write(tablet);
+        tsFileWriter.flushAllChunkGroups();
+        tablet.reset();
+      }
+    }
+
+    Job job = Job.getInstance();
+    TSFInputFormat.setReadDeviceIds(job, new String[] {"device_1"});
+    TSFInputFormat.setReadMeasurementIds(job, new String[] {"sensor_1"});
+    TSFInputFormat.setReadDeviceId(job, false);
+    TSFInputFormat.setReadTime(job, true);
+
+    // the file spans several blocks
+    org.apache.hadoop.fs.Path path = new org.apache.hadoop.fs.Path(file.getAbsolutePath());
+    FileStatus fileStatus =
+        new FileStatus(file.length(), false, 1, file.length() / 4, file.lastModified(), path);
+    List<TSFInputSplit> inputSplits =
+        TSFInputFormat.getTSFInputSplit(
+            job.getConfiguration(), Collections.singletonList(fileStatus), logger);
+    assertTrue(inputSplits.size() > 1);
+    long count = 0;
+    for (TSFInputSplit inputSplit : inputSplits) {
+      TSFRecordReader recordReader = new TSFRecordReader();
+      recordReader.initialize(
+          inputSplit, new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID()));
+      while (recordReader.nextKeyValue()) {
+        count++;
+      }
+      recordReader.close();
+    }
+    // each row is read by exactly one split
+    assertEquals((long) chunkGroupNum * rowNumPerChunkGroup, count);
+  }
 }
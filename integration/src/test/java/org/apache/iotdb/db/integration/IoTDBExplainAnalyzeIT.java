@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import org.apache.iotdb.integration.env.EnvFactory;
+import org.apache.iotdb.itbase.category.LocalStandaloneTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category({LocalStandaloneTest.class})
+public class IoTDBExplainAnalyzeIT {
+
+  @Before
+  public void setUp() throws Exception {
+    EnvFactory.getEnv().initBeforeTest();
+    prepareData();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvFactory.getEnv().cleanAfterTest();
+  }
+
+  private static void prepareData() throws SQLException {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("SET STORAGE GROUP TO root.sg_explain");
+      statement.execute(
+          "CREATE TIMESERIES root.sg_explain.d1.s1 WITH DATATYPE=INT32, ENCODING=RLE");
+
+      String insertTemplate = "INSERT INTO root.sg_explain.d1(timestamp, s1) VALUES(%d,%d)";
+      for (int i = 100; i < 200; i++) {
+        statement.execute(String.format(insertTemplate, i, i));
+      }
+      statement.execute("FLUSH");
+      // unsequence data overlapping the flushed chunk
+      for (int i = 150; i < 160; i++) {
+        statement.execute(String.format(insertTemplate, i, -i));
+      }
+      statement.execute("FLUSH");
+    }
+  }
+
+  @Test
+  public void explainAnalyzeTest() throws SQLException {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      Map<String, long[]> profile =
+          explainAnalyze(statement, "explain analyze select s1 from root.sg_explain.d1");
+      assertEquals(9, profile.size());
+      assertTrue(profile.get("load timeseries metadata")[1] >= 2);
+      assertEquals(110, profile.get("chunk cache miss")[1]);
+      assertTrue(profile.get("page decode")[1] >= 110);
+      assertTrue(profile.get("merge reader")[1] > 0);
+      assertEquals(0, profile.get("udf")[1]);
+      assertEquals(100, profile.get("fetch result")[1]);
+      assertEquals(100, profile.get("rpc serialization")[1]);
+
+      // the chunks are cached by the last query
+      profile = explainAnalyze(statement, "explain analyze select s1 from root.sg_explain.d1");
+      assertEquals(0, profile.get("chunk cache miss")[0]);
+      assertEquals(110, profile.get("chunk cache hit")[1]);
+    }
+  }
+
+  @Test
+  public void explainAnalyzeUDFTest() throws SQLException {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      Map<String, long[]> profile =
+          explainAnalyze(statement, "explain analyze select sin(s1) from root.sg_explain.d1");
+      assertEquals(100, profile.get("udf")[1]);
+      assertEquals(100, profile.get("fetch result")[1]);
+    }
+  }
+
+  @Test
+  public void explainAnalyzeSelectIntoTest() {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          "explain analyze select s1 into root.sg_explain.d2.s1 from root.sg_explain.d1");
+      fail();
+    } catch (SQLException e) {
+      assertTrue(e.getMessage().contains("EXPLAIN ANALYZE does not support select into"));
+    }
+  }
+
+  /** @return stage -> (invocations, rows) */
+  private static Map<String, long[]> explainAnalyze(Statement statement, String sql)
+      throws SQLException {
+    Map<String, long[]> profile = new HashMap<>();
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      while (resultSet.next()) {
+        assertTrue(resultSet.getDouble("time(ms)") >= 0);
+        profile.put(
+            resultSet.getString("stage"),
+            new long[] {resultSet.getLong("invocations"), resultSet.getLong("rows")});
+      }
+    }
+    return profile;
+  }
+}
@@ -100,6 +100,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
       "CACHE",
       "CONTAIN",
       "CONCAT",
+      "CHIMP",
       "DELETE",
       "DEVICE",
       "DESCRIBE",
@@ -215,7 +216,8 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
       "VERSION",
       "WHERE",
       "WITH",
-      "WATERMARK_EMBEDDING"
+      "WATERMARK_EMBEDDING",
+      "ZSTD"
     };
     String[] sql92Keywords = {
       "ABSOLUTE", "EXEC", "OVERLAPS", "ACTION", "EXECUTE", "PAD", "ADA", "EXISTS", "PARTIAL", "ADD",
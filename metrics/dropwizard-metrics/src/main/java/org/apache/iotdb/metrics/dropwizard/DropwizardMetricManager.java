@@ -26,11 +26,13 @@ import org.apache.iotdb.metrics.dropwizard.type.*;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.type.*;
 import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.PredefinedMetric;
 
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
 import com.codahale.metrics.UniformReservoir;
 import com.codahale.metrics.jvm.*;
 import org.slf4j.Logger;
@@ -56,9 +58,9 @@ public class DropwizardMetricManager implements MetricManager {
   com.codahale.metrics.MetricRegistry metricRegistry;
   MetricConfig metricConfig = MetricConfigDescriptor.getInstance().getMetricConfig();
   MetricRegistry.MetricSupplier<com.codahale.metrics.Timer> timerMetricSupplier =
-      () -> new com.codahale.metrics.Timer(new UniformReservoir());
+      () -> new com.codahale.metrics.Timer(createReservoir());
   MetricRegistry.MetricSupplier<com.codahale.metrics.Histogram> histogramMetricSupplier =
-      () -> new com.codahale.metrics.Histogram(new UniformReservoir());
+      () -> new com.codahale.metrics.Histogram(createReservoir());
 
   /** init the field with dropwizard library. */
   public DropwizardMetricManager() {
@@ -67,6 +69,13 @@ public class DropwizardMetricManager implements MetricManager {
     currentMeters = new ConcurrentHashMap<>();
   }
 
+  private Reservoir createReservoir() {
+    if (metricConfig.getHistogramType() == HistogramType.LOG_BUCKET) {
+      return new LogBucketReservoir();
+    }
+    return new UniformReservoir();
+  }
+
   @Override
   public Counter getOrCreateCounter(String metric, MetricLevel metricLevel, String... tags) {
     if (!isEnable(metricLevel)) {
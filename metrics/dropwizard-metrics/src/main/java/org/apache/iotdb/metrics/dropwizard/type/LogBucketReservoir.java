@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.dropwizard.type;
+
+import org.apache.iotdb.metrics.impl.LogBucketHistogram;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+/**
+ * A reservoir which counts all the values in a LogBucketHistogram instead of sampling them, so that
+ * dropwizard histograms and timers are updated without locks or allocation.
+ */
+public class LogBucketReservoir implements Reservoir {
+
+  private final LogBucketHistogram histogram = new LogBucketHistogram();
+
+  @Override
+  public int size() {
+    return (int) Math.min(histogram.count(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void update(long value) {
+    histogram.update(value);
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    return new LogBucketSnapshot(histogram.takeSnapshot());
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.metrics.config;
 
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MonitorType;
 import org.apache.iotdb.metrics.utils.PredefinedMetric;
@@ -44,6 +45,9 @@ public class MetricConfig {
 
   private MetricLevel metricLevel = MetricLevel.NORMAL;
 
+  /** The histogram behind histograms and timers, DEFAULT is the one of the monitor frame. */
+  private HistogramType histogramType = HistogramType.DEFAULT;
+
   private List<PredefinedMetric> predefinedMetrics =
       Collections.singletonList(PredefinedMetric.JVM);
 
@@ -55,6 +59,7 @@ public class MetricConfig {
     monitorType = newMetricConfig.getMonitorType();
     metricReporterList = newMetricConfig.getMetricReporterList();
     metricLevel = newMetricConfig.getMetricLevel();
+    histogramType = newMetricConfig.getHistogramType();
     predefinedMetrics = newMetricConfig.getPredefinedMetrics();
     prometheusExporterPort = newMetricConfig.getPrometheusExporterPort();
   }
@@ -99,6 +104,14 @@ public class MetricConfig {
     this.metricLevel = metricLevel;
   }
 
+  public HistogramType getHistogramType() {
+    return histogramType;
+  }
+
+  public void setHistogramType(HistogramType histogramType) {
+    this.histogramType = histogramType;
+  }
+
   public List<PredefinedMetric> getPredefinedMetrics() {
     return predefinedMetrics;
   }
@@ -126,6 +139,7 @@ public class MetricConfig {
         && monitorType.equals(anotherMetricConfig.getMonitorType())
         && metricReporterList.equals(anotherMetricConfig.getMetricReporterList())
         && metricLevel.equals(anotherMetricConfig.getMetricLevel())
+        && histogramType.equals(anotherMetricConfig.getHistogramType())
         && predefinedMetrics.equals(anotherMetricConfig.getPredefinedMetrics())
         && prometheusExporterPort.equals(anotherMetricConfig.getPrometheusExporterPort());
   }
@@ -111,6 +111,7 @@ public class MetricConfigDescriptor {
         // restart reporters or restart service
         if (!metricConfig.getMonitorType().equals(newMetricConfig.getMonitorType())
             || !metricConfig.getMetricLevel().equals(newMetricConfig.getMetricLevel())
+            || !metricConfig.getHistogramType().equals(newMetricConfig.getHistogramType())
             || !metricConfig
                 .getPredefinedMetrics()
                 .equals(newMetricConfig.getPredefinedMetrics())) {
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.impl;
+
+import org.apache.iotdb.metrics.type.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free histogram which counts the values in logarithmic buckets, like HdrHistogram. A value
+ * below 2^SUB_BUCKET_BITS has a bucket of its own, and a larger value shares its bucket with the
+ * values having the same highest (SUB_BUCKET_BITS + 1) bits, so the quantiles are reported with a
+ * relative error below 2^-(SUB_BUCKET_BITS + 1).
+ *
+ * <p>Recording neither allocates nor locks: each thread records into one of several stripes chosen
+ * by its id, so that concurrent threads seldom update the same counters, and the stripes are merged
+ * when a snapshot is taken. The stripes and the buckets of each magnitude are allocated when they
+ * are first used. Negative values are counted in the bucket of 0.
+ */
+public class LogBucketHistogram implements Histogram {
+
+  static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  /** magnitude 0 holds [0, SUB_BUCKET_COUNT), magnitude m holds [2^(m+4), 2^(m+5)) */
+  static final int MAGNITUDE_COUNT = Long.SIZE - SUB_BUCKET_BITS;
+
+  static final int BUCKET_COUNT = MAGNITUDE_COUNT * SUB_BUCKET_COUNT;
+
+  private static final int MAX_STRIPE_NUM = 64;
+
+  private static final int STRIPE_NUM = stripeNum();
+
+  private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPE_NUM);
+
+  private static int stripeNum() {
+    int processorNum = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPE_NUM);
+    // the smallest power of 2 not less than processorNum
+    return Integer.highestOneBit(Math.max(processorNum * 2 - 1, 1));
+  }
+
+  @Override
+  public void update(long value) {
+    getStripe().record(value);
+  }
+
+  @Override
+  public long count() {
+    long count = 0;
+    for (int i = 0; i < STRIPE_NUM; i++) {
+      Stripe stripe = stripes.get(i);
+      if (stripe != null) {
+        count += stripe.count.get();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public LogBucketHistogramSnapshot takeSnapshot() {
+    long[] bucketCounts = new long[BUCKET_COUNT];
+    long sum = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < STRIPE_NUM; i++) {
+      Stripe stripe = stripes.get(i);
+      if (stripe == null) {
+        continue;
+      }
+      for (int magnitude = 0; magnitude < MAGNITUDE_COUNT; magnitude++) {
+        AtomicLongArray subBuckets = stripe.magnitudes.get(magnitude);
+        if (subBuckets == null) {
+          continue;
+        }
+        int offset = magnitude * SUB_BUCKET_COUNT;
+        for (int sub = 0; sub < SUB_BUCKET_COUNT; sub++) {
+          bucketCounts[offset + sub] += subBuckets.get(sub);
+        }
+      }
+      sum += stripe.sum.get();
+      min = Math.min(min, stripe.min.get());
+      max = Math.max(max, stripe.max.get());
+    }
+    return new LogBucketHistogramSnapshot(bucketCounts, sum, min, max);
+  }
+
+  private Stripe getStripe() {
+    long threadId = Thread.currentThread().getId();
+    // spread the sequential ids of pooled threads over the stripes
+    int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+    int index = (hash ^ (hash >>> 16)) & (STRIPE_NUM - 1);
+    Stripe stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new Stripe());
+      stripe = stripes.get(index);
+    }
+    return stripe;
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return value < 0 ? 0 : (int) value;
+    }
+    int magnitude = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> (magnitude - 1)) - SUB_BUCKET_COUNT;
+    return magnitude * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /** @return the smallest value counted in the bucket */
+  static long bucketLowerBound(int index) {
+    int magnitude = index / SUB_BUCKET_COUNT;
+    int subBucket = index % SUB_BUCKET_COUNT;
+    if (magnitude == 0) {
+      return subBucket;
+    }
+    return (long) (SUB_BUCKET_COUNT + subBucket) << (magnitude - 1);
+  }
+
+  static long bucketWidth(int index) {
+    int magnitude = index / SUB_BUCKET_COUNT;
+    return magnitude == 0 ? 1 : 1L << (magnitude - 1);
+  }
+
+  private static class Stripe {
+
+    private final AtomicReferenceArray<AtomicLongArray> magnitudes =
+        new AtomicReferenceArray<>(MAGNITUDE_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    private void record(long value) {
+      int index = bucketIndex(value);
+      int magnitude = index / SUB_BUCKET_COUNT;
+      AtomicLongArray subBuckets = magnitudes.get(magnitude);
+      if (subBuckets == null) {
+        magnitudes.compareAndSet(magnitude, null, new AtomicLongArray(SUB_BUCKET_COUNT));
+        subBuckets = magnitudes.get(magnitude);
+      }
+      subBuckets.incrementAndGet(index % SUB_BUCKET_COUNT);
+      count.incrementAndGet();
+      sum.addAndGet(value);
+
+      long current = min.get();
+      while (value < current && !min.compareAndSet(current, value)) {
+        current = min.get();
+      }
+      current = max.get();
+      while (value > current && !max.compareAndSet(current, value)) {
+        current = max.get();
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.impl;
+
+import org.apache.iotdb.metrics.type.HistogramSnapshot;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The merged buckets of a LogBucketHistogram. A value is reported as the middle of its bucket,
+ * limited by the recorded min and max, and the values of the snapshot are the reported values of
+ * the non-empty buckets.
+ */
+public class LogBucketHistogramSnapshot implements HistogramSnapshot {
+
+  private final long[] bucketCounts;
+  private final long count;
+  private final long sum;
+  private final long min;
+  private final long max;
+
+  LogBucketHistogramSnapshot(long[] bucketCounts, long sum, long min, long max) {
+    this.bucketCounts = bucketCounts;
+    this.count = Arrays.stream(bucketCounts).sum();
+    this.sum = sum;
+    this.min = count == 0 ? 0 : min;
+    this.max = count == 0 ? 0 : max;
+  }
+
+  /** @return the number of recorded values */
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public double getValue(double quantile) {
+    if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+      throw new IllegalArgumentException(quantile + " is not in [0..1]");
+    }
+    if (count == 0) {
+      return 0.0;
+    }
+    long rank = Math.max((long) Math.ceil(quantile * count), 1);
+    long accumulated = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      accumulated += bucketCounts[i];
+      if (accumulated >= rank) {
+        return valueOf(i);
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public long[] getValues() {
+    return Arrays.stream(nonEmptyBuckets()).mapToLong(this::valueOf).toArray();
+  }
+
+  @Override
+  public int size() {
+    return nonEmptyBuckets().length;
+  }
+
+  @Override
+  public double getMedian() {
+    return getValue(0.5);
+  }
+
+  @Override
+  public long getMin() {
+    return min;
+  }
+
+  @Override
+  public double getMean() {
+    return count == 0 ? 0.0 : (double) sum / count;
+  }
+
+  @Override
+  public long getMax() {
+    return max;
+  }
+
+  /** @return the standard deviation of the reported values */
+  public double getStdDev() {
+    if (count <= 1) {
+      return 0.0;
+    }
+    double mean = getMean();
+    double variance = 0;
+    for (int i : nonEmptyBuckets()) {
+      double diff = valueOf(i) - mean;
+      variance += diff * diff * bucketCounts[i];
+    }
+    return Math.sqrt(variance / (count - 1));
+  }
+
+  /** Writes each reported value with its count in a line. */
+  @Override
+  public void dump(OutputStream output) {
+    try (PrintWriter out =
+        new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+      for (int i : nonEmptyBuckets()) {
+        out.printf("%d %d%n", valueOf(i), bucketCounts[i]);
+      }
+    }
+  }
+
+  private int[] nonEmptyBuckets() {
+    int[] indexes = new int[bucketCounts.length];
+    int num = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      if (bucketCounts[i] != 0) {
+        indexes[num++] = i;
+      }
+    }
+    return Arrays.copyOf(indexes, num);
+  }
+
+  private long valueOf(int bucketIndex) {
+    long value =
+        LogBucketHistogram.bucketLowerBound(bucketIndex)
+            + (LogBucketHistogram.bucketWidth(bucketIndex) - 1) / 2;
+    return Math.min(Math.max(value, min), max);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.impl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class LogBucketHistogramTest {
+
+  @Test
+  public void testBucketIndex() {
+    for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = LogBucketHistogram.bucketIndex(value);
+      long lowerBound = LogBucketHistogram.bucketLowerBound(index);
+      assertTrue(lowerBound <= value);
+      assertTrue(value - lowerBound < LogBucketHistogram.bucketWidth(index));
+      assertTrue(index < LogBucketHistogram.BUCKET_COUNT);
+    }
+    assertEquals(0, LogBucketHistogram.bucketIndex(-5));
+  }
+
+  @Test
+  public void testQuantiles() {
+    LogBucketHistogram histogram = new LogBucketHistogram();
+    for (int i = 1; i <= 100000; i++) {
+      histogram.update(i);
+    }
+    LogBucketHistogramSnapshot snapshot = histogram.takeSnapshot();
+    assertEquals(100000, histogram.count());
+    assertEquals(100000, snapshot.getCount());
+    assertEquals(1, snapshot.getMin());
+    assertEquals(100000, snapshot.getMax());
+    assertEquals(50000.5, snapshot.getMean(), 0.001);
+    for (double quantile : new double[] {0.5, 0.75, 0.95, 0.99, 0.999}) {
+      double expected = quantile * 100000;
+      assertEquals(expected, snapshot.getValue(quantile), expected * 0.02);
+    }
+    assertEquals(snapshot.getValue(0.5), snapshot.getMedian(), 0);
+    assertEquals(100000, snapshot.getValue(1.0), 100000 * 0.02);
+    assertThrows(IllegalArgumentException.class, () -> snapshot.getValue(1.5));
+  }
+
+  @Test
+  public void testEmptyAndNegative() {
+    LogBucketHistogram histogram = new LogBucketHistogram();
+    LogBucketHistogramSnapshot snapshot = histogram.takeSnapshot();
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0, snapshot.getMin());
+    assertEquals(0, snapshot.getMax());
+    assertEquals(0.0, snapshot.getValue(0.99), 0);
+    assertEquals(0, snapshot.size());
+
+    histogram.update(-10);
+    histogram.update(10);
+    snapshot = histogram.takeSnapshot();
+    assertEquals(-10, snapshot.getMin());
+    assertEquals(10, snapshot.getMax());
+    assertEquals(0.0, snapshot.getMean(), 0);
+    assertEquals(2, snapshot.size());
+  }
+
+  @Test
+  public void testConcurrentUpdate() throws InterruptedException {
+    LogBucketHistogram histogram = new LogBucketHistogram();
+    int threadNum = 8;
+    int updateNum = 10000;
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < updateNum; j++) {
+                  histogram.update(j);
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    LogBucketHistogramSnapshot snapshot = histogram.takeSnapshot();
+    assertEquals(threadNum * updateNum, histogram.count());
+    assertEquals(threadNum * updateNum, snapshot.getCount());
+    assertEquals(0, snapshot.getMin());
+    assertEquals(updateNum - 1, snapshot.getMax());
+    assertEquals((updateNum - 1) / 2.0, snapshot.getMean(), 0.001);
+  }
+}
@@ -23,8 +23,10 @@ import org.apache.iotdb.metrics.MetricManager;
 import org.apache.iotdb.metrics.config.MetricConfig;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.impl.LogBucketHistogram;
 import org.apache.iotdb.metrics.micrometer.type.*;
 import org.apache.iotdb.metrics.type.*;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.PredefinedMetric;
 
@@ -55,6 +57,9 @@ public class MicrometerMetricManager implements MetricManager {
   boolean isEnable;
   io.micrometer.core.instrument.MeterRegistry meterRegistry;
 
+  /** the percentiles published for the histograms and timers backed by LogBucketHistogram */
+  private static final double[] PUBLISHED_PERCENTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+
   MetricConfig metricConfig = MetricConfigDescriptor.getInstance().getMetricConfig();
 
   /** init the field with micrometer library. */
@@ -132,15 +137,7 @@ public class MicrometerMetricManager implements MetricManager {
     MetricName metricName =
         new MetricName(metric, Meter.Type.DISTRIBUTION_SUMMARY, metricLevel, tags);
     IMetric m =
-        currentMeters.computeIfAbsent(
-            metricName,
-            key -> {
-              io.micrometer.core.instrument.DistributionSummary distributionSummary =
-                  io.micrometer.core.instrument.DistributionSummary.builder(metric)
-                      .tags(tags)
-                      .register(meterRegistry);
-              return new MicrometerHistogram(distributionSummary);
-            });
+        currentMeters.computeIfAbsent(metricName, key -> createHistogram(metric, false, tags));
     if (m instanceof Histogram) {
       return (Histogram) m;
     }
@@ -186,12 +183,8 @@ public class MicrometerMetricManager implements MetricManager {
         currentMeters.computeIfAbsent(
             metricName,
             key -> {
-              io.micrometer.core.instrument.Timer timer =
-                  io.micrometer.core.instrument.Timer.builder(metric)
-                      .tags(tags)
-                      .register(meterRegistry);
               logger.info("create getOrCreateTimer {}", metric);
-              return new MicrometerTimer(timer);
+              return createTimer(metric, tags);
             });
     if (m instanceof Timer) {
       return (Timer) m;
@@ -222,17 +215,7 @@ public class MicrometerMetricManager implements MetricManager {
     MetricName metricName =
         new MetricName(metric, Meter.Type.DISTRIBUTION_SUMMARY, metricLevel, tags);
     IMetric m =
-        currentMeters.computeIfAbsent(
-            metricName,
-            key -> {
-              io.micrometer.core.instrument.DistributionSummary distributionSummary =
-                  io.micrometer.core.instrument.DistributionSummary.builder(metric)
-                      .tags(tags)
-                      .publishPercentileHistogram()
-                      .publishPercentiles(0)
-                      .register(meterRegistry);
-              return new MicrometerHistogram(distributionSummary);
-            });
+        currentMeters.computeIfAbsent(metricName, key -> createHistogram(metric, true, tags));
     if (m instanceof Histogram) {
       ((Histogram) m).update(value);
       return;
@@ -279,22 +262,13 @@ public class MicrometerMetricManager implements MetricManager {
   }
 
   @Override
-  public synchronized void timer(
+  public void timer(
       long delta, TimeUnit timeUnit, String metric, MetricLevel metricLevel, String... tags) {
     if (!isEnable(metricLevel)) {
       return;
     }
     MetricName metricName = new MetricName(metric, Meter.Type.TIMER, metricLevel, tags);
-    IMetric m =
-        currentMeters.computeIfAbsent(
-            metricName,
-            key -> {
-              io.micrometer.core.instrument.Timer timer =
-                  io.micrometer.core.instrument.Timer.builder(metric)
-                      .tags(tags)
-                      .register(meterRegistry);
-              return new MicrometerTimer(timer);
-            });
+    IMetric m = currentMeters.computeIfAbsent(metricName, key -> createTimer(metric, tags));
     if (m instanceof Timer) {
       ((Timer) m).update(delta, timeUnit);
       return;
@@ -392,6 +366,61 @@ public class MicrometerMetricManager implements MetricManager {
     }
   }
 
+  /**
+   * Create a distribution summary, which is backed by a {@link LogBucketHistogram} if the histogram
+   * type is {@link HistogramType#LOG_BUCKET}.
+   *
+   * @param publishPercentileHistogram whether micrometer publishes its own percentile histogram
+   *     when the default histogram is used
+   */
+  private MicrometerHistogram createHistogram(
+      String metric, boolean publishPercentileHistogram, String... tags) {
+    io.micrometer.core.instrument.DistributionSummary.Builder builder =
+        io.micrometer.core.instrument.DistributionSummary.builder(metric).tags(tags);
+    if (metricConfig.getHistogramType() == HistogramType.LOG_BUCKET) {
+      LogBucketHistogram histogram = new LogBucketHistogram();
+      registerPercentileGauges(metric, null, histogram, 1, tags);
+      return new MicrometerHistogram(builder.register(meterRegistry), histogram);
+    }
+    if (publishPercentileHistogram) {
+      builder.publishPercentileHistogram().publishPercentiles(0);
+    }
+    return new MicrometerHistogram(builder.register(meterRegistry));
+  }
+
+  /**
+   * Create a timer, which is backed by a {@link LogBucketHistogram} if the histogram type is {@link
+   * HistogramType#LOG_BUCKET}.
+   */
+  private MicrometerTimer createTimer(String metric, String... tags) {
+    io.micrometer.core.instrument.Timer timer =
+        io.micrometer.core.instrument.Timer.builder(metric).tags(tags).register(meterRegistry);
+    if (metricConfig.getHistogramType() == HistogramType.LOG_BUCKET) {
+      LogBucketHistogram histogram = new LogBucketHistogram();
+      // the durations are recorded in nanoseconds, while micrometer publishes timers in seconds
+      registerPercentileGauges(
+          metric, "seconds", histogram, 1.0 / TimeUnit.SECONDS.toNanos(1), tags);
+      return new MicrometerTimer(timer, histogram);
+    }
+    return new MicrometerTimer(timer);
+  }
+
+  /**
+   * Publish the percentiles of a native histogram as gauges named "{metric}.percentile" with a tag
+   * "phi", which is the same as the client-side percentiles of micrometer.
+   */
+  private void registerPercentileGauges(
+      String metric, String baseUnit, LogBucketHistogram histogram, double scale, String... tags) {
+    for (double percentile : PUBLISHED_PERCENTILES) {
+      io.micrometer.core.instrument.Gauge.builder(
+              metric + ".percentile", histogram, h -> h.takeSnapshot().getValue(percentile) * scale)
+          .tags(tags)
+          .tag("phi", String.valueOf(percentile))
+          .baseUnit(baseUnit)
+          .register(meterRegistry);
+    }
+  }
+
   /** bind default metric to registry(or reporter */
   private void enableJvmMetrics() {
     if (!isEnable()) {
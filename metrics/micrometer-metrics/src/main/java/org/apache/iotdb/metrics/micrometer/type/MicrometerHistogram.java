@@ -19,20 +19,33 @@
 
 package org.apache.iotdb.metrics.micrometer.type;
 
+import org.apache.iotdb.metrics.impl.LogBucketHistogram;
 import org.apache.iotdb.metrics.type.Histogram;
 
 public class MicrometerHistogram implements Histogram {
 
   io.micrometer.core.instrument.DistributionSummary distributionSummary;
+  /** records the values instead of the distribution summary if it is not null */
+  LogBucketHistogram histogram;
 
   public MicrometerHistogram(
       io.micrometer.core.instrument.DistributionSummary distributionSummary) {
+    this(distributionSummary, null);
+  }
+
+  public MicrometerHistogram(
+      io.micrometer.core.instrument.DistributionSummary distributionSummary,
+      LogBucketHistogram histogram) {
     this.distributionSummary = distributionSummary;
+    this.histogram = histogram;
   }
 
   @Override
   public void update(long value) {
     distributionSummary.record(value);
+    if (histogram != null) {
+      histogram.update(value);
+    }
   }
 
   @Override
@@ -42,6 +55,9 @@ public class MicrometerHistogram implements Histogram {
 
   @Override
   public org.apache.iotdb.metrics.type.HistogramSnapshot takeSnapshot() {
+    if (histogram != null) {
+      return histogram.takeSnapshot();
+    }
     return new MicrometerHistogramSnapshot(distributionSummary.takeSnapshot());
   }
 }
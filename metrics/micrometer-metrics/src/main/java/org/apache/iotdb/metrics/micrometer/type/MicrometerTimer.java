@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.metrics.micrometer.type;
 
+import org.apache.iotdb.metrics.impl.LogBucketHistogram;
 import org.apache.iotdb.metrics.type.HistogramSnapshot;
 import org.apache.iotdb.metrics.type.Rate;
 import org.apache.iotdb.metrics.type.Timer;
@@ -30,20 +31,33 @@ public class MicrometerTimer implements Timer {
 
   io.micrometer.core.instrument.Timer timer;
   MicrometerRate micrometerRate;
+  /** records the durations in nanoseconds instead of the timer if it is not null */
+  LogBucketHistogram histogram;
 
   public MicrometerTimer(io.micrometer.core.instrument.Timer timer) {
+    this(timer, null);
+  }
+
+  public MicrometerTimer(io.micrometer.core.instrument.Timer timer, LogBucketHistogram histogram) {
     this.timer = timer;
+    this.histogram = histogram;
     micrometerRate = new MicrometerRate(new AtomicLong(0));
   }
 
   @Override
   public void update(long duration, TimeUnit unit) {
     timer.record(duration, unit);
+    if (histogram != null) {
+      histogram.update(unit.toNanos(duration));
+    }
     micrometerRate.mark(duration);
   }
 
   @Override
   public HistogramSnapshot takeSnapshot() {
+    if (histogram != null) {
+      return histogram.takeSnapshot();
+    }
     return new MicrometerHistogramSnapshot(timer.takeSnapshot());
   }
 
@@ -25,7 +25,9 @@ import org.apache.iotdb.metrics.MetricService;
 import org.apache.iotdb.metrics.config.MetricConfig;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.type.Gauge;
+import org.apache.iotdb.metrics.type.HistogramSnapshot;
 import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.HistogramType;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MonitorType;
 
@@ -34,6 +36,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -80,4 +83,21 @@ public class MicrometerMetricManagerTest {
     System.gc();
     assertEquals(0L, autoGauge.value());
   }
+
+  @Test
+  public void testLogBucketTimer() {
+    metricConfig.setHistogramType(HistogramType.LOG_BUCKET);
+    try {
+      Timer timer = metricManager.getOrCreateTimer("logBucketTimer", MetricLevel.NORMAL);
+      for (int i = 1; i <= 100; i++) {
+        timer.update(i, TimeUnit.MILLISECONDS);
+      }
+      HistogramSnapshot snapshot = timer.takeSnapshot();
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(1), snapshot.getMin());
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(100), snapshot.getMax());
+      assertEquals(TimeUnit.MILLISECONDS.toNanos(99), snapshot.getValue(0.99), 2e6);
+    } finally {
+      metricConfig.setHistogramType(HistogramType.DEFAULT);
+    }
+  }
 }
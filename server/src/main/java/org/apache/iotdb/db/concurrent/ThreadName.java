@@ -24,6 +24,8 @@ public enum ThreadName {
   RPC_CLIENT("RPC-Client"),
   INFLUXDB_SERVICE("Influxdb-Service"),
   INFLUXDB_CLIENT("Influxdb-Client"),
+  MQTT_INSERT("MQTT-Insert"),
+  MQTT_INSERT_LINGER("MQTT-Insert-Linger"),
   MERGE_SERVICE("Merge"),
   CLOSE_MERGE_SERVICE("Close-Merge"),
   CLOSE_MERGE_DAEMON("Close-Merge-Daemon"),
@@ -44,6 +46,7 @@ public enum ThreadName {
   WAL_FLUSH("WAL-Flush"),
   INDEX_SERVICE("Index"),
   SYNC_CLIENT("Sync-Client"),
+  SYNC_CLIENT_STREAM("Sync-Client-Stream"),
   SYNC_SERVER("Sync"),
   SYNC_MONITOR("Sync-Monitor"),
   LOAD_TSFILE("Load-TsFile"),
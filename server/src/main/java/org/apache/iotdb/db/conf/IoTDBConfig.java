@@ -86,6 +86,18 @@ public class IoTDBConfig {
   /** max mqtt message size. Unit: byte */
   private int mqttMaxMessageSize = 1048576;
 
+  /**
+   * how long the mqtt messages of a device are coalesced into one insertion before being executed.
+   * 0 means every message is inserted once it is received. Unit: millisecond
+   */
+  private long mqttInsertLingerTimeInMs = 0;
+
+  /** max number of mqtt messages of a device coalesced into one insertion. */
+  private int mqttInsertBatchSize = 1024;
+
+  /** the pool size for executing the coalesced mqtt insertions. */
+  private int mqttInsertPoolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
   /** Rpc binding address. */
   private String rpcAddress = "0.0.0.0";
 
@@ -2135,6 +2147,30 @@ public class IoTDBConfig {
     this.mqttMaxMessageSize = mqttMaxMessageSize;
   }
 
+  public long getMqttInsertLingerTimeInMs() {
+    return mqttInsertLingerTimeInMs;
+  }
+
+  public void setMqttInsertLingerTimeInMs(long mqttInsertLingerTimeInMs) {
+    this.mqttInsertLingerTimeInMs = mqttInsertLingerTimeInMs;
+  }
+
+  public int getMqttInsertBatchSize() {
+    return mqttInsertBatchSize;
+  }
+
+  public void setMqttInsertBatchSize(int mqttInsertBatchSize) {
+    this.mqttInsertBatchSize = mqttInsertBatchSize;
+  }
+
+  public int getMqttInsertPoolSize() {
+    return mqttInsertPoolSize;
+  }
+
+  public void setMqttInsertPoolSize(int mqttInsertPoolSize) {
+    this.mqttInsertPoolSize = mqttInsertPoolSize;
+  }
+
   public int getTagAttributeTotalSize() {
     return tagAttributeTotalSize;
   }
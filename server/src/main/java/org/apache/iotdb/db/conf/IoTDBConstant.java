@@ -126,6 +126,11 @@ public class IoTDBConstant {
   public static final String COLUMN_TRIGGER_STATUS_STARTED = "started";
   public static final String COLUMN_TRIGGER_STATUS_STOPPED = "stopped";
 
+  public static final String COLUMN_PROFILE_STAGE = "stage";
+  public static final String COLUMN_PROFILE_INVOCATIONS = "invocations";
+  public static final String COLUMN_PROFILE_ROWS = "rows";
+  public static final String COLUMN_PROFILE_TIME = "time(ms)";
+
   public static final String ONE_LEVEL_PATH_WILDCARD = "*";
   public static final String MULTI_LEVEL_PATH_WILDCARD = "**";
   public static final String TIME = "time";
@@ -161,6 +166,9 @@ public class IoTDBConstant {
   public static final String MQTT_HANDLER_POOL_SIZE_NAME = "mqtt_handler_pool_size";
   public static final String MQTT_PAYLOAD_FORMATTER_NAME = "mqtt_payload_formatter";
   public static final String MQTT_MAX_MESSAGE_SIZE = "mqtt_max_message_size";
+  public static final String MQTT_INSERT_LINGER_TIME_NAME = "mqtt_insert_linger_time_in_ms";
+  public static final String MQTT_INSERT_BATCH_SIZE_NAME = "mqtt_insert_batch_size";
+  public static final String MQTT_INSERT_POOL_SIZE_NAME = "mqtt_insert_pool_size";
 
   // thrift
   public static final int LEFT_SIZE_IN_REQUEST = 4 * 1024 * 1024;
@@ -735,6 +735,18 @@ public class IoTDBDescriptor {
         conf.setMqttMaxMessageSize(
             Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_MAX_MESSAGE_SIZE)));
       }
+      if (properties.getProperty(IoTDBConstant.MQTT_INSERT_LINGER_TIME_NAME) != null) {
+        conf.setMqttInsertLingerTimeInMs(
+            Long.parseLong(properties.getProperty(IoTDBConstant.MQTT_INSERT_LINGER_TIME_NAME)));
+      }
+      if (properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_SIZE_NAME) != null) {
+        conf.setMqttInsertBatchSize(
+            Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_INSERT_BATCH_SIZE_NAME)));
+      }
+      if (properties.getProperty(IoTDBConstant.MQTT_INSERT_POOL_SIZE_NAME) != null) {
+        conf.setMqttInsertPoolSize(
+            Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_INSERT_POOL_SIZE_NAME)));
+      }
 
       conf.setAuthorizerProvider(
           properties.getProperty("authorizer_provider_class", conf.getAuthorizerProvider()));
@@ -1057,6 +1069,13 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_level",
+                    Integer.toString(TSFileDescriptor.getInstance().getConfig().getZstdLevel()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -48,6 +48,7 @@ public enum OperationType {
   CREATE_SCHEMA_TEMPLATE("createSchemaTemplate"),
   CHECK_AUTHORITY("checkAuthority"),
   EXECUTE_NON_QUERY_PLAN("executeNonQueryPlan"),
+  REGISTER_SCHEMA_HANDLE("registerSchemaHandle"),
   ;
   private final String name;
 
@@ -54,13 +54,19 @@ import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowsOfOneDevicePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.db.utils.ThreadUtils;
 import org.apache.iotdb.db.utils.UpgradeUtils;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
@@ -199,6 +205,16 @@ public class StorageEngine implements IService {
       try {
         TimeUnit.MILLISECONDS.sleep(config.getCheckPeriodWhenInsertBlocked());
         if (System.currentTimeMillis() - startTime > config.getMaxWaitingTimeWhenInsertBlocked()) {
+          if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+            MetricsService.getInstance()
+                .getMetricManager()
+                .count(
+                    1,
+                    Metric.QUANTITY.toString(),
+                    MetricLevel.NORMAL,
+                    Tag.NAME.toString(),
+                    "writeRejected");
+          }
           throw new WriteProcessRejectException(
               "System rejected over " + (System.currentTimeMillis() - startTime) + "ms");
         }
@@ -281,6 +297,40 @@ public class StorageEngine implements IService {
     logger.info("start ttl check thread successfully.");
 
     startTimedService();
+
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      startMemoryStatistics();
+    }
+  }
+
+  private void startMemoryStatistics() {
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.MEM.toString(),
+            MetricLevel.NORMAL,
+            SystemInfo.getInstance(),
+            SystemInfo::getTotalMemTableSize,
+            Tag.NAME.toString(),
+            "memTable");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.MEM.toString(),
+            MetricLevel.NORMAL,
+            SystemInfo.getInstance(),
+            SystemInfo::getFlushingMemTableCost,
+            Tag.NAME.toString(),
+            "flushingMemTable");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateAutoGauge(
+            Metric.MEM.toString(),
+            MetricLevel.NORMAL,
+            PrimitiveArrayManager.class,
+            clazz -> PrimitiveArrayManager.getBufferedArraysSize(),
+            Tag.NAME.toString(),
+            "bufferedArray");
   }
 
   private void checkTTL() {
@@ -995,6 +1045,24 @@ public class StorageEngine implements IService {
     return res;
   }
 
+  /**
+   * Get the min plan index of the memtables that are not flushed yet in each time partition. The
+   * plans whose indexes are smaller than it in a time partition have been persisted in TsFiles.
+   *
+   * @return storage group -> time partition -> min plan index of the unflushed memtables
+   */
+  public Map<String, Map<Long, Long>> getMinUnflushedPlanIndexes() {
+    Map<String, Map<Long, Long>> res = new HashMap<>();
+    for (Entry<PartialPath, StorageGroupManager> entry : processorMap.entrySet()) {
+      Map<Long, Long> partitionMinPlanIndexes = new HashMap<>();
+      entry.getValue().collectMinUnflushedPlanIndexes(partitionMinPlanIndexes);
+      if (!partitionMinPlanIndexes.isEmpty()) {
+        res.put(entry.getKey().getFullPath(), partitionMinPlanIndexes);
+      }
+    }
+    return res;
+  }
+
   /**
    * Add a listener to listen flush start/end events. Notice that this addition only applies to
    * TsFileProcessors created afterwards.
@@ -1048,6 +1116,7 @@ public class StorageEngine implements IService {
 
   protected void getSeriesSchemas(InsertPlan insertPlan, VirtualStorageGroupProcessor processor)
       throws StorageEngineException, MetadataException {
+    long startTime = System.nanoTime();
     try {
       if (config.isEnableIDTable()) {
         processor.getIdTable().getSeriesSchemas(insertPlan);
@@ -1059,6 +1128,19 @@ public class StorageEngine implements IService {
     } catch (IOException e) {
       throw new StorageEngineException(e);
     }
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              System.nanoTime() - startTime,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_STAGE.toString(),
+              MetricLevel.NORMAL,
+              Tag.NAME.toString(),
+              "insert",
+              Tag.TYPE.toString(),
+              "schema_check");
+    }
   }
 
   static class InstanceHolder {
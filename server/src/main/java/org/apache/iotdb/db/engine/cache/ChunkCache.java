@@ -134,6 +134,11 @@ public class ChunkCache {
         chunkMetaData.getStatistics());
   }
 
+  /** Check whether the chunk is cached without touching the statistics of the cache. */
+  public boolean contains(ChunkMetadata chunkMetaData) {
+    return CACHE_ENABLE && lruCache.asMap().containsKey(chunkMetaData);
+  }
+
   public double calculateChunkHitRatio() {
     return lruCache.stats().hitRate();
   }
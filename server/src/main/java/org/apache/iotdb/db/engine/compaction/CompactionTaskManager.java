@@ -115,6 +115,19 @@ public class CompactionTaskManager implements IService {
           TASK_SUBMIT_INTERVAL,
           TASK_SUBMIT_INTERVAL,
           TimeUnit.MILLISECONDS);
+      if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+        MetricsService.getInstance()
+            .getMetricManager()
+            .getOrCreateAutoGauge(
+                Metric.QUEUE.toString(),
+                MetricLevel.NORMAL,
+                candidateCompactionTaskQueue,
+                FixedPriorityBlockingQueue::size,
+                Tag.NAME.toString(),
+                "compaction",
+                Tag.STATUS.toString(),
+                "candidate");
+      }
     }
     logger.info("Compaction task manager started.");
   }
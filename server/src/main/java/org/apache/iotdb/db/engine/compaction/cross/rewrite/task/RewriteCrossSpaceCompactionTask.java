@@ -146,6 +146,9 @@ public class RewriteCrossSpaceCompactionTask extends AbstractCrossSpaceCompactio
           selectedSeqTsFileResourceList, selectedUnSeqTsFileResourceList, targetTsfileResourceList);
 
       CompactionUtils.moveTargetFile(targetTsfileResourceList, false, fullStorageGroupName);
+      List<TsFileResource> sourceFiles = new ArrayList<>(selectedSeqTsFileResourceList);
+      sourceFiles.addAll(selectedUnSeqTsFileResourceList);
+      recordDataSize("cross", sourceFiles, targetTsfileResourceList);
       CompactionUtils.combineModsInCompaction(
           selectedSeqTsFileResourceList, selectedUnSeqTsFileResourceList, targetTsfileResourceList);
 
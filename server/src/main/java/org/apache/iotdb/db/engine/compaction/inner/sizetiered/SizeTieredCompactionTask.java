@@ -125,6 +125,8 @@ public class SizeTieredCompactionTask extends AbstractInnerSpaceCompactionTask {
       }
 
       InnerSpaceCompactionUtils.moveTargetFile(targetTsFileResource, fullStorageGroupName);
+      recordDataSize(
+          "inner", selectedTsFileResourceList, Collections.singletonList(targetTsFileResource));
 
       LOGGER.info("{} [SizeTiredCompactionTask] start to rename mods file", fullStorageGroupName);
       InnerSpaceCompactionUtils.combineModsInCompaction(
@@ -59,6 +59,8 @@ public class SingleSeriesCompactionExecutor {
   private long minStartTimestamp = Long.MAX_VALUE;
   private long maxEndTimestamp = Long.MIN_VALUE;
   private long pointCountInChunkWriter = 0;
+  // whether the chunks of the series have bloom filters of their values to be kept
+  private final boolean keepValueBloomFilter;
 
   private final long targetChunkSize =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
@@ -81,6 +83,7 @@ public class SingleSeriesCompactionExecutor {
     this.fileWriter = fileWriter;
     this.schema = IoTDB.metaManager.getSeriesSchema(new PartialPath(device, timeSeries));
     this.chunkWriter = new ChunkWriterImpl(this.schema);
+    this.keepValueBloomFilter = ChunkWriterImpl.isValueBloomFilterEnabled(this.schema);
     this.cachedChunk = null;
     this.cachedChunkMetadata = null;
     this.targetResource = targetResource;
@@ -98,6 +101,11 @@ public class SingleSeriesCompactionExecutor {
       List<ChunkMetadata> chunkMetadataList = readerListPair.right;
       for (ChunkMetadata chunkMetadata : chunkMetadataList) {
         Chunk currentChunk = reader.readMemChunk(chunkMetadata);
+        if (keepValueBloomFilter) {
+          // carried to the target file if the chunk is copied as a whole
+          currentChunk.setValueBloomFilter(
+              reader.readValueBloomFilter(chunkMetadata.getOffsetOfChunkHeader()));
+        }
 
         // if this chunk is modified, deserialize it into points
         if (chunkMetadata.getDeleteIntervalList() != null) {
@@ -153,7 +161,7 @@ public class SingleSeriesCompactionExecutor {
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk, then flush it
       mergeWithCachedChunk(chunk, chunkMetadata);
-      flushCachedChunkIfLargeEnough();
+      flushMergedChunkIfLargeEnough();
     } else {
       // there is no points remaining in ChunkWriter and no cached chunk
       // flush it to file directly
@@ -171,7 +179,7 @@ public class SingleSeriesCompactionExecutor {
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk
       mergeWithCachedChunk(chunk, chunkMetadata);
-      flushCachedChunkIfLargeEnough();
+      flushMergedChunkIfLargeEnough();
     } else {
       // there is no points remaining in ChunkWriter and no cached chunk
       // cached current chunk
@@ -212,7 +220,9 @@ public class SingleSeriesCompactionExecutor {
   }
 
   private void writeCachedChunkIntoChunkWriter() throws IOException {
-    cachedChunk.getData().flip();
+    // the data of a chunk not merged with others is already at its beginning, so it must not be
+    // flipped
+    cachedChunk.getData().rewind();
     writeChunkIntoChunkWriter(cachedChunk);
     cachedChunk = null;
     cachedChunkMetadata = null;
@@ -220,6 +230,13 @@ public class SingleSeriesCompactionExecutor {
 
   private void mergeWithCachedChunk(Chunk currentChunk, ChunkMetadata currentChunkMetadata)
       throws IOException {
+    if (keepValueBloomFilter) {
+      // the bloom filters of the values cannot be merged with the pages, so the chunks are
+      // deserialized and the ChunkWriter builds the filter of the merged chunk
+      writeCachedChunkIntoChunkWriter();
+      writeChunkIntoChunkWriter(currentChunk);
+      return;
+    }
     // Notice!!!
     // We must execute mergeChunkByAppendPage before mergeChunkMetadata
     // otherwise the statistic of data may be wrong.
@@ -273,6 +290,14 @@ public class SingleSeriesCompactionExecutor {
     }
   }
 
+  private void flushMergedChunkIfLargeEnough() throws IOException {
+    if (cachedChunk != null) {
+      flushCachedChunkIfLargeEnough();
+    } else {
+      flushChunkWriterIfLargeEnough();
+    }
+  }
+
   private void flushCachedChunkIfLargeEnough() throws IOException {
     if (cachedChunk.getChunkStatistic().getCount() >= targetChunkPointNum
         || getChunkSize(cachedChunk) >= targetChunkSize) {
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.cross.rewrite.task.RewriteCrossCompactionRecoverTask;
 import org.apache.iotdb.db.engine.compaction.inner.sizetiered.SizeTieredCompactionRecoverTask;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.service.metrics.Metric;
 import org.apache.iotdb.db.service.metrics.MetricsService;
 import org.apache.iotdb.db.service.metrics.Tag;
@@ -32,6 +33,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -89,6 +91,45 @@ public abstract class AbstractCompactionTask implements Callable<Void> {
     return null;
   }
 
+  /**
+   * Count the bytes read from the source files and written into the target files of a finished
+   * compaction. The targets must have been moved to their final names.
+   */
+  protected void recordDataSize(
+      String type, List<TsFileResource> sourceFiles, List<TsFileResource> targetFiles) {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    long readBytes = 0;
+    for (TsFileResource sourceFile : sourceFiles) {
+      readBytes += sourceFile.getTsFileSize();
+    }
+    long writtenBytes = 0;
+    for (TsFileResource targetFile : targetFiles) {
+      writtenBytes += targetFile.getTsFile().length();
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            readBytes,
+            Metric.DATA_READ.toString(),
+            MetricLevel.NORMAL,
+            Tag.NAME.toString(),
+            "compaction",
+            Tag.TYPE.toString(),
+            type);
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            writtenBytes,
+            Metric.DATA_WRITTEN.toString(),
+            MetricLevel.NORMAL,
+            Tag.NAME.toString(),
+            "compaction",
+            Tag.TYPE.toString(),
+            type);
+  }
+
   public String getFullStorageGroupName() {
     return fullStorageGroupName;
   }
@@ -166,6 +166,9 @@ public class MemTableFlushTask {
               MetricLevel.NORMAL,
               Tag.NAME.toString(),
               "flush");
+      recordFlushStageCost("sort", sortTime);
+      recordFlushStageCost("encoding", memSerializeTime);
+      recordFlushStageCost("io", ioTime);
     }
 
     LOGGER.info(
@@ -175,6 +178,20 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
+  private void recordFlushStageCost(String stage, long costInMillis) {
+    MetricsService.getInstance()
+        .getMetricManager()
+        .timer(
+            costInMillis,
+            TimeUnit.MILLISECONDS,
+            Metric.COST_STAGE.toString(),
+            MetricLevel.NORMAL,
+            Tag.NAME.toString(),
+            "flush",
+            Tag.TYPE.toString(),
+            stage);
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
@@ -51,6 +51,9 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.rescon.MemTableManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
@@ -58,6 +61,8 @@ import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.writelog.WALFlushListener;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
@@ -81,6 +86,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -224,6 +230,7 @@ public class TsFileProcessor {
       }
     }
 
+    long startTime = System.nanoTime();
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
       try {
         getLogNode().write(insertRowPlan);
@@ -239,11 +246,17 @@ public class TsFileProcessor {
       }
     }
 
+    long walEndTime = System.nanoTime();
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+      recordInsertStageCost("wal", walEndTime - startTime);
+    }
+
     if (insertRowPlan.isAligned()) {
       workMemTable.insertAlignedRow(insertRowPlan);
     } else {
       workMemTable.insert(insertRowPlan);
     }
+    recordInsertStageCost("memtable", System.nanoTime() - walEndTime);
 
     // update start time of this memtable
     tsFileResource.updateStartTime(
@@ -296,6 +309,7 @@ public class TsFileProcessor {
       throw new WriteProcessException(e);
     }
 
+    long startTime = System.nanoTime();
     try {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         insertTabletPlan.setStart(start);
@@ -312,6 +326,11 @@ public class TsFileProcessor {
       throw new WriteProcessException(e);
     }
 
+    long walEndTime = System.nanoTime();
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+      recordInsertStageCost("wal", walEndTime - startTime);
+    }
+
     try {
       if (insertTabletPlan.isAligned()) {
         workMemTable.insertAlignedTablet(insertTabletPlan, start, end);
@@ -324,6 +343,7 @@ public class TsFileProcessor {
       }
       throw new WriteProcessException(e);
     }
+    recordInsertStageCost("memtable", System.nanoTime() - walEndTime);
 
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
@@ -619,6 +639,22 @@ public class TsFileProcessor {
     workMemTable.addTextDataSize(textDataIncrement);
   }
 
+  private void recordInsertStageCost(String stage, long costInNanos) {
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              costInNanos,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_STAGE.toString(),
+              MetricLevel.NORMAL,
+              Tag.NAME.toString(),
+              "insert",
+              Tag.TYPE.toString(),
+              stage);
+    }
+  }
+
   private void rollbackMemoryInfo(long[] memIncrements) {
     long memTableIncrement = memIncrements[0];
     long textDataIncrement = memIncrements[1];
@@ -1413,6 +1449,26 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * Get the min plan index of the memtables that are not flushed yet. The caller should hold the
+   * insert lock of the storage group, so that the working memtable is not moved concurrently.
+   *
+   * @return the min plan index or Long.MAX_VALUE if all memtables are flushed
+   */
+  public long getMinUnflushedPlanIndex() {
+    long minPlanIndex = Long.MAX_VALUE;
+    IMemTable memTable = workMemTable;
+    if (memTable != null) {
+      minPlanIndex = memTable.getMinPlanIndex();
+    }
+    for (IMemTable flushingMemTable : flushingMemTables) {
+      if (!flushingMemTable.isSignalMemTable()) {
+        minPlanIndex = Math.min(minPlanIndex, flushingMemTable.getMinPlanIndex());
+      }
+    }
+    return minPlanIndex;
+  }
+
   @TestOnly
   public IMemTable getWorkMemTable() {
     return workMemTable;
@@ -61,6 +61,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.iotdb.db.conf.IoTDBConstant.FILE_NAME_SEPARATOR;
 import static org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator.getTsFileName;
@@ -135,6 +136,12 @@ public class TsFileResource {
 
   private long tsFileSize = -1L;
 
+  /**
+   * The digest of the closed data file, or null if it is not computed. It is shared by the copies
+   * and hardlinks of this resource, as the data file does not change once it is closed.
+   */
+  private AtomicReference<String> dataFileDigest = new AtomicReference<>();
+
   private TsFileProcessor processor;
 
   /**
@@ -176,6 +183,7 @@ public class TsFileResource {
     this.minPlanIndex = other.minPlanIndex;
     this.version = FilePathUtils.splitAndGetTsFileVersion(this.file.getName());
     this.tsFileSize = other.tsFileSize;
+    this.dataFileDigest = other.dataFileDigest;
   }
 
   /** for sealed TsFile, call setClosed to close TsFileResource */
@@ -397,6 +405,10 @@ public class TsFileResource {
     }
   }
 
+  public AtomicReference<String> getDataFileDigest() {
+    return dataFileDigest;
+  }
+
   public long getStartTime(String deviceId) {
     return timeIndex.getStartTime(deviceId);
   }
@@ -2958,6 +2958,30 @@ public class VirtualStorageGroupProcessor {
     return workUnsequenceTsFileProcessors.values();
   }
 
+  /**
+   * Collect the min plan index of the unflushed memtables in each time partition, including the
+   * ones of the closing tsfile processors.
+   *
+   * @param partitionMinPlanIndexes time partition -> min plan index of the unflushed memtables
+   */
+  public void collectMinUnflushedPlanIndexes(Map<Long, Long> partitionMinPlanIndexes) {
+    insertLock.readLock().lock();
+    try {
+      List<TsFileProcessor> processors = new ArrayList<>(workSequenceTsFileProcessors.values());
+      processors.addAll(workUnsequenceTsFileProcessors.values());
+      processors.addAll(closingSequenceTsFileProcessor.cloneList());
+      processors.addAll(closingUnSequenceTsFileProcessor.cloneList());
+      for (TsFileProcessor processor : processors) {
+        long minPlanIndex = processor.getMinUnflushedPlanIndex();
+        if (minPlanIndex != Long.MAX_VALUE) {
+          partitionMinPlanIndexes.merge(processor.getTimeRangeId(), minPlanIndex, Math::min);
+        }
+      }
+    } finally {
+      insertLock.readLock().unlock();
+    }
+  }
+
   public void setDataTTL(long dataTTL) {
     this.dataTTL = dataTTL;
   }
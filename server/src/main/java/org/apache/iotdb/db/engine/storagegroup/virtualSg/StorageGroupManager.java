@@ -478,6 +478,16 @@ public class StorageGroupManager {
     }
   }
 
+  /** push collectMinUnflushedPlanIndexes operation down to all virtual storage group processors */
+  public void collectMinUnflushedPlanIndexes(Map<Long, Long> partitionMinPlanIndexes) {
+    for (VirtualStorageGroupProcessor virtualStorageGroupProcessor :
+        this.virtualStorageGroupProcessor) {
+      if (virtualStorageGroupProcessor != null) {
+        virtualStorageGroupProcessor.collectMinUnflushedPlanIndexes(partitionMinPlanIndexes);
+      }
+    }
+  }
+
   /** release resource of direct wal buffer */
   public void releaseWalDirectByteBufferPool() {
     for (VirtualStorageGroupProcessor virtualStorageGroupProcessor :
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.exception.query;
+
+import org.apache.iotdb.rpc.TSStatusCode;
+
+public class SchemaHandleLimitExceededException extends QueryProcessException {
+
+  private static final long serialVersionUID = -2166315683627441375L;
+
+  public SchemaHandleLimitExceededException(long sessionId, int maxHandleNum) {
+    super(
+        String.format(
+            "Session %d has registered %d schema handles, which is the max number",
+            sessionId, maxHandleNum),
+        TSStatusCode.SCHEMA_HANDLE_LIMIT_EXCEEDED.getStatusCode());
+    this.isUserException = true;
+  }
+}
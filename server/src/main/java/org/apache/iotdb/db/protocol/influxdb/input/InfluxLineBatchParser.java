@@ -0,0 +1,459 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.protocol.influxdb.input;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.protocol.influxdb.meta.InfluxDBMetaManager;
+import org.apache.iotdb.db.qp.physical.crud.InsertMultiTabletPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.qp.utils.DatetimeUtils;
+import org.apache.iotdb.db.utils.ParameterUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.influxdb.InfluxDBException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InfluxLineBatchParser tokenizes the records of line protocol directly into the column buffers of
+ * the series, without building a Point for every line. The lines of the same series and fields are
+ * collected into one InsertTabletPlan, and all of them are put into one InsertMultiTabletPlan.
+ *
+ * <p>The paths of the series are resolved by the series keys, i.e., the measurement and the tags as
+ * they are written in the line, which are cached by InfluxDBMetaManager.
+ */
+public class InfluxLineBatchParser {
+
+  private static final int INITIAL_TABLET_CAPACITY = 16;
+
+  private final String database;
+
+  private final TimeUnit precision;
+
+  private final InfluxDBMetaManager metaManager;
+
+  /** path and fields of a series -> the column buffer of the series */
+  private final Map<String, TabletBuffer> tablets = new LinkedHashMap<>();
+
+  /** fields of the line being parsed */
+  private final List<String> fieldKeys = new ArrayList<>();
+
+  private final List<Object> fieldValues = new ArrayList<>();
+
+  private final StringBuilder builder = new StringBuilder();
+
+  private String line;
+
+  private int pos;
+
+  public InfluxLineBatchParser(String database, String precision, InfluxDBMetaManager metaManager) {
+    ParameterUtils.checkNonEmptyString(database, "database");
+    this.database = database;
+    this.precision = precision == null ? TimeUnit.NANOSECONDS : DatetimeUtils.toTimeUnit(precision);
+    this.metaManager = metaManager;
+  }
+
+  /** Parse the records into InsertTabletPlans, one for each series and fields. */
+  public InsertMultiTabletPlan parse(String records) throws IllegalPathException {
+    tablets.clear();
+    int start = 0;
+    while (start < records.length()) {
+      int end = records.indexOf('\n', start);
+      if (end < 0) {
+        end = records.length();
+      }
+      parseLine(records.substring(start, end));
+      start = end + 1;
+    }
+
+    List<InsertTabletPlan> plans = new ArrayList<>(tablets.size());
+    for (TabletBuffer tablet : tablets.values()) {
+      plans.add(tablet.toInsertTabletPlan());
+    }
+    tablets.clear();
+    return new InsertMultiTabletPlan(plans);
+  }
+
+  private void parseLine(String input) {
+    line = input;
+    pos = 0;
+    skipWhitespaces();
+    if (pos == line.length() || line.charAt(pos) == '#') {
+      // empty line or comment
+      return;
+    }
+    try {
+      String path = parseSeriesKey();
+      parseFields();
+      long time = parseTimestamp();
+      append(path, time);
+    } catch (RuntimeException e) {
+      throw new InfluxDBException("Unable to parse line: " + line + ", because " + e.getMessage());
+    } finally {
+      fieldKeys.clear();
+      fieldValues.clear();
+    }
+  }
+
+  /** Resolve the path of the series key, i.e., "measurement,tag1=v1,tag2=v2". */
+  private String parseSeriesKey() {
+    int start = pos;
+    while (pos < line.length() && line.charAt(pos) != ' ') {
+      if (line.charAt(pos) == '\\') {
+        pos++;
+      }
+      pos++;
+    }
+    if (pos >= line.length()) {
+      throw new IllegalArgumentException("no field is found");
+    }
+    String seriesKey = line.substring(start, pos);
+    String path = metaManager.getCachedPath(database, seriesKey);
+    if (path != null) {
+      return path;
+    }
+
+    // parse the measurement and tags from the series key
+    pos = start;
+    String measurement = readIdentifier(',');
+    ParameterUtils.checkNonEmptyString(measurement, "measurement name");
+    Map<String, String> tags = new HashMap<>();
+    while (line.charAt(pos) == ',') {
+      pos++;
+      String key = readIdentifier('=');
+      expect('=');
+      tags.put(key, readIdentifier(','));
+    }
+    return metaManager.generatePathOfSeriesKey(database, seriesKey, measurement, tags);
+  }
+
+  private void parseFields() {
+    expect(' ');
+    skipWhitespaces();
+    while (true) {
+      String key = readIdentifier('=');
+      expect('=');
+      Object value = readFieldValue();
+      int index = fieldKeys.indexOf(key);
+      if (index >= 0) {
+        // the latter value overwrites the former one
+        fieldValues.set(index, value);
+      } else {
+        fieldKeys.add(key);
+        fieldValues.add(value);
+      }
+      if (pos < line.length() && line.charAt(pos) == ',') {
+        pos++;
+      } else {
+        break;
+      }
+    }
+    if (pos < line.length() && line.charAt(pos) != ' ') {
+      throw new IllegalArgumentException("unexpected '" + line.charAt(pos) + "' at " + pos);
+    }
+  }
+
+  private Object readFieldValue() {
+    if (pos < line.length() && line.charAt(pos) == '"') {
+      pos++;
+      builder.setLength(0);
+      while (line.charAt(pos) != '"') {
+        char c = line.charAt(pos);
+        if (c == '\\' && (line.charAt(pos + 1) == '"' || line.charAt(pos + 1) == '\\')) {
+          c = line.charAt(++pos);
+        }
+        builder.append(c);
+        pos++;
+      }
+      pos++;
+      return builder.toString();
+    }
+
+    int start = pos;
+    while (pos < line.length() && line.charAt(pos) != ',' && line.charAt(pos) != ' ') {
+      pos++;
+    }
+    if (start == pos) {
+      throw new IllegalArgumentException("missing field value");
+    }
+    char last = line.charAt(pos - 1);
+    switch (line.substring(start, pos)) {
+      case "t":
+      case "T":
+      case "true":
+      case "True":
+      case "TRUE":
+        // booleans are stored as TEXT, which is how they are parsed from Points
+        return "true";
+      case "f":
+      case "F":
+      case "false":
+      case "False":
+      case "FALSE":
+        return "false";
+      default:
+        if (last == 'i') {
+          return Long.parseLong(line.substring(start, pos - 1));
+        }
+        return Double.parseDouble(line.substring(start, pos));
+    }
+  }
+
+  private long parseTimestamp() {
+    skipWhitespaces();
+    if (pos == line.length()) {
+      return System.currentTimeMillis();
+    }
+    int start = pos;
+    while (pos < line.length() && !Character.isWhitespace(line.charAt(pos))) {
+      pos++;
+    }
+    long timestamp = Long.parseLong(line.substring(start, pos));
+    if (precision == TimeUnit.NANOSECONDS && pos - start < 7) {
+      // Influx timestamps come in nanoseconds; treat anything less than 1 ms as 0
+      return 0;
+    }
+    return TimeUnit.MILLISECONDS.convert(timestamp, precision);
+  }
+
+  private void append(String path, long time) {
+    builder.setLength(0);
+    builder.append(path);
+    for (int i = 0; i < fieldKeys.size(); i++) {
+      builder.append('\0').append(fieldKeys.get(i)).append('\0').append(typeOf(fieldValues.get(i)));
+    }
+    TabletBuffer tablet = tablets.get(builder.toString());
+    if (tablet == null) {
+      String[] measurements = fieldKeys.toArray(new String[0]);
+      TSDataType[] dataTypes = new TSDataType[measurements.length];
+      for (int i = 0; i < dataTypes.length; i++) {
+        dataTypes[i] = typeOf(fieldValues.get(i));
+      }
+      tablet = new TabletBuffer(path, measurements, dataTypes);
+      tablets.put(builder.toString(), tablet);
+    }
+    tablet.append(time, fieldValues);
+  }
+
+  private static TSDataType typeOf(Object value) {
+    if (value instanceof Long) {
+      return TSDataType.INT64;
+    } else if (value instanceof Double) {
+      return TSDataType.DOUBLE;
+    }
+    return TSDataType.TEXT;
+  }
+
+  /**
+   * Read an identifier until an unescaped delimiter, a comma or a space, and unescape it.
+   *
+   * @param delimiter the char which ends the identifier besides a comma and a space
+   */
+  private String readIdentifier(char delimiter) {
+    builder.setLength(0);
+    while (pos < line.length()) {
+      char c = line.charAt(pos);
+      if (c == delimiter || c == ',' || c == ' ') {
+        break;
+      }
+      if (c == '\\' && pos + 1 < line.length()) {
+        char next = line.charAt(pos + 1);
+        if (next == ',' || next == '=' || next == ' ') {
+          c = next;
+          pos++;
+        }
+      }
+      builder.append(c);
+      pos++;
+    }
+    if (builder.length() == 0) {
+      throw new IllegalArgumentException("empty identifier at " + pos);
+    }
+    return builder.toString();
+  }
+
+  private void expect(char c) {
+    if (pos >= line.length() || line.charAt(pos) != c) {
+      throw new IllegalArgumentException("'" + c + "' is expected at " + pos);
+    }
+    pos++;
+  }
+
+  private void skipWhitespaces() {
+    while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+      pos++;
+    }
+  }
+
+  /** The growing columns of a series and fields. */
+  private static class TabletBuffer {
+
+    private final String path;
+
+    private final String[] measurements;
+
+    private final TSDataType[] dataTypes;
+
+    private long[] times = new long[INITIAL_TABLET_CAPACITY];
+
+    private final Object[] columns;
+
+    private int size;
+
+    private boolean sorted = true;
+
+    private TabletBuffer(String path, String[] measurements, TSDataType[] dataTypes) {
+      this.path = path;
+      this.measurements = measurements;
+      this.dataTypes = dataTypes;
+      this.columns = new Object[dataTypes.length];
+      for (int i = 0; i < dataTypes.length; i++) {
+        switch (dataTypes[i]) {
+          case INT64:
+            columns[i] = new long[INITIAL_TABLET_CAPACITY];
+            break;
+          case DOUBLE:
+            columns[i] = new double[INITIAL_TABLET_CAPACITY];
+            break;
+          default:
+            columns[i] = new Binary[INITIAL_TABLET_CAPACITY];
+        }
+      }
+    }
+
+    private void append(long time, List<Object> values) {
+      if (size == times.length) {
+        grow();
+      }
+      if (size > 0 && times[size - 1] > time) {
+        sorted = false;
+      }
+      times[size] = time;
+      for (int i = 0; i < dataTypes.length; i++) {
+        switch (dataTypes[i]) {
+          case INT64:
+            ((long[]) columns[i])[size] = (long) values.get(i);
+            break;
+          case DOUBLE:
+            ((double[]) columns[i])[size] = (double) values.get(i);
+            break;
+          default:
+            ((Binary[]) columns[i])[size] = Binary.valueOf((String) values.get(i));
+        }
+      }
+      size++;
+    }
+
+    private void grow() {
+      int capacity = times.length * 2;
+      times = Arrays.copyOf(times, capacity);
+      for (int i = 0; i < dataTypes.length; i++) {
+        switch (dataTypes[i]) {
+          case INT64:
+            columns[i] = Arrays.copyOf((long[]) columns[i], capacity);
+            break;
+          case DOUBLE:
+            columns[i] = Arrays.copyOf((double[]) columns[i], capacity);
+            break;
+          default:
+            columns[i] = Arrays.copyOf((Binary[]) columns[i], capacity);
+        }
+      }
+    }
+
+    private InsertTabletPlan toInsertTabletPlan() throws IllegalPathException {
+      if (!sorted) {
+        sort();
+      } else if (size < times.length) {
+        trim();
+      }
+      InsertTabletPlan plan = new InsertTabletPlan(new PartialPath(path), measurements);
+      plan.setDataTypes(dataTypes);
+      plan.setTimes(times);
+      plan.setColumns(columns);
+      plan.setRowCount(size);
+      return plan;
+    }
+
+    private void trim() {
+      times = Arrays.copyOf(times, size);
+      for (int i = 0; i < dataTypes.length; i++) {
+        switch (dataTypes[i]) {
+          case INT64:
+            columns[i] = Arrays.copyOf((long[]) columns[i], size);
+            break;
+          case DOUBLE:
+            columns[i] = Arrays.copyOf((double[]) columns[i], size);
+            break;
+          default:
+            columns[i] = Arrays.copyOf((Binary[]) columns[i], size);
+        }
+      }
+    }
+
+    /** Sort the rows by time, as an InsertTabletPlan requires. */
+    private void sort() {
+      Integer[] rows = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        rows[i] = i;
+      }
+      Arrays.sort(rows, (a, b) -> Long.compare(times[a], times[b]));
+      long[] sortedTimes = new long[size];
+      for (int i = 0; i < size; i++) {
+        sortedTimes[i] = times[rows[i]];
+      }
+      times = sortedTimes;
+      for (int i = 0; i < dataTypes.length; i++) {
+        switch (dataTypes[i]) {
+          case INT64:
+            long[] longs = (long[]) columns[i];
+            long[] sortedLongs = new long[size];
+            for (int j = 0; j < size; j++) {
+              sortedLongs[j] = longs[rows[j]];
+            }
+            columns[i] = sortedLongs;
+            break;
+          case DOUBLE:
+            double[] doubles = (double[]) columns[i];
+            double[] sortedDoubles = new double[size];
+            for (int j = 0; j < size; j++) {
+              sortedDoubles[j] = doubles[rows[j]];
+            }
+            columns[i] = sortedDoubles;
+            break;
+          default:
+            Binary[] binaries = (Binary[]) columns[i];
+            Binary[] sortedBinaries = new Binary[size];
+            for (int j = 0; j < size; j++) {
+              sortedBinaries[j] = binaries[rows[j]];
+            }
+            columns[i] = sortedBinaries;
+        }
+      }
+    }
+  }
+}
@@ -45,6 +45,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class InfluxDBMetaManager {
 
@@ -63,6 +64,15 @@ public class InfluxDBMetaManager {
   private static Map<String, Map<String, Map<String, Integer>>> database2Measurement2TagOrders =
       new HashMap<>();
 
+  /**
+   * database -> series key, i.e., the measurement and tags as they are written in line protocol ->
+   * path, so that a path is resolved without parsing the tags of the line.
+   */
+  private final Map<String, Map<String, String>> database2SeriesKey2Path =
+      new ConcurrentHashMap<>();
+
+  private static final int MAX_CACHED_SERIES_KEY_NUM = 100_000;
+
   private InfluxDBMetaManager() {
     serviceProvider = IoTDB.serviceProvider;
     database2Measurement2TagOrders = new HashMap<>();
@@ -150,6 +160,25 @@ public class InfluxDBMetaManager {
     return createDatabase(database).computeIfAbsent(measurement, m -> new HashMap<>());
   }
 
+  /** @return the cached path of the series key or null if it is not cached */
+  public String getCachedPath(String database, String seriesKey) {
+    Map<String, String> seriesKey2Path = database2SeriesKey2Path.get(database);
+    return seriesKey2Path == null ? null : seriesKey2Path.get(seriesKey);
+  }
+
+  /** Generate the path of the series key and cache it. */
+  public synchronized String generatePathOfSeriesKey(
+      String database, String seriesKey, String measurement, Map<String, String> tags) {
+    String path = generatePath(database, measurement, tags);
+    Map<String, String> seriesKey2Path =
+        database2SeriesKey2Path.computeIfAbsent(database, d -> new ConcurrentHashMap<>());
+    if (seriesKey2Path.size() >= MAX_CACHED_SERIES_KEY_NUM) {
+      seriesKey2Path.clear();
+    }
+    seriesKey2Path.put(seriesKey, path);
+    return path;
+  }
+
   public synchronized String generatePath(
       String database, String measurement, Map<String, String> tags) {
     Map<String, Integer> tagKeyToLayerOrders =
@@ -179,6 +208,14 @@ public class InfluxDBMetaManager {
     if (newTagInfoRecords != null) {
       updateTagInfoRecords(newTagInfoRecords);
       database2Measurement2TagOrders.get(database).put(measurement, newTagKeyToLayerOrders);
+      // the paths of the measurement are extended by the new tag keys
+      Map<String, String> seriesKey2Path = database2SeriesKey2Path.get(database);
+      if (seriesKey2Path != null) {
+        String measurementPath = "root." + database + "." + measurement;
+        seriesKey2Path
+            .values()
+            .removeIf(p -> p.equals(measurementPath) || p.startsWith(measurementPath + "."));
+      }
     }
 
     StringBuilder path =
@@ -17,14 +17,14 @@
  */
 package org.apache.iotdb.db.protocol.mqtt;
 
-import com.google.common.collect.Lists;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,6 +35,9 @@ import java.util.List;
  *
  * <p>{ "device":"root.sg.d1", "timestamps":[1586076045524,1586076065526],
  * "measurements":["s1","s2"], "values":[[0.530635,0.530635], [0.530655,0.530695]] }
+ *
+ * <p>The payload is parsed by a streaming reader directly from the buffer, without materializing
+ * the payload as a string or a json tree.
  */
 public class JSONPayloadFormatter implements PayloadFormatter {
   private static final String JSON_KEY_DEVICE = "device";
@@ -42,62 +45,156 @@ public class JSONPayloadFormatter implements PayloadFormatter {
   private static final String JSON_KEY_TIMESTAMPS = "timestamps";
   private static final String JSON_KEY_MEASUREMENTS = "measurements";
   private static final String JSON_KEY_VALUES = "values";
-  private static final Gson GSON = new GsonBuilder().create();
 
   @Override
   public List<Message> format(ByteBuf payload) {
     if (payload == null) {
       return null;
     }
-    String txt = payload.toString(StandardCharsets.UTF_8);
-    JsonObject jsonObject = GSON.fromJson(txt, JsonObject.class);
+    // read from a duplicate so that the reader index of the payload is left untouched
+    try (JsonReader reader =
+        new JsonReader(
+            new InputStreamReader(
+                new ByteBufInputStream(payload.duplicate()), StandardCharsets.UTF_8))) {
+      return readMessages(reader);
+    } catch (IOException | IllegalStateException | NumberFormatException e) {
+      throw new JsonParseException(e);
+    }
+  }
+
+  private List<Message> readMessages(JsonReader reader) throws IOException {
+    String device = null;
+    Long timestamp = null;
+    List<Long> timestamps = null;
+    List<String> measurements = null;
+    List<Object> values = null;
 
-    if (jsonObject.get(JSON_KEY_TIMESTAMP) != null) {
-      return formatJson(jsonObject);
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case JSON_KEY_DEVICE:
+          device = readString(reader);
+          break;
+        case JSON_KEY_TIMESTAMP:
+          timestamp = reader.nextLong();
+          break;
+        case JSON_KEY_TIMESTAMPS:
+          timestamps = new ArrayList<>();
+          reader.beginArray();
+          while (reader.hasNext()) {
+            timestamps.add(reader.nextLong());
+          }
+          reader.endArray();
+          break;
+        case JSON_KEY_MEASUREMENTS:
+          measurements = readStrings(reader);
+          break;
+        case JSON_KEY_VALUES:
+          values = readValues(reader);
+          break;
+        default:
+          reader.skipValue();
+      }
     }
-    if (jsonObject.get(JSON_KEY_TIMESTAMPS) != null) {
-      return formatBatchJson(jsonObject);
+    reader.endObject();
+
+    if (timestamp != null) {
+      return formatJson(device, timestamp, measurements, values);
+    }
+    if (timestamps != null) {
+      return formatBatchJson(device, timestamps, measurements, values);
     }
     throw new JsonParseException("payload is invalidate");
   }
 
-  private List<Message> formatJson(JsonObject jsonObject) {
+  private List<Message> formatJson(
+      String device, Long timestamp, List<String> measurements, List<Object> values) {
     Message message = new Message();
-    message.setDevice(jsonObject.get(JSON_KEY_DEVICE).getAsString());
-    message.setTimestamp(jsonObject.get(JSON_KEY_TIMESTAMP).getAsLong());
-    message.setMeasurements(
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_MEASUREMENTS), new TypeToken<List<String>>() {}.getType()));
-    message.setValues(
-        GSON.fromJson(jsonObject.get(JSON_KEY_VALUES), new TypeToken<List<String>>() {}.getType()));
-    return Lists.newArrayList(message);
+    message.setDevice(device);
+    message.setTimestamp(timestamp);
+    message.setMeasurements(measurements);
+    message.setValues(asRow(values));
+    List<Message> ret = new ArrayList<>(1);
+    ret.add(message);
+    return ret;
   }
 
-  private List<Message> formatBatchJson(JsonObject jsonObject) {
-    String device = jsonObject.get(JSON_KEY_DEVICE).getAsString();
-    List<String> measurements =
-        GSON.fromJson(
-            jsonObject.getAsJsonArray(JSON_KEY_MEASUREMENTS),
-            new TypeToken<List<String>>() {}.getType());
-    List<Long> timestamps =
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_TIMESTAMPS), new TypeToken<List<Long>>() {}.getType());
-    List<List<String>> values =
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_VALUES), new TypeToken<List<List<String>>>() {}.getType());
-
+  private List<Message> formatBatchJson(
+      String device, List<Long> timestamps, List<String> measurements, List<Object> values) {
     List<Message> ret = new ArrayList<>(timestamps.size());
     for (int i = 0; i < timestamps.size(); i++) {
       Message message = new Message();
       message.setDevice(device);
       message.setTimestamp(timestamps.get(i));
       message.setMeasurements(measurements);
-      message.setValues(values.get(i));
+      message.setValues(values == null ? null : asRow(values.get(i)));
       ret.add(message);
     }
     return ret;
   }
 
+  @SuppressWarnings("unchecked")
+  private List<String> asRow(Object values) {
+    if (values == null) {
+      return null;
+    }
+    if (!(values instanceof List)) {
+      throw new JsonParseException("values should be an array, but was " + values);
+    }
+    for (Object value : (List<Object>) values) {
+      if (value instanceof List) {
+        throw new JsonParseException("values should be an array of primitives");
+      }
+    }
+    return (List<String>) values;
+  }
+
+  /** Read an array of primitives or an array of arrays of primitives. */
+  private List<Object> readValues(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    List<Object> values = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+        values.add(readStrings(reader));
+      } else {
+        values.add(readString(reader));
+      }
+    }
+    reader.endArray();
+    return values;
+  }
+
+  private List<String> readStrings(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+    List<String> strings = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      strings.add(readString(reader));
+    }
+    reader.endArray();
+    return strings;
+  }
+
+  /** Read a primitive as a string, numbers are kept as they are written in the payload. */
+  private String readString(JsonReader reader) throws IOException {
+    switch (reader.peek()) {
+      case NULL:
+        reader.nextNull();
+        return null;
+      case BOOLEAN:
+        return Boolean.toString(reader.nextBoolean());
+      default:
+        return reader.nextString();
+    }
+  }
+
   @Override
   public String getName() {
     return "json";
@@ -0,0 +1,450 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.service.basic.ServiceProvider;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.utils.TypeInferenceUtils;
+import org.apache.iotdb.service.rpc.thrift.TSStatus;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageCoalescer coalesces the messages of the same device and measurements, which may come from
+ * many publishes, into InsertTabletPlans. A batch is executed on the insert pool once it has
+ * lingered for the linger time or it has reached the batch size, so that a plan is executed for a
+ * number of messages instead of for every message.
+ */
+public class MessageCoalescer implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MessageCoalescer.class);
+
+  private final ServiceProvider serviceProvider;
+
+  private final long lingerTimeInMs;
+
+  private final int batchSize;
+
+  private final Map<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+
+  /** the batches submitted to the insert pool but not finished */
+  private final Set<InsertTask> runningTasks = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService insertPool;
+
+  private final ScheduledExecutorService lingerTimer;
+
+  public MessageCoalescer(
+      ServiceProvider serviceProvider, long lingerTimeInMs, int batchSize, int poolSize) {
+    this.serviceProvider = serviceProvider;
+    this.lingerTimeInMs = Math.max(1, lingerTimeInMs);
+    this.batchSize = Math.max(1, batchSize);
+    this.insertPool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            Math.max(1, poolSize), ThreadName.MQTT_INSERT.getName());
+    this.lingerTimer =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.MQTT_INSERT_LINGER.getName());
+    lingerTimer.scheduleWithFixedDelay(
+        this::submitLingeredBatches,
+        this.lingerTimeInMs,
+        this.lingerTimeInMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Append a message into the batch of its device, which is submitted if it is full. */
+  public void append(long sessionId, Message message) {
+    if (message.getDevice() == null
+        || message.getTimestamp() == null
+        || message.getMeasurements() == null
+        || message.getValues() == null
+        || message.getMeasurements().size() != message.getValues().size()) {
+      LOG.warn("Discard an invalid message {}", message);
+      return;
+    }
+    BatchKey key = new BatchKey(sessionId, message.getDevice(), message.getMeasurements());
+    while (true) {
+      Batch batch = batches.computeIfAbsent(key, Batch::new);
+      synchronized (batch) {
+        // the batch may be submitted after it is got from the map
+        if (batch.submitted) {
+          continue;
+        }
+        batch.times.add(message.getTimestamp());
+        batch.values.add(message.getValues());
+        if (batch.times.size() >= batchSize) {
+          submit(batch);
+        }
+        return;
+      }
+    }
+  }
+
+  /** Execute the pending messages of a session and wait for them to finish. */
+  public void flush(long sessionId) {
+    for (Batch batch : batches.values()) {
+      if (batch.key.sessionId == sessionId) {
+        synchronized (batch) {
+          submit(batch);
+        }
+      }
+    }
+    for (InsertTask task : runningTasks) {
+      if (task.sessionId == sessionId) {
+        try {
+          task.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException e) {
+          LOG.warn("Failed to insert the messages of session {}", sessionId, e);
+        }
+      }
+    }
+  }
+
+  private void submitLingeredBatches() {
+    long now = System.currentTimeMillis();
+    for (Batch batch : batches.values()) {
+      if (now - batch.createTime >= lingerTimeInMs) {
+        synchronized (batch) {
+          submit(batch);
+        }
+      }
+    }
+  }
+
+  /** Should be called when holding the lock of the batch. */
+  private void submit(Batch batch) {
+    if (batch.submitted) {
+      return;
+    }
+    batch.submitted = true;
+    batches.remove(batch.key, batch);
+    InsertTask task = new InsertTask(batch);
+    runningTasks.add(task);
+    insertPool.execute(task);
+  }
+
+  private void insert(Batch batch) {
+    InsertTabletPlan plan;
+    try {
+      plan = toInsertTabletPlan(batch);
+    } catch (IllegalPathException e) {
+      LOG.warn("Discard the messages of an illegal device {}", batch.key.device, e);
+      return;
+    }
+    if (plan == null) {
+      return;
+    }
+    boolean status = false;
+    try {
+      TSStatus tsStatus = serviceProvider.checkAuthority(plan, batch.key.sessionId);
+      if (tsStatus != null) {
+        LOG.warn(tsStatus.message);
+      } else {
+        status = serviceProvider.executeNonQuery(plan);
+      }
+    } catch (Exception e) {
+      LOG.warn(
+          "meet error when inserting device {}, measurements {}, {} rows, because ",
+          batch.key.device,
+          batch.key.measurements,
+          plan.getRowCount(),
+          e);
+    }
+    LOG.debug("{} events process result: {}", plan.getRowCount(), status);
+  }
+
+  /**
+   * Convert the string values of a batch into typed columns. The data type of a measurement is the
+   * one it is registered with, or the one inferred from its first value like an InsertRowPlan does.
+   * A row containing a value that cannot be parsed as the data type is discarded.
+   *
+   * @return null if no row is left
+   */
+  static InsertTabletPlan toInsertTabletPlan(Batch batch) throws IllegalPathException {
+    PartialPath device = new PartialPath(batch.key.device);
+    int rowNum = batch.times.size();
+
+    // a measurement which is not registered and has no value is not created, like an InsertRowPlan
+    List<Integer> valueIndexes = new ArrayList<>();
+    List<String> measurementList = new ArrayList<>();
+    List<TSDataType> dataTypeList = new ArrayList<>();
+    for (int i = 0; i < batch.key.measurements.size(); i++) {
+      String measurement = batch.key.measurements.get(i);
+      TSDataType dataType = getDataType(device, measurement, batch, i);
+      if (dataType != null) {
+        valueIndexes.add(i);
+        measurementList.add(measurement);
+        dataTypeList.add(dataType);
+      }
+    }
+    int columnNum = measurementList.size();
+    if (columnNum == 0) {
+      return null;
+    }
+    TSDataType[] dataTypes = dataTypeList.toArray(new TSDataType[0]);
+
+    // sort the rows by time, as an InsertTabletPlan requires
+    Integer[] rows = new Integer[rowNum];
+    for (int i = 0; i < rowNum; i++) {
+      rows[i] = i;
+    }
+    Arrays.sort(rows, Comparator.comparingLong(batch.times::get));
+
+    long[] times = new long[rowNum];
+    Object[] columns = new Object[columnNum];
+    BitMap[] bitMaps = new BitMap[columnNum];
+    for (int i = 0; i < columnNum; i++) {
+      columns[i] = createColumn(dataTypes[i], rowNum);
+    }
+    boolean hasNull = false;
+    int rowCount = 0;
+    Object[] rowValues = new Object[columnNum];
+    for (int row : rows) {
+      long time = batch.times.get(row);
+      if (!parseRow(dataTypes, valueIndexes, batch.values.get(row), rowValues, device, time)) {
+        continue;
+      }
+      times[rowCount] = time;
+      for (int i = 0; i < columnNum; i++) {
+        if (rowValues[i] == null) {
+          if (bitMaps[i] == null) {
+            bitMaps[i] = new BitMap(rowNum);
+          }
+          bitMaps[i].mark(rowCount);
+          hasNull = true;
+        } else {
+          setValue(dataTypes[i], columns[i], rowCount, rowValues[i]);
+        }
+      }
+      rowCount++;
+    }
+    if (rowCount == 0) {
+      return null;
+    }
+
+    InsertTabletPlan plan = new InsertTabletPlan(device, measurementList);
+    plan.setDataTypes(dataTypes);
+    plan.setTimes(times);
+    plan.setColumns(columns);
+    if (hasNull) {
+      plan.setBitMaps(bitMaps);
+    }
+    plan.setRowCount(rowCount);
+    return plan;
+  }
+
+  /** @return null if the measurement is not registered and all its values are null */
+  private static TSDataType getDataType(
+      PartialPath device, String measurement, Batch batch, int index) {
+    try {
+      return IoTDB.metaManager.getSeriesType(device.concatNode(measurement));
+    } catch (MetadataException e) {
+      // the series is not registered yet and is to be created automatically
+    }
+    for (List<String> values : batch.values) {
+      String value = values.get(index);
+      if (value != null) {
+        TSDataType dataType = TypeInferenceUtils.getPredictedDataType(value, true);
+        if (dataType != null) {
+          return dataType;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean parseRow(
+      TSDataType[] dataTypes,
+      List<Integer> valueIndexes,
+      List<String> values,
+      Object[] rowValues,
+      PartialPath device,
+      long time) {
+    for (int i = 0; i < dataTypes.length; i++) {
+      String value = values.get(valueIndexes.get(i));
+      try {
+        rowValues[i] = value == null ? null : CommonUtils.parseValue(dataTypes[i], value);
+      } catch (QueryProcessException e) {
+        LOG.warn(
+            "Discard the message of device {} at time {}, because {} cannot be parsed as {}",
+            device,
+            time,
+            value,
+            dataTypes[i]);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Object createColumn(TSDataType dataType, int size) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[size];
+      case INT32:
+        return new int[size];
+      case INT64:
+        return new long[size];
+      case FLOAT:
+        return new float[size];
+      case DOUBLE:
+        return new double[size];
+      case TEXT:
+      default:
+        return new Binary[size];
+    }
+  }
+
+  private static void setValue(TSDataType dataType, Object column, int index, Object value) {
+    switch (dataType) {
+      case BOOLEAN:
+        ((boolean[]) column)[index] = (boolean) value;
+        break;
+      case INT32:
+        ((int[]) column)[index] = (int) value;
+        break;
+      case INT64:
+        ((long[]) column)[index] = (long) value;
+        break;
+      case FLOAT:
+        ((float[]) column)[index] = (float) value;
+        break;
+      case DOUBLE:
+        ((double[]) column)[index] = (double) value;
+        break;
+      case TEXT:
+      default:
+        ((Binary[]) column)[index] = (Binary) value;
+    }
+  }
+
+  /** Execute all pending messages and stop the insert pool. */
+  @Override
+  public void close() {
+    lingerTimer.shutdownNow();
+    for (Batch batch : batches.values()) {
+      synchronized (batch) {
+        submit(batch);
+      }
+    }
+    insertPool.shutdown();
+    try {
+      if (!insertPool.awaitTermination(60, TimeUnit.SECONDS)) {
+        LOG.warn("Pending mqtt insertions are not finished in 60s");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private class InsertTask extends FutureTask<Void> {
+
+    private final long sessionId;
+
+    private InsertTask(Batch batch) {
+      super(() -> insert(batch), null);
+      this.sessionId = batch.key.sessionId;
+    }
+
+    @Override
+    protected void done() {
+      runningTasks.remove(this);
+    }
+  }
+
+  static class Batch {
+
+    private final BatchKey key;
+
+    private final long createTime = System.currentTimeMillis();
+
+    private final List<Long> times = new ArrayList<>();
+
+    private final List<List<String>> values = new ArrayList<>();
+
+    private boolean submitted = false;
+
+    Batch(BatchKey key) {
+      this.key = key;
+    }
+  }
+
+  static class BatchKey {
+
+    private final long sessionId;
+
+    private final String device;
+
+    private final List<String> measurements;
+
+    BatchKey(long sessionId, String device, List<String> measurements) {
+      this.sessionId = sessionId;
+      this.device = device;
+      this.measurements = measurements;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BatchKey batchKey = (BatchKey) o;
+      return sessionId == batchKey.sessionId
+          && device.equals(batchKey.device)
+          && measurements.equals(batchKey.measurements);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sessionId, device, measurements);
+    }
+  }
+}
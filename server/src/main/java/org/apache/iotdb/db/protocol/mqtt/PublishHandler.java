@@ -18,6 +18,7 @@
 package org.apache.iotdb.db.protocol.mqtt;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.service.IoTDB;
@@ -39,8 +40,12 @@ import org.slf4j.LoggerFactory;
 import java.time.ZoneId;
 import java.util.List;
 
-/** PublishHandler handle the messages from MQTT clients. */
-public class PublishHandler extends AbstractInterceptHandler {
+/**
+ * PublishHandler handle the messages from MQTT clients. The messages are coalesced per device into
+ * tablets by a MessageCoalescer if the linger time is positive, otherwise every message is inserted
+ * as a row once it is received.
+ */
+public class PublishHandler extends AbstractInterceptHandler implements AutoCloseable {
 
   private final ServiceProvider serviceProvider = IoTDB.serviceProvider;
   private long sessionId;
@@ -49,12 +54,29 @@ public class PublishHandler extends AbstractInterceptHandler {
 
   private final PayloadFormatter payloadFormat;
 
+  /** null if the messages are not coalesced */
+  private final MessageCoalescer coalescer;
+
   public PublishHandler(IoTDBConfig config) {
-    this.payloadFormat = PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter());
+    this(PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter()), config);
   }
 
   protected PublishHandler(PayloadFormatter payloadFormat) {
+    this(payloadFormat, IoTDBDescriptor.getInstance().getConfig());
+  }
+
+  protected PublishHandler(PayloadFormatter payloadFormat, IoTDBConfig config) {
     this.payloadFormat = payloadFormat;
+    if (config.getMqttInsertLingerTimeInMs() > 0) {
+      this.coalescer =
+          new MessageCoalescer(
+              serviceProvider,
+              config.getMqttInsertLingerTimeInMs(),
+              config.getMqttInsertBatchSize(),
+              config.getMqttInsertPoolSize());
+    } else {
+      this.coalescer = null;
+    }
   }
 
   @Override
@@ -79,6 +101,10 @@ public class PublishHandler extends AbstractInterceptHandler {
 
   @Override
   public void onDisconnect(InterceptDisconnectMessage msg) {
+    if (coalescer != null) {
+      // the pending messages should be inserted before the session is closed
+      coalescer.flush(sessionId);
+    }
     serviceProvider.closeSession(sessionId);
   }
 
@@ -103,6 +129,15 @@ public class PublishHandler extends AbstractInterceptHandler {
       return;
     }
 
+    if (coalescer != null) {
+      for (Message event : events) {
+        if (event != null) {
+          coalescer.append(sessionId, event);
+        }
+      }
+      return;
+    }
+
     // since device ids from messages maybe different, so we use the InsertPlan not
     // InsertTabletPlan.
     for (Message event : events) {
@@ -137,4 +172,11 @@ public class PublishHandler extends AbstractInterceptHandler {
       LOG.debug("event process result: {}", status);
     }
   }
+
+  @Override
+  public void close() {
+    if (coalescer != null) {
+      coalescer.close();
+    }
+  }
 }
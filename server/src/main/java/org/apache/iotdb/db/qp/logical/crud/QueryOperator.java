@@ -66,6 +66,7 @@ public class QueryOperator extends Operator {
   protected IndexType indexType;
 
   protected boolean enableTracing;
+  protected boolean explainAnalyze;
 
   public QueryOperator() {
     super(SQLConstant.TOK_QUERY);
@@ -81,6 +82,7 @@ public class QueryOperator extends Operator {
     this.props = queryOperator.getProps();
     this.indexType = queryOperator.getIndexType();
     this.enableTracing = queryOperator.isEnableTracing();
+    this.explainAnalyze = queryOperator.isExplainAnalyze();
   }
 
   public SelectComponent getSelectComponent() {
@@ -201,6 +203,7 @@ public class QueryOperator extends Operator {
     rawDataQueryPlan.setPaths(selectComponent.getPaths());
     rawDataQueryPlan.setResultColumns(selectComponent.getResultColumns());
     rawDataQueryPlan.setEnableTracing(enableTracing);
+    rawDataQueryPlan.setExplainAnalyze(explainAnalyze);
 
     if (queryPlan instanceof QueryIndexPlan) {
       ((QueryIndexPlan) queryPlan).setIndexType(indexType);
@@ -335,6 +338,7 @@ public class QueryOperator extends Operator {
     alignByDevicePlan.setAggregations(aggregations);
     alignByDevicePlan.setMeasurementInfoMap(measurementInfoMap);
     alignByDevicePlan.setEnableTracing(enableTracing);
+    alignByDevicePlan.setExplainAnalyze(explainAnalyze);
 
     alignByDevicePlan.deduplicate(generator);
 
@@ -521,4 +525,12 @@ public class QueryOperator extends Operator {
   public void setEnableTracing(boolean enableTracing) {
     this.enableTracing = enableTracing;
   }
+
+  public boolean isExplainAnalyze() {
+    return explainAnalyze;
+  }
+
+  public void setExplainAnalyze(boolean explainAnalyze) {
+    this.explainAnalyze = explainAnalyze;
+  }
 }
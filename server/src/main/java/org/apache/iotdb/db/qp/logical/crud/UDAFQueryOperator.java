@@ -155,6 +155,7 @@ public class UDAFQueryOperator extends QueryOperator {
     innerAggregationQueryOperator.setProps(getProps());
     innerAggregationQueryOperator.setIndexType(getIndexType());
     innerAggregationQueryOperator.setEnableTracing(isEnableTracing());
+    innerAggregationQueryOperator.setExplainAnalyze(isExplainAnalyze());
     return (AggregationPlan) innerAggregationQueryOperator.generatePhysicalPlan(generator);
   }
 
@@ -140,11 +140,7 @@ public class AggregationPlan extends RawDataQueryPlan {
       groupPathsResultMap.clear();
     }
     for (int i = 0; i < getDeduplicatedPaths().size(); i++) {
-      String rawPath =
-          String.format(
-              "%s(%s)",
-              deduplicatedAggregations.get(i), getDeduplicatedPaths().get(i).getFullPath());
-      String transformedPath = groupByLevelController.getGroupedPath(rawPath);
+      String transformedPath = getGroupedPath(i);
       AggregateResult result = groupPathsResultMap.get(transformedPath);
       if (result == null) {
         groupPathsResultMap.put(transformedPath, aggregateResults.get(i));
@@ -156,6 +152,29 @@ public class AggregationPlan extends RawDataQueryPlan {
     return groupPathsResultMap;
   }
 
+  /**
+   * @param index index of the deduplicated aggregation
+   * @return the result path of GROUP BY LEVEL that the aggregation is merged into
+   */
+  public String getGroupedPath(int index) {
+    String rawPath =
+        String.format(
+            "%s(%s)",
+            deduplicatedAggregations.get(index), getDeduplicatedPaths().get(index).getFullPath());
+    return groupByLevelController.getGroupedPath(rawPath);
+  }
+
+  /**
+   * Use the results that have already been merged by level, e.g., by the data groups of a cluster,
+   * instead of merging the result of each series.
+   */
+  public Map<String, AggregateResult> setGroupedAggResults(
+      Map<String, AggregateResult> groupedResults) {
+    groupPathsResultMap.clear();
+    groupPathsResultMap.putAll(groupedResults);
+    return groupPathsResultMap;
+  }
+
   @Override
   public boolean isGroupByLevel() {
     return levels != null;
@@ -58,6 +58,9 @@ public abstract class QueryPlan extends PhysicalPlan {
   private boolean enableRedirect = false;
   private boolean enableTracing = false;
 
+  // if true, the query is executed to the end and its profile is returned instead of its result
+  private boolean explainAnalyze = false;
+
   // if true, we don't need the row whose any column is null
   private boolean withoutAnyNull;
 
@@ -212,6 +215,14 @@ public abstract class QueryPlan extends PhysicalPlan {
     this.enableTracing = enableTracing;
   }
 
+  public boolean isExplainAnalyze() {
+    return explainAnalyze;
+  }
+
+  public void setExplainAnalyze(boolean explainAnalyze) {
+    this.explainAnalyze = explainAnalyze;
+  }
+
   public List<ResultColumn> getResultColumns() {
     return resultColumns;
   }
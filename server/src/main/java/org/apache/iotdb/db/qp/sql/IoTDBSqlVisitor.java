@@ -1046,8 +1046,15 @@ public class IoTDBSqlVisitor extends IoTDBSqlParserBaseVisitor<Operator> {
       }
     }
     queryOp.setEnableTracing(ctx.TRACING() != null);
+    queryOp.setExplainAnalyze(ctx.ANALYZE() != null);
     // 4. Check whether it's a select-into clause
-    return ctx.intoClause() == null ? queryOp : parseAndConstructSelectIntoOperator(ctx);
+    if (ctx.intoClause() == null) {
+      return queryOp;
+    }
+    if (queryOp.isExplainAnalyze()) {
+      throw new SQLParserException("EXPLAIN ANALYZE does not support select into.");
+    }
+    return parseAndConstructSelectIntoOperator(ctx);
   }
 
   private SelectIntoOperator parseAndConstructSelectIntoOperator(
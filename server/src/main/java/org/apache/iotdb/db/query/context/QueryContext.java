@@ -24,6 +24,7 @@ import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
@@ -55,6 +56,9 @@ public class QueryContext {
   private boolean debug;
   private boolean enableTracing = false;
 
+  /** Only set for EXPLAIN ANALYZE queries, the readers record their timings into it. */
+  private QueryProfile profile;
+
   /**
    * To reduce the cost of memory, we only keep the a certain size statement. For statement whose
    * length is over this, we keep its head and tail.
@@ -142,6 +146,14 @@ public class QueryContext {
     this.enableTracing = enableTracing;
   }
 
+  public QueryProfile getProfile() {
+    return profile;
+  }
+
+  public void setProfile(QueryProfile profile) {
+    this.profile = profile;
+  }
+
   public long getQueryTimeLowerBound() {
     return queryTimeLowerBound;
   }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.metadata.path.PartialPath;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A device and its measurements registered by a session. The following inserts of the session refer
+ * to them by an integer handle, so that neither the path strings are transferred nor the device
+ * path is parsed again.
+ */
+public class SchemaHandle {
+
+  private final PartialPath devicePath;
+  private final List<String> measurements;
+
+  public SchemaHandle(PartialPath devicePath, List<String> measurements) {
+    this.devicePath = devicePath;
+    this.measurements = measurements;
+  }
+
+  public PartialPath getDevicePath() {
+    return devicePath;
+  }
+
+  public List<String> getMeasurements() {
+    return measurements;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SchemaHandle that = (SchemaHandle) o;
+    return Objects.equals(devicePath, that.devicePath)
+        && Objects.equals(measurements, that.measurements);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(devicePath, measurements);
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.query.SchemaHandleLimitExceededException;
+import org.apache.iotdb.db.exception.query.UnknownSchemaHandleException;
 import org.apache.iotdb.db.query.dataset.UDTFDataSet;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
@@ -27,6 +29,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
@@ -59,6 +64,13 @@ public class SessionManager {
   private final Map<Long, IoTDBConstant.ClientVersion> sessionIdToClientVersion =
       new ConcurrentHashMap<>();
 
+  // (sessionId -> registered schema handles)
+  private final Map<Long, SessionSchemaHandles> sessionIdToSchemaHandles =
+      new ConcurrentHashMap<>();
+
+  /** the max number of different schemas registered by a session */
+  static final int MAX_SCHEMA_HANDLE_NUM_PER_SESSION = 10_000;
+
   protected SessionManager() {
     // singleton
   }
@@ -95,6 +107,7 @@ public class SessionManager {
   public boolean releaseSessionResource(long sessionId) {
     sessionIdToZoneId.remove(sessionId);
     sessionIdToClientVersion.remove(sessionId);
+    sessionIdToSchemaHandles.remove(sessionId);
 
     Set<Long> statementIdSet = sessionIdToStatementId.remove(sessionId);
     if (statementIdSet != null) {
@@ -180,6 +193,28 @@ public class SessionManager {
     return sessionIdToUsername.get(sessionId);
   }
 
+  /**
+   * @return the handle by which the following inserts of the session refer to the schema, which is
+   *     the same for the equal schemas
+   * @throws SchemaHandleLimitExceededException if the session has registered too many schemas
+   */
+  public int registerSchemaHandle(long sessionId, SchemaHandle schemaHandle)
+      throws SchemaHandleLimitExceededException {
+    return sessionIdToSchemaHandles
+        .computeIfAbsent(sessionId, k -> new SessionSchemaHandles())
+        .register(sessionId, schemaHandle);
+  }
+
+  public SchemaHandle getSchemaHandle(long sessionId, int schemaHandle)
+      throws UnknownSchemaHandleException {
+    SessionSchemaHandles schemaHandles = sessionIdToSchemaHandles.get(sessionId);
+    SchemaHandle result = schemaHandles == null ? null : schemaHandles.get(schemaHandle);
+    if (result == null) {
+      throw new UnknownSchemaHandleException(sessionId, schemaHandle);
+    }
+    return result;
+  }
+
   public ZoneId getZoneId(Long sessionId) {
     return sessionIdToZoneId.get(sessionId);
   }
@@ -225,4 +260,31 @@ public class SessionManager {
 
     private SessionManagerHelper() {}
   }
+
+  /** The schemas registered by a session, a handle is the index of the schema in the list. */
+  private static class SessionSchemaHandles {
+
+    private final List<SchemaHandle> schemaHandles = new ArrayList<>();
+    private final Map<SchemaHandle, Integer> handleIndexes = new HashMap<>();
+
+    private synchronized int register(long sessionId, SchemaHandle schemaHandle)
+        throws SchemaHandleLimitExceededException {
+      Integer index = handleIndexes.get(schemaHandle);
+      if (index != null) {
+        return index;
+      }
+      if (schemaHandles.size() >= MAX_SCHEMA_HANDLE_NUM_PER_SESSION) {
+        throw new SchemaHandleLimitExceededException(sessionId, MAX_SCHEMA_HANDLE_NUM_PER_SESSION);
+      }
+      schemaHandles.add(schemaHandle);
+      handleIndexes.put(schemaHandle, schemaHandles.size() - 1);
+      return schemaHandles.size() - 1;
+    }
+
+    private synchronized SchemaHandle get(int schemaHandle) {
+      return schemaHandle < 0 || schemaHandle >= schemaHandles.size()
+          ? null
+          : schemaHandles.get(schemaHandle);
+    }
+  }
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.control.tracing;
+
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_PROFILE_INVOCATIONS;
+import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_PROFILE_ROWS;
+import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_PROFILE_STAGE;
+import static org.apache.iotdb.db.conf.IoTDBConstant.COLUMN_PROFILE_TIME;
+
+/**
+ * The execution profile of one EXPLAIN ANALYZE query. Each stage accumulates its invocation count,
+ * the rows (points, chunks or metadata entries) it produced and its wall time. The stages may be
+ * recorded by several reading threads concurrently.
+ */
+public class QueryProfile {
+
+  public enum Stage {
+    CREATE_DATASET("create dataset"),
+    LOAD_TIMESERIES_METADATA("load timeseries metadata"),
+    CHUNK_CACHE_HIT("chunk cache hit"),
+    CHUNK_CACHE_MISS("chunk cache miss"),
+    PAGE_DECODE("page decode"),
+    MERGE_READER("merge reader"),
+    UDF("udf"),
+    FETCH_RESULT("fetch result"),
+    RPC_SERIALIZATION("rpc serialization");
+
+    private final String name;
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private static final int STAGE_NUM = Stage.values().length;
+
+  private final LongAdder[] invocations = new LongAdder[STAGE_NUM];
+  private final LongAdder[] rows = new LongAdder[STAGE_NUM];
+  private final LongAdder[] timeInNanos = new LongAdder[STAGE_NUM];
+
+  public QueryProfile() {
+    for (int i = 0; i < STAGE_NUM; i++) {
+      invocations[i] = new LongAdder();
+      rows[i] = new LongAdder();
+      timeInNanos[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Record one invocation of the stage.
+   *
+   * @param startTimeInNanos the value of {@link System#nanoTime()} when the invocation started
+   * @param rowNum the number of rows the invocation produced
+   */
+  public void record(Stage stage, long startTimeInNanos, long rowNum) {
+    int index = stage.ordinal();
+    timeInNanos[index].add(System.nanoTime() - startTimeInNanos);
+    invocations[index].increment();
+    rows[index].add(rowNum);
+  }
+
+  public long getInvocations(Stage stage) {
+    return invocations[stage.ordinal()].sum();
+  }
+
+  public long getRows(Stage stage) {
+    return rows[stage.ordinal()].sum();
+  }
+
+  public long getTimeInNanos(Stage stage) {
+    return timeInNanos[stage.ordinal()].sum();
+  }
+
+  /** Convert the profile into a result set with one row per stage. */
+  public ListDataSet toDataSet() {
+    ListDataSet dataSet =
+        new ListDataSet(
+            Arrays.asList(
+                new PartialPath(COLUMN_PROFILE_STAGE, false),
+                new PartialPath(COLUMN_PROFILE_INVOCATIONS, false),
+                new PartialPath(COLUMN_PROFILE_ROWS, false),
+                new PartialPath(COLUMN_PROFILE_TIME, false)),
+            Arrays.asList(TSDataType.TEXT, TSDataType.INT64, TSDataType.INT64, TSDataType.DOUBLE));
+    for (Stage stage : Stage.values()) {
+      RowRecord record = new RowRecord(0);
+      record.addField(Binary.valueOf(stage.getName()), TSDataType.TEXT);
+      record.addField(getInvocations(stage), TSDataType.INT64);
+      record.addField(getRows(stage), TSDataType.INT64);
+      record.addField(getTimeInNanos(stage) / 1_000_000d, TSDataType.DOUBLE);
+      dataSet.putRecord(record);
+    }
+    return dataSet;
+  }
+}
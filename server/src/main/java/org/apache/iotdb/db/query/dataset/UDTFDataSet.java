@@ -24,11 +24,13 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.UDTFPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.series.ManagedSeriesReader;
 import org.apache.iotdb.db.query.udf.core.layer.DAGBuilder;
 import org.apache.iotdb.db.query.udf.core.layer.RawQueryInputLayer;
 import org.apache.iotdb.db.query.udf.core.reader.LayerPointReader;
+import org.apache.iotdb.db.query.udf.core.reader.ProfiledLayerPointReader;
 import org.apache.iotdb.db.query.udf.service.UDFClassLoaderManager;
 import org.apache.iotdb.db.query.udf.service.UDFRegistrationService;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -51,6 +53,7 @@ public abstract class UDTFDataSet extends QueryDataSet {
   protected final long queryId;
   protected final UDTFPlan udtfPlan;
   protected final RawQueryInputLayer rawQueryInputLayer;
+  private final QueryProfile profile;
 
   protected LayerPointReader[] transformers;
 
@@ -67,6 +70,7 @@ public abstract class UDTFDataSet extends QueryDataSet {
       throws QueryProcessException, IOException {
     super(new ArrayList<>(deduplicatedPaths), deduplicatedDataTypes);
     queryId = queryContext.getQueryId();
+    profile = queryContext.getProfile();
     this.udtfPlan = udtfPlan;
     rawQueryInputLayer =
         new RawQueryInputLayer(
@@ -93,6 +97,7 @@ public abstract class UDTFDataSet extends QueryDataSet {
       throws QueryProcessException, IOException, InterruptedException {
     super(new ArrayList<>(deduplicatedPaths), deduplicatedDataTypes);
     queryId = queryContext.getQueryId();
+    profile = queryContext.getProfile();
     this.udtfPlan = udtfPlan;
     rawQueryInputLayer =
         new RawQueryInputLayer(
@@ -105,6 +110,7 @@ public abstract class UDTFDataSet extends QueryDataSet {
   protected UDTFDataSet(QueryContext queryContext, UDTFPlan udtfPlan, IUDFInputDataSet dataSet)
       throws QueryProcessException, IOException {
     queryId = queryContext.getQueryId();
+    profile = queryContext.getProfile();
     this.udtfPlan = udtfPlan;
     rawQueryInputLayer = new RawQueryInputLayer(queryId, UDF_READER_MEMORY_BUDGET_IN_MB, dataSet);
     initTransformers();
@@ -130,6 +136,12 @@ public abstract class UDTFDataSet extends QueryDataSet {
     } finally {
       UDFRegistrationService.getInstance().releaseRegistrationLock();
     }
+
+    if (profile != null) {
+      for (int i = 0; i < transformers.length; ++i) {
+        transformers[i] = new ProfiledLayerPointReader(transformers[i], profile);
+      }
+    }
   }
 
   private void initDataSetFields() {
@@ -30,7 +30,9 @@ import org.apache.iotdb.tsfile.utils.Pair;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Map;
 
 public abstract class GroupByEngineDataSet extends QueryDataSet {
 
@@ -231,6 +233,11 @@ public abstract class GroupByEngineDataSet extends QueryDataSet {
     return curAggregateResults;
   }
 
+  /** Merge the aggregate results of the current interval by the levels of the plan. */
+  public Map<String, AggregateResult> groupCurAggregateResultsByLevel(GroupByTimePlan plan) {
+    return plan.groupAggResultByLevel(Arrays.asList(curAggregateResults));
+  }
+
   @TestOnly
   public Pair<Long, Long> nextTimePartition() {
     hasCachedTimeInterval = false;
@@ -61,8 +61,7 @@ public class GroupByLevelDataSet extends QueryDataSet {
     while (dataSet != null && dataSet.hasNextWithoutConstraint()) {
       RowRecord rawRecord = dataSet.nextWithoutConstraint();
       RowRecord curRecord = new RowRecord(rawRecord.getTimestamp());
-      groupPathResultMap =
-          plan.groupAggResultByLevel(Arrays.asList(dataSet.getCurAggregateResults()));
+      groupPathResultMap = dataSet.groupCurAggregateResultsByLevel(plan);
       for (AggregateResult resultData : groupPathResultMap.values()) {
         curRecord.addField(resultData.getResult(), resultData.getResultDataType());
       }
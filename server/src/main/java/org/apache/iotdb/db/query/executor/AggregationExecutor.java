@@ -796,29 +796,36 @@ public class AggregationExecutor {
    */
   private QueryDataSet constructDataSet(
       List<AggregateResult> aggregateResultList, AggregationPlan plan) {
-    SingleDataSet dataSet;
-    RowRecord record = new RowRecord(0);
-
     if (plan.isGroupByLevel()) {
-      Map<String, AggregateResult> groupPathsResultMap =
-          plan.groupAggResultByLevel(aggregateResultList);
-
-      List<PartialPath> paths = new ArrayList<>();
-      List<TSDataType> dataTypes = new ArrayList<>();
-      for (AggregateResult resultData : groupPathsResultMap.values()) {
-        dataTypes.add(resultData.getResultDataType());
-        record.addField(resultData.getResult(), resultData.getResultDataType());
-      }
-      dataSet = new SingleDataSet(paths, dataTypes);
-    } else {
-      for (AggregateResult resultData : aggregateResultList) {
-        TSDataType dataType = resultData.getResultDataType();
-        record.addField(resultData.getResult(), dataType);
-      }
-      dataSet = new SingleDataSet(selectedSeries, dataTypes);
+      return constructGroupByLevelDataSet(plan.groupAggResultByLevel(aggregateResultList));
     }
+    RowRecord record = new RowRecord(0);
+    for (AggregateResult resultData : aggregateResultList) {
+      TSDataType dataType = resultData.getResultDataType();
+      record.addField(resultData.getResult(), dataType);
+    }
+    SingleDataSet dataSet = new SingleDataSet(selectedSeries, dataTypes);
     dataSet.setRecord(record);
 
     return dataSet;
   }
+
+  /**
+   * using the aggregate results merged by level construct QueryDataSet.
+   *
+   * @param groupPathsResultMap result path of GROUP BY LEVEL -> merged aggregate result
+   */
+  protected static QueryDataSet constructGroupByLevelDataSet(
+      Map<String, AggregateResult> groupPathsResultMap) {
+    RowRecord record = new RowRecord(0);
+    List<PartialPath> paths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (AggregateResult resultData : groupPathsResultMap.values()) {
+      dataTypes.add(resultData.getResultDataType());
+      record.addField(resultData.getResult(), resultData.getResultDataType());
+    }
+    SingleDataSet dataSet = new SingleDataSet(paths, dataTypes);
+    dataSet.setRecord(record);
+    return dataSet;
+  }
 }
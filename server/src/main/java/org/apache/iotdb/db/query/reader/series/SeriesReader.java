@@ -24,6 +24,8 @@ import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile.Stage;
 import org.apache.iotdb.db.query.control.tracing.TracingManager;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
@@ -368,7 +370,8 @@ public class SeriesReader {
     if (valueFilter != null
         && firstChunkMetadata != null
         && !isChunkOverlapped()
-        && !valueFilter.satisfy(firstChunkMetadata.getStatistics())) {
+        && (!valueFilter.satisfy(firstChunkMetadata.getStatistics())
+            || !FileLoaderUtils.mayContainSatisfiedValues(firstChunkMetadata, valueFilter))) {
       skipCurrentChunk();
     }
   }
@@ -586,7 +589,7 @@ public class SeriesReader {
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
     List<IPageReader> pageReaderList =
-        FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
+        FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter, context);
 
     // for tracing: try to calculate the number of pages
     if (context.isEnableTracing()) {
@@ -1172,7 +1175,14 @@ public class SeriesReader {
     }
 
     BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
-      return data.getAllSatisfiedPageData(ascending);
+      QueryProfile profile = context.getProfile();
+      if (profile == null) {
+        return data.getAllSatisfiedPageData(ascending);
+      }
+      long startTime = System.nanoTime();
+      BatchData batchData = data.getAllSatisfiedPageData(ascending);
+      profile.record(Stage.PAGE_DECODE, startTime, batchData.length());
+      return batchData;
     }
 
     void setFilter(Filter filter) {
@@ -41,6 +41,7 @@ public class DescPriorityMergeReader extends PriorityMergeReader {
   public void addReader(
       IPointReader reader, MergeReaderPriority priority, long endTime, QueryContext context)
       throws IOException {
+    profile = context.getProfile();
     if (reader.hasNextTimeValuePair()) {
       heap.add(new Element(reader, reader.nextTimeValuePair(), priority));
       super.currentReadStopTime = Math.min(currentReadStopTime, endTime);
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.query.reader.universal;
 
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile.Stage;
 import org.apache.iotdb.db.query.control.tracing.TracingManager;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
@@ -38,6 +40,9 @@ public class PriorityMergeReader implements IPointReader {
 
   protected PriorityQueue<Element> heap;
 
+  // only set for EXPLAIN ANALYZE queries
+  protected QueryProfile profile;
+
   public PriorityMergeReader() {
     heap =
         new PriorityQueue<>(
@@ -75,6 +80,7 @@ public class PriorityMergeReader implements IPointReader {
   public void addReader(
       IPointReader reader, MergeReaderPriority priority, long endTime, QueryContext context)
       throws IOException {
+    profile = context.getProfile();
     if (reader.hasNextTimeValuePair()) {
       heap.add(new Element(reader, reader.nextTimeValuePair(), priority));
       currentReadStopTime = Math.max(currentReadStopTime, endTime);
@@ -103,6 +109,16 @@ public class PriorityMergeReader implements IPointReader {
 
   @Override
   public TimeValuePair nextTimeValuePair() throws IOException {
+    if (profile == null) {
+      return mergeNextTimeValuePair();
+    }
+    long startTime = System.nanoTime();
+    TimeValuePair ret = mergeNextTimeValuePair();
+    profile.record(Stage.MERGE_READER, startTime, 1);
+    return ret;
+  }
+
+  private TimeValuePair mergeNextTimeValuePair() throws IOException {
     Element top = heap.poll();
     TimeValuePair ret = top.getTimeValuePair();
     TimeValuePair topNext = null;
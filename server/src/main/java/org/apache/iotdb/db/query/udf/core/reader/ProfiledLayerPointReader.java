@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.udf.core.reader;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile.Stage;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.IOException;
+
+/**
+ * Records the time spent in generating the points of a result column into the profile of an EXPLAIN
+ * ANALYZE query. The time includes reading the input series of the UDF layers.
+ */
+public class ProfiledLayerPointReader implements LayerPointReader {
+
+  private final LayerPointReader reader;
+  private final QueryProfile profile;
+
+  private boolean hasCachedPoint = false;
+
+  public ProfiledLayerPointReader(LayerPointReader reader, QueryProfile profile) {
+    this.reader = reader;
+    this.profile = profile;
+  }
+
+  @Override
+  public boolean isConstantPointReader() {
+    return reader.isConstantPointReader();
+  }
+
+  @Override
+  public boolean next() throws QueryProcessException, IOException {
+    // the data sets call next() several times before consuming a point
+    if (hasCachedPoint) {
+      return true;
+    }
+    long startTime = System.nanoTime();
+    hasCachedPoint = reader.next();
+    profile.record(Stage.UDF, startTime, hasCachedPoint ? 1 : 0);
+    return hasCachedPoint;
+  }
+
+  @Override
+  public void readyForNext() {
+    hasCachedPoint = false;
+    reader.readyForNext();
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return reader.getDataType();
+  }
+
+  @Override
+  public long currentTime() throws IOException {
+    return reader.currentTime();
+  }
+
+  @Override
+  public int currentInt() throws IOException {
+    return reader.currentInt();
+  }
+
+  @Override
+  public long currentLong() throws IOException {
+    return reader.currentLong();
+  }
+
+  @Override
+  public float currentFloat() throws IOException {
+    return reader.currentFloat();
+  }
+
+  @Override
+  public double currentDouble() throws IOException {
+    return reader.currentDouble();
+  }
+
+  @Override
+  public boolean currentBoolean() throws IOException {
+    return reader.currentBoolean();
+  }
+
+  @Override
+  public boolean isCurrentNull() throws IOException {
+    return reader.isCurrentNull();
+  }
+
+  @Override
+  public Binary currentBinary() throws IOException {
+    return reader.currentBinary();
+  }
+}
@@ -266,6 +266,24 @@ public class PrimitiveArrayManager {
     }
   }
 
+  /** @return the total size in bytes of the arrays currently pooled for reuse */
+  public static long getBufferedArraysSize() {
+    long size = 0;
+    for (TSDataType dataType : TSDataType.values()) {
+      // VECTOR is ignored
+      if (dataType.equals(TSDataType.VECTOR)) {
+        continue;
+      }
+      int order = dataType.serialize();
+      int arrayNum;
+      synchronized (POOLED_ARRAYS[order]) {
+        arrayNum = POOLED_ARRAYS[order].size();
+      }
+      size += (long) arrayNum * ARRAY_SIZE * dataType.getDataTypeSize();
+    }
+    return size;
+  }
+
   public static void close() {
     init();
   }
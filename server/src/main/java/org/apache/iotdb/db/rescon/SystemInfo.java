@@ -26,6 +26,11 @@ import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupInfo;
 import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
 import org.apache.iotdb.db.exception.WriteProcessRejectException;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,6 +104,16 @@ public class SystemInfo {
         if (totalStorageGroupMemCost < memorySizeForWrite) {
           return true;
         } else {
+          if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+            MetricsService.getInstance()
+                .getMetricManager()
+                .count(
+                    1,
+                    Metric.QUANTITY.toString(),
+                    MetricLevel.NORMAL,
+                    Tag.NAME.toString(),
+                    "writeRejected");
+          }
           throw new WriteProcessRejectException(
               "Total Storage Group MemCost "
                   + totalStorageGroupMemCost
@@ -258,6 +273,10 @@ public class SystemInfo {
     return totalStorageGroupMemCost;
   }
 
+  public long getFlushingMemTableCost() {
+    return flushingMemTablesCost;
+  }
+
   public double getFlushThershold() {
     return FLUSH_THERSHOLD;
   }
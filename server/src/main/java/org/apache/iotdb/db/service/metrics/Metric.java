@@ -22,9 +22,12 @@ package org.apache.iotdb.db.service.metrics;
 public enum Metric {
   ENTRY,
   COST_TASK,
+  COST_STAGE,
   QUEUE,
   FILE_SIZE,
   FILE_COUNT,
+  DATA_READ,
+  DATA_WRITTEN,
   MEM,
   CACHE_HIT,
   ERROR_LOG,
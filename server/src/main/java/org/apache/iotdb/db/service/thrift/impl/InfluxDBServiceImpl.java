@@ -19,16 +19,17 @@
 
 package org.apache.iotdb.db.service.thrift.impl;
 
+import org.apache.iotdb.db.exception.BatchProcessException;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.StorageGroupNotSetException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
-import org.apache.iotdb.db.protocol.influxdb.dto.IoTDBPoint;
-import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineParser;
+import org.apache.iotdb.db.protocol.influxdb.input.InfluxLineBatchParser;
 import org.apache.iotdb.db.protocol.influxdb.meta.InfluxDBMetaManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
-import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertMultiTabletPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.qp.physical.sys.SetStorageGroupPlan;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.basic.BasicOpenSessionResp;
@@ -41,16 +42,15 @@ import org.apache.iotdb.protocol.influxdb.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.TSOpenSessionResp;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.TSStatus;
 import org.apache.iotdb.protocol.influxdb.rpc.thrift.TSWritePointsReq;
-import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 
 import org.apache.thrift.TException;
 import org.influxdb.InfluxDBException;
-import org.influxdb.dto.Point;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class InfluxDBServiceImpl implements InfluxDBService.Iface {
@@ -90,26 +90,46 @@ public class InfluxDBServiceImpl implements InfluxDBService.Iface {
       return getNotLoggedInStatus();
     }
 
-    List<TSStatus> tsStatusList = new ArrayList<>();
+    InsertMultiTabletPlan plan;
+    try {
+      plan =
+          new InfluxLineBatchParser(req.database, req.precision, metaManager)
+              .parse(req.lineProtocol);
+    } catch (IllegalPathException e) {
+      throw new InfluxDBException(e.getMessage());
+    }
+    List<InsertTabletPlan> tabletPlans = plan.getInsertTabletPlanList();
+    for (int i = 0; i < tabletPlans.size(); i++) {
+      org.apache.iotdb.service.rpc.thrift.TSStatus status =
+          serviceProvider.checkAuthority(tabletPlans.get(i), req.sessionId);
+      if (status != null) {
+        // not authorized
+        plan.getResults().put(i, status);
+      }
+    }
+
+    org.apache.iotdb.service.rpc.thrift.TSStatus[] failingStatus =
+        new org.apache.iotdb.service.rpc.thrift.TSStatus[tabletPlans.size()];
+    try {
+      if (!tabletPlans.isEmpty() && !serviceProvider.executeNonQuery(plan)) {
+        Arrays.fill(failingStatus, RpcUtils.getStatus(TSStatusCode.EXECUTE_STATEMENT_ERROR));
+      }
+    } catch (BatchProcessException e) {
+      failingStatus = e.getFailingStatus();
+    } catch (StorageGroupNotSetException | StorageEngineException | QueryProcessException e) {
+      throw new InfluxDBException(e.getMessage());
+    }
+
+    // a status for every series of the request
+    List<TSStatus> tsStatusList = new ArrayList<>(tabletPlans.size());
     int executeCode = TSStatusCode.SUCCESS_STATUS.getStatusCode();
-    for (Point point :
-        InfluxLineParser.parserRecordsToPointsWithPrecision(req.lineProtocol, req.precision)) {
-      IoTDBPoint iotdbPoint = new IoTDBPoint(req.database, point, metaManager);
-      try {
-        InsertRowPlan plan = iotdbPoint.convertToInsertRowPlan();
-        TSStatus tsStatus = executeNonQueryPlan(plan, req.sessionId);
-        if (executeCode == TSStatusCode.SUCCESS_STATUS.getStatusCode()
-            && tsStatus.getCode() == TSStatusCode.EXECUTE_STATEMENT_ERROR.getStatusCode()) {
-          executeCode = tsStatus.getCode();
-        }
-        tsStatusList.add(tsStatus);
-      } catch (StorageGroupNotSetException
-          | StorageEngineException
-          | IllegalPathException
-          | IoTDBConnectionException
-          | QueryProcessException e) {
-        throw new InfluxDBException(e.getMessage());
+    for (org.apache.iotdb.service.rpc.thrift.TSStatus status : failingStatus) {
+      if (status == null || status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        status = RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS, "Execute successfully");
+      } else {
+        executeCode = TSStatusCode.EXECUTE_STATEMENT_ERROR.getStatusCode();
       }
+      tsStatusList.add(DataTypeUtils.RPCStatusToInfluxDBTSStatus(status));
     }
     return new TSStatus().setCode(executeCode).setSubStatus(tsStatusList);
   }
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.exception.query.UnknownSchemaHandleException;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.metadata.template.TemplateQueryType;
@@ -60,9 +61,14 @@ import org.apache.iotdb.db.qp.physical.sys.SetTemplatePlan;
 import org.apache.iotdb.db.qp.physical.sys.ShowQueryProcesslistPlan;
 import org.apache.iotdb.db.qp.physical.sys.UnsetTemplatePlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.SchemaHandle;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile.Stage;
 import org.apache.iotdb.db.query.control.tracing.TracingConstant;
 import org.apache.iotdb.db.query.dataset.DirectAlignByTimeDataSet;
 import org.apache.iotdb.db.query.dataset.DirectNonAlignDataSet;
+import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.db.query.dataset.UDTFDataSet;
 import org.apache.iotdb.db.query.pool.QueryTaskManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.StaticResps;
@@ -94,6 +100,8 @@ import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataReq;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataResp;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
 import org.apache.iotdb.service.rpc.thrift.TSFetchResultsReq;
 import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
 import org.apache.iotdb.service.rpc.thrift.TSGetTimeZoneResp;
@@ -115,6 +123,8 @@ import org.apache.iotdb.service.rpc.thrift.TSQueryNonAlignDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateResp;
 import org.apache.iotdb.service.rpc.thrift.TSRawDataQueryReq;
+import org.apache.iotdb.service.rpc.thrift.TSRegisterSchemaHandleReq;
+import org.apache.iotdb.service.rpc.thrift.TSRegisterSchemaHandleResp;
 import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
@@ -129,6 +139,9 @@ import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
 import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -803,6 +816,10 @@ public class TSServiceImpl implements TSIService.Iface {
               "No permissions for this operation " + plan.getOperatorType()));
     }
 
+    if (plan.isExplainAnalyze()) {
+      return executeExplainAnalyze(plan, context, fetchSize, username);
+    }
+
     long queryId = context.getQueryId();
     if (plan.isEnableTracing()) {
       context.setEnableTracing(true);
@@ -863,6 +880,63 @@ public class TSServiceImpl implements TSIService.Iface {
     return resp;
   }
 
+  /**
+   * Execute the query to the end with a profile attached to its context, and return the profile
+   * instead of the result of the query. All the result rows are fetched and serialized as if they
+   * were sent to the client, but they are discarded.
+   */
+  private TSExecuteStatementResp executeExplainAnalyze(
+      QueryPlan plan, QueryContext context, int fetchSize, String username)
+      throws TException, MetadataException, QueryProcessException, StorageEngineException,
+          SQLException, IOException, InterruptedException, QueryFilterOptimizationException,
+          AuthException {
+    QueryProfile profile = new QueryProfile();
+    context.setProfile(profile);
+
+    long startTime = System.nanoTime();
+    QueryDataSet dataSet = serviceProvider.createQueryDataSet(context, plan, fetchSize);
+    profile.record(Stage.CREATE_DATASET, startTime, 0);
+
+    TSerializer serializer =
+        new TSerializer(
+            CONFIG.isRpcThriftCompressionEnable()
+                ? new TCompactProtocol.Factory()
+                : new TBinaryProtocol.Factory());
+    long rowNum;
+    do {
+      startTime = System.nanoTime();
+      if (dataSet instanceof DirectNonAlignDataSet) {
+        TSQueryNonAlignDataSet result = fillRpcNonAlignReturnData(fetchSize, dataSet, username);
+        rowNum = 0;
+        for (ByteBuffer timeBuffer : result.getTimeList()) {
+          rowNum += timeBuffer.limit() / Long.BYTES;
+        }
+        profile.record(Stage.FETCH_RESULT, startTime, rowNum);
+        startTime = System.nanoTime();
+        serializer.serialize(result);
+      } else {
+        TSQueryDataSet result = fillRpcReturnData(fetchSize, dataSet, username);
+        rowNum = result.bufferForTime().limit() / Long.BYTES;
+        profile.record(Stage.FETCH_RESULT, startTime, rowNum);
+        startTime = System.nanoTime();
+        serializer.serialize(result);
+      }
+      profile.record(Stage.RPC_SERIALIZATION, startTime, rowNum);
+    } while (rowNum > 0);
+
+    // the profile replaces the result of the query in the session
+    if (dataSet instanceof UDTFDataSet) {
+      ((UDTFDataSet) dataSet).finalizeUDFs(context.getQueryId());
+    }
+    ListDataSet profileDataSet = profile.toDataSet();
+    SESSION_MANAGER.setDataset(context.getQueryId(), profileDataSet);
+    TSExecuteStatementResp resp = getListDataSetResp(plan, profileDataSet);
+    resp.setQueryDataSet(
+        QueryDataSetUtils.convertQueryDataSetByFetchSize(profileDataSet, fetchSize, null));
+    QUERY_TIME_MANAGER.unRegisterQuery(context.getQueryId(), false);
+    return resp;
+  }
+
   private TSExecuteStatementResp executeShowOrAuthorPlan(
       PhysicalPlan plan, QueryContext context, int fetchSize, String username)
       throws QueryProcessException, TException, StorageEngineException, SQLException, IOException,
@@ -1191,13 +1265,26 @@ public class TSServiceImpl implements TSIService.Iface {
     InsertRowsPlan insertRowsPlan = new InsertRowsPlan();
     for (int i = 0; i < req.prefixPaths.size(); i++) {
       try {
-        InsertRowPlan plan =
-            new InsertRowPlan(
-                new PartialPath(req.getPrefixPaths().get(i)),
-                req.getTimestamps().get(i),
-                req.getMeasurementsList().get(i).toArray(new String[0]),
-                req.valuesList.get(i),
-                req.isAligned);
+        InsertRowPlan plan;
+        if (req.isSetSchemaHandles()) {
+          SchemaHandle schemaHandle =
+              SESSION_MANAGER.getSchemaHandle(req.getSessionId(), req.schemaHandles.get(i));
+          plan =
+              new InsertRowPlan(
+                  schemaHandle.getDevicePath(),
+                  req.getTimestamps().get(i),
+                  schemaHandle.getMeasurements().toArray(new String[0]),
+                  req.valuesList.get(i),
+                  req.isAligned);
+        } else {
+          plan =
+              new InsertRowPlan(
+                  new PartialPath(req.getPrefixPaths().get(i)),
+                  req.getTimestamps().get(i),
+                  req.getMeasurementsList().get(i).toArray(new String[0]),
+                  req.valuesList.get(i),
+                  req.isAligned);
+        }
         TSStatus status = serviceProvider.checkAuthority(plan, req.getSessionId());
         if (status != null) {
           insertRowsPlan.getResults().put(i, status);
@@ -1558,8 +1645,16 @@ public class TSServiceImpl implements TSIService.Iface {
         return getNotLoggedInStatus();
       }
 
-      InsertTabletPlan insertTabletPlan =
-          new InsertTabletPlan(new PartialPath(req.getPrefixPath()), req.measurements);
+      InsertTabletPlan insertTabletPlan;
+      if (req.isSetSchemaHandle()) {
+        SchemaHandle schemaHandle =
+            SESSION_MANAGER.getSchemaHandle(req.getSessionId(), req.getSchemaHandle());
+        insertTabletPlan =
+            new InsertTabletPlan(schemaHandle.getDevicePath(), schemaHandle.getMeasurements());
+      } else {
+        insertTabletPlan =
+            new InsertTabletPlan(new PartialPath(req.getPrefixPath()), req.measurements);
+      }
       insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
       insertTabletPlan.setColumns(
           QueryDataSetUtils.readValuesFromBuffer(
@@ -1582,6 +1677,28 @@ public class TSServiceImpl implements TSIService.Iface {
     }
   }
 
+  @Override
+  public TSRegisterSchemaHandleResp registerSchemaHandle(TSRegisterSchemaHandleReq req) {
+    TSRegisterSchemaHandleResp resp = new TSRegisterSchemaHandleResp();
+    try {
+      if (!serviceProvider.checkLogin(req.getSessionId())) {
+        return resp.setStatus(getNotLoggedInStatus());
+      }
+
+      SchemaHandle schemaHandle =
+          new SchemaHandle(new PartialPath(req.getPrefixPath()), req.getMeasurements());
+      resp.setSchemaHandle(SESSION_MANAGER.registerSchemaHandle(req.getSessionId(), schemaHandle));
+      return resp.setStatus(RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS));
+    } catch (IoTDBException e) {
+      return resp.setStatus(
+          onIoTDBException(e, OperationType.REGISTER_SCHEMA_HANDLE, e.getErrorCode()));
+    } catch (Exception e) {
+      return resp.setStatus(
+          onNPEOrUnexpectedException(
+              e, OperationType.REGISTER_SCHEMA_HANDLE, TSStatusCode.EXECUTE_STATEMENT_ERROR));
+    }
+  }
+
   @Override
   public TSStatus insertTablets(TSInsertTabletsReq req) {
     long t1 = System.currentTimeMillis();
@@ -1605,20 +1722,27 @@ public class TSServiceImpl implements TSIService.Iface {
   }
 
   private InsertTabletPlan constructInsertTabletPlan(TSInsertTabletsReq req, int i)
-      throws IllegalPathException {
-    InsertTabletPlan insertTabletPlan =
-        new InsertTabletPlan(new PartialPath(req.prefixPaths.get(i)), req.measurementsList.get(i));
+      throws IllegalPathException, UnknownSchemaHandleException {
+    InsertTabletPlan insertTabletPlan;
+    if (req.isSetSchemaHandles()) {
+      SchemaHandle schemaHandle =
+          SESSION_MANAGER.getSchemaHandle(req.getSessionId(), req.schemaHandles.get(i));
+      insertTabletPlan =
+          new InsertTabletPlan(schemaHandle.getDevicePath(), schemaHandle.getMeasurements());
+    } else {
+      insertTabletPlan =
+          new InsertTabletPlan(
+              new PartialPath(req.prefixPaths.get(i)), req.measurementsList.get(i));
+    }
+    int columnCount = insertTabletPlan.getMeasurements().length;
     insertTabletPlan.setTimes(
         QueryDataSetUtils.readTimesFromBuffer(req.timestampsList.get(i), req.sizeList.get(i)));
     insertTabletPlan.setColumns(
         QueryDataSetUtils.readValuesFromBuffer(
-            req.valuesList.get(i),
-            req.typesList.get(i),
-            req.measurementsList.get(i).size(),
-            req.sizeList.get(i)));
+            req.valuesList.get(i), req.typesList.get(i), columnCount, req.sizeList.get(i)));
     insertTabletPlan.setBitMaps(
         QueryDataSetUtils.readBitMapsFromBuffer(
-            req.valuesList.get(i), req.measurementsList.get(i).size(), req.sizeList.get(i)));
+            req.valuesList.get(i), columnCount, req.sizeList.get(i)));
     insertTabletPlan.setRowCount(req.sizeList.get(i));
     insertTabletPlan.setDataTypes(req.typesList.get(i));
     insertTabletPlan.setAligned(req.isAligned);
@@ -1626,7 +1750,8 @@ public class TSServiceImpl implements TSIService.Iface {
   }
 
   /** construct one InsertMultiTabletPlan and process it */
-  public TSStatus insertTabletsInternally(TSInsertTabletsReq req) throws IllegalPathException {
+  public TSStatus insertTabletsInternally(TSInsertTabletsReq req)
+      throws IllegalPathException, UnknownSchemaHandleException {
     List<InsertTabletPlan> insertTabletPlanList = new ArrayList<>();
     InsertMultiTabletPlan insertMultiTabletPlan = new InsertMultiTabletPlan();
     for (int i = 0; i < req.prefixPaths.size(); i++) {
@@ -2057,6 +2182,15 @@ public class TSServiceImpl implements TSIService.Iface {
     return status != null ? status : executeNonQueryPlan(plan);
   }
 
+  /** The data of a standalone server is not partitioned, so no partition table is returned. */
+  @Override
+  public TSFetchPartitionTableResp fetchPartitionTable(TSFetchPartitionTableReq req) {
+    if (!serviceProvider.checkLogin(req.getSessionId())) {
+      return new TSFetchPartitionTableResp(getNotLoggedInStatus(), 0);
+    }
+    return new TSFetchPartitionTableResp(RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS), 0);
+  }
+
   protected TSStatus executeNonQueryPlan(PhysicalPlan plan) {
     try {
       return serviceProvider.executeNonQuery(plan)
@@ -2067,7 +2201,7 @@ public class TSServiceImpl implements TSIService.Iface {
     }
   }
 
-  private TSStatus getNotLoggedInStatus() {
+  protected TSStatus getNotLoggedInStatus() {
     return RpcUtils.getStatus(
         TSStatusCode.NOT_LOGIN_ERROR,
         "Log in failed. Either you are not authorized or the session has timed out.");
@@ -40,6 +40,8 @@ public class SyncConstant {
   public static final int DATA_CHUNK_SIZE =
       Math.min(64 * 1024 * 1024, RpcUtils.THRIFT_FRAME_MAX_SIZE);
 
+  public static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
   // sender section
 
   public static final String LOCK_FILE_NAME = "sync_lock";
@@ -56,6 +58,8 @@ public class SyncConstant {
 
   public static final String SYNC_LOG_NAME = "sync.log";
 
+  public static final String SYNC_BLOCK_LOG_NAME = "sync_block.log";
+
   private static final SyncSenderConfig CONFIG = SyncSenderDescriptor.getInstance().getConfig();
 
   public static final long SYNC_PROCESS_DELAY = 0;
@@ -70,6 +74,8 @@ public class SyncConstant {
 
   public static final String RECEIVER_DATA_FOLDER_NAME = "data";
 
+  public static final String RECEIVER_PARTIAL_FOLDER_NAME = "partial";
+
   public static final String LOAD_LOG_NAME = "load.log";
 
   public static final String DEVICE_OWNER_FILE_NAME = "device_owner";
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.sync.conf;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +41,15 @@ public class SyncSenderConfig {
   /** The maximum number of retry when syncing a file to receiver fails. */
   private int maxNumOfSyncFileRetry = 5;
 
+  /** The number of connections which transfer blocks of tsfiles concurrently. */
+  private int parallelStreamNum = 4;
+
+  /** Tsfiles larger than this are split into byte ranges which are transferred concurrently. */
+  private long splitFileSizeInByte = 256 * 1024 * 1024L;
+
+  /** The compression type of the blocks of tsfiles in transmission. */
+  private CompressionType compressionType = CompressionType.UNCOMPRESSED;
+
   /** Storage groups which participate in sync process */
   private List<String> storageGroupList = new ArrayList<>();
 
@@ -109,6 +120,30 @@ public class SyncSenderConfig {
     return serverIp + SyncConstant.SYNC_DIR_NAME_SEPARATOR + serverPort;
   }
 
+  public int getParallelStreamNum() {
+    return parallelStreamNum;
+  }
+
+  public void setParallelStreamNum(int parallelStreamNum) {
+    this.parallelStreamNum = parallelStreamNum;
+  }
+
+  public long getSplitFileSizeInByte() {
+    return splitFileSizeInByte;
+  }
+
+  public void setSplitFileSizeInByte(long splitFileSizeInByte) {
+    this.splitFileSizeInByte = splitFileSizeInByte;
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  public void setCompressionType(CompressionType compressionType) {
+    this.compressionType = compressionType;
+  }
+
   public List<String> getStorageGroupList() {
     return new ArrayList<>(storageGroupList);
   }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.sync.conf;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -104,6 +105,18 @@ public class SyncSenderDescriptor {
               properties.getProperty(
                   "max_number_of_sync_file_retry",
                   Integer.toString(conf.getMaxNumOfSyncFileRetry()))));
+      conf.setParallelStreamNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "sync_parallel_stream_num", Integer.toString(conf.getParallelStreamNum()))));
+      conf.setSplitFileSizeInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "sync_split_file_size_in_byte", Long.toString(conf.getSplitFileSizeInByte()))));
+      conf.setCompressionType(
+          CompressionType.valueOf(
+              properties.getProperty(
+                  "sync_compression_type", conf.getCompressionType().toString())));
     } catch (IOException e) {
       logger.warn("Cannot load sync config file, use default sync configuration.", e);
     } catch (Exception e) {
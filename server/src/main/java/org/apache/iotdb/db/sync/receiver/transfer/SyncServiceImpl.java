@@ -38,20 +38,30 @@ import org.apache.iotdb.db.sync.receiver.recover.SyncReceiverLogAnalyzer;
 import org.apache.iotdb.db.sync.receiver.recover.SyncReceiverLogger;
 import org.apache.iotdb.db.utils.SyncUtils;
 import org.apache.iotdb.service.sync.thrift.ConfirmInfo;
+import org.apache.iotdb.service.sync.thrift.SyncDataBlock;
 import org.apache.iotdb.service.sync.thrift.SyncService;
 import org.apache.iotdb.service.sync.thrift.SyncStatus;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
 
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SyncServiceImpl implements SyncService.Iface {
 
@@ -73,37 +83,43 @@ public class SyncServiceImpl implements SyncService.Iface {
 
   private ThreadLocal<MessageDigest> messageDigest = new ThreadLocal<>();
 
+  /** sender name -> sync folder of the sync task started by the main connection of the sender */
+  private final Map<String, String> senderSyncFolders = new ConcurrentHashMap<>();
+
   /** Verify IP address of sender */
   @Override
   public SyncStatus check(ConfirmInfo info) {
-    String ipAddress = info.address, uuid = info.uuid;
     Thread.currentThread().setName(ThreadName.SYNC_SERVER.getName());
+    String errorMsg = checkSender(info);
+    if (errorMsg != null) {
+      return getErrorResult(errorMsg);
+    }
+    senderName.set(info.address + SyncConstant.SYNC_DIR_NAME_SEPARATOR + info.uuid);
+    if (checkRecovery()) {
+      logger.info("Start to sync with sender {}", senderName.get());
+      return getSuccessResult();
+    } else {
+      return getErrorResult("Receiver is processing data from previous sync tasks");
+    }
+  }
+
+  /** @return the reason why the sender is rejected, or null if it is accepted */
+  private String checkSender(ConfirmInfo info) {
     if (!config.getIoTDBMajorVersion(info.version).equals(config.getIoTDBMajorVersion())) {
-      return getErrorResult(
-          String.format(
-              "Version mismatch: the sender <%s>, the receiver <%s>",
-              info.version, config.getIoTDBVersion()));
+      return String.format(
+          "Version mismatch: the sender <%s>, the receiver <%s>",
+          info.version, config.getIoTDBVersion());
     }
     if (info.partitionInterval
         != IoTDBDescriptor.getInstance().getConfig().getPartitionInterval()) {
-      return getErrorResult(
-          String.format(
-              "Partition interval mismatch: the sender <%d>, the receiver <%d>",
-              info.partitionInterval,
-              IoTDBDescriptor.getInstance().getConfig().getPartitionInterval()));
+      return String.format(
+          "Partition interval mismatch: the sender <%d>, the receiver <%d>",
+          info.partitionInterval, IoTDBDescriptor.getInstance().getConfig().getPartitionInterval());
     }
-    if (SyncUtils.verifyIPSegment(config.getIpWhiteList(), ipAddress)) {
-      senderName.set(ipAddress + SyncConstant.SYNC_DIR_NAME_SEPARATOR + uuid);
-      if (checkRecovery()) {
-        logger.info("Start to sync with sender {}", senderName.get());
-        return getSuccessResult();
-      } else {
-        return getErrorResult("Receiver is processing data from previous sync tasks");
-      }
-    } else {
-      return getErrorResult(
-          "Sender IP is not in the white list of receiver IP and synchronization tasks are not allowed.");
+    if (!SyncUtils.verifyIPSegment(config.getIpWhiteList(), info.address)) {
+      return "Sender IP is not in the white list of receiver IP and synchronization tasks are not allowed.";
     }
+    return null;
   }
 
   private boolean checkRecovery() {
@@ -125,6 +141,7 @@ public class SyncServiceImpl implements SyncService.Iface {
   public SyncStatus startSync() {
     try {
       initPath();
+      senderSyncFolders.put(senderName.get(), syncFolderPath.get());
       currentSG.remove();
       FileLoader.createFileLoader(senderName.get(), syncFolderPath.get());
       syncLog.set(
@@ -257,17 +274,7 @@ public class SyncServiceImpl implements SyncService.Iface {
         if (currentFile.get().getName().endsWith(MetadataConstant.METADATA_LOG)) {
           loadMetadata();
         } else {
-          if (!currentFile.get().getName().endsWith(TsFileResource.RESOURCE_SUFFIX)) {
-            logger.info("Receiver has received {} successfully.", currentFile.get());
-            FileLoaderManager.getInstance()
-                .checkAndUpdateDeviceOwner(
-                    new TsFileResource(
-                        new File(currentFile.get() + TsFileResource.RESOURCE_SUFFIX)));
-            syncLog.get().finishSyncTsfile(currentFile.get());
-            FileLoaderManager.getInstance()
-                .getFileLoader(senderName.get())
-                .addTsfile(currentFile.get());
-          }
+          loadReceivedFile(currentFile.get());
         }
       }
     } catch (IOException e) {
@@ -288,6 +295,150 @@ public class SyncServiceImpl implements SyncService.Iface {
     return new SyncStatus(SyncConstant.SUCCESS_CODE, digestOfReceiver);
   }
 
+  /** Load a received tsfile after its .resource file has been received. */
+  private void loadReceivedFile(File file) throws IOException, SyncDeviceOwnerConflictException {
+    if (!file.getName().endsWith(TsFileResource.RESOURCE_SUFFIX)) {
+      logger.info("Receiver has received {} successfully.", file);
+      FileLoaderManager.getInstance()
+          .checkAndUpdateDeviceOwner(
+              new TsFileResource(new File(file + TsFileResource.RESOURCE_SUFFIX)));
+      syncLog.get().finishSyncTsfile(file);
+      FileLoaderManager.getInstance().getFileLoader(senderName.get()).addTsfile(file);
+    }
+  }
+
+  /** Attach a data stream of the sender to the sync task started by its main connection. */
+  @Override
+  public SyncStatus attachSync(ConfirmInfo info) {
+    Thread.currentThread().setName(ThreadName.SYNC_SERVER.getName());
+    String errorMsg = checkSender(info);
+    if (errorMsg != null) {
+      return getErrorResult(errorMsg);
+    }
+    String name = info.address + SyncConstant.SYNC_DIR_NAME_SEPARATOR + info.uuid;
+    String folderPath = senderSyncFolders.get(name);
+    if (folderPath == null) {
+      return getErrorResult(String.format("There is no sync task of sender %s", name));
+    }
+    senderName.set(name);
+    syncFolderPath.set(folderPath);
+    return getSuccessResult();
+  }
+
+  /**
+   * Create the partial file which the blocks are written to. The partial file is kept if it has the
+   * same length, so that the sender can resume the transmission of it.
+   *
+   * @return whether the partial file is kept in the message of the status
+   */
+  @Override
+  public SyncStatus initSyncDataBlocks(String storageGroup, String fileInfo, long fileLength) {
+    File partialFile = getPartialFile(storageGroup, fileInfo);
+    boolean keep = partialFile.exists() && partialFile.length() == fileLength;
+    if (!keep) {
+      if (!partialFile.getParentFile().exists()) {
+        partialFile.getParentFile().mkdirs();
+      }
+      try (RandomAccessFile raf = new RandomAccessFile(partialFile, "rw")) {
+        raf.setLength(0);
+        raf.setLength(fileLength);
+      } catch (IOException e) {
+        logger.error("Can not init sync resource for file {}", partialFile, e);
+        return getErrorResult(
+            String.format(
+                "Can not init sync resource for file %s because %s", fileInfo, e.getMessage()));
+      }
+    }
+    return new SyncStatus(SyncConstant.SUCCESS_CODE, Boolean.toString(keep));
+  }
+
+  @Override
+  public SyncStatus syncDataBlock(SyncDataBlock block) {
+    File partialFile = getPartialFile(block.storageGroup, block.fileInfo);
+    try (RandomAccessFile raf = new RandomAccessFile(partialFile, "rw")) {
+      ByteBuffer data = block.data;
+      CompressionType compressionType = CompressionType.deserialize(block.compressionType);
+      if (compressionType != CompressionType.UNCOMPRESSED) {
+        byte[] compressed = new byte[data.remaining()];
+        data.get(compressed);
+        byte[] uncompressed = new byte[block.uncompressedSize];
+        IUnCompressor.getUnCompressor(compressionType)
+            .uncompress(compressed, 0, compressed.length, uncompressed, 0);
+        data = ByteBuffer.wrap(uncompressed);
+      }
+      long offset = block.offset;
+      while (data.hasRemaining()) {
+        offset += raf.getChannel().write(data, offset);
+      }
+    } catch (IOException e) {
+      logger.error("Can not sync data for file {}", partialFile.getAbsoluteFile(), e);
+      return getErrorResult(
+          String.format(
+              "Can not sync data for file %s because %s", partialFile.getName(), e.getMessage()));
+    }
+    return getSuccessResult();
+  }
+
+  /** Check the digest of the partial file, and move it to the data folder if it is complete. */
+  @Override
+  public SyncStatus checkDataBlocksDigest(
+      String storageGroup, String fileInfo, String digestOfSender) {
+    File partialFile = getPartialFile(storageGroup, fileInfo);
+    File file =
+        new File(
+            getSyncDataPath(), storageGroup + File.separator + getFilePathByFileInfo(fileInfo));
+    String digestOfReceiver;
+    try {
+      digestOfReceiver = getFileDigest(partialFile);
+      if (!digestOfSender.equals(digestOfReceiver)) {
+        partialFile.delete();
+        return getErrorResult(
+            String.format(
+                "Digest of the sender is differ from digest of the receiver of the file %s.",
+                partialFile.getAbsolutePath()));
+      }
+      if (!file.getParentFile().exists()) {
+        file.getParentFile().mkdirs();
+      }
+      Files.move(partialFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      syncLog.get().startSyncTsFiles();
+      loadReceivedFile(file);
+    } catch (IOException | NoSuchAlgorithmException e) {
+      logger.error("Can not check data digest for file {}", partialFile.getAbsoluteFile(), e);
+      return getErrorResult(
+          String.format(
+              "Can not check data digest for file %s because %s",
+              partialFile.getName(), e.getMessage()));
+    } catch (SyncDeviceOwnerConflictException e) {
+      logger.error(
+          "Device owner has conflicts, skip all other tsfiles in the sg {}.", storageGroup);
+      return new SyncStatus(
+          SyncConstant.CONFLICT_CODE,
+          String.format(
+              "Device owner has conflicts, skip all other tsfiles in the same sg %s because %s",
+              storageGroup, e.getMessage()));
+    }
+    return new SyncStatus(SyncConstant.SUCCESS_CODE, digestOfReceiver);
+  }
+
+  private File getPartialFile(String storageGroup, String fileInfo) {
+    return new File(
+        syncFolderPath.get() + File.separatorChar + SyncConstant.RECEIVER_PARTIAL_FOLDER_NAME,
+        storageGroup + File.separator + getFilePathByFileInfo(fileInfo));
+  }
+
+  private String getFileDigest(File file) throws IOException, NoSuchAlgorithmException {
+    MessageDigest md = MessageDigest.getInstance(SyncConstant.MESSAGE_DIGIT_NAME);
+    byte[] buffer = new byte[SyncConstant.DIGEST_BUFFER_SIZE];
+    try (FileInputStream fis = new FileInputStream(file)) {
+      int dataLength;
+      while ((dataLength = fis.read(buffer)) != -1) {
+        md.update(buffer, 0, dataLength);
+      }
+    }
+    return new BigInteger(1, md.digest()).toString(16);
+  }
+
   private void loadMetadata() {
     logger.info("Start to load metadata in sync process.");
     if (currentFile.get().exists()) {
@@ -333,6 +484,16 @@ public class SyncServiceImpl implements SyncService.Iface {
       if (currentFileWriter.get() != null) {
         currentFileWriter.get().close();
       }
+      // the partial files of an unfinished sync task are kept to be resumed, but those left after
+      // a finished sync task will not be resumed
+      if (syncFolderPath.get() != null) {
+        senderSyncFolders.remove(senderName.get());
+        FileUtils.deleteDirectory(
+            new File(
+                syncFolderPath.get()
+                    + File.separatorChar
+                    + SyncConstant.RECEIVER_PARTIAL_FOLDER_NAME));
+      }
       logger.info("Sync process with sender {} finished.", senderName.get());
     } catch (IOException e) {
       logger.error("Can not end sync", e);
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.sync.sender.recover;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -42,6 +43,13 @@ public interface ISyncSenderLogAnalyzer {
    */
   void loadLogger(Set<String> deletedFiles, Set<String> newFiles);
 
+  /**
+   * Load the block log, which indicates the offsets that the byte ranges of files have been synced
+   * to. Unlike the sync log, the block log is kept in recovery so that an interrupted transmission
+   * can be resumed by the next synchronization task.
+   */
+  void loadBlockLogger(Map<String, Long> fileBlockOffsets);
+
   /** Update the last local info file based on the log information of the last task */
   void updateLastLocalFile(Set<String> currentLocalFiles) throws IOException;
 }
@@ -63,5 +63,17 @@ public interface ISyncSenderLogger {
    */
   void finishSyncTsfile(File file) throws IOException;
 
+  /**
+   * After a block of a file is synced to the receiver end, record the offset that the byte range
+   * starting at rangeStart has been synced to in the block log, so that the transmission can be
+   * resumed from it.
+   *
+   * @param file file to be synced
+   * @param rangeStart start offset of the byte range
+   * @param offset end offset of the synced blocks of the byte range
+   * @throws IOException
+   */
+  void finishSyncFileBlock(File file, long rangeStart, long offset) throws IOException;
+
   void close() throws IOException;
 }
@@ -31,6 +31,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class SyncSenderLogAnalyzer implements ISyncSenderLogAnalyzer {
@@ -41,11 +42,14 @@ public class SyncSenderLogAnalyzer implements ISyncSenderLogAnalyzer {
   private File lastLocalFile;
   private File syncLogFile;
 
+  private File blockLogFile;
+
   public SyncSenderLogAnalyzer(String senderPath) {
     this.senderPath = senderPath;
     this.currentLocalFile = new File(senderPath, SyncConstant.CURRENT_LOCAL_FILE_NAME);
     this.lastLocalFile = new File(senderPath, SyncConstant.LAST_LOCAL_FILE_NAME);
     this.syncLogFile = new File(senderPath, SyncConstant.SYNC_LOG_NAME);
+    this.blockLogFile = new File(senderPath, SyncConstant.SYNC_BLOCK_LOG_NAME);
   }
 
   @Override
@@ -111,6 +115,30 @@ public class SyncSenderLogAnalyzer implements ISyncSenderLogAnalyzer {
     }
   }
 
+  @Override
+  public void loadBlockLogger(Map<String, Long> fileBlockOffsets) {
+    if (!blockLogFile.exists()) {
+      return;
+    }
+    try (BufferedReader br = new BufferedReader(new FileReader(blockLogFile))) {
+      String line;
+      while ((line = br.readLine()) != null) {
+        int index = line.lastIndexOf(SyncSenderLogger.BLOCK_LOG_SEPARATOR);
+        if (index < 0) {
+          continue;
+        }
+        try {
+          fileBlockOffsets.put(line.substring(0, index), Long.parseLong(line.substring(index + 1)));
+        } catch (NumberFormatException e) {
+          // the last line may be incomplete
+          LOGGER.warn("Skip the invalid line {} of block log", line);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.error("Can not load block log from file {}", blockLogFile.getAbsoluteFile(), e);
+    }
+  }
+
   @Override
   public void updateLastLocalFile(Set<String> currentLocalFiles) throws IOException {
     try (BufferedWriter bw = new BufferedWriter(new FileWriter(currentLocalFile))) {
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.sync.sender.recover;
 
+import org.apache.iotdb.db.sync.conf.SyncConstant;
+
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
@@ -25,13 +27,30 @@ import java.io.IOException;
 
 public class SyncSenderLogger implements ISyncSenderLogger {
 
+  public static final String BLOCK_LOG_SEPARATOR = ",";
+
   private BufferedWriter bw;
 
+  /** The block log is appended to, so that it keeps the progress of all storage groups. */
+  private BufferedWriter blockLogWriter;
+
   public SyncSenderLogger(File file) throws IOException {
     if (!file.getParentFile().exists()) {
       file.getParentFile().mkdirs();
     }
     this.bw = new BufferedWriter(new FileWriter(file.getAbsolutePath()));
+    this.blockLogWriter =
+        new BufferedWriter(
+            new FileWriter(new File(file.getParentFile(), SyncConstant.SYNC_BLOCK_LOG_NAME), true));
+  }
+
+  /** The key of a byte range of a file, a modified file with the same path gets a new key. */
+  public static String getFileBlockKey(File file, long rangeStart) {
+    return file.getAbsolutePath()
+        + BLOCK_LOG_SEPARATOR
+        + file.length()
+        + BLOCK_LOG_SEPARATOR
+        + rangeStart;
   }
 
   @Override
@@ -63,10 +82,22 @@ public class SyncSenderLogger implements ISyncSenderLogger {
   }
 
   @Override
-  public void close() throws IOException {
+  public synchronized void finishSyncFileBlock(File file, long rangeStart, long offset)
+      throws IOException {
+    blockLogWriter.write(getFileBlockKey(file, rangeStart) + BLOCK_LOG_SEPARATOR + offset);
+    blockLogWriter.newLine();
+    blockLogWriter.flush();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
     if (bw != null) {
       bw.close();
       bw = null;
     }
+    if (blockLogWriter != null) {
+      blockLogWriter.close();
+      blockLogWriter = null;
+    }
   }
 }
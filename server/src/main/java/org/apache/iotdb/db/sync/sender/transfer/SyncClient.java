@@ -70,7 +70,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -78,6 +80,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -130,6 +133,13 @@ public class SyncClient implements ISyncClient {
 
   private ScheduledExecutorService executorService;
 
+  private ConfirmInfo confirmInfo;
+
+  /** key of byte range -> offset that the byte range has been synced to, from the block log */
+  private Map<String, Long> fileBlockOffsets = new HashMap<>();
+
+  private SyncFileTransfer fileTransfer;
+
   private SyncClient() {
     init();
   }
@@ -303,7 +313,10 @@ public class SyncClient implements ISyncClient {
   }
 
   private void checkRecovery() throws IOException {
-    new SyncSenderLogAnalyzer(config.getSenderFolderPath()).recover();
+    SyncSenderLogAnalyzer analyzer = new SyncSenderLogAnalyzer(config.getSenderFolderPath());
+    analyzer.recover();
+    fileBlockOffsets = new HashMap<>();
+    analyzer.loadBlockLogger(fileBlockOffsets);
   }
 
   @Override
@@ -350,13 +363,13 @@ public class SyncClient implements ISyncClient {
   @Override
   public void confirmIdentity() throws SyncConnectionException {
     try (Socket socket = new Socket(config.getServerIp(), config.getServerPort())) {
-      ConfirmInfo info =
+      confirmInfo =
           new ConfirmInfo(
               socket.getLocalAddress().getHostAddress(),
               getOrCreateUUID(getUuidFile()),
               ioTDBConfig.getPartitionInterval(),
               ioTDBConfig.getIoTDBMajorVersion());
-      SyncStatus status = serviceClient.check(info);
+      SyncStatus status = serviceClient.check(confirmInfo);
       if (status.code != SUCCESS_CODE) {
         throw new SyncConnectionException(
             "The receiver rejected the synchronization task because " + status.msg);
@@ -523,6 +536,7 @@ public class SyncClient implements ISyncClient {
   public void sync() throws IOException {
     try {
       syncStatus = true;
+      fileTransfer = new SyncFileTransfer(config, confirmInfo, fileBlockOffsets);
 
       List<String> storageGroups = config.getStorageGroupList();
       for (Entry<String, Map<Long, Set<Long>>> entry : allSG.entrySet()) {
@@ -532,6 +546,7 @@ public class SyncClient implements ISyncClient {
         }
         lastLocalFilesMap.putIfAbsent(sgName, new HashMap<>());
         syncLog = new SyncSenderLogger(getSyncLogFile());
+        fileTransfer.setSyncLog(syncLog);
         try {
           SyncStatus status = serviceClient.init(sgName);
           if (status.code != SUCCESS_CODE) {
@@ -583,6 +598,10 @@ public class SyncClient implements ISyncClient {
     } catch (SyncConnectionException e) {
       logger.error("cannot finish sync process", e);
     } finally {
+      if (fileTransfer != null) {
+        fileTransfer.close();
+        fileTransfer = null;
+      }
       if (syncLog != null) {
         syncLog.close();
       }
@@ -629,26 +648,48 @@ public class SyncClient implements ISyncClient {
     syncLog.startSyncTsFiles();
     logger.info("Sync process starts to transfer data of storage group {}", sgName);
     int cnt = 0;
-    for (File tsfile : toBeSyncFiles) {
-      cnt++;
-      try {
-        File snapshotFile = makeFileSnapshot(tsfile);
-        // firstly sync .resource file, then sync tsfile
-        syncSingleFile(new File(snapshotFile.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX));
-        syncSingleFile(snapshotFile);
-        lastLocalFilesMap.get(sgName).get(vgId).get(timeRangeId).add(tsfile);
-        syncLog.finishSyncTsfile(tsfile);
-        logger.info("Task of synchronization has completed {}/{}.", cnt, toBeSyncFiles.size());
-      } catch (IOException e) {
-        logger.info(
-            "Tsfile {} can not make snapshot, so skip the tsfile and continue to sync other tsfiles",
-            tsfile,
-            e);
+    // files are transferred concurrently and loaded by the receiver in order
+    Deque<PendingFile> pendingFiles = new ArrayDeque<>();
+    try {
+      for (File tsfile : toBeSyncFiles) {
+        File snapshotFile;
+        try {
+          snapshotFile = makeFileSnapshot(tsfile);
+        } catch (IOException e) {
+          logger.info(
+              "Tsfile {} can not make snapshot, so skip the tsfile and continue to sync other tsfiles",
+              tsfile,
+              e);
+          continue;
+        }
+        pendingFiles.add(new PendingFile(sgName, tsfile, snapshotFile));
+        // limit the number of files which are being received by the receiver
+        if (pendingFiles.size() >= config.getParallelStreamNum() * 2) {
+          finishSyncTsFile(sgName, vgId, timeRangeId, pendingFiles.poll());
+          logger.info("Task of synchronization has completed {}/{}.", ++cnt, toBeSyncFiles.size());
+        }
+      }
+      while (!pendingFiles.isEmpty()) {
+        finishSyncTsFile(sgName, vgId, timeRangeId, pendingFiles.poll());
+        logger.info("Task of synchronization has completed {}/{}.", ++cnt, toBeSyncFiles.size());
+      }
+    } finally {
+      for (PendingFile pendingFile : pendingFiles) {
+        pendingFile.cancel();
       }
     }
     logger.info("Sync process has finished storage group {}.", sgName);
   }
 
+  private void finishSyncTsFile(String sgName, Long vgId, Long timeRangeId, PendingFile pendingFile)
+      throws SyncConnectionException, SyncDeviceOwnerConflictException, IOException {
+    // firstly sync .resource file, then sync tsfile
+    finishSyncSingleFile(sgName, pendingFile.resourceFile, pendingFile.resourceFutures);
+    finishSyncSingleFile(sgName, pendingFile.snapshotFile, pendingFile.tsfileFutures);
+    lastLocalFilesMap.get(sgName).get(vgId).get(timeRangeId).add(pendingFile.tsfile);
+    syncLog.finishSyncTsfile(pendingFile.tsfile);
+  }
+
   /**
    * Make snapshot hard link for new tsfile and its .restore file.
    *
@@ -671,62 +712,74 @@ public class SyncClient implements ISyncClient {
     return snapshotFile;
   }
 
-  /** Transfer data of a tsfile to the receiver. */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
-  private void syncSingleFile(File snapshotFile)
+  /**
+   * Let the receiver prepare the file and start to transfer its blocks.
+   *
+   * @param resume whether to resume the transmission from the block log
+   */
+  private List<Future<Void>> startSyncSingleFile(String sgName, File file, boolean resume)
+      throws SyncConnectionException {
+    String fileInfo = getFileInfoWithVgAndTimePartition(file);
+    try {
+      SyncStatus status = serviceClient.initSyncDataBlocks(sgName, fileInfo, file.length());
+      if (status.code != SUCCESS_CODE) {
+        throw new SyncConnectionException(
+            String.format("Receiver can not init file %s because %s", file, status.msg));
+      }
+      // the receiver tells whether it keeps the blocks received before
+      return fileTransfer.transfer(
+          sgName, fileInfo, file, resume && Boolean.parseBoolean(status.msg));
+    } catch (TException e) {
+      throw new SyncConnectionException("Cannot sync data with receiver.", e);
+    }
+  }
+
+  /** Wait for the blocks of a file to be transferred and check the digest of the file. */
+  private void finishSyncSingleFile(String sgName, File file, List<Future<Void>> futures)
       throws SyncConnectionException, SyncDeviceOwnerConflictException {
     try {
       int retryCount = 0;
-      MessageDigest md = MessageDigest.getInstance(SyncConstant.MESSAGE_DIGIT_NAME);
-      serviceClient.initSyncData(getFileInfoWithVgAndTimePartition(snapshotFile));
-      outer:
       while (true) {
+        SyncFileTransfer.await(futures);
+        String digestOfSender = getFileDigest(file);
+        SyncStatus status =
+            serviceClient.checkDataBlocksDigest(
+                sgName, getFileInfoWithVgAndTimePartition(file), digestOfSender);
+        if (status.code == CONFLICT_CODE) {
+          throw new SyncDeviceOwnerConflictException(status.msg);
+        }
+        if (status.code == SUCCESS_CODE && digestOfSender.equals(status.msg)) {
+          logger.info("Receiver has received {} successfully.", file.getAbsoluteFile());
+          return;
+        }
+        logger.error(
+            "Digest check of file {} failed because {}, retry", file.getAbsoluteFile(), status.msg);
         retryCount++;
         if (retryCount > config.getMaxNumOfSyncFileRetry()) {
           throw new SyncConnectionException(
               String.format(
                   "Can not sync file %s after %s tries.",
-                  snapshotFile.getAbsoluteFile(), config.getMaxNumOfSyncFileRetry()));
-        }
-        md.reset();
-        byte[] buffer = new byte[SyncConstant.DATA_CHUNK_SIZE];
-        int dataLength;
-        try (FileInputStream fis = new FileInputStream(snapshotFile);
-            ByteArrayOutputStream bos = new ByteArrayOutputStream(SyncConstant.DATA_CHUNK_SIZE)) {
-          while ((dataLength = fis.read(buffer)) != -1) { // cut the file into pieces to send
-            bos.write(buffer, 0, dataLength);
-            md.update(buffer, 0, dataLength);
-            ByteBuffer buffToSend = ByteBuffer.wrap(bos.toByteArray());
-            bos.reset();
-            SyncStatus status = serviceClient.syncData(buffToSend);
-            if (status.code == CONFLICT_CODE) {
-              throw new SyncDeviceOwnerConflictException(status.msg);
-            }
-            if (status.code != SUCCESS_CODE) {
-              logger.info(
-                  "Receiver failed to receive data from {} because {}, retry.",
-                  status.msg,
-                  snapshotFile.getAbsoluteFile());
-              continue outer;
-            }
-          }
-        }
-
-        // the file is sent successfully
-        String digestOfSender = (new BigInteger(1, md.digest())).toString(16);
-        SyncStatus status = serviceClient.checkDataDigest(digestOfSender);
-        if (status.code == SUCCESS_CODE && digestOfSender.equals(status.msg)) {
-          logger.info("Receiver has received {} successfully.", snapshotFile.getAbsoluteFile());
-          break;
-        } else {
-          logger.error("Digest check of tsfile {} failed, retry", snapshotFile.getAbsoluteFile());
+                  file.getAbsoluteFile(), config.getMaxNumOfSyncFileRetry()));
         }
+        futures = startSyncSingleFile(sgName, file, false);
       }
     } catch (IOException | TException | NoSuchAlgorithmException e) {
       throw new SyncConnectionException("Cannot sync data with receiver.", e);
     }
   }
 
+  private String getFileDigest(File file) throws IOException, NoSuchAlgorithmException {
+    MessageDigest md = MessageDigest.getInstance(SyncConstant.MESSAGE_DIGIT_NAME);
+    byte[] buffer = new byte[SyncConstant.DIGEST_BUFFER_SIZE];
+    try (FileInputStream fis = new FileInputStream(file)) {
+      int dataLength;
+      while ((dataLength = fis.read(buffer)) != -1) {
+        md.update(buffer, 0, dataLength);
+      }
+    }
+    return new BigInteger(1, md.digest()).toString(16);
+  }
+
   private void endSync() throws IOException {
     File currentLocalFile = getCurrentLogFile();
     File lastLocalFile = new File(config.getLastFileInfoPath());
@@ -759,8 +812,9 @@ public class SyncClient implements ISyncClient {
       logger.error("Can not clear snapshot directory {}", config.getSnapshotPath(), e);
     }
 
-    // 4. delete sync log file
+    // 4. delete sync log file and block log file
     getSyncLogFile().delete();
+    new File(config.getSenderFolderPath(), SyncConstant.SYNC_BLOCK_LOG_NAME).delete();
   }
 
   private File getSchemaPosFile() {
@@ -800,6 +854,34 @@ public class SyncClient implements ISyncClient {
     SyncClient.config = config;
   }
 
+  /** A tsfile whose .resource file and snapshot are being transferred. */
+  private class PendingFile {
+
+    private final File tsfile;
+
+    private final File snapshotFile;
+
+    private final File resourceFile;
+
+    private final List<Future<Void>> resourceFutures;
+
+    private final List<Future<Void>> tsfileFutures;
+
+    private PendingFile(String sgName, File tsfile, File snapshotFile)
+        throws SyncConnectionException {
+      this.tsfile = tsfile;
+      this.snapshotFile = snapshotFile;
+      this.resourceFile = new File(snapshotFile.getAbsolutePath() + TsFileResource.RESOURCE_SUFFIX);
+      this.resourceFutures = startSyncSingleFile(sgName, resourceFile, true);
+      this.tsfileFutures = startSyncSingleFile(sgName, snapshotFile, true);
+    }
+
+    private void cancel() {
+      SyncFileTransfer.cancel(resourceFutures);
+      SyncFileTransfer.cancel(tsfileFutures);
+    }
+  }
+
   private String getFileInfoWithVgAndTimePartition(File file) {
     return file.getParentFile().getParentFile().getName()
         + SyncConstant.SYNC_DIR_NAME_SEPARATOR
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.sync.sender.transfer;
+
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.SyncConnectionException;
+import org.apache.iotdb.db.sync.conf.SyncConstant;
+import org.apache.iotdb.db.sync.conf.SyncSenderConfig;
+import org.apache.iotdb.db.sync.sender.recover.ISyncSenderLogger;
+import org.apache.iotdb.db.sync.sender.recover.SyncSenderLogger;
+import org.apache.iotdb.rpc.RpcTransportFactory;
+import org.apache.iotdb.service.sync.thrift.ConfirmInfo;
+import org.apache.iotdb.service.sync.thrift.SyncDataBlock;
+import org.apache.iotdb.service.sync.thrift.SyncService;
+import org.apache.iotdb.service.sync.thrift.SyncStatus;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.apache.iotdb.db.sync.conf.SyncConstant.SUCCESS_CODE;
+
+/**
+ * Transfer files to the receiver in blocks over several data streams, each of which is a connection
+ * attached to the sync task of the main connection. A file larger than the split size is divided
+ * into byte ranges which are transferred concurrently. The offset that each byte range has been
+ * transferred to is recorded in the block log, so that a broken transmission is resumed from it
+ * rather than from the beginning of the file.
+ */
+class SyncFileTransfer implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SyncFileTransfer.class);
+
+  private static final IoTDBConfig ioTDBConfig = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int TIMEOUT_MS = 2000;
+
+  private final SyncSenderConfig config;
+
+  private final ConfirmInfo confirmInfo;
+
+  /** key of byte range -> offset that the byte range has been synced to, see SyncSenderLogger */
+  private final Map<String, Long> fileBlockOffsets;
+
+  private final ICompressor compressor;
+
+  private final ExecutorService streamPool;
+
+  /** Each thread of the stream pool owns a data stream. */
+  private final ThreadLocal<DataStream> dataStream = new ThreadLocal<>();
+
+  private final Queue<DataStream> allDataStreams = new ConcurrentLinkedQueue<>();
+
+  private volatile ISyncSenderLogger syncLog;
+
+  SyncFileTransfer(
+      SyncSenderConfig config, ConfirmInfo confirmInfo, Map<String, Long> fileBlockOffsets) {
+    this.config = config;
+    this.confirmInfo = confirmInfo;
+    this.fileBlockOffsets = fileBlockOffsets;
+    this.compressor = ICompressor.getCompressor(config.getCompressionType());
+    this.streamPool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getParallelStreamNum(), ThreadName.SYNC_CLIENT_STREAM.getName());
+  }
+
+  void setSyncLog(ISyncSenderLogger syncLog) {
+    this.syncLog = syncLog;
+  }
+
+  /**
+   * Transfer the blocks of a file asynchronously, the receiver should have prepared the file by
+   * initSyncDataBlocks.
+   *
+   * @param resume whether the receiver keeps the blocks received before, so that the byte ranges
+   *     can be resumed from the offsets in the block log
+   * @return futures of the byte ranges of the file
+   */
+  List<Future<Void>> transfer(String sgName, String fileInfo, File file, boolean resume) {
+    long length = file.length();
+    long splitSize = Math.max(1, config.getSplitFileSizeInByte());
+    int rangeNum =
+        (int) Math.max(1, Math.min(config.getParallelStreamNum(), divideCeil(length, splitSize)));
+    long rangeSize = divideCeil(length, rangeNum);
+    List<Future<Void>> futures = new ArrayList<>(rangeNum);
+    for (int i = 0; i < rangeNum; i++) {
+      long rangeStart = i * rangeSize;
+      long rangeEnd = Math.min(length, rangeStart + rangeSize);
+      if (i > 0 && rangeStart >= rangeEnd) {
+        break;
+      }
+      long offset = rangeStart;
+      if (resume) {
+        offset =
+            Math.min(
+                rangeEnd,
+                fileBlockOffsets.getOrDefault(
+                    SyncSenderLogger.getFileBlockKey(file, rangeStart), rangeStart));
+        if (offset > rangeStart) {
+          logger.info(
+              "Resume to sync file {} from offset {} of byte range [{}, {})",
+              file,
+              offset,
+              rangeStart,
+              rangeEnd);
+        }
+      }
+      long startOffset = offset;
+      futures.add(
+          streamPool.submit(
+              () -> transferRange(sgName, fileInfo, file, rangeStart, startOffset, rangeEnd)));
+    }
+    return futures;
+  }
+
+  /** Wait for the byte ranges of a file to be transferred. */
+  static void await(List<Future<Void>> futures) throws SyncConnectionException {
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SyncConnectionException("Interrupted when waiting for the transmission of a file");
+    } catch (ExecutionException | CancellationException e) {
+      throw new SyncConnectionException("Cannot sync data with receiver.", e);
+    }
+  }
+
+  static void cancel(List<Future<Void>> futures) {
+    for (Future<Void> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private Void transferRange(
+      String sgName, String fileInfo, File file, long rangeStart, long offset, long rangeEnd)
+      throws SyncConnectionException {
+    int retryCount = 0;
+    byte[] buffer = new byte[(int) Math.min(SyncConstant.DATA_CHUNK_SIZE, rangeEnd - offset)];
+    try (RandomAccessFile reader = new RandomAccessFile(file, "r")) {
+      while (offset < rangeEnd) {
+        if (Thread.currentThread().isInterrupted()) {
+          // the transmission of the file is cancelled
+          return null;
+        }
+        int length = (int) Math.min(buffer.length, rangeEnd - offset);
+        reader.seek(offset);
+        reader.readFully(buffer, 0, length);
+        try {
+          SyncStatus status =
+              getDataStream().syncDataBlock(createBlock(sgName, fileInfo, offset, buffer, length));
+          if (status.code == SUCCESS_CODE) {
+            offset += length;
+            syncLog.finishSyncFileBlock(file, rangeStart, offset);
+            continue;
+          }
+          logger.warn(
+              "Receiver failed to receive data from {} at offset {} because {}, retry.",
+              file.getAbsoluteFile(),
+              offset,
+              status.msg);
+        } catch (TException e) {
+          logger.warn(
+              "Cannot sync data from {} at offset {}, try to reconnect.",
+              file.getAbsoluteFile(),
+              offset,
+              e);
+          closeDataStream();
+        }
+        retryCount++;
+        if (retryCount > config.getMaxNumOfSyncFileRetry()) {
+          throw new SyncConnectionException(
+              String.format(
+                  "Can not sync file %s after %s tries.",
+                  file.getAbsoluteFile(), config.getMaxNumOfSyncFileRetry()));
+        }
+      }
+    } catch (IOException e) {
+      throw new SyncConnectionException("Cannot sync data with receiver.", e);
+    }
+    return null;
+  }
+
+  /** Compress the block if it is configured and the compressed data is smaller. */
+  private SyncDataBlock createBlock(
+      String sgName, String fileInfo, long offset, byte[] buffer, int length) throws IOException {
+    if (config.getCompressionType() != CompressionType.UNCOMPRESSED) {
+      byte[] compressed = compressor.compress(buffer, 0, length);
+      if (compressed.length < length) {
+        return new SyncDataBlock(
+            sgName,
+            fileInfo,
+            offset,
+            ByteBuffer.wrap(compressed),
+            config.getCompressionType().serialize(),
+            length);
+      }
+    }
+    return new SyncDataBlock(
+        sgName,
+        fileInfo,
+        offset,
+        ByteBuffer.wrap(buffer, 0, length),
+        CompressionType.UNCOMPRESSED.serialize(),
+        length);
+  }
+
+  private SyncService.Client getDataStream() throws TException, SyncConnectionException {
+    DataStream stream = dataStream.get();
+    if (stream == null) {
+      stream = new DataStream();
+      try {
+        stream.open();
+      } catch (TException | SyncConnectionException e) {
+        stream.close();
+        throw e;
+      }
+      allDataStreams.add(stream);
+      dataStream.set(stream);
+    }
+    return stream.client;
+  }
+
+  private void closeDataStream() {
+    DataStream stream = dataStream.get();
+    if (stream != null) {
+      stream.close();
+      allDataStreams.remove(stream);
+      dataStream.remove();
+    }
+  }
+
+  @Override
+  public void close() {
+    streamPool.shutdownNow();
+    for (DataStream stream : allDataStreams) {
+      stream.close();
+    }
+    allDataStreams.clear();
+  }
+
+  private static long divideCeil(long a, long b) {
+    return (a + b - 1) / b;
+  }
+
+  private class DataStream {
+
+    private TTransport transport;
+
+    private SyncService.Client client;
+
+    private void open() throws TException, SyncConnectionException {
+      transport =
+          RpcTransportFactory.INSTANCE.getTransport(
+              config.getServerIp(), config.getServerPort(), TIMEOUT_MS);
+      TProtocol protocol;
+      if (ioTDBConfig.isRpcThriftCompressionEnable()) {
+        protocol = new TCompactProtocol(transport);
+      } else {
+        protocol = new TBinaryProtocol(transport);
+      }
+      client = new SyncService.Client(protocol);
+      if (!transport.isOpen()) {
+        transport.open();
+      }
+      SyncStatus status = client.attachSync(confirmInfo);
+      if (status.code != SUCCESS_CODE) {
+        throw new SyncConnectionException(
+            "The receiver rejected the data stream because " + status.msg);
+      }
+    }
+
+    private void close() {
+      if (transport != null && transport.isOpen()) {
+        transport.close();
+      }
+    }
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.utils;
 
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey;
 import org.apache.iotdb.db.engine.modification.Modification;
@@ -25,19 +26,33 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile;
+import org.apache.iotdb.db.query.control.tracing.QueryProfile.Stage;
+import org.apache.iotdb.db.query.reader.chunk.DiskAlignedChunkLoader;
+import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.DiskAlignedChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.DiskChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.MemAlignedChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.MemChunkMetadataLoader;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Eq;
+import org.apache.iotdb.tsfile.read.filter.operator.In;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -86,7 +101,6 @@ public class FileLoaderUtils {
    * @param allSensors measurements queried at the same time of this device
    * @param filter any filter, only used to check time range
    */
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static TimeseriesMetadata loadTimeSeriesMetadata(
       TsFileResource resource,
       PartialPath seriesPath,
@@ -94,6 +108,25 @@ public class FileLoaderUtils {
       Filter filter,
       Set<String> allSensors)
       throws IOException {
+    QueryProfile profile = context.getProfile();
+    if (profile == null) {
+      return doLoadTimeSeriesMetadata(resource, seriesPath, context, filter, allSensors);
+    }
+    long startTime = System.nanoTime();
+    TimeseriesMetadata timeSeriesMetadata =
+        doLoadTimeSeriesMetadata(resource, seriesPath, context, filter, allSensors);
+    profile.record(Stage.LOAD_TIMESERIES_METADATA, startTime, timeSeriesMetadata == null ? 0 : 1);
+    return timeSeriesMetadata;
+  }
+
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private static TimeseriesMetadata doLoadTimeSeriesMetadata(
+      TsFileResource resource,
+      PartialPath seriesPath,
+      QueryContext context,
+      Filter filter,
+      Set<String> allSensors)
+      throws IOException {
 
     // common path
     TimeseriesMetadata timeSeriesMetadata;
@@ -148,6 +181,21 @@ public class FileLoaderUtils {
   public static AlignedTimeSeriesMetadata loadTimeSeriesMetadata(
       TsFileResource resource, AlignedPath vectorPath, QueryContext context, Filter filter)
       throws IOException {
+    QueryProfile profile = context.getProfile();
+    if (profile == null) {
+      return doLoadTimeSeriesMetadata(resource, vectorPath, context, filter);
+    }
+    long startTime = System.nanoTime();
+    AlignedTimeSeriesMetadata alignedTimeSeriesMetadata =
+        doLoadTimeSeriesMetadata(resource, vectorPath, context, filter);
+    profile.record(
+        Stage.LOAD_TIMESERIES_METADATA, startTime, alignedTimeSeriesMetadata == null ? 0 : 1);
+    return alignedTimeSeriesMetadata;
+  }
+
+  private static AlignedTimeSeriesMetadata doLoadTimeSeriesMetadata(
+      TsFileResource resource, AlignedPath vectorPath, QueryContext context, Filter filter)
+      throws IOException {
     AlignedTimeSeriesMetadata alignedTimeSeriesMetadata = null;
     // If the tsfile is closed, we need to load from tsfile
     if (resource.isClosed()) {
@@ -251,4 +299,100 @@ public class FileLoaderUtils {
     IChunkReader chunkReader = chunkLoader.getChunkReader(chunkMetaData, timeFilter);
     return chunkReader.loadPageReaderList();
   }
+
+  /**
+   * The same as {@link #loadPageReaderList(IChunkMetadata, Filter)}, but record whether the chunks
+   * are loaded from the ChunkCache if the query is being profiled.
+   */
+  public static List<IPageReader> loadPageReaderList(
+      IChunkMetadata chunkMetaData, Filter timeFilter, QueryContext context) throws IOException {
+    QueryProfile profile = context.getProfile();
+    if (profile == null || chunkMetaData == null || !isLoadedFromDisk(chunkMetaData)) {
+      return loadPageReaderList(chunkMetaData, timeFilter);
+    }
+    long startTime = System.nanoTime();
+    boolean cached = isCached(chunkMetaData);
+    List<IPageReader> pageReaders = loadPageReaderList(chunkMetaData, timeFilter);
+    profile.record(
+        cached ? Stage.CHUNK_CACHE_HIT : Stage.CHUNK_CACHE_MISS,
+        startTime,
+        chunkMetaData.getStatistics().getCount());
+    return pageReaders;
+  }
+
+  private static boolean isLoadedFromDisk(IChunkMetadata chunkMetaData) {
+    IChunkLoader chunkLoader = chunkMetaData.getChunkLoader();
+    return chunkLoader instanceof DiskChunkLoader || chunkLoader instanceof DiskAlignedChunkLoader;
+  }
+
+  /** An aligned chunk is cached only if its time chunk and all its value chunks are cached. */
+  private static boolean isCached(IChunkMetadata chunkMetaData) {
+    ChunkCache chunkCache = ChunkCache.getInstance();
+    if (!(chunkMetaData instanceof AlignedChunkMetadata)) {
+      return chunkCache.contains((ChunkMetadata) chunkMetaData);
+    }
+    AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
+    if (!chunkCache.contains((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata())) {
+      return false;
+    }
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null && !chunkCache.contains((ChunkMetadata) valueChunkMetadata)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check the equality conditions of the value filter against the bloom filter of the values in the
+   * chunk, if it is built.
+   *
+   * @return false if the chunk has no value satisfying the filter
+   */
+  public static boolean mayContainSatisfiedValues(IChunkMetadata chunkMetadata, Filter valueFilter)
+      throws IOException {
+    if (!(chunkMetadata instanceof ChunkMetadata)
+        || !((ChunkMetadata) chunkMetadata).isClosed()
+        || chunkMetadata.isFromOldTsFile()
+        || !hasEqualityCondition(valueFilter)) {
+      return true;
+    }
+    BloomFilter bloomFilter =
+        FileReaderManager.getInstance()
+            .get(((ChunkMetadata) chunkMetadata).getFilePath(), true)
+            .readValueBloomFilter(chunkMetadata.getOffsetOfChunkHeader());
+    return bloomFilter == null || mayBeSatisfied(valueFilter, bloomFilter);
+  }
+
+  private static boolean hasEqualityCondition(Filter filter) {
+    if (filter instanceof BinaryFilter) {
+      return hasEqualityCondition(((BinaryFilter) filter).getLeft())
+          || hasEqualityCondition(((BinaryFilter) filter).getRight());
+    }
+    return filter instanceof Eq || filter instanceof In;
+  }
+
+  /** @return false if no value in the bloom filter satisfies the filter */
+  private static boolean mayBeSatisfied(Filter filter, BloomFilter bloomFilter) {
+    if (filter instanceof AndFilter) {
+      return mayBeSatisfied(((AndFilter) filter).getLeft(), bloomFilter)
+          && mayBeSatisfied(((AndFilter) filter).getRight(), bloomFilter);
+    } else if (filter instanceof OrFilter) {
+      return mayBeSatisfied(((OrFilter) filter).getLeft(), bloomFilter)
+          || mayBeSatisfied(((OrFilter) filter).getRight(), bloomFilter);
+    } else if (filter instanceof Eq
+        && ((Eq<?>) filter).getFilterType() == FilterType.VALUE_FILTER) {
+      return bloomFilter.contains(String.valueOf(((Eq<?>) filter).getValue()));
+    } else if (filter instanceof In
+        && ((In<?>) filter).getFilterType() == FilterType.VALUE_FILTER
+        && !((In<?>) filter).isNot()) {
+      for (Object value : ((In<?>) filter).getValues()) {
+        if (bloomFilter.contains(String.valueOf(value))) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
 }
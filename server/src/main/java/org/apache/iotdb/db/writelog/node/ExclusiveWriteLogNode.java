@@ -24,12 +24,17 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.utils.ThreadUtils;
 import org.apache.iotdb.db.writelog.io.ILogReader;
 import org.apache.iotdb.db.writelog.io.ILogWriter;
 import org.apache.iotdb.db.writelog.io.LogWriter;
 import org.apache.iotdb.db.writelog.io.MultiFileLogReader;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -41,9 +46,11 @@ import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -281,7 +288,7 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     try {
       try {
         if (currentFileWriter != null) {
-          currentFileWriter.force();
+          force(currentFileWriter);
         }
       } catch (IOException e) {
         logger.warn("Log node {} force failed.", identifier, e);
@@ -315,6 +322,9 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   private void flushBuffer(ILogWriter writer) {
     try {
       writer.write(logBufferFlushing);
+      if (config.getForceWalPeriodInMs() == 0) {
+        force(writer);
+      }
     } catch (Throwable e) {
       logger.error("Log node {} sync failed, change system mode to read-only", identifier, e);
       IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
@@ -328,6 +338,31 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     }
   }
 
+  private void force(ILogWriter writer) throws IOException {
+    long startTime = System.nanoTime();
+    try {
+      writer.force();
+    } catch (ClosedChannelException ignored) {
+      // as in LogWriter.write(), an interrupted thread closes the channel, which must not make the
+      // system read-only
+      logger.warn("someone interrupt current thread, so no need to do force for io safety");
+      return;
+    }
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              System.nanoTime() - startTime,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_STAGE.toString(),
+              MetricLevel.NORMAL,
+              Tag.NAME.toString(),
+              "wal",
+              Tag.TYPE.toString(),
+              "fsync");
+    }
+  }
+
   private void switchBufferWorkingToFlushing() throws InterruptedException {
     synchronized (switchBufferCondition) {
       while (logBufferFlushing != null && !deleted.get()) {
@@ -354,7 +389,8 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
       logger.info("create WAL parent folder {}.", newFile.getParent());
     }
     logger.debug("WAL file {} is opened", newFile);
-    currentFileWriter = new LogWriter(newFile, config.getForceWalPeriodInMs() == 0);
+    // when the wal is forced on each write, flushBuffer() forces it so that the fsync is measured
+    currentFileWriter = new LogWriter(newFile, false);
   }
 
   @Override
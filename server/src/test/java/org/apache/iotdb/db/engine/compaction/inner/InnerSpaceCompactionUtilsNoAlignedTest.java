@@ -32,14 +32,22 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.FileLoaderUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -48,6 +56,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -829,4 +838,112 @@ public class InnerSpaceCompactionUtilsNoAlignedTest {
           .setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
     }
   }
+
+  /**
+   * Generate a large chunk that is directly flushed and middle chunks that are merged, and check
+   * that the chunks in the target file keep the bloom filters of their values.
+   */
+  @Test
+  public void testKeepValueBloomFilter() throws Exception {
+    long originTargetChunkSize = IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
+    long originTargetChunkPointNum =
+        IoTDBDescriptor.getInstance().getConfig().getTargetChunkPointNum();
+    long originChunkSizeLowerBound =
+        IoTDBDescriptor.getInstance().getConfig().getChunkSizeLowerBoundInCompaction();
+    long originChunkPointNumLowerBound =
+        IoTDBDescriptor.getInstance().getConfig().getChunkPointNumLowerBoundInCompaction();
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(Long.MAX_VALUE);
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(100);
+    IoTDBDescriptor.getInstance().getConfig().setChunkSizeLowerBoundInCompaction(1);
+    IoTDBDescriptor.getInstance().getConfig().setChunkPointNumLowerBoundInCompaction(10);
+    try {
+      String device = storageGroup + ".device4";
+      MeasurementSchema schema =
+          new MeasurementSchema(
+              "s0",
+              TSDataType.INT64,
+              TSEncoding.PLAIN,
+              CompressionType.SNAPPY,
+              Collections.singletonMap(ChunkWriterImpl.VALUE_BLOOM_FILTER, "true"));
+      IoTDB.metaManager.createTimeseries(
+          new PartialPath(device, "s0"),
+          schema.getType(),
+          schema.getEncodingType(),
+          schema.getCompressor(),
+          schema.getProps());
+
+      // the first chunk is large, the others are merged
+      long[] pointNums = new long[] {200, 50, 50, 50};
+      List<TsFileResource> sourceFiles = new ArrayList<>();
+      long startTime = 0;
+      for (int i = 0; i < pointNums.length; i++) {
+        TsFileResource resource =
+            new TsFileResource(new File(SEQ_DIRS, String.format("%d-%d-0-0.tsfile", i + 1, i + 1)));
+        writeChunk(resource, device, schema, startTime, pointNums[i]);
+        sourceFiles.add(resource);
+        startTime += pointNums[i];
+      }
+      TsFileResource targetResource =
+          new TsFileResource(new File(SEQ_DIRS, String.format("%d-%d-1-0.tsfile", 1, 1)));
+      InnerSpaceCompactionUtils.compact(targetResource, sourceFiles);
+
+      List<long[]> chunkValueRanges = new ArrayList<>();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(targetResource.getTsFilePath())) {
+        for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(new Path(device, "s0"))) {
+          Assert.assertNotNull(reader.readValueBloomFilter(chunkMetadata.getOffsetOfChunkHeader()));
+          chunkMetadata.setFilePath(targetResource.getTsFilePath());
+          chunkMetadata.setClosed(true);
+          long minValue = (long) chunkMetadata.getStatistics().getMinValue();
+          long maxValue = (long) chunkMetadata.getStatistics().getMaxValue();
+          chunkValueRanges.add(new long[] {minValue, maxValue});
+          for (long value = minValue; value <= maxValue; value++) {
+            Assert.assertTrue(
+                FileLoaderUtils.mayContainSatisfiedValues(chunkMetadata, ValueFilter.eq(value)));
+          }
+          // the chunk is skipped by a value that is not in it
+          Assert.assertFalse(
+              FileLoaderUtils.mayContainSatisfiedValues(chunkMetadata, ValueFilter.eq(-1L)));
+        }
+      }
+      // the large chunk, two merged chunks and the remaining one
+      Assert.assertEquals(3, chunkValueRanges.size());
+      Assert.assertArrayEquals(new long[] {0, 199}, chunkValueRanges.get(0));
+      Assert.assertArrayEquals(new long[] {200, 299}, chunkValueRanges.get(1));
+      Assert.assertArrayEquals(new long[] {300, 349}, chunkValueRanges.get(2));
+    } finally {
+      FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+      IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(originTargetChunkSize);
+      IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(originTargetChunkPointNum);
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setChunkSizeLowerBoundInCompaction(originChunkSizeLowerBound);
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
+    }
+  }
+
+  /** Write a file with one chunk of the series, whose values are equal to the times */
+  private void writeChunk(
+      TsFileResource resource,
+      String device,
+      MeasurementSchema schema,
+      long startTime,
+      long pointNum)
+      throws IOException {
+    try (TsFileIOWriter writer = new TsFileIOWriter(resource.getTsFile())) {
+      writer.startChunkGroup(device);
+      ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+      for (long time = startTime; time < startTime + pointNum; time++) {
+        chunkWriter.write(time, time);
+      }
+      chunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      resource.updateStartTime(device, startTime);
+      resource.updateEndTime(device, startTime + pointNum - 1);
+      writer.endFile();
+    }
+    resource.serialize();
+    resource.close();
+  }
 }
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.protocol.influxdb.input;
+
+import org.apache.iotdb.db.protocol.influxdb.meta.InfluxDBMetaManager;
+import org.apache.iotdb.db.qp.physical.crud.InsertMultiTabletPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.influxdb.InfluxDBException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class InfluxLineBatchParserTest {
+
+  private InfluxDBMetaManager metaManager;
+
+  @Before
+  public void setUp() {
+    EnvironmentUtils.envSetUp();
+    metaManager = InfluxDBMetaManager.getInstance();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testParse() throws Exception {
+    String records =
+        "# comment\n"
+            + "student,name=xie,sex=m score=87.0,tel=\"110 \\\"a\\\"\",age=18i,pass=t 3000000000\n"
+            + "student,name=xie,sex=m score=90.5,tel=\"120\",age=19i,pass=FALSE 1000000000\n"
+            + "\n"
+            + "student,sex=f,name=li score=60.0,tel=\"130\",age=20i,pass=true 2000000000\n"
+            + "student,name=xie,sex=m score=95i 4000000000\n"
+            + "my\\ cpu,host=a\\,b usage=1.5 5000000000";
+    InsertMultiTabletPlan plan =
+        new InfluxLineBatchParser("influx_parser", null, metaManager).parse(records);
+    List<InsertTabletPlan> plans = plan.getInsertTabletPlanList();
+    assertEquals(4, plans.size());
+
+    // the lines of the same series and fields are collected and sorted by time
+    InsertTabletPlan xie = plans.get(0);
+    assertEquals("root.influx_parser.student.m.xie", xie.getDevicePath().getFullPath());
+    assertArrayEquals(new String[] {"score", "tel", "age", "pass"}, xie.getMeasurements());
+    assertArrayEquals(
+        new TSDataType[] {TSDataType.DOUBLE, TSDataType.TEXT, TSDataType.INT64, TSDataType.TEXT},
+        xie.getDataTypes());
+    assertEquals(2, xie.getRowCount());
+    assertArrayEquals(new long[] {1000, 3000}, xie.getTimes());
+    assertEquals(90.5, ((double[]) xie.getColumns()[0])[0], 0);
+    assertEquals(87.0, ((double[]) xie.getColumns()[0])[1], 0);
+    assertEquals(new Binary("110 \"a\""), ((Binary[]) xie.getColumns()[1])[1]);
+    assertEquals(19L, ((long[]) xie.getColumns()[2])[0]);
+    assertEquals(new Binary("false"), ((Binary[]) xie.getColumns()[3])[0]);
+    assertEquals(new Binary("true"), ((Binary[]) xie.getColumns()[3])[1]);
+
+    // the tags are placed by their layer orders rather than the orders in the line
+    assertEquals("root.influx_parser.student.f.li", plans.get(1).getDevicePath().getFullPath());
+
+    // the same series with different fields
+    InsertTabletPlan score = plans.get(2);
+    assertEquals("root.influx_parser.student.m.xie", score.getDevicePath().getFullPath());
+    assertArrayEquals(new TSDataType[] {TSDataType.INT64}, score.getDataTypes());
+
+    assertEquals("root.influx_parser.my cpu.a,b", plans.get(3).getDevicePath().getFullPath());
+
+    // the paths are cached by series keys
+    assertEquals(
+        "root.influx_parser.student.f.li",
+        metaManager.getCachedPath("influx_parser", "student,sex=f,name=li"));
+
+    IoTDB.serviceProvider.executeNonQuery(
+        new InfluxLineBatchParser("influx_parser", "ms", metaManager)
+            .parse("student,name=xie,sex=m score=1.0 1000"));
+  }
+
+  @Test
+  public void testNewTagInvalidatesCache() throws Exception {
+    InfluxLineBatchParser parser = new InfluxLineBatchParser("influx_cache", "s", metaManager);
+    InsertTabletPlan plan = parser.parse("cpu,host=a usage=1.0 1").getInsertTabletPlanList().get(0);
+    assertEquals("root.influx_cache.cpu.a", plan.getDevicePath().getFullPath());
+    assertArrayEquals(new long[] {1000}, plan.getTimes());
+
+    parser.parse("cpu,host=a,region=b usage=1.0 1");
+    plan = parser.parse("cpu,host=a usage=1.0 1").getInsertTabletPlanList().get(0);
+    assertEquals("root.influx_cache.cpu.a.PH", plan.getDevicePath().getFullPath());
+  }
+
+  @Test
+  public void testIllegalLines() throws Exception {
+    String[] records = {
+      "cpu",
+      "cpu,host=a",
+      "cpu usage",
+      "cpu usage=",
+      "cpu usage=\"a",
+      "cpu usage=1.0x 1",
+      "cpu usage=abc",
+      "cpu usage=1.0 abc"
+    };
+    InfluxLineBatchParser parser = new InfluxLineBatchParser("influx_illegal", null, metaManager);
+    for (String record : records) {
+      try {
+        parser.parse(record);
+        fail(record);
+      } catch (InfluxDBException e) {
+        // expected
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.service.basic.ServiceProvider;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageCoalescerTest {
+
+  private ServiceProvider serviceProvider;
+  private long sessionId;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    serviceProvider = IoTDB.serviceProvider;
+    sessionId =
+        serviceProvider
+            .openSession(
+                "root",
+                "root",
+                ZoneId.systemDefault().toString(),
+                TSProtocolVersion.IOTDB_SERVICE_PROTOCOL_V3)
+            .getSessionId();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    serviceProvider.closeSession(sessionId);
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    try (MessageCoalescer coalescer = new MessageCoalescer(serviceProvider, 60_000, 3, 2)) {
+      // out of order messages of two devices, d1 is submitted once three messages are appended
+      coalescer.append(sessionId, message("root.sg.d1", 3, "s1", "3", "s2", "true"));
+      coalescer.append(sessionId, message("root.sg.d2", 1, "s1", "1.5"));
+      coalescer.append(sessionId, message("root.sg.d1", 1, "s1", "1", "s2", null));
+      coalescer.append(sessionId, message("root.sg.d1", 2, "s1", "2", "s2", "false"));
+      // the pending messages of d2 are inserted by flush
+      coalescer.append(sessionId, message("root.sg.d2", 2, "s1", "2.5"));
+      // s1 of d2 is FLOAT, so the row is discarded
+      coalescer.append(sessionId, message("root.sg.d2", 3, "s1", "abc"));
+      coalescer.flush(sessionId);
+    }
+
+    assertEquals(
+        Arrays.asList("1,1.0,null", "2,2.0,false", "3,3.0,true"),
+        query("select s1, s2 from root.sg.d1"));
+    assertEquals(Arrays.asList("1,1.5", "2,2.5"), query("select s1 from root.sg.d2"));
+  }
+
+  @Test
+  public void testLinger() throws Exception {
+    // create the series first, so that it can be queried before the batch is inserted
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TIMESERIES root.sg.d1.s1 WITH DATATYPE=FLOAT, ENCODING=RLE");
+    }
+    try (MessageCoalescer coalescer = new MessageCoalescer(serviceProvider, 10, 1024, 1)) {
+      for (int i = 0; i < 10; i++) {
+        coalescer.append(sessionId, message("root.sg.d1", i, "s1", String.valueOf(i)));
+      }
+      // the batch is submitted by the linger timer without being flushed
+      long start = System.currentTimeMillis();
+      while (query("select s1 from root.sg.d1").size() < 10
+          && System.currentTimeMillis() - start < 10_000) {
+        Thread.sleep(10);
+      }
+    }
+    assertEquals(10, query("select s1 from root.sg.d1").size());
+  }
+
+  private Message message(String device, long time, String... measurementAndValues) {
+    Message message = new Message();
+    message.setDevice(device);
+    message.setTimestamp(time);
+    List<String> measurements = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < measurementAndValues.length; i += 2) {
+      measurements.add(measurementAndValues[i]);
+      values.add(measurementAndValues[i + 1]);
+    }
+    message.setMeasurements(measurements);
+    message.setValues(values);
+    return message;
+  }
+
+  private List<String> query(String sql) throws Exception {
+    List<String> rows = new ArrayList<>();
+    try (Connection connection =
+            DriverManager.getConnection(
+                Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", "root", "root");
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql)) {
+      int columnCount = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        StringBuilder builder = new StringBuilder(resultSet.getString(1));
+        for (int i = 2; i <= columnCount; i++) {
+          builder.append(',').append(resultSet.getString(i));
+        }
+        rows.add(builder.toString());
+      }
+    }
+    return rows;
+  }
+}
@@ -168,6 +168,17 @@ public class PhysicalPlanTest {
         plan.toString());
   }
 
+  @Test
+  public void testMetadataWithZstd() throws QueryProcessException {
+    String metadata =
+        "create timeseries root.vehicle.d1.s2 with datatype=TEXT,encoding=PLAIN,compression=ZSTD";
+    Planner processor = new Planner();
+    CreateTimeSeriesPlan plan = (CreateTimeSeriesPlan) processor.parseSQLToPhysicalPlan(metadata);
+    assertEquals(
+        "seriesPath: root.vehicle.d1.s2, resultDataType: TEXT, encoding: PLAIN, compression: ZSTD, tagOffset: -1",
+        plan.toString());
+  }
+
   // TODO @Steve SU
   //  @Test
   //  public void testMetadata4() throws QueryProcessException {
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.query.SchemaHandleLimitExceededException;
+import org.apache.iotdb.db.exception.query.UnknownSchemaHandleException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+public class SessionManagerTest {
+
+  private final SessionManager sessionManager = new SessionManager();
+
+  @Test
+  public void testRegisterEqualSchemas()
+      throws IllegalPathException, SchemaHandleLimitExceededException,
+          UnknownSchemaHandleException {
+    long sessionId = 1;
+    try {
+      int handle =
+          sessionManager.registerSchemaHandle(
+              sessionId,
+              new SchemaHandle(new PartialPath("root.sg.d1"), Arrays.asList("s1", "s2")));
+      int equalHandle =
+          sessionManager.registerSchemaHandle(
+              sessionId,
+              new SchemaHandle(new PartialPath("root.sg.d1"), Arrays.asList("s1", "s2")));
+      int otherHandle =
+          sessionManager.registerSchemaHandle(
+              sessionId, new SchemaHandle(new PartialPath("root.sg.d1"), Arrays.asList("s1")));
+      assertEquals(handle, equalHandle);
+      assertNotEquals(handle, otherHandle);
+      assertEquals(
+          Arrays.asList("s1", "s2"),
+          sessionManager.getSchemaHandle(sessionId, handle).getMeasurements());
+      assertThrows(
+          UnknownSchemaHandleException.class, () -> sessionManager.getSchemaHandle(sessionId, 2));
+    } finally {
+      sessionManager.releaseSessionResource(sessionId);
+    }
+  }
+
+  @Test
+  public void testSchemaHandleLimit()
+      throws IllegalPathException, SchemaHandleLimitExceededException {
+    long sessionId = 2;
+    try {
+      for (int i = 0; i < SessionManager.MAX_SCHEMA_HANDLE_NUM_PER_SESSION; i++) {
+        sessionManager.registerSchemaHandle(
+            sessionId,
+            new SchemaHandle(new PartialPath("root.sg.d" + i), Collections.singletonList("s1")));
+      }
+      // a registered schema still gets its handle
+      assertEquals(
+          0,
+          sessionManager.registerSchemaHandle(
+              sessionId,
+              new SchemaHandle(new PartialPath("root.sg.d0"), Collections.singletonList("s1"))));
+      SchemaHandle newSchema =
+          new SchemaHandle(new PartialPath("root.sg.new"), Collections.singletonList("s1"));
+      assertThrows(
+          SchemaHandleLimitExceededException.class,
+          () -> sessionManager.registerSchemaHandle(sessionId, newSchema));
+    } finally {
+      sessionManager.releaseSessionResource(sessionId);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.sync.sender.transfer;
+
+import org.apache.iotdb.db.exception.SyncConnectionException;
+import org.apache.iotdb.db.sync.conf.SyncConstant;
+import org.apache.iotdb.db.sync.conf.SyncSenderConfig;
+import org.apache.iotdb.db.sync.sender.recover.SyncSenderLogAnalyzer;
+import org.apache.iotdb.db.sync.sender.recover.SyncSenderLogger;
+import org.apache.iotdb.rpc.RpcTransportFactory;
+import org.apache.iotdb.service.sync.thrift.ConfirmInfo;
+import org.apache.iotdb.service.sync.thrift.SyncDataBlock;
+import org.apache.iotdb.service.sync.thrift.SyncService;
+import org.apache.iotdb.service.sync.thrift.SyncStatus;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TServerSocket;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SyncFileTransferTest {
+
+  private static final String SG = "root.sg";
+  private static final String FILE_INFO = "0_0_1-1-0-0.tsfile";
+
+  private File folder;
+  private File file;
+  private byte[] content;
+  private TServer server;
+  private FakeReceiver receiver;
+  private SyncSenderConfig config;
+  private SyncSenderLogger syncLog;
+
+  @Before
+  public void setUp() throws Exception {
+    folder = Files.createTempDirectory("sync-transfer").toFile();
+    file = new File(folder, "1-1-0-0.tsfile");
+    // compressible content
+    content = new byte[10000];
+    Random random = new Random(0);
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) random.nextInt(4);
+    }
+    Files.write(file.toPath(), content);
+
+    receiver = new FakeReceiver(content.length);
+    TServerSocket serverSocket = new TServerSocket(0);
+    server =
+        new TThreadPoolServer(
+            new TThreadPoolServer.Args(serverSocket)
+                .processor(new SyncService.Processor<>(receiver))
+                .protocolFactory(new TBinaryProtocol.Factory())
+                .transportFactory(RpcTransportFactory.INSTANCE));
+    new Thread(server::serve).start();
+
+    config = new SyncSenderConfig();
+    config.setServerIp("127.0.0.1");
+    config.setServerPort(serverSocket.getServerSocket().getLocalPort());
+    config.setParallelStreamNum(3);
+    config.setSplitFileSizeInByte(2000);
+    syncLog = new SyncSenderLogger(new File(folder, SyncConstant.SYNC_LOG_NAME));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    syncLog.close();
+    server.stop();
+    FileUtils.deleteDirectory(folder);
+  }
+
+  @Test
+  public void testTransferRanges() throws SyncConnectionException {
+    config.setCompressionType(CompressionType.LZ4);
+    try (SyncFileTransfer transfer = createTransfer(new HashMap<>())) {
+      List<Future<Void>> futures = transfer.transfer(SG, FILE_INFO, file, true);
+      // the file is split into a byte range for each stream
+      assertEquals(3, futures.size());
+      SyncFileTransfer.await(futures);
+    }
+    assertArrayEquals(content, receiver.received);
+    assertEquals(content.length, receiver.receivedBytes.get());
+    assertTrue(receiver.attachedStreams.get() > 0);
+    assertTrue(receiver.compressionTypes.contains(CompressionType.LZ4));
+
+    // the block log records the end of each byte range
+    Map<String, Long> offsets = new HashMap<>();
+    new SyncSenderLogAnalyzer(folder.getAbsolutePath()).loadBlockLogger(offsets);
+    assertEquals(3, offsets.size());
+    assertEquals(3334L, (long) offsets.get(SyncSenderLogger.getFileBlockKey(file, 0)));
+    assertEquals(10000L, (long) offsets.get(SyncSenderLogger.getFileBlockKey(file, 6668)));
+  }
+
+  @Test
+  public void testResume() throws SyncConnectionException {
+    // the first byte range has been transferred partially and the last one completely
+    Map<String, Long> offsets = new HashMap<>();
+    offsets.put(SyncSenderLogger.getFileBlockKey(file, 0), 1000L);
+    offsets.put(SyncSenderLogger.getFileBlockKey(file, 6668), 10000L);
+    System.arraycopy(content, 0, receiver.received, 0, 1000);
+    System.arraycopy(content, 6668, receiver.received, 6668, 10000 - 6668);
+
+    try (SyncFileTransfer transfer = createTransfer(offsets)) {
+      SyncFileTransfer.await(transfer.transfer(SG, FILE_INFO, file, true));
+    }
+    assertArrayEquals(content, receiver.received);
+    assertEquals(6668 - 1000, receiver.receivedBytes.get());
+  }
+
+  @Test
+  public void testRetryFailedBlock() throws SyncConnectionException {
+    receiver.failedBlocks.set(2);
+    try (SyncFileTransfer transfer = createTransfer(new HashMap<>())) {
+      SyncFileTransfer.await(transfer.transfer(SG, FILE_INFO, file, false));
+    }
+    assertArrayEquals(content, receiver.received);
+  }
+
+  private SyncFileTransfer createTransfer(Map<String, Long> offsets) {
+    SyncFileTransfer transfer =
+        new SyncFileTransfer(config, new ConfirmInfo("127.0.0.1", "uuid", 0, "0.13"), offsets);
+    transfer.setSyncLog(syncLog);
+    return transfer;
+  }
+
+  private static class FakeReceiver implements SyncService.Iface {
+
+    private final byte[] received;
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicInteger attachedStreams = new AtomicInteger();
+    private final AtomicInteger failedBlocks = new AtomicInteger();
+    private final Set<CompressionType> compressionTypes = ConcurrentHashMap.newKeySet();
+
+    private FakeReceiver(int length) {
+      received = new byte[length];
+    }
+
+    @Override
+    public SyncStatus attachSync(ConfirmInfo info) {
+      attachedStreams.incrementAndGet();
+      return success();
+    }
+
+    @Override
+    public SyncStatus syncDataBlock(SyncDataBlock block) {
+      if (failedBlocks.getAndDecrement() > 0) {
+        return new SyncStatus(SyncConstant.ERROR_CODE, "mock failure");
+      }
+      try {
+        CompressionType type = CompressionType.deserialize(block.compressionType);
+        compressionTypes.add(type);
+        byte[] data = new byte[block.data.remaining()];
+        block.data.get(data);
+        byte[] uncompressed = IUnCompressor.getUnCompressor(type).uncompress(data);
+        assertEquals(block.uncompressedSize, uncompressed.length);
+        synchronized (received) {
+          System.arraycopy(uncompressed, 0, received, (int) block.offset, uncompressed.length);
+        }
+        receivedBytes.addAndGet(uncompressed.length);
+      } catch (IOException e) {
+        return new SyncStatus(SyncConstant.ERROR_CODE, e.getMessage());
+      }
+      return success();
+    }
+
+    private SyncStatus success() {
+      return new SyncStatus(SyncConstant.SUCCESS_CODE, "");
+    }
+
+    @Override
+    public SyncStatus check(ConfirmInfo info) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus startSync() {
+      return success();
+    }
+
+    @Override
+    public SyncStatus init(String storageGroupName) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus syncDeletedFileName(String fileName) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus initSyncData(String filename) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus syncData(ByteBuffer buff) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus checkDataDigest(String md5) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus endSync() {
+      return success();
+    }
+
+    @Override
+    public SyncStatus initSyncDataBlocks(String storageGroup, String fileInfo, long fileLength) {
+      return success();
+    }
+
+    @Override
+    public SyncStatus checkDataBlocksDigest(String storageGroup, String fileInfo, String md5) {
+      return success();
+    }
+  }
+}
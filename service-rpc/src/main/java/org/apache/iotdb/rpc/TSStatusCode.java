@@ -58,6 +58,7 @@ public enum TSStatusCode {
   DIFFERENT_TEMPLATE(325),
   TEMPLATE_IS_IN_USE(326),
   TEMPLATE_IMCOMPATIBLE(327),
+  SCHEMA_HANDLE_LIMIT_EXCEEDED(328),
 
   EXECUTE_STATEMENT_ERROR(400),
   SQL_PARSE_ERROR(401),
@@ -45,5 +45,22 @@ public class Config {
 
   public static final int DEFAULT_SESSION_POOL_MAX_SIZE = 5;
 
+  /** max rows buffered per device by a BatchWriter before the batch is flushed */
+  public static final int DEFAULT_BATCH_TABLET_SIZE = 1024;
+
+  /** max estimated bytes buffered by a BatchWriter before the batch is flushed, 4MB by default */
+  public static final long DEFAULT_BATCH_MAX_BYTES = 4L * 1024 * 1024;
+
+  /** max time a point may stay in a BatchWriter buffer before it is flushed */
+  public static final long DEFAULT_BATCH_LINGER_MS = 100;
+
+  /** max number of batches a BatchWriter is sending concurrently before writers are blocked */
+  public static final int DEFAULT_BATCH_MAX_IN_FLIGHT = 2;
+
+  public static final int DEFAULT_BATCH_FLUSH_THREAD_NUM = 1;
+
+  /** min interval between two fetches of the partition table of a cluster after redirections */
+  public static final long PARTITION_TABLE_REFRESH_INTERVAL_MS = 1000;
+
   public static final Version DEFAULT_VERSION = Version.V_0_13;
 }
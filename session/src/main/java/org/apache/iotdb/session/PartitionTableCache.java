@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.service.rpc.thrift.EndPoint;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
+import org.apache.iotdb.tsfile.utils.Murmur128Hash;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PartitionTableCache is the client side copy of the slot table of a cluster. It computes the slot
+ * of a device and a timestamp in the same way as the SlotStrategy of the server, so that the
+ * insertions can be sent to the owners of the data without being forwarded by the coordinator.
+ */
+class PartitionTableCache {
+
+  private final long version;
+  private final List<String> storageGroups;
+  private final long partitionInterval;
+  private final int hashSalt;
+  /** the node to send the requests of each data group, the leader if it is known by the server */
+  private final EndPoint[] groupEndPoints;
+  /** slot -> index of the data group that holds it */
+  private final int[] slotGroups;
+
+  private final Map<String, String> deviceToStorageGroup = new ConcurrentHashMap<>();
+
+  PartitionTableCache(TSFetchPartitionTableResp resp) {
+    this.version = resp.getVersion();
+    this.storageGroups = resp.getStorageGroups();
+    this.partitionInterval = resp.getPartitionInterval();
+    this.hashSalt = resp.getHashSalt();
+    List<List<EndPoint>> endPointsList = resp.getGroupEndPoints();
+    this.groupEndPoints = new EndPoint[endPointsList.size()];
+    for (int i = 0; i < groupEndPoints.length; i++) {
+      List<EndPoint> endPoints = endPointsList.get(i);
+      groupEndPoints[i] = endPoints.isEmpty() ? null : endPoints.get(0);
+    }
+    List<Integer> slotGroupList = resp.getSlotGroups();
+    this.slotGroups = new int[slotGroupList.size()];
+    for (int i = 0; i < slotGroups.length; i++) {
+      slotGroups[i] = slotGroupList.get(i);
+    }
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return the node that owns the data of the device at the given time, or null if the storage
+   *     group of the device is unknown
+   */
+  EndPoint route(String deviceId, long time) {
+    String storageGroup = getStorageGroup(deviceId);
+    if (storageGroup == null || slotGroups.length == 0) {
+      return null;
+    }
+    long partitionId = partitionInterval > 0 ? time / partitionInterval : 0;
+    int slot =
+        Math.abs(Murmur128Hash.hash(storageGroup, partitionId, hashSalt) % slotGroups.length);
+    return groupEndPoints[slotGroups[slot]];
+  }
+
+  private String getStorageGroup(String deviceId) {
+    String storageGroup = deviceToStorageGroup.get(deviceId);
+    if (storageGroup != null) {
+      return storageGroup;
+    }
+    for (String sg : storageGroups) {
+      if (deviceId.equals(sg) || (deviceId.startsWith(sg) && deviceId.charAt(sg.length()) == '.')) {
+        deviceToStorageGroup.put(deviceId, sg);
+        return sg;
+      }
+    }
+    return null;
+  }
+}
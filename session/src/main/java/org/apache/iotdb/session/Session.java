@@ -30,6 +30,7 @@ import org.apache.iotdb.service.rpc.thrift.TSCreateSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSDeleteDataReq;
 import org.apache.iotdb.service.rpc.thrift.TSDropSchemaTemplateReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsOfOneDeviceReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
@@ -131,8 +132,25 @@ public class Session {
   protected volatile Map<String, EndPoint> deviceIdToEndpoint;
   protected volatile Map<EndPoint, SessionConnection> endPointToSessionConnection;
 
+  /**
+   * The slot table of the cluster used to compute the owner of a device before any redirection, it
+   * is null if the server is not partitioned or does not provide it.
+   */
+  private volatile PartitionTableCache partitionTable;
+  /** Set when a redirection shows that the partition table may be stale. */
+  private volatile boolean partitionTableExpired;
+
+  private volatile long lastPartitionTableFetchTime;
+
   protected boolean enableQueryRedirection = false;
 
+  /**
+   * Whether to register each device and its measurements once per connection and refer to them by
+   * an integer handle in insertTablet(s) and insertRecords, instead of sending the path strings in
+   * every request.
+   */
+  protected boolean enableSchemaHandle = false;
+
   // The version number of the client which used for compatibility in the server
   protected Version version;
 
@@ -392,6 +410,12 @@ public class Session {
       endPointToSessionConnection = new ConcurrentHashMap<>();
       endPointToSessionConnection.put(defaultEndPoint, defaultSessionConnection);
     }
+    if (enableCacheLeader) {
+      partitionTable = null;
+      partitionTableExpired = true;
+      lastPartitionTableFetchTime = 0;
+      refreshPartitionTable();
+    }
   }
 
   public synchronized void close() throws IoTDBConnectionException {
@@ -767,7 +791,7 @@ public class Session {
   private void insertRecord(String prefixPath, TSInsertRecordReq request)
       throws IoTDBConnectionException, StatementExecutionException {
     try {
-      getSessionConnection(prefixPath).insertRecord(request);
+      getSessionConnection(prefixPath, request.getTimestamp()).insertRecord(request);
     } catch (RedirectException e) {
       handleRedirection(prefixPath, e.getEndPoint());
     }
@@ -776,7 +800,7 @@ public class Session {
   private void insertRecord(String deviceId, TSInsertStringRecordReq request)
       throws IoTDBConnectionException, StatementExecutionException {
     try {
-      getSessionConnection(deviceId).insertRecord(request);
+      getSessionConnection(deviceId, request.getTimestamp()).insertRecord(request);
     } catch (RedirectException e) {
       handleRedirection(deviceId, e.getEndPoint());
     }
@@ -793,6 +817,85 @@ public class Session {
     }
   }
 
+  /**
+   * Get the connection to the node that owns the data of the device at the given time. A cached
+   * redirection takes precedence, then the owner computed by the partition table, and the default
+   * connection is used if neither is available.
+   */
+  private SessionConnection getSessionConnection(String deviceId, long time) {
+    if (!enableCacheLeader) {
+      return defaultSessionConnection;
+    }
+    EndPoint endPoint;
+    if (!deviceIdToEndpoint.isEmpty() && (endPoint = deviceIdToEndpoint.get(deviceId)) != null) {
+      return endPointToSessionConnection.get(endPoint);
+    }
+    PartitionTableCache table = getPartitionTable();
+    EndPoint owner = table == null ? null : table.route(deviceId, time);
+    if (owner == null) {
+      return defaultSessionConnection;
+    }
+    SessionConnection connection =
+        endPointToSessionConnection.computeIfAbsent(
+            owner,
+            k -> {
+              try {
+                return constructSessionConnection(this, owner, zoneId);
+              } catch (IoTDBConnectionException e) {
+                logger.debug("Cannot connect to {}, use the default connection instead", owner, e);
+                return null;
+              }
+            });
+    return connection == null ? defaultSessionConnection : connection;
+  }
+
+  /** The time used to route a tablet, a tablet is sent to the owner of its first row. */
+  private static long getFirstTime(Tablet tablet) {
+    return tablet.rowSize > 0 ? tablet.timestamps[0] : 0;
+  }
+
+  private PartitionTableCache getPartitionTable() {
+    if (partitionTableExpired
+        && System.currentTimeMillis() - lastPartitionTableFetchTime
+            >= Config.PARTITION_TABLE_REFRESH_INTERVAL_MS) {
+      refreshPartitionTable();
+    }
+    return partitionTable;
+  }
+
+  /**
+   * Fetch the partition table if it has expired. Only the version is sent if a table is cached, and
+   * the server returns the whole table only when its version is newer. The redirections cached with
+   * the old table are dropped once a newer table is fetched.
+   */
+  private synchronized void refreshPartitionTable() {
+    long currentTime = System.currentTimeMillis();
+    if (!partitionTableExpired
+        || currentTime - lastPartitionTableFetchTime < Config.PARTITION_TABLE_REFRESH_INTERVAL_MS) {
+      return;
+    }
+    lastPartitionTableFetchTime = currentTime;
+    PartitionTableCache oldTable = partitionTable;
+    long oldVersion = oldTable == null ? 0 : oldTable.getVersion();
+    try {
+      TSFetchPartitionTableResp resp = defaultSessionConnection.fetchPartitionTable(oldVersion);
+      partitionTableExpired = false;
+      if (resp.getVersion() == 0) {
+        // the server is not partitioned
+        partitionTable = null;
+      } else if (resp.getVersion() != oldVersion) {
+        partitionTable = new PartitionTableCache(resp);
+        deviceIdToEndpoint.clear();
+      }
+    } catch (StatementExecutionException e) {
+      // the server does not provide the partition table, rely on the redirections only
+      logger.debug("Cannot fetch the partition table", e);
+      partitionTableExpired = false;
+    } catch (IoTDBConnectionException e) {
+      logger.debug("Cannot fetch the partition table, retry later", e);
+    }
+  }
+
   public String getTimestampPrecision() throws TException {
     return defaultSessionConnection.getClient().getProperties().getTimestampPrecision();
   }
@@ -851,6 +954,7 @@ public class Session {
     if (enableCacheLeader) {
       AtomicReference<IoTDBConnectionException> exceptionReference = new AtomicReference<>();
       deviceIdToEndpoint.put(deviceId, endpoint);
+      partitionTableExpired = true;
       SessionConnection connection =
           endPointToSessionConnection.computeIfAbsent(
               endpoint,
@@ -1071,7 +1175,7 @@ public class Session {
       throws IoTDBConnectionException, StatementExecutionException {
     Map<SessionConnection, TSInsertStringRecordsReq> recordsGroup = new HashMap<>();
     for (int i = 0; i < deviceIds.size(); i++) {
-      final SessionConnection connection = getSessionConnection(deviceIds.get(i));
+      final SessionConnection connection = getSessionConnection(deviceIds.get(i), times.get(i));
       TSInsertStringRecordsReq request =
           recordsGroup.computeIfAbsent(connection, k -> new TSInsertStringRecordsReq());
       request.setIsAligned(isAligned);
@@ -1226,7 +1330,8 @@ public class Session {
         genTSInsertRecordsOfOneDeviceReq(
             deviceId, times, measurementsList, typesList, valuesList, haveSorted, false);
     try {
-      getSessionConnection(deviceId).insertRecordsOfOneDevice(request);
+      getSessionConnection(deviceId, request.getTimestamps().get(0))
+          .insertRecordsOfOneDevice(request);
     } catch (RedirectException e) {
       handleRedirection(deviceId, e.getEndPoint());
     }
@@ -1258,7 +1363,8 @@ public class Session {
         genTSInsertStringRecordsOfOneDeviceReq(
             deviceId, times, measurementsList, valuesList, haveSorted, false);
     try {
-      getSessionConnection(deviceId).insertStringRecordsOfOneDevice(req);
+      getSessionConnection(deviceId, req.getTimestamps().get(0))
+          .insertStringRecordsOfOneDevice(req);
     } catch (RedirectException e) {
       handleRedirection(deviceId, e.getEndPoint());
     }
@@ -1328,7 +1434,8 @@ public class Session {
         genTSInsertRecordsOfOneDeviceReq(
             deviceId, times, measurementsList, typesList, valuesList, haveSorted, true);
     try {
-      getSessionConnection(deviceId).insertRecordsOfOneDevice(request);
+      getSessionConnection(deviceId, request.getTimestamps().get(0))
+          .insertRecordsOfOneDevice(request);
     } catch (RedirectException e) {
       handleRedirection(deviceId, e.getEndPoint());
     }
@@ -1360,7 +1467,8 @@ public class Session {
         genTSInsertStringRecordsOfOneDeviceReq(
             deviceId, times, measurementsList, valuesList, haveSorted, true);
     try {
-      getSessionConnection(deviceId).insertStringRecordsOfOneDevice(req);
+      getSessionConnection(deviceId, req.getTimestamps().get(0))
+          .insertStringRecordsOfOneDevice(req);
     } catch (RedirectException e) {
       handleRedirection(deviceId, e.getEndPoint());
     }
@@ -1498,7 +1606,7 @@ public class Session {
       throws IoTDBConnectionException, StatementExecutionException {
     Map<SessionConnection, TSInsertRecordsReq> recordsGroup = new HashMap<>();
     for (int i = 0; i < deviceIds.size(); i++) {
-      final SessionConnection connection = getSessionConnection(deviceIds.get(i));
+      final SessionConnection connection = getSessionConnection(deviceIds.get(i), times.get(i));
       TSInsertRecordsReq request =
           recordsGroup.computeIfAbsent(connection, k -> new TSInsertRecordsReq());
       request.setIsAligned(isAligned);
@@ -1570,7 +1678,7 @@ public class Session {
       throws IoTDBConnectionException, StatementExecutionException {
     TSInsertTabletReq request = genTSInsertTabletReq(tablet, sorted, false);
     try {
-      getSessionConnection(tablet.deviceId).insertTablet(request);
+      getSessionConnection(tablet.deviceId, getFirstTime(tablet)).insertTablet(request);
     } catch (RedirectException e) {
       handleRedirection(tablet.deviceId, e.getEndPoint());
     }
@@ -1601,7 +1709,7 @@ public class Session {
       throws IoTDBConnectionException, StatementExecutionException {
     TSInsertTabletReq request = genTSInsertTabletReq(tablet, sorted, true);
     try {
-      getSessionConnection(tablet.deviceId).insertTablet(request);
+      getSessionConnection(tablet.deviceId, getFirstTime(tablet)).insertTablet(request);
     } catch (RedirectException e) {
       handleRedirection(tablet.deviceId, e.getEndPoint());
     }
@@ -1703,7 +1811,8 @@ public class Session {
       throws IoTDBConnectionException, StatementExecutionException {
     Map<SessionConnection, TSInsertTabletsReq> tabletGroup = new HashMap<>();
     for (Entry<String, Tablet> entry : tablets.entrySet()) {
-      final SessionConnection connection = getSessionConnection(entry.getKey());
+      final SessionConnection connection =
+          getSessionConnection(entry.getKey(), getFirstTime(entry.getValue()));
       TSInsertTabletsReq request =
           tabletGroup.computeIfAbsent(connection, k -> new TSInsertTabletsReq());
       updateTSInsertTabletsReq(request, entry.getValue(), sorted, isAligned);
@@ -2458,6 +2567,14 @@ public class Session {
     this.enableCacheLeader = enableCacheLeader;
   }
 
+  public boolean isEnableSchemaHandle() {
+    return enableSchemaHandle;
+  }
+
+  public void setEnableSchemaHandle(boolean enableSchemaHandle) {
+    this.enableSchemaHandle = enableSchemaHandle;
+  }
+
   public static class Builder {
     private String host = Config.DEFAULT_HOST;
     private int rpcPort = Config.DEFAULT_PORT;
@@ -2469,6 +2586,7 @@ public class Session {
     private int thriftMaxFrameSize = Config.DEFAULT_MAX_FRAME_SIZE;
     private boolean enableCacheLeader = Config.DEFAULT_CACHE_LEADER_MODE;
     private Version version = Config.DEFAULT_VERSION;
+    private boolean enableSchemaHandle = false;
 
     List<String> nodeUrls = null;
 
@@ -2527,6 +2645,11 @@ public class Session {
       return this;
     }
 
+    public Builder enableSchemaHandle(boolean enableSchemaHandle) {
+      this.enableSchemaHandle = enableSchemaHandle;
+      return this;
+    }
+
     public Session build() {
       if (nodeUrls != null
           && (!Config.DEFAULT_HOST.equals(host) || rpcPort != Config.DEFAULT_PORT)) {
@@ -2534,30 +2657,35 @@ public class Session {
             "You should specify either nodeUrls or (host + rpcPort), but not both");
       }
 
+      Session session;
       if (nodeUrls != null) {
-        return new Session(
-            nodeUrls,
-            username,
-            password,
-            fetchSize,
-            zoneId,
-            thriftDefaultBufferSize,
-            thriftMaxFrameSize,
-            enableCacheLeader,
-            version);
+        session =
+            new Session(
+                nodeUrls,
+                username,
+                password,
+                fetchSize,
+                zoneId,
+                thriftDefaultBufferSize,
+                thriftMaxFrameSize,
+                enableCacheLeader,
+                version);
+      } else {
+        session =
+            new Session(
+                host,
+                rpcPort,
+                username,
+                password,
+                fetchSize,
+                zoneId,
+                thriftDefaultBufferSize,
+                thriftMaxFrameSize,
+                enableCacheLeader,
+                version);
       }
-
-      return new Session(
-          host,
-          rpcPort,
-          username,
-          password,
-          fetchSize,
-          zoneId,
-          thriftDefaultBufferSize,
-          thriftMaxFrameSize,
-          enableCacheLeader,
-          version);
+      session.setEnableSchemaHandle(enableSchemaHandle);
+      return session;
     }
   }
 }
@@ -24,6 +24,7 @@ import org.apache.iotdb.rpc.RedirectException;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.EndPoint;
 import org.apache.iotdb.service.rpc.thrift.TSAppendSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
@@ -35,6 +36,8 @@ import org.apache.iotdb.service.rpc.thrift.TSDeleteDataReq;
 import org.apache.iotdb.service.rpc.thrift.TSDropSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsOfOneDeviceReq;
@@ -51,12 +54,16 @@ import org.apache.iotdb.service.rpc.thrift.TSPruneSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSQueryTemplateResp;
 import org.apache.iotdb.service.rpc.thrift.TSRawDataQueryReq;
+import org.apache.iotdb.service.rpc.thrift.TSRegisterSchemaHandleReq;
+import org.apache.iotdb.service.rpc.thrift.TSRegisterSchemaHandleResp;
 import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
 import org.apache.iotdb.service.rpc.thrift.TSUnsetSchemaTemplateReq;
 import org.apache.iotdb.session.util.SessionUtils;
+import org.apache.iotdb.tsfile.utils.Pair;
 
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TCompactProtocol;
@@ -67,8 +74,11 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SessionConnection {
 
@@ -84,6 +94,10 @@ public class SessionConnection {
   private EndPoint endPoint;
   private List<EndPoint> endPointList = new ArrayList<>();
   private boolean enableRedirect = false;
+  // (device, measurements) -> handle registered in the current server session
+  private final Map<Pair<String, List<String>>, Integer> schemaHandles = new ConcurrentHashMap<>();
+  // the server session accepts no more handles, so the new schemas are sent by their paths
+  private volatile boolean schemaHandleLimitReached = false;
 
   // TestOnly
   public SessionConnection() {}
@@ -152,6 +166,9 @@ public class SessionConnection {
 
       sessionId = openResp.getSessionId();
       statementId = client.requestStatementId(sessionId);
+      // the handles are scoped to the server session
+      schemaHandles.clear();
+      schemaHandleLimitReached = false;
 
     } catch (Exception e) {
       transport.close();
@@ -509,12 +526,12 @@ public class SessionConnection {
     request.setSessionId(sessionId);
     try {
       RpcUtils.verifySuccessWithRedirectionForMultiDevices(
-          client.insertRecords(request), request.getPrefixPaths());
+          sendInsertRecords(request), request.getPrefixPaths());
     } catch (TException e) {
       if (reconnect()) {
         try {
           request.setSessionId(sessionId);
-          RpcUtils.verifySuccess(client.insertRecords(request));
+          RpcUtils.verifySuccess(sendInsertRecords(request));
         } catch (TException tException) {
           throw new IoTDBConnectionException(tException);
         }
@@ -586,12 +603,12 @@ public class SessionConnection {
       throws IoTDBConnectionException, StatementExecutionException, RedirectException {
     request.setSessionId(sessionId);
     try {
-      RpcUtils.verifySuccessWithRedirection(client.insertTablet(request));
+      RpcUtils.verifySuccessWithRedirection(sendInsertTablet(request));
     } catch (TException e) {
       if (reconnect()) {
         try {
           request.setSessionId(sessionId);
-          RpcUtils.verifySuccess(client.insertTablet(request));
+          RpcUtils.verifySuccess(sendInsertTablet(request));
         } catch (TException tException) {
           throw new IoTDBConnectionException(tException);
         }
@@ -606,12 +623,12 @@ public class SessionConnection {
     request.setSessionId(sessionId);
     try {
       RpcUtils.verifySuccessWithRedirectionForMultiDevices(
-          client.insertTablets(request), request.getPrefixPaths());
+          sendInsertTablets(request), request.getPrefixPaths());
     } catch (TException e) {
       if (reconnect()) {
         try {
           request.setSessionId(sessionId);
-          RpcUtils.verifySuccess(client.insertTablets(request));
+          RpcUtils.verifySuccess(sendInsertTablets(request));
         } catch (TException tException) {
           throw new IoTDBConnectionException(tException);
         }
@@ -771,6 +788,118 @@ public class SessionConnection {
     }
   }
 
+  /**
+   * The following send methods replace the device paths and measurements of a request by the schema
+   * handles if enabled, and restore them after sending so that the request can be resent with the
+   * handles of a new server session after reconnection.
+   */
+  private TSStatus sendInsertTablet(TSInsertTabletReq request)
+      throws TException, StatementExecutionException {
+    if (!session.enableSchemaHandle) {
+      return client.insertTablet(request);
+    }
+    String prefixPath = request.getPrefixPath();
+    List<String> measurements = request.getMeasurements();
+    Integer handle = getSchemaHandle(prefixPath, measurements);
+    if (handle == null) {
+      return client.insertTablet(request);
+    }
+    request.setSchemaHandle(handle);
+    request.setPrefixPath("");
+    request.setMeasurements(Collections.emptyList());
+    try {
+      return client.insertTablet(request);
+    } finally {
+      request.setPrefixPath(prefixPath);
+      request.setMeasurements(measurements);
+      request.unsetSchemaHandle();
+    }
+  }
+
+  private TSStatus sendInsertTablets(TSInsertTabletsReq request)
+      throws TException, StatementExecutionException {
+    if (!session.enableSchemaHandle) {
+      return client.insertTablets(request);
+    }
+    List<String> prefixPaths = request.getPrefixPaths();
+    List<List<String>> measurementsList = request.getMeasurementsList();
+    List<Integer> handles = getSchemaHandles(prefixPaths, measurementsList);
+    if (handles == null) {
+      return client.insertTablets(request);
+    }
+    request.setSchemaHandles(handles);
+    request.setPrefixPaths(Collections.nCopies(prefixPaths.size(), ""));
+    request.setMeasurementsList(Collections.nCopies(prefixPaths.size(), Collections.emptyList()));
+    try {
+      return client.insertTablets(request);
+    } finally {
+      request.setPrefixPaths(prefixPaths);
+      request.setMeasurementsList(measurementsList);
+      request.unsetSchemaHandles();
+    }
+  }
+
+  private TSStatus sendInsertRecords(TSInsertRecordsReq request)
+      throws TException, StatementExecutionException {
+    if (!session.enableSchemaHandle) {
+      return client.insertRecords(request);
+    }
+    List<String> prefixPaths = request.getPrefixPaths();
+    List<List<String>> measurementsList = request.getMeasurementsList();
+    List<Integer> handles = getSchemaHandles(prefixPaths, measurementsList);
+    if (handles == null) {
+      return client.insertRecords(request);
+    }
+    request.setSchemaHandles(handles);
+    request.setPrefixPaths(Collections.nCopies(prefixPaths.size(), ""));
+    request.setMeasurementsList(Collections.nCopies(prefixPaths.size(), Collections.emptyList()));
+    try {
+      return client.insertRecords(request);
+    } finally {
+      request.setPrefixPaths(prefixPaths);
+      request.setMeasurementsList(measurementsList);
+      request.unsetSchemaHandles();
+    }
+  }
+
+  /** @return null if any of the schemas has no handle */
+  private List<Integer> getSchemaHandles(
+      List<String> prefixPaths, List<List<String>> measurementsList)
+      throws TException, StatementExecutionException {
+    List<Integer> handles = new ArrayList<>(prefixPaths.size());
+    for (int i = 0; i < prefixPaths.size(); i++) {
+      Integer handle = getSchemaHandle(prefixPaths.get(i), measurementsList.get(i));
+      if (handle == null) {
+        return null;
+      }
+      handles.add(handle);
+    }
+    return handles;
+  }
+
+  /**
+   * register the device and measurements in the server session if they are not registered
+   *
+   * @return null if the server session accepts no more handles
+   */
+  private Integer getSchemaHandle(String prefixPath, List<String> measurements)
+      throws TException, StatementExecutionException {
+    Integer handle = schemaHandles.get(new Pair<>(prefixPath, measurements));
+    if (handle != null || schemaHandleLimitReached) {
+      return handle;
+    }
+    TSRegisterSchemaHandleResp resp =
+        client.registerSchemaHandle(
+            new TSRegisterSchemaHandleReq(sessionId, prefixPath, measurements));
+    if (resp.getStatus().getCode() == TSStatusCode.SCHEMA_HANDLE_LIMIT_EXCEEDED.getStatusCode()) {
+      schemaHandleLimitReached = true;
+      return null;
+    }
+    RpcUtils.verifySuccess(resp.getStatus());
+    schemaHandles.put(new Pair<>(prefixPath, new ArrayList<>(measurements)), resp.schemaHandle);
+    return resp.schemaHandle;
+  }
+
   private boolean reconnect() {
     boolean connectedSuccess = false;
     Random random = new Random();
@@ -885,6 +1014,30 @@ public class SessionConnection {
     return execResp;
   }
 
+  protected TSFetchPartitionTableResp fetchPartitionTable(long version)
+      throws StatementExecutionException, IoTDBConnectionException {
+    TSFetchPartitionTableResp resp;
+    try {
+      resp = client.fetchPartitionTable(new TSFetchPartitionTableReq(sessionId, version));
+    } catch (TApplicationException e) {
+      // the server is of an older version, which does not know the method
+      throw new StatementExecutionException(e);
+    } catch (TException e) {
+      if (reconnect()) {
+        try {
+          resp = client.fetchPartitionTable(new TSFetchPartitionTableReq(sessionId, version));
+        } catch (TException tException) {
+          throw new IoTDBConnectionException(tException);
+        }
+      } else {
+        throw new IoTDBConnectionException(MSG_RECONNECTION_FAIL);
+      }
+    }
+
+    RpcUtils.verifySuccess(resp.getStatus());
+    return resp;
+  }
+
   protected void setSchemaTemplate(TSSetSchemaTemplateReq request)
       throws IoTDBConnectionException, StatementExecutionException {
     request.setSessionId(sessionId);
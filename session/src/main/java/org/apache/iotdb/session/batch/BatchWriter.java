@@ -0,0 +1,461 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session.batch;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Config;
+import org.apache.iotdb.session.util.ThreadUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatchWriter accumulates points written one row at a time into a reusable Tablet per device and
+ * sends the buffered tablets of all devices through one insertTablets call. A batch is flushed when
+ * the tablet of a device is full, when the estimated size of the batch exceeds maxBatchBytes, or
+ * when its oldest point has been buffered for lingerMs.
+ *
+ * <p>Batches are sent by background threads. At most maxInFlight batches are sent concurrently,
+ * after that the writers are blocked until a batch is finished (back-pressure).
+ *
+ * <p>A failure of an asynchronous flush is thrown by the next call of write(), flush() or close().
+ * The points of the failed batch are dropped.
+ *
+ * <p>close() flushes all buffered points but does not close the underlying Session or SessionPool.
+ */
+public class BatchWriter implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+  private final TabletSink sink;
+  private final boolean aligned;
+  private final int tabletSize;
+  private final long maxBatchBytes;
+  private final long lingerMs;
+  private final int maxInFlight;
+
+  private final Semaphore inFlight;
+  private final ExecutorService flushExecutor;
+  private final ScheduledExecutorService lingerExecutor;
+
+  // the sealed batches waiting for a permit of inFlight, guarded by itself
+  private final Queue<Runnable> pendingBatches = new ArrayDeque<>();
+
+  // the fields below are guarded by this
+  private final Map<String, DeviceBuffer> deviceBuffers = new HashMap<>();
+  // the tablets which have buffered rows and are not flushed yet
+  private Map<String, Tablet> currentBatch = new HashMap<>();
+  private long currentBatchBytes = 0;
+  private long currentBatchStartTime = 0;
+  private boolean closed = false;
+
+  private volatile Exception flushException;
+
+  private BatchWriter(Builder builder) {
+    this.sink = builder.sink;
+    this.aligned = builder.aligned;
+    this.tabletSize = builder.tabletSize;
+    this.maxBatchBytes = builder.maxBatchBytes;
+    this.lingerMs = builder.lingerMs;
+    this.maxInFlight = builder.maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.flushExecutor =
+        Executors.newFixedThreadPool(
+            builder.flushThreadNum, ThreadUtils.createThreadFactory("BatchWriter-Flush", true));
+    this.lingerExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            ThreadUtils.createThreadFactory("BatchWriter-Linger", true));
+    if (lingerMs > 0) {
+      long period = Math.max(1, lingerMs / 2);
+      lingerExecutor.scheduleWithFixedDelay(
+          this::flushIfLingered, period, period, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** buffer one point, see {@link #write(String, long, List, List, List)} */
+  public void write(String deviceId, long time, String measurement, TSDataType type, Object value)
+      throws IoTDBConnectionException, StatementExecutionException {
+    write(
+        deviceId,
+        time,
+        Collections.singletonList(measurement),
+        Collections.singletonList(type),
+        Collections.singletonList(value));
+  }
+
+  /**
+   * buffer one row of a device. The measurements of a device may vary from row to row, the columns
+   * missing in a row are written as null.
+   *
+   * @param values the value of each measurement, TEXT values can be either String or Binary
+   */
+  public void write(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values)
+      throws IoTDBConnectionException, StatementExecutionException {
+    if (measurements.size() != types.size() || measurements.size() != values.size()) {
+      throw new IllegalArgumentException(
+          "measurements, types and values should have the same size");
+    }
+    checkFlushException();
+    boolean sealed = false;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("BatchWriter is closed");
+      }
+      DeviceBuffer buffer = deviceBuffers.computeIfAbsent(deviceId, DeviceBuffer::new);
+      if (!buffer.contains(measurements, types)) {
+        // a tablet can not add columns, so seal the current one and create a wider one
+        if (buffer.activeTablet != null) {
+          sealed = submitCurrentBatch();
+        }
+        buffer.extendSchemas(measurements, types);
+      }
+      if (buffer.activeTablet == null) {
+        buffer.activeTablet = buffer.borrowTablet(tabletSize);
+        if (currentBatch.isEmpty()) {
+          currentBatchStartTime = System.currentTimeMillis();
+        }
+        currentBatch.put(deviceId, buffer.activeTablet);
+      }
+
+      currentBatchBytes += buffer.appendRow(time, measurements, values);
+      if (buffer.activeTablet.rowSize == buffer.activeTablet.getMaxRowNumber()
+          || currentBatchBytes >= maxBatchBytes) {
+        sealed |= submitCurrentBatch();
+      }
+    }
+    // only the writers sealing a batch are blocked by back-pressure
+    if (sealed) {
+      dispatchBatches();
+    }
+  }
+
+  /** send all buffered points and wait until every batch in flight is finished */
+  public void flush() throws IoTDBConnectionException, StatementExecutionException {
+    synchronized (this) {
+      submitCurrentBatch();
+    }
+    dispatchBatches();
+    waitInFlightBatches();
+    checkFlushException();
+  }
+
+  @Override
+  public void close() throws IoTDBConnectionException, StatementExecutionException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      submitCurrentBatch();
+      closed = true;
+    }
+    // no batch is sealed after closed is set, so all of them are sent after this
+    dispatchBatches();
+    lingerExecutor.shutdownNow();
+    waitInFlightBatches();
+    flushExecutor.shutdown();
+    checkFlushException();
+  }
+
+  private void flushIfLingered() {
+    synchronized (this) {
+      if (closed
+          || currentBatch.isEmpty()
+          || System.currentTimeMillis() - currentBatchStartTime < lingerMs) {
+        return;
+      }
+      submitCurrentBatch();
+    }
+    dispatchBatches();
+  }
+
+  /**
+   * Seal the current batch and queue it for dispatchBatches(). Must be called with the lock of this
+   * held.
+   *
+   * @return whether a batch is sealed
+   */
+  private boolean submitCurrentBatch() {
+    if (currentBatch.isEmpty()) {
+      return false;
+    }
+    Map<String, Tablet> batch = currentBatch;
+    List<DeviceBuffer> owners = new ArrayList<>(batch.size());
+    for (String deviceId : batch.keySet()) {
+      DeviceBuffer buffer = deviceBuffers.get(deviceId);
+      buffer.activeTablet = null;
+      owners.add(buffer);
+    }
+    currentBatch = new HashMap<>();
+    currentBatchBytes = 0;
+    synchronized (pendingBatches) {
+      pendingBatches.add(() -> sendBatch(batch, owners));
+    }
+    return true;
+  }
+
+  /**
+   * Send the queued batches in the order they are sealed. Must be called without the lock of this
+   * held, because it blocks the caller if there are too many batches in flight (back-pressure), and
+   * a slow sink should not block the other writers and close().
+   */
+  private void dispatchBatches() {
+    while (true) {
+      synchronized (pendingBatches) {
+        if (pendingBatches.isEmpty()) {
+          return;
+        }
+      }
+      inFlight.acquireUninterruptibly();
+      synchronized (pendingBatches) {
+        // the batch may have been dispatched by another thread while waiting
+        Runnable batch = pendingBatches.poll();
+        if (batch == null) {
+          inFlight.release();
+          return;
+        }
+        try {
+          flushExecutor.execute(batch);
+        } catch (RuntimeException e) {
+          inFlight.release();
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void sendBatch(Map<String, Tablet> batch, List<DeviceBuffer> owners) {
+    try {
+      sink.insertTablets(batch, aligned);
+    } catch (IoTDBConnectionException | StatementExecutionException | RuntimeException e) {
+      logger.error("BatchWriter failed to flush the tablets of {} devices", batch.size(), e);
+      flushException = e;
+    } finally {
+      for (DeviceBuffer owner : owners) {
+        owner.returnTablet(batch.get(owner.deviceId));
+      }
+      inFlight.release();
+    }
+  }
+
+  private void waitInFlightBatches() {
+    inFlight.acquireUninterruptibly(maxInFlight);
+    inFlight.release(maxInFlight);
+  }
+
+  private void checkFlushException() throws IoTDBConnectionException, StatementExecutionException {
+    Exception e = flushException;
+    if (e == null) {
+      return;
+    }
+    flushException = null;
+    if (e instanceof IoTDBConnectionException) {
+      throw new IoTDBConnectionException("BatchWriter failed to flush", e);
+    }
+    throw new StatementExecutionException("BatchWriter failed to flush", e);
+  }
+
+  private static int getValueSize(TSDataType type, Object value) {
+    switch (type) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+        return Integer.BYTES;
+      case INT64:
+      case DOUBLE:
+        return Long.BYTES;
+      case TEXT:
+        return value == null ? Integer.BYTES : Integer.BYTES + ((Binary) value).getLength();
+      default:
+        throw new IllegalArgumentException("Data type " + type + " is not supported.");
+    }
+  }
+
+  /**
+   * the buffered tablets of one device, accessed with the lock of the writer held except
+   * returnTablet(), which is called by the flush threads. The schemas and the free tablets are also
+   * guarded by the lock of the buffer, so that a returned tablet is never reused after the schemas
+   * are extended.
+   */
+  private static class DeviceBuffer {
+
+    private final String deviceId;
+    // only grows, so the size identifies the version of the schemas
+    private List<MeasurementSchema> schemas = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private boolean[] columnWritten = new boolean[0];
+    // the tablet being filled, null if the device has no buffered rows
+    private Tablet activeTablet;
+    // the flushed tablets which can be reused
+    private final Queue<Tablet> freeTablets = new ArrayDeque<>();
+
+    private DeviceBuffer(String deviceId) {
+      this.deviceId = deviceId;
+    }
+
+    private boolean contains(List<String> measurements, List<TSDataType> types) {
+      for (int i = 0; i < measurements.size(); i++) {
+        Integer index = columnIndex.get(measurements.get(i));
+        if (index == null) {
+          return false;
+        }
+        if (schemas.get(index).getType() != types.get(i)) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Measurement %s of %s is buffered as %s but written as %s",
+                  measurements.get(i), deviceId, schemas.get(index).getType(), types.get(i)));
+        }
+      }
+      return true;
+    }
+
+    private synchronized void extendSchemas(List<String> measurements, List<TSDataType> types) {
+      List<MeasurementSchema> newSchemas = new ArrayList<>(schemas);
+      for (int i = 0; i < measurements.size(); i++) {
+        if (!columnIndex.containsKey(measurements.get(i))) {
+          columnIndex.put(measurements.get(i), newSchemas.size());
+          newSchemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+        }
+      }
+      schemas = newSchemas;
+      columnWritten = new boolean[newSchemas.size()];
+      freeTablets.clear();
+    }
+
+    private synchronized Tablet borrowTablet(int tabletSize) {
+      Tablet tablet = freeTablets.poll();
+      return tablet != null ? tablet : new Tablet(deviceId, schemas, tabletSize);
+    }
+
+    private synchronized void returnTablet(Tablet tablet) {
+      tablet.reset();
+      // the tablets created before the schemas were extended are discarded
+      if (tablet.getSchemas().size() == schemas.size()) {
+        freeTablets.offer(tablet);
+      }
+    }
+
+    /** @return the estimated size of the row in bytes */
+    private long appendRow(long time, List<String> measurements, List<Object> values) {
+      Tablet tablet = activeTablet;
+      int rowIndex = tablet.rowSize;
+      tablet.addTimestamp(rowIndex, time);
+      Arrays.fill(columnWritten, false);
+      long size = Long.BYTES;
+      for (int i = 0; i < measurements.size(); i++) {
+        int index = columnIndex.get(measurements.get(i));
+        Object value = values.get(i);
+        if (value instanceof String) {
+          value = Binary.valueOf((String) value);
+        }
+        tablet.addValue(measurements.get(i), rowIndex, value);
+        columnWritten[index] = true;
+        size += getValueSize(schemas.get(index).getType(), value);
+      }
+      for (int index = 0; index < columnWritten.length; index++) {
+        if (!columnWritten[index]) {
+          tablet.addValue(schemas.get(index).getMeasurementId(), rowIndex, null);
+        }
+      }
+      tablet.rowSize++;
+      return size;
+    }
+  }
+
+  public static class Builder {
+
+    private final TabletSink sink;
+    private boolean aligned = false;
+    private int tabletSize = Config.DEFAULT_BATCH_TABLET_SIZE;
+    private long maxBatchBytes = Config.DEFAULT_BATCH_MAX_BYTES;
+    private long lingerMs = Config.DEFAULT_BATCH_LINGER_MS;
+    private int maxInFlight = Config.DEFAULT_BATCH_MAX_IN_FLIGHT;
+    private int flushThreadNum = Config.DEFAULT_BATCH_FLUSH_THREAD_NUM;
+
+    public Builder(TabletSink sink) {
+      this.sink = sink;
+    }
+
+    /** whether the buffered devices are inserted as aligned timeseries */
+    public Builder aligned(boolean aligned) {
+      this.aligned = aligned;
+      return this;
+    }
+
+    /** max rows buffered per device */
+    public Builder tabletSize(int tabletSize) {
+      this.tabletSize = tabletSize;
+      return this;
+    }
+
+    public Builder maxBatchBytes(long maxBatchBytes) {
+      this.maxBatchBytes = maxBatchBytes;
+      return this;
+    }
+
+    /** a non-positive value disables flushing by time */
+    public Builder lingerMs(long lingerMs) {
+      this.lingerMs = lingerMs;
+      return this;
+    }
+
+    public Builder maxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    /** should be 1 if the sink is built upon a Session */
+    public Builder flushThreadNum(int flushThreadNum) {
+      this.flushThreadNum = flushThreadNum;
+      return this;
+    }
+
+    public BatchWriter build() {
+      if (tabletSize <= 0 || maxBatchBytes <= 0 || maxInFlight <= 0 || flushThreadNum <= 0) {
+        throw new IllegalArgumentException(
+            "tabletSize, maxBatchBytes, maxInFlight and flushThreadNum should be positive");
+      }
+      return new BatchWriter(this);
+    }
+  }
+}
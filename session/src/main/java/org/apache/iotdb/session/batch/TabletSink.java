@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session.batch;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.Session;
+import org.apache.iotdb.session.pool.SessionPool;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import java.util.Map;
+
+/** Destination of the tablets flushed by a {@link BatchWriter}. */
+@FunctionalInterface
+public interface TabletSink {
+
+  /**
+   * Send the tablets of several devices in one request. The tablets are reset and reused by the
+   * writer once this method returns, so implementations must not keep references to them.
+   *
+   * @param tablets deviceId -> tablet
+   * @param aligned whether the tablets should be inserted as aligned timeseries
+   */
+  void insertTablets(Map<String, Tablet> tablets, boolean aligned)
+      throws IoTDBConnectionException, StatementExecutionException;
+
+  /**
+   * A Session is not thread-safe, so a writer built upon this sink should use one flush thread and
+   * the session should not be used by other threads meanwhile.
+   */
+  static TabletSink of(Session session) {
+    return (tablets, aligned) -> {
+      if (aligned) {
+        session.insertAlignedTablets(tablets);
+      } else {
+        session.insertTablets(tablets);
+      }
+    };
+  }
+
+  static TabletSink of(SessionPool sessionPool) {
+    return (tablets, aligned) -> {
+      if (aligned) {
+        sessionPool.insertAlignedTablets(tablets);
+      } else {
+        sessionPool.insertTablets(tablets);
+      }
+    };
+  }
+}
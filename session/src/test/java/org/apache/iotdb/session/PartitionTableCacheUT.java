@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.service.rpc.thrift.EndPoint;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
+import org.apache.iotdb.tsfile.utils.Murmur128Hash;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PartitionTableCacheUT {
+
+  private static final int SLOT_NUM = 100;
+  private static final long PARTITION_INTERVAL = 1000;
+  private static final int HASH_SALT = 2333;
+
+  @Test
+  public void testRoute() {
+    List<List<EndPoint>> groupEndPoints = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      groupEndPoints.add(
+          Arrays.asList(new EndPoint("node" + i, 6667), new EndPoint("node" + (i + 1), 6667)));
+    }
+    List<Integer> slotGroups = new ArrayList<>();
+    for (int i = 0; i < SLOT_NUM; i++) {
+      slotGroups.add(i % 3);
+    }
+    TSFetchPartitionTableResp resp = new TSFetchPartitionTableResp(RpcUtils.SUCCESS_STATUS, 10);
+    resp.setStorageGroups(Arrays.asList("root.sg1", "root.sg2"));
+    resp.setPartitionInterval(PARTITION_INTERVAL);
+    resp.setHashSalt(HASH_SALT);
+    resp.setGroupEndPoints(groupEndPoints);
+    resp.setSlotGroups(slotGroups);
+    PartitionTableCache table = new PartitionTableCache(resp);
+
+    assertEquals(10, table.getVersion());
+    for (long time = 0; time < 10 * PARTITION_INTERVAL; time += PARTITION_INTERVAL / 2) {
+      for (String sg : Arrays.asList("root.sg1", "root.sg2")) {
+        int slot =
+            Math.abs(Murmur128Hash.hash(sg, time / PARTITION_INTERVAL, HASH_SALT) % SLOT_NUM);
+        // the first endpoint of a group is used
+        EndPoint expected = new EndPoint("node" + slot % 3, 6667);
+        assertEquals(expected, table.route(sg + ".d1", time));
+        assertEquals(expected, table.route(sg + ".d1.s", time));
+      }
+    }
+    // the storage group is unknown
+    assertNull(table.route("root.sg3.d1", 0));
+    assertNull(table.route("root.sg11.d1", 0));
+  }
+}
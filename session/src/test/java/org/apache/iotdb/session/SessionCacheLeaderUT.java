@@ -21,8 +21,10 @@ package org.apache.iotdb.session;
 
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.RedirectException;
+import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.EndPoint;
+import org.apache.iotdb.service.rpc.thrift.TSFetchPartitionTableResp;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsOfOneDeviceReq;
 import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
@@ -1117,6 +1119,12 @@ public class SessionCacheLeaderUT {
     @Override
     public void close() {}
 
+    @Override
+    protected TSFetchPartitionTableResp fetchPartitionTable(long version) {
+      // route by the redirections only
+      return new TSFetchPartitionTableResp(RpcUtils.SUCCESS_STATUS, 0);
+    }
+
     @Override
     protected void setStorageGroup(String storageGroup)
         throws RedirectException, IoTDBConnectionException {
@@ -46,8 +46,10 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertArrayEquals;
@@ -194,6 +196,68 @@ public class SessionTest {
     }
   }
 
+  @Test
+  public void testInsertWithSchemaHandle()
+      throws IoTDBConnectionException, StatementExecutionException {
+    session = new Session.Builder().enableSchemaHandle(true).build();
+    session.open();
+
+    List<MeasurementSchema> schemaList = new ArrayList<>();
+    schemaList.add(new MeasurementSchema("s1", TSDataType.INT64));
+    schemaList.add(new MeasurementSchema("s2", TSDataType.INT64));
+
+    // the second tablet of each device reuses the registered handle
+    for (int round = 0; round < 2; round++) {
+      Tablet tablet = new Tablet("root.sg1.d1", schemaList, 5);
+      Tablet tablet2 = new Tablet("root.sg1.d2", schemaList, 5);
+      for (int i = 0; i < 5; i++) {
+        long time = round * 5L + i;
+        tablet.addTimestamp(i, time);
+        tablet.addValue("s1", i, time);
+        tablet.addValue("s2", i, time);
+        tablet2.addTimestamp(i, time);
+        tablet2.addValue("s1", i, time);
+        tablet2.addValue("s2", i, time);
+      }
+      tablet.rowSize = 5;
+      tablet2.rowSize = 5;
+      session.insertTablet(tablet);
+      Map<String, Tablet> tabletMap = new HashMap<>();
+      tabletMap.put("root.sg1.d2", tablet2);
+      session.insertTablets(tabletMap);
+    }
+
+    List<String> measurements = Arrays.asList("s1", "s2");
+    List<TSDataType> types = Arrays.asList(TSDataType.INT64, TSDataType.INT64);
+    session.insertRecords(
+        Arrays.asList("root.sg1.d1", "root.sg1.d2"),
+        Arrays.asList(10L, 10L),
+        Arrays.asList(measurements, measurements),
+        Arrays.asList(types, types),
+        Arrays.asList(Arrays.asList(10L, 10L), Arrays.asList(10L, 10L)));
+
+    // the request keeps its paths after being sent with handles
+    Tablet tablet = new Tablet("root.sg1.d1", schemaList, 1);
+    tablet.addTimestamp(0, 11L);
+    tablet.addValue("s1", 0, 11L);
+    tablet.addValue("s2", 0, 11L);
+    tablet.rowSize = 1;
+    session.insertTablet(tablet);
+    assertEquals("root.sg1.d1", tablet.deviceId);
+
+    for (String device : Arrays.asList("root.sg1.d1", "root.sg1.d2")) {
+      SessionDataSet dataSet = session.executeQueryStatement("select s1, s2 from " + device);
+      long count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        assertEquals(record.getTimestamp(), record.getFields().get(0).getLongV());
+        assertEquals(record.getTimestamp(), record.getFields().get(1).getLongV());
+        count++;
+      }
+      assertEquals(device.endsWith("d1") ? 12 : 11, count);
+    }
+  }
+
   @Test
   public void testSetTimeZone() throws StatementExecutionException, IoTDBConnectionException {
     session = new Session("127.0.0.1", 6667, "root", "root", ZoneId.of("+05:00"));
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session.batch;
+
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchWriterUT {
+
+  /** the rows received by the sink, in the format of "device,time,s1=v1,s2=v2" */
+  private final List<String> receivedRows = new CopyOnWriteArrayList<>();
+
+  private final List<Integer> receivedBatchSizes = new CopyOnWriteArrayList<>();
+
+  private final TabletSink sink =
+      (tablets, aligned) -> {
+        int rows = 0;
+        for (Tablet tablet : tablets.values()) {
+          for (int i = 0; i < tablet.rowSize; i++) {
+            receivedRows.add(toRow(tablet, i));
+          }
+          rows += tablet.rowSize;
+        }
+        receivedBatchSizes.add(rows);
+      };
+
+  private static String toRow(Tablet tablet, int rowIndex) {
+    StringBuilder builder = new StringBuilder();
+    builder.append(tablet.deviceId).append(',').append(tablet.timestamps[rowIndex]);
+    for (int j = 0; j < tablet.getSchemas().size(); j++) {
+      if (tablet.bitMaps != null
+          && tablet.bitMaps[j] != null
+          && tablet.bitMaps[j].isMarked(rowIndex)) {
+        continue;
+      }
+      builder.append(',').append(tablet.getSchemas().get(j).getMeasurementId()).append('=');
+      Object column = tablet.values[j];
+      if (column instanceof long[]) {
+        builder.append(((long[]) column)[rowIndex]);
+      } else if (column instanceof double[]) {
+        builder.append(((double[]) column)[rowIndex]);
+      } else {
+        builder.append(((Binary[]) column)[rowIndex]);
+      }
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testFlushBySize() throws Exception {
+    BatchWriter writer = new BatchWriter.Builder(sink).tabletSize(10).lingerMs(0).build();
+    for (int i = 0; i < 25; i++) {
+      writer.write("root.sg.d1", i, "s1", TSDataType.INT64, (long) i);
+    }
+    writer.flush();
+    assertEquals(Arrays.asList(10, 10, 5), receivedBatchSizes);
+    assertEquals(25, receivedRows.size());
+    assertEquals("root.sg.d1,24,s1=24", receivedRows.get(24));
+    writer.close();
+  }
+
+  @Test
+  public void testFlushByBytes() throws Exception {
+    // each row takes 16 bytes
+    BatchWriter writer =
+        new BatchWriter.Builder(sink).tabletSize(1000).maxBatchBytes(64).lingerMs(0).build();
+    for (int i = 0; i < 8; i++) {
+      writer.write("root.sg.d" + i, i, "s1", TSDataType.DOUBLE, (double) i);
+    }
+    writer.close();
+    assertEquals(Arrays.asList(4, 4), receivedBatchSizes);
+  }
+
+  @Test
+  public void testFlushByLinger() throws Exception {
+    BatchWriter writer = new BatchWriter.Builder(sink).lingerMs(20).build();
+    writer.write("root.sg.d1", 1, "s1", TSDataType.INT64, 1L);
+    long start = System.currentTimeMillis();
+    while (receivedRows.isEmpty() && System.currentTimeMillis() - start < 10_000) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, receivedRows.size());
+    writer.close();
+  }
+
+  @Test
+  public void testVaryingMeasurements() throws Exception {
+    BatchWriter writer = new BatchWriter.Builder(sink).lingerMs(0).build();
+    writer.write(
+        "root.sg.d1",
+        1,
+        Arrays.asList("s1", "s2"),
+        Arrays.asList(TSDataType.INT64, TSDataType.TEXT),
+        Arrays.asList(1L, "a"));
+    writer.write("root.sg.d1", 2, "s2", TSDataType.TEXT, "b");
+    // a new measurement seals the buffered rows
+    writer.write("root.sg.d1", 3, "s3", TSDataType.DOUBLE, 3.0);
+    writer.write("root.sg.d1", 4, "s1", TSDataType.INT64, 4L);
+    writer.close();
+
+    assertEquals(Arrays.asList(2, 2), receivedBatchSizes);
+    assertEquals("root.sg.d1,1,s1=1,s2=a", receivedRows.get(0));
+    assertEquals("root.sg.d1,2,s2=b", receivedRows.get(1));
+    assertEquals("root.sg.d1,3,s3=3.0", receivedRows.get(2));
+    assertEquals("root.sg.d1,4,s1=4", receivedRows.get(3));
+  }
+
+  @Test
+  public void testTabletsAreReused() throws Exception {
+    List<Tablet> sent = new ArrayList<>();
+    BatchWriter writer =
+        new BatchWriter.Builder((tablets, aligned) -> sent.addAll(tablets.values()))
+            .tabletSize(2)
+            .lingerMs(0)
+            .build();
+    for (int i = 0; i < 6; i++) {
+      writer.write("root.sg.d1", i, "s1", TSDataType.INT64, (long) i);
+      writer.flush();
+    }
+    writer.close();
+    assertEquals(6, sent.size());
+    for (Tablet tablet : sent) {
+      assertSame(sent.get(0), tablet);
+    }
+  }
+
+  @Test
+  public void testSlowSinkBlocksOnlyTheSealingWriter() throws Exception {
+    CountDownLatch sinkBlocked = new CountDownLatch(1);
+    CountDownLatch releaseSink = new CountDownLatch(1);
+    BatchWriter writer =
+        new BatchWriter.Builder(
+                (tablets, aligned) -> {
+                  sinkBlocked.countDown();
+                  try {
+                    releaseSink.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  sink.insertTablets(tablets, aligned);
+                })
+            .tabletSize(2)
+            .maxInFlight(1)
+            .lingerMs(0)
+            .build();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> sealingWriter =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < 4; i++) {
+                  writer.write("root.sg.d1", i, "s1", TSDataType.INT64, (long) i);
+                }
+                return null;
+              });
+      assertTrue(sinkBlocked.await(10, TimeUnit.SECONDS));
+      // the second batch of d1 waits for the first one, but the writer lock is not held
+      Future<?> otherWriter =
+          executor.submit(
+              () -> {
+                writer.write("root.sg.d2", 0, "s1", TSDataType.INT64, 0L);
+                return null;
+              });
+      otherWriter.get(10, TimeUnit.SECONDS);
+      assertFalse(sealingWriter.isDone());
+
+      releaseSink.countDown();
+      sealingWriter.get(10, TimeUnit.SECONDS);
+      writer.close();
+    } finally {
+      releaseSink.countDown();
+      executor.shutdownNow();
+    }
+    assertEquals(5, receivedRows.size());
+    assertEquals("root.sg.d1,3,s1=3", receivedRows.get(3));
+  }
+
+  @Test
+  public void testFlushFailure() throws Exception {
+    BatchWriter writer =
+        new BatchWriter.Builder(
+                (tablets, aligned) -> {
+                  throw new StatementExecutionException("mocked failure");
+                })
+            .lingerMs(0)
+            .build();
+    writer.write("root.sg.d1", 1, "s1", TSDataType.INT64, 1L);
+    try {
+      writer.flush();
+      fail();
+    } catch (StatementExecutionException e) {
+      assertEquals("mocked failure", e.getCause().getMessage());
+    }
+    // the failure is reported only once
+    writer.flush();
+    writer.close();
+  }
+
+  @Test
+  public void testWriteAfterClose() throws Exception {
+    BatchWriter writer = new BatchWriter.Builder(sink).build();
+    writer.close();
+    try {
+      writer.write("root.sg.d1", 1, "s1", TSDataType.INT64, 1L);
+      fail();
+    } catch (IllegalStateException e) {
+      assertFalse(e.getMessage().isEmpty());
+    }
+  }
+}
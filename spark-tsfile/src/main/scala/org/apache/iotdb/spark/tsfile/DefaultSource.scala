@@ -140,6 +140,8 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
 
         var queryDataSet: QueryDataSet = null
         var deviceName: String = null
+        // index of the field of each required column in the records of queryDataSet, -1 if absent
+        var fieldIndexes: Array[Int] = null
 
         def queryNext(): Boolean = {
           if (queryDataSet != null && queryDataSet.hasNext) {
@@ -158,6 +160,10 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
             queryDataSet = queryDataSets.remove(queryDataSets.size() - 1)
           }
           deviceName = queryDataSet.getPaths.get(0).getDevice
+          val paths = queryDataSet.getPaths
+          fieldIndexes = requiredSchema.map((field: StructField) =>
+            paths.indexOf(new org.apache.iotdb.tsfile.read.common.Path(deviceName, field.name))
+          ).toArray
           true
         }
 
@@ -176,7 +182,6 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
           override def next(): InternalRow = {
             val curRecord = queryDataSet.next()
             val fields = curRecord.getFields
-            val paths = queryDataSet.getPaths
 
             //index in one required row
             var index = 0
@@ -188,8 +193,7 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
                 rowBuffer(index) = deviceName
               }
               else {
-                val pos = paths.indexOf(new org.apache.iotdb.tsfile.read.common.Path(deviceName,
-                  field.name))
+                val pos = fieldIndexes(index)
                 var curField: Field = null
                 if (pos != -1) {
                   curField = fields.get(pos)
@@ -223,6 +227,12 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
           // Used to convert `Row`s containing data columns into `InternalRow`s.
           private val encoderForDataColumns = RowEncoder(requiredSchema)
 
+          // index of the field of each required column in the records, -1 if absent
+          private val fieldIndexes = requiredSchema.map((field: StructField) =>
+            queryDataSet.getPaths.indexOf(
+              new org.apache.iotdb.tsfile.read.common.Path(field.name, true))
+          ).toArray
+
           override def hasNext: Boolean = {
             val hasNext = queryDataSet.hasNext
             hasNext
@@ -232,7 +242,6 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
 
             val curRecord = queryDataSet.next()
             val fields = curRecord.getFields
-            val paths = queryDataSet.getPaths
 
             //index in one required row
             var index = 0
@@ -240,7 +249,7 @@ private[tsfile] class DefaultSource extends FileFormat with DataSourceRegister {
               if (field.name == QueryConstant.RESERVED_TIME) {
                 rowBuffer(index) = curRecord.getTimestamp
               } else {
-                val pos = paths.indexOf(new org.apache.iotdb.tsfile.read.common.Path(field.name, true))
+                val pos = fieldIndexes(index)
                 var curField: Field = null
                 if (pos != -1) {
                   curField = fields.get(pos)
@@ -102,6 +102,11 @@ struct AppendEntriesRequest {
   // because a data server may play many data groups members, this is used to identify which
   // member should process the request or response. Only used in data group communication.
   7: optional RaftNode header
+
+  // the entries compressed as a whole, "entries" is empty when this is set
+  8: optional binary compressedEntries
+  9: optional byte compressionType
+  10: optional int uncompressedSize
 }
 
 struct AddNodeResponse {
@@ -212,6 +217,25 @@ struct MultSeriesQueryRequest {
   11: required int deduplicatedPathNum
 }
 
+struct MultSeriesFetchRequest {
+  1: required RaftNode header
+  2: required long readerId
+  // the series to be fetched, as the indexes of their paths in the MultSeriesQueryRequest
+  3: required list<int> seriesIndexes
+  // the batches of a series are put into the result until this number of points is reached
+  4: required int maxPointNumPerSeries
+  // the remaining series are not fetched once the size of the result reaches this number of bytes
+  5: required int maxResultSize
+}
+
+struct MultSeriesFetchResult {
+  // the serialized batches of each series in MultSeriesFetchRequest.seriesIndexes, in the same
+  // order, empty if no batch of the series is fetched
+  1: required list<binary> batches
+  // whether each series has remaining data to be fetched
+  2: required list<bool> hasMore
+}
+
 struct PreviousFillRequest {
   1: required string path
   2: required long queryTime
@@ -252,6 +276,27 @@ struct GroupByRequest {
   9: required bool ascending
 }
 
+/**
+* Aggregations over several series of a data group. The results of the aggregations that share the
+* same result index are merged by the data group before being returned, e.g., the aggregations of
+* the series that are grouped into the same path by GROUP BY LEVEL.
+**/
+struct GroupedAggrRequest {
+  1: required list<string> paths
+  2: required list<int> dataTypeOrdinals
+  // the aggregation names of each path
+  3: required list<list<string>> aggregations
+  // the result index of each aggregation of each path, in [0, resultNum)
+  4: required list<list<int>> resultIndexes
+  5: required int resultNum
+  6: required map<string, set<string>> deviceMeasurements
+  7: optional binary timeFilterBytes
+  8: required long queryId
+  9: required RaftNode header
+  10: required Node requestor
+  11: required bool ascending
+}
+
 struct LastQueryRequest {
   1: required list<string> paths
   2: required list<int> dataTypeOrdinals
@@ -383,6 +428,13 @@ service TSDataService extends RaftService {
     **/
     map<string,binary> fetchMultSeries(1:RaftNode header, 2:long readerId, 3:list<string> paths)
 
+  /**
+  * Fetch the batches of several series from the reader generated by queryMultSeries in one
+  * request, the number of points of each series and the size of the result are limited by the
+  * request.
+  **/
+  MultSeriesFetchResult fetchMultSeriesBatches(1:MultSeriesFetchRequest request)
+
    /**
    * Query a time series and generate an IReaderByTimestamp.
    * @return a readerId >= 0 if the query succeeds, otherwise the query fails
@@ -447,6 +499,19 @@ service TSDataService extends RaftService {
   **/
   list<binary> getGroupByResult(1:RaftNode header, 3:long executorId, 4:long startTime, 5:long endTime)
 
+  /**
+  * Perform the aggregations over several series and merge the results by their result indexes.
+  * @return the serialized AggregationResults of each result index
+  **/
+  list<binary> getGroupedAggrResult(1:GroupedAggrRequest request)
+
+  /**
+  * Create a GroupByExecutor for several series whose results are merged by their result indexes,
+  * the results of each interval are fetched by getGroupByResult.
+  * @return the executorId, or -1 if there is no data
+  **/
+  long getGroupedGroupByExecutor(1:GroupedAggrRequest request)
+
 
   /**
   * Pull all timeseries schemas prefixed by a given path.
@@ -525,6 +590,12 @@ service TSMetaService extends RaftService {
   **/
   binary collectMigrationStatus()
 
+  /**
+  * Collect the loads (ingested points, query count and disk usage) of the slots held by the data
+  * groups that the node leads, which decide the slot migrations of a load balance.
+  **/
+  binary collectSlotLoads()
+
   /**
   * When a node starts, it send handshakes to all other nodes so they know the node is alive
   * again. Notice that heartbeats exists only between leaders and followers, so coordinators
@@ -39,6 +39,17 @@ struct ConfirmInfo{
   4:string version
 }
 
+// A block of a file, which is written at the offset of the file by the receiver
+struct SyncDataBlock{
+  1:required string storageGroup
+  2:required string fileInfo
+  3:required i64 offset
+  4:required binary data
+  // The compression type of data, which is the serialized CompressionType of tsfile.
+  5:required byte compressionType
+  6:required i32 uncompressedSize
+}
+
 service SyncService{
   SyncStatus check(ConfirmInfo info)
   SyncStatus startSync();
@@ -48,4 +59,11 @@ service SyncService{
   SyncStatus syncData(1:binary buff)
   SyncStatus checkDataDigest(1:string md5)
   SyncStatus endSync()
+
+  // Data streams of a sender attach to the sync task started by its main connection and transfer
+  // blocks of files concurrently.
+  SyncStatus attachSync(1:ConfirmInfo info)
+  SyncStatus initSyncDataBlocks(1:string storageGroup, 2:string fileInfo, 3:i64 fileLength)
+  SyncStatus syncDataBlock(1:SyncDataBlock block)
+  SyncStatus checkDataBlocksDigest(1:string storageGroup, 2:string fileInfo, 3:string md5)
 }
@@ -238,6 +238,8 @@ struct TSInsertTabletReq {
   6: required list<i32> types
   7: required i32 size
   8: optional bool isAligned
+  // if set, prefixPath and measurements are left empty and taken from the registered handle
+  9: optional i32 schemaHandle
 }
 
 struct TSInsertTabletsReq {
@@ -249,6 +251,8 @@ struct TSInsertTabletsReq {
   6: required list<list<i32>> typesList
   7: required list<i32> sizeList
   8: optional bool isAligned
+  // if set, prefixPaths and measurementsList are left empty and taken from the registered handles
+  9: optional list<i32> schemaHandles
 }
 
 struct TSInsertRecordsReq {
@@ -258,6 +262,21 @@ struct TSInsertRecordsReq {
   4: required list<binary> valuesList
   5: required list<i64> timestamps
   6: optional bool isAligned
+  // if set, prefixPaths and measurementsList are left empty and taken from the registered handles
+  7: optional list<i32> schemaHandles
+}
+
+// register a device and its measurements once, so that the following inserts of the same session
+// can refer to them by the returned handle instead of carrying the path strings
+struct TSRegisterSchemaHandleReq {
+  1: required i64 sessionId
+  2: required string prefixPath
+  3: required list<string> measurements
+}
+
+struct TSRegisterSchemaHandleResp {
+  1: required TSStatus status
+  2: optional i32 schemaHandle
 }
 
 struct TSInsertRecordsOfOneDeviceReq {
@@ -416,6 +435,30 @@ struct TSDropSchemaTemplateReq {
   2: required string templateName
 }
 
+struct TSFetchPartitionTableReq {
+  1: required i64 sessionId
+  // the version of the partition table cached by the client
+  2: required i64 version
+}
+
+// the data placement of a cluster, with which a client sends the data of a device directly to the
+// nodes that store it
+struct TSFetchPartitionTableResp {
+  1: required TSStatus status
+  // 0 if the data is not partitioned, e.g., the server is not in a cluster
+  2: required i64 version
+  // the fields below are not set if the data is not partitioned or the version of the client is
+  // up to date
+  3: optional list<string> storageGroups
+  // 0 if time partitioning is disabled
+  4: optional i64 partitionInterval
+  5: optional i32 hashSalt
+  // the client endpoints of the nodes in each data group, the leader first if it is known
+  6: optional list<list<EndPoint>> groupEndPoints
+  // the index of the data group holding each slot in "groupEndPoints"
+  7: optional list<i32> slotGroups
+}
+
 service TSIService {
   TSOpenSessionResp openSession(1:TSOpenSessionReq req);
 
@@ -471,6 +514,8 @@ service TSIService {
 
   TSStatus insertStringRecords(1:TSInsertStringRecordsReq req);
 
+  TSRegisterSchemaHandleResp registerSchemaHandle(1:TSRegisterSchemaHandleReq req);
+
   TSStatus testInsertTablet(1:TSInsertTabletReq req);
 
   TSStatus testInsertTablets(1:TSInsertTabletsReq req);
@@ -506,4 +551,6 @@ service TSIService {
   TSStatus unsetSchemaTemplate(1:TSUnsetSchemaTemplateReq req);
 
   TSStatus dropSchemaTemplate(1:TSDropSchemaTemplateReq req);
+
+  TSFetchPartitionTableResp fetchPartitionTable(1:TSFetchPartitionTableReq req);
 }
\ No newline at end of file
@@ -50,6 +50,12 @@ public class TSFileConfig implements Serializable {
   public static final float GORILLA_ENCODING_ENDING_FLOAT = Float.NaN;
   public static final double GORILLA_ENCODING_ENDING_DOUBLE = Double.NaN;
 
+  public static final int CHIMP_PREVIOUS_VALUES = 128;
+  public static final int CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH = 7;
+  public static final int CHIMP_LEADING_ZERO_BITS_LENGTH = 3;
+  public static final int CHIMP_SIGNIFICANT_BITS_LENGTH_32BIT = 5;
+  public static final int CHIMP_SIGNIFICANT_BITS_LENGTH_64BIT = 6;
+
   /** String encoder with UTF-8 encodes a character to at most 4 bytes. */
   public static final int BYTE_SIZE_PER_CHAR = 4;
 
@@ -107,8 +113,13 @@ public class TSFileConfig implements Serializable {
   private double sdtMaxError = 100;
   /** Default DFT satisfy rate is 0.1 */
   private double dftSatisfyRate = 0.1;
-  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
+  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, LZ4, GZIP or ZSTD. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /**
+   * Compression level of ZSTD, from 1 to 22. A higher level compresses better but slower, while the
+   * decompression speed is almost the same. Default level is 3.
+   */
+  private int zstdLevel = 3;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -284,6 +295,14 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public int getZstdLevel() {
+    return zstdLevel;
+  }
+
+  public void setZstdLevel(int zstdLevel) {
+    this.zstdLevel = zstdLevel;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
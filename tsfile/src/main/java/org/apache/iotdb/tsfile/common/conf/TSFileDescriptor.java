@@ -80,6 +80,7 @@ public class TSFileDescriptor {
     writer.setString(conf::setTimeEncoder, "time_encoder");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setInt(conf::setZstdLevel, "zstd_level");
     writer.setInt(conf::setBatchSize, "batch_size");
   }
 
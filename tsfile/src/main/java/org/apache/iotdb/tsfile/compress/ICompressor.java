@@ -19,10 +19,13 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.xerial.snappy.Snappy;
@@ -32,12 +35,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -65,6 +70,8 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZstdCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -311,4 +318,75 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  /**
+   * ZstdCompressor compresses data into ZSTD frames with the content size in the frame headers, so
+   * that the uncompressed size can be read from the compressed data.
+   */
+  class ZstdCompressor implements ICompressor {
+
+    private final int compressionLevel;
+
+    public ZstdCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdLevel());
+    }
+
+    public ZstdCompressor(int compressionLevel) {
+      this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return compress(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+      byte[] maxCompressed = new byte[getMaxBytesForCompression(length)];
+      int compressedSize = compress(data, offset, length, maxCompressed);
+      return compressedSize < maxCompressed.length
+          ? Arrays.copyOf(maxCompressed, compressedSize)
+          : maxCompressed;
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      long compressedSize =
+          Zstd.compressByteArray(
+              compressed, 0, compressed.length, data, offset, length, compressionLevel);
+      if (Zstd.isError(compressedSize)) {
+        throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(compressedSize));
+      }
+      return (int) compressedSize;
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (data.isDirect() && compressed.isDirect()) {
+        try {
+          return Zstd.compress(compressed, data, compressionLevel);
+        } catch (ZstdException e) {
+          throw new IOException(e);
+        }
+      }
+      byte[] dataBefore = new byte[data.remaining()];
+      data.get(dataBefore);
+      byte[] res = compress(dataBefore, 0, dataBefore.length);
+      compressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+  }
 }
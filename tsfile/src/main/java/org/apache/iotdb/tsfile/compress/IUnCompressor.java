@@ -22,6 +22,8 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +56,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -312,4 +316,74 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  class ZstdUnCompressor implements IUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return checkContentSize(Zstd.getFrameContentSize(array, offset, length));
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.isDirect()) {
+        return checkContentSize(Zstd.getFrameContentSize(buffer));
+      }
+      return getUncompressedLength(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+
+    private int checkContentSize(long contentSize) throws IOException {
+      if (contentSize < 0) {
+        throw new IOException("Cannot get the uncompressed size from the ZSTD frame");
+      }
+      return (int) contentSize;
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (byteArray == null) {
+        return new byte[0];
+      }
+      byte[] output = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, output, 0);
+      return output;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long uncompressedSize =
+          Zstd.decompressByteArray(
+              output, outOffset, output.length - outOffset, byteArray, offset, length);
+      if (Zstd.isError(uncompressedSize)) {
+        throw new IOException("ZSTD decompression failed: " + Zstd.getErrorName(uncompressedSize));
+      }
+      return (int) uncompressedSize;
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        try {
+          return Zstd.decompress(uncompressed, compressed);
+        } catch (ZstdException e) {
+          throw new IOException(e);
+        }
+      }
+      byte[] dataBefore = new byte[compressed.remaining()];
+      compressed.get(dataBefore);
+      byte[] res = uncompress(dataBefore);
+      uncompressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
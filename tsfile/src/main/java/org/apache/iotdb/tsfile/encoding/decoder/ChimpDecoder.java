@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+/** Chimp128 decoder, see ChimpEncoder for the format. */
+public abstract class ChimpDecoder extends GorillaDecoderV2 {
+
+  /** the leading zeros represented by the 3 bits */
+  protected static final int[] LEADING_ZEROS = {0, 8, 12, 16, 18, 20, 22, 24};
+
+  /** the position of the previous value in the ring buffer of the previous values */
+  protected int current = 0;
+
+  protected ChimpDecoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    current = 0;
+  }
+}
@@ -60,11 +60,26 @@ public class DictionaryDecoder extends Decoder {
 
   @Override
   public Binary readBinary(ByteBuffer buffer) {
+    return getDictionary(buffer).get(readCode(buffer));
+  }
+
+  /**
+   * Get the distinct values of the page, so that a filter can be examined once for each of them
+   * rather than once for each point.
+   */
+  public List<Binary> getDictionary(ByteBuffer buffer) {
+    if (entryIndex == null) {
+      initMap(buffer);
+    }
+    return entryIndex;
+  }
+
+  /** Read the next value as its index in the dictionary. */
+  public int readCode(ByteBuffer buffer) {
     if (entryIndex == null) {
       initMap(buffer);
     }
-    int code = valueDecoder.readInt(buffer);
-    return entryIndex.get(code);
+    return valueDecoder.readInt(buffer);
   }
 
   private void initMap(ByteBuffer buffer) {
@@ -43,7 +43,11 @@ public abstract class GorillaDecoderV2 extends Decoder {
   private int bitsLeft = 0;
 
   protected GorillaDecoderV2() {
-    super(TSEncoding.GORILLA);
+    this(TSEncoding.GORILLA);
+  }
+
+  protected GorillaDecoderV2(TSEncoding type) {
+    super(type);
   }
 
   @Override
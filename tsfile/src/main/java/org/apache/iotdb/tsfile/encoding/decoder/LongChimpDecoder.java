@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_LEADING_ZERO_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_SIGNIFICANT_BITS_LENGTH_64BIT;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_LONG;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+public class LongChimpDecoder extends ChimpDecoder {
+
+  protected long storedValue = 0;
+
+  private final long[] storedValues = new long[CHIMP_PREVIOUS_VALUES];
+
+  @Override
+  public void reset() {
+    super.reset();
+    storedValue = 0;
+  }
+
+  @Override
+  public final long readLong(ByteBuffer in) {
+    long returnValue = storedValue;
+    if (!firstValueWasRead) {
+      flipByte(in);
+      storedValue = readLong(VALUE_BITS_LENGTH_64BIT, in);
+      storedValues[current] = storedValue;
+      firstValueWasRead = true;
+      returnValue = storedValue;
+    }
+    cacheNext(in);
+    return returnValue;
+  }
+
+  protected long cacheNext(ByteBuffer in) {
+    readNext(in);
+    if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
+      hasNext = false;
+    }
+    return storedValue;
+  }
+
+  protected long readNext(ByteBuffer in) {
+    int controlBits = (int) readLong(2, in);
+    switch (controlBits) {
+      case 3: // case '11': use new leading zeros
+        storedLeadingZeros = LEADING_ZEROS[(int) readLong(CHIMP_LEADING_ZERO_BITS_LENGTH, in)];
+        storedValue ^= readLong(VALUE_BITS_LENGTH_64BIT - storedLeadingZeros, in);
+        break;
+      case 2: // case '10': use stored leading zeros
+        storedValue ^= readLong(VALUE_BITS_LENGTH_64BIT - storedLeadingZeros, in);
+        break;
+      case 1: // case '01': XOR with the indexed previous value, which has many trailing zeros
+        {
+          int previousIndex = (int) readLong(CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH, in);
+          int leadingZeros = LEADING_ZEROS[(int) readLong(CHIMP_LEADING_ZERO_BITS_LENGTH, in)];
+          int significantBits = (int) readLong(CHIMP_SIGNIFICANT_BITS_LENGTH_64BIT, in);
+          int trailingZeros = VALUE_BITS_LENGTH_64BIT - leadingZeros - significantBits;
+          storedValue =
+              storedValues[previousIndex] ^ (readLong(significantBits, in) << trailingZeros);
+          storedLeadingZeros = Integer.MAX_VALUE;
+          break;
+        }
+      default: // case '00': the indexed previous value
+        storedValue = storedValues[(int) readLong(CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH, in)];
+        storedLeadingZeros = Integer.MAX_VALUE;
+    }
+    current = (current + 1) % CHIMP_PREVIOUS_VALUES;
+    storedValues[current] = storedValue;
+    return storedValue;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+/**
+ * Chimp128 encoder, see "Chimp: Efficient Lossless Floating Point Compression for Time Series
+ * Databases" (VLDB 2022). Each value is XORed with one of the 128 previous values, the one sharing
+ * the most trailing bits with it if there are enough, or the immediately previous value otherwise.
+ * The control bits of a value are:
+ *
+ * <ul>
+ *   <li>'00': the value equals a previous value, followed by the index of it
+ *   <li>'01': the XOR has many trailing zeros, followed by the index of the previous value, the
+ *       rounded leading zeros, the length of the significant bits and the significant bits
+ *   <li>'10': the XOR with the previous value has the same rounded leading zeros as the last one,
+ *       followed by the bits after the leading zeros
+ *   <li>'11': the XOR with the previous value has new rounded leading zeros, followed by them and
+ *       the bits after them
+ * </ul>
+ *
+ * <p>The leading zeros are rounded down to one of {0, 8, 12, 16, 18, 20, 22, 24} so that they are
+ * stored with 3 bits.
+ */
+public abstract class ChimpEncoder extends GorillaEncoderV2 {
+
+  private static final int[] LEADING_ZEROS_ROUND = {0, 8, 12, 16, 18, 20, 22, 24};
+
+  /** the rounded leading zeros of a number of leading zeros */
+  protected static final int[] LEADING_ROUND = new int[VALUE_BITS_LENGTH_64BIT + 1];
+
+  /** the 3-bit representation of a number of leading zeros */
+  protected static final int[] LEADING_REPRESENTATION = new int[VALUE_BITS_LENGTH_64BIT + 1];
+
+  static {
+    for (int leadingZeros = 0; leadingZeros <= VALUE_BITS_LENGTH_64BIT; leadingZeros++) {
+      int representation = 0;
+      while (representation + 1 < LEADING_ZEROS_ROUND.length
+          && LEADING_ZEROS_ROUND[representation + 1] <= leadingZeros) {
+        representation++;
+      }
+      LEADING_REPRESENTATION[leadingZeros] = representation;
+      LEADING_ROUND[leadingZeros] = LEADING_ZEROS_ROUND[representation];
+    }
+  }
+
+  /** the number of values written after the first one */
+  protected int index = 0;
+
+  /** the position of the previous value in the ring buffer of the previous values */
+  protected int current = 0;
+
+  protected ChimpEncoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    index = 0;
+    current = 0;
+  }
+}
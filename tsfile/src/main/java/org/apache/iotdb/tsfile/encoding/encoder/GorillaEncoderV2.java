@@ -42,7 +42,11 @@ public abstract class GorillaEncoderV2 extends Encoder {
   protected int bitsLeft = Byte.SIZE;
 
   protected GorillaEncoderV2() {
-    super(TSEncoding.GORILLA);
+    this(TSEncoding.GORILLA);
+  }
+
+  protected GorillaEncoderV2(TSEncoding type) {
+    super(type);
   }
 
   @Override
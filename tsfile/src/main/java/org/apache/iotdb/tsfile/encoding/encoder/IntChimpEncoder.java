@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_LEADING_ZERO_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.CHIMP_SIGNIFICANT_BITS_LENGTH_32BIT;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_INTEGER;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+
+public class IntChimpEncoder extends ChimpEncoder {
+
+  /** a previous value is chosen only if the XOR with it has more trailing zeros than this */
+  private static final int THRESHOLD =
+      CHIMP_SIGNIFICANT_BITS_LENGTH_32BIT + CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH;
+
+  /** the previous values are hashed by their least significant (THRESHOLD + 1) bits */
+  private static final int SET_LSB = (1 << (THRESHOLD + 1)) - 1;
+
+  private static final int ONE_ITEM_MAX_SIZE =
+      (2 + CHIMP_LEADING_ZERO_BITS_LENGTH + VALUE_BITS_LENGTH_32BIT) / Byte.SIZE + 1;
+
+  private final int[] storedValues = new int[CHIMP_PREVIOUS_VALUES];
+
+  /**
+   * hash of the least significant bits -> index of the last value with them. The entries are not
+   * cleared when the encoder is reset as an index out of the window is ignored.
+   */
+  private final int[] indices = new int[SET_LSB + 1];
+
+  @Override
+  public final int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(int value, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      compressValue(value, out);
+    } else {
+      writeFirst(value, out);
+      firstValueWasWritten = true;
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    // ending stream
+    encode(GORILLA_ENCODING_ENDING_INTEGER, out);
+
+    // flip the byte no matter it is empty or not
+    // the empty ending byte is necessary when decoding
+    bitsLeft = 0;
+    flipByte(out);
+
+    // the encoder may be reused, so let us reset it
+    reset();
+  }
+
+  private void writeFirst(int value, ByteArrayOutputStream out) {
+    storedValues[current] = value;
+    indices[value & SET_LSB] = index;
+    writeBits(value & 0xFFFFFFFFL, VALUE_BITS_LENGTH_32BIT, out);
+  }
+
+  private void compressValue(int value, ByteArrayOutputStream out) {
+    int key = value & SET_LSB;
+    int previousIndex = current;
+    int xor = storedValues[current] ^ value;
+    int trailingZeros = Integer.numberOfTrailingZeros(xor);
+    int candidate = indices[key];
+    if (trailingZeros <= THRESHOLD
+        && candidate <= index
+        && index - candidate < CHIMP_PREVIOUS_VALUES) {
+      int candidateXor = storedValues[candidate % CHIMP_PREVIOUS_VALUES] ^ value;
+      int candidateTrailingZeros = Integer.numberOfTrailingZeros(candidateXor);
+      if (candidateTrailingZeros > THRESHOLD) {
+        previousIndex = candidate % CHIMP_PREVIOUS_VALUES;
+        xor = candidateXor;
+        trailingZeros = candidateTrailingZeros;
+      }
+    }
+
+    if (xor == 0) {
+      // '00' and the index of the equal value
+      writeBits(previousIndex, 2 + CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH, out);
+      storedLeadingZeros = Integer.MAX_VALUE;
+    } else {
+      int leadingZeros = LEADING_ROUND[Integer.numberOfLeadingZeros(xor)];
+      if (trailingZeros > THRESHOLD) {
+        // '01' and the index of the previous value
+        writeBits(
+            CHIMP_PREVIOUS_VALUES + previousIndex,
+            2 + CHIMP_PREVIOUS_VALUES_INDEX_BITS_LENGTH,
+            out);
+        int significantBits = VALUE_BITS_LENGTH_32BIT - leadingZeros - trailingZeros;
+        writeBits(LEADING_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(significantBits, CHIMP_SIGNIFICANT_BITS_LENGTH_32BIT, out);
+        writeBits(xor >>> trailingZeros, significantBits, out);
+        storedLeadingZeros = Integer.MAX_VALUE;
+      } else if (leadingZeros == storedLeadingZeros) {
+        // '10'
+        writeBits(2, 2, out);
+        writeBits(xor & 0xFFFFFFFFL, VALUE_BITS_LENGTH_32BIT - leadingZeros, out);
+      } else {
+        // '11' and the new leading zeros
+        writeBits(3, 2, out);
+        writeBits(LEADING_REPRESENTATION[leadingZeros], CHIMP_LEADING_ZERO_BITS_LENGTH, out);
+        writeBits(xor & 0xFFFFFFFFL, VALUE_BITS_LENGTH_32BIT - leadingZeros, out);
+        storedLeadingZeros = leadingZeros;
+      }
+    }
+
+    current = (current + 1) % CHIMP_PREVIOUS_VALUES;
+    storedValues[current] = value;
+    index++;
+    indices[key] = index;
+  }
+}
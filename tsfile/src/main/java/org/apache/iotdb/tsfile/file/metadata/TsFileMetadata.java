@@ -28,6 +28,9 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /** TSFileMetaData collects all metadata info and saves in its data structure. */
@@ -42,6 +45,9 @@ public class TsFileMetadata {
   // offset of MetaMarker.SEPARATOR
   private long metaOffset;
 
+  // offset of chunk header -> bloom filter of the values in the chunk
+  private Map<Long, BloomFilter> valueBloomFilters = Collections.emptyMap();
+
   /**
    * deserialize data from the buffer.
    *
@@ -66,6 +72,20 @@ public class TsFileMetadata {
       fileMetaData.bloomFilter = BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
     }
 
+    // read value bloom filters, which are absent in the files without them
+    if (buffer.hasRemaining()) {
+      int filterNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      fileMetaData.valueBloomFilters = new HashMap<>(filterNum);
+      for (int i = 0; i < filterNum; i++) {
+        long chunkOffset = ReadWriteIOUtils.readLong(buffer);
+        byte[] bytes = ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer);
+        int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        fileMetaData.valueBloomFilters.put(
+            chunkOffset, BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize));
+      }
+    }
+
     return fileMetaData;
   }
 
@@ -77,6 +97,14 @@ public class TsFileMetadata {
     this.bloomFilter = bloomFilter;
   }
 
+  /**
+   * @param chunkOffset offset of the chunk header
+   * @return the bloom filter of the values in the chunk, or null if it is not built
+   */
+  public BloomFilter getValueBloomFilter(long chunkOffset) {
+    return valueBloomFilters.get(chunkOffset);
+  }
+
   /**
    * use the given outputStream to serialize.
    *
@@ -119,6 +147,35 @@ public class TsFileMetadata {
     return byteLen;
   }
 
+  /**
+   * use the given outputStream to serialize the bloom filters of the values in chunks, nothing is
+   * written if there is no such bloom filter so that the file can be read by older versions.
+   *
+   * @param outputStream -output stream to determine byte length
+   * @param valueBloomFilters offset of chunk header -> bloom filter of the values in the chunk
+   * @return -byte length
+   */
+  public int serializeValueBloomFilters(
+      OutputStream outputStream, Map<Long, BloomFilter> valueBloomFilters) throws IOException {
+    if (valueBloomFilters.isEmpty()) {
+      return 0;
+    }
+    int byteLen =
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(valueBloomFilters.size(), outputStream);
+    for (Map.Entry<Long, BloomFilter> entry : valueBloomFilters.entrySet()) {
+      BloomFilter filter = entry.getValue();
+      byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
+      byte[] bytes = filter.serialize();
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, outputStream);
+      outputStream.write(bytes);
+      byteLen += bytes.length;
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(filter.getSize(), outputStream);
+      byteLen +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(filter.getHashFunctionSize(), outputStream);
+    }
+    return byteLen;
+  }
+
   /**
    * build bloom filter
    *
@@ -290,6 +290,15 @@ public class TsFileSequenceReader implements AutoCloseable {
     return tsFileMetaData.getBloomFilter();
   }
 
+  /**
+   * @param chunkOffset offset of the chunk header
+   * @return the bloom filter of the values in the chunk, or null if it is not built
+   */
+  public BloomFilter readValueBloomFilter(long chunkOffset) throws IOException {
+    readFileMetadata();
+    return tsFileMetaData.getValueBloomFilter(chunkOffset);
+  }
+
   /**
    * this function reads measurements and TimeseriesMetaDatas in given device Thread Safe
    *
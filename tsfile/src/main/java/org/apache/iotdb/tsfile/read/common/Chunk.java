@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read.common;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
@@ -37,6 +38,8 @@ public class Chunk {
   private boolean isFromOldFile = false;
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
+  /** the bloom filter of the values in the chunk, null if it is not built or not loaded */
+  private BloomFilter valueBloomFilter;
 
   private long ramSize;
 
@@ -67,7 +70,17 @@ public class Chunk {
     this.deleteIntervalList = list;
   }
 
+  public BloomFilter getValueBloomFilter() {
+    return valueBloomFilter;
+  }
+
+  public void setValueBloomFilter(BloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    // the bloom filters of the two chunks cannot be merged, as they may differ in size
+    valueBloomFilter = null;
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
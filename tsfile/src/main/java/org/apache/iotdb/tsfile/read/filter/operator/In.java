@@ -123,6 +123,14 @@ public class In<T extends Comparable<T>> implements Filter {
     return filterType + " < " + "reverse: " + not + ", " + valueList;
   }
 
+  public FilterType getFilterType() {
+    return filterType;
+  }
+
+  public boolean isNot() {
+    return not;
+  }
+
   @Override
   public FilterSerializeId getSerializeId() {
     return FilterSerializeId.IN;
@@ -134,6 +134,10 @@ public class Like<T extends Comparable<T>> implements Filter {
     return filterType + " is " + value;
   }
 
+  public FilterType getFilterType() {
+    return filterType;
+  }
+
   @Override
   public FilterSerializeId getSerializeId() {
     return FilterSerializeId.LIKE;
@@ -120,6 +120,10 @@ public class Regexp<T extends Comparable<T>> implements Filter {
         && ((Regexp<?>) o).filterType == filterType;
   }
 
+  public FilterType getFilterType() {
+    return filterType;
+  }
+
   @Override
   public FilterSerializeId getSerializeId() {
     return FilterSerializeId.REGEXP;
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.read.reader.page;
 
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DictionaryDecoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -26,14 +27,23 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.In;
+import org.apache.iotdb.tsfile.read.filter.operator.Like;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Regexp;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 public class PageReader implements IPageReader {
@@ -106,6 +116,14 @@ public class PageReader implements IPageReader {
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
     if (filter == null || filter.satisfy(getStatistics())) {
+      if (filter != null && valueDecoder instanceof DictionaryDecoder) {
+        List<Filter> valueFilters = new ArrayList<>();
+        Filter otherFilter = splitValueFilters(filter, valueFilters);
+        if (!valueFilters.isEmpty()) {
+          putSatisfiedDictionaryData(pageData, valueFilters, otherFilter);
+          return pageData.flip();
+        }
+      }
       while (timeDecoder.hasNext(timeBuffer)) {
         long timestamp = timeDecoder.readLong(timeBuffer);
         switch (dataType) {
@@ -153,6 +171,84 @@ public class PageReader implements IPageReader {
     return pageData.flip();
   }
 
+  /**
+   * Examine the value filters once for each distinct value of a dictionary-encoded page, so that
+   * the points are matched by their codes and the page is skipped if no value matches.
+   */
+  private void putSatisfiedDictionaryData(
+      BatchData pageData, List<Filter> valueFilters, Filter otherFilter) throws IOException {
+    DictionaryDecoder dictionaryDecoder = (DictionaryDecoder) valueDecoder;
+    List<Binary> dictionary = dictionaryDecoder.getDictionary(valueBuffer);
+    BitSet satisfiedCodes = new BitSet(dictionary.size());
+    for (int code = 0; code < dictionary.size(); code++) {
+      if (satisfyAll(valueFilters, dictionary.get(code))) {
+        satisfiedCodes.set(code);
+      }
+    }
+    if (satisfiedCodes.isEmpty()) {
+      return;
+    }
+
+    while (timeDecoder.hasNext(timeBuffer)) {
+      long timestamp = timeDecoder.readLong(timeBuffer);
+      int code = dictionaryDecoder.readCode(valueBuffer);
+      if (satisfiedCodes.get(code)
+          && !isDeleted(timestamp)
+          && (otherFilter == null || otherFilter.satisfy(timestamp, dictionary.get(code)))) {
+        pageData.putBinary(timestamp, dictionary.get(code));
+      }
+    }
+  }
+
+  private static boolean satisfyAll(List<Filter> valueFilters, Binary value) {
+    for (Filter valueFilter : valueFilters) {
+      // the time is not examined by a value filter
+      if (!valueFilter.satisfy(Long.MIN_VALUE, value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Move the conjuncts of the filter which only examine the values into valueFilters.
+   *
+   * @return the conjunction of the other conjuncts, or null if there is none
+   */
+  private static Filter splitValueFilters(Filter filter, List<Filter> valueFilters) {
+    if (filter instanceof AndFilter) {
+      Filter left = splitValueFilters(((AndFilter) filter).getLeft(), valueFilters);
+      Filter right = splitValueFilters(((AndFilter) filter).getRight(), valueFilters);
+      if (left == null || right == null) {
+        return left == null ? right : left;
+      }
+      return new AndFilter(left, right);
+    }
+    if (isValueFilter(filter)) {
+      valueFilters.add(filter);
+      return null;
+    }
+    return filter;
+  }
+
+  private static boolean isValueFilter(Filter filter) {
+    if (filter instanceof UnaryFilter) {
+      return ((UnaryFilter<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof In) {
+      return ((In<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof Like) {
+      return ((Like<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof Regexp) {
+      return ((Regexp<?>) filter).getFilterType() == FilterType.VALUE_FILTER;
+    } else if (filter instanceof NotFilter) {
+      return isValueFilter(((NotFilter) filter).getFilter());
+    } else if (filter instanceof BinaryFilter) {
+      return isValueFilter(((BinaryFilter) filter).getLeft())
+          && isValueFilter(((BinaryFilter) filter).getRight());
+    }
+    return false;
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
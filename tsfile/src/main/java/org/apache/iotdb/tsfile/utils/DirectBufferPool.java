@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct ByteBuffers with the same capacity. Allocating and freeing direct memory is much
+ * more expensive than allocating heap memory, so the buffers used for writing files are reused
+ * rather than allocated for each file. At most MAX_POOLED_BUFFERS buffers are kept by the pool, the
+ * extra ones are left to the GC.
+ */
+public class DirectBufferPool {
+
+  public static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int MAX_POOLED_BUFFERS = 64;
+
+  private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger pooledNum = new AtomicInteger();
+
+  private DirectBufferPool() {}
+
+  public static DirectBufferPool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /** @return a cleared direct buffer of BUFFER_SIZE bytes */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+    pooledNum.decrementAndGet();
+    buffer.clear();
+    return buffer;
+  }
+
+  /** Return a buffer acquired from this pool, the buffer should not be used by the caller later. */
+  public void release(ByteBuffer buffer) {
+    if (pooledNum.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+      buffers.add(buffer);
+    } else {
+      pooledNum.decrementAndGet();
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private static final DirectBufferPool INSTANCE = new DirectBufferPool();
+
+    private InstanceHolder() {}
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -41,6 +42,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -87,6 +90,12 @@ public class ChunkWriterImpl implements IChunkWriter {
   private static final String SDT_COMP_MIN_TIME = "compmintime";
   private static final String SDT_COMP_MAX_TIME = "compmaxtime";
 
+  /** the property of a measurement to build bloom filters of the values in its chunks */
+  public static final String VALUE_BLOOM_FILTER = "value_bloom_filter";
+
+  /** distinct values of this chunk to build its value bloom filter, null if it is not built */
+  private Set<String> distinctValues;
+
   /** first page info */
   private int sizeWithoutStatistic;
 
@@ -114,6 +123,7 @@ public class ChunkWriterImpl implements IChunkWriter {
 
     // check if the measurement schema uses SDT
     checkSdtEncoding();
+    initDistinctValues();
   }
 
   public ChunkWriterImpl(IMeasurementSchema schema, boolean isMerging) {
@@ -145,7 +155,21 @@ public class ChunkWriterImpl implements IChunkWriter {
     }
   }
 
+  private void initDistinctValues() {
+    distinctValues = isValueBloomFilterEnabled(measurementSchema) ? new HashSet<>() : null;
+  }
+
+  /** @return true if the chunks of the measurement should have bloom filters of their values */
+  public static boolean isValueBloomFilterEnabled(IMeasurementSchema measurementSchema) {
+    return measurementSchema.getProps() != null
+        && measurementSchema.getType() != TSDataType.BOOLEAN
+        && Boolean.parseBoolean(measurementSchema.getProps().get(VALUE_BLOOM_FILTER));
+  }
+
   public void write(long time, long value) {
+    if (distinctValues != null) {
+      distinctValues.add(String.valueOf(value));
+    }
     // store last point for sdtEncoding, it still needs to go through encoding process
     // in case it exceeds compdev and needs to store second last point
     if (!isSdtEncoding || sdtEncoder.encodeLong(time, value)) {
@@ -160,6 +184,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, int value) {
+    if (distinctValues != null) {
+      distinctValues.add(String.valueOf(value));
+    }
     if (!isSdtEncoding || sdtEncoder.encodeInt(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -177,6 +204,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, float value) {
+    if (distinctValues != null) {
+      distinctValues.add(String.valueOf(value));
+    }
     if (!isSdtEncoding || sdtEncoder.encodeFloat(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -190,6 +220,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, double value) {
+    if (distinctValues != null) {
+      distinctValues.add(String.valueOf(value));
+    }
     if (!isSdtEncoding || sdtEncoder.encodeDouble(time, value)) {
       pageWriter.write(
           isSdtEncoding ? sdtEncoder.getTime() : time,
@@ -202,6 +235,9 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   public void write(long time, Binary value) {
+    if (distinctValues != null) {
+      distinctValues.add(String.valueOf(value));
+    }
     pageWriter.write(time, value);
     checkPageSizeAndMayOpenANewPage();
   }
@@ -210,6 +246,11 @@ public class ChunkWriterImpl implements IChunkWriter {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
+    if (distinctValues != null) {
+      for (int i = 0; i < batchSize; i++) {
+        distinctValues.add(String.valueOf(values[i]));
+      }
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
@@ -218,6 +259,11 @@ public class ChunkWriterImpl implements IChunkWriter {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
+    if (distinctValues != null) {
+      for (int i = 0; i < batchSize; i++) {
+        distinctValues.add(String.valueOf(values[i]));
+      }
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
@@ -231,6 +277,11 @@ public class ChunkWriterImpl implements IChunkWriter {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
+    if (distinctValues != null) {
+      for (int i = 0; i < batchSize; i++) {
+        distinctValues.add(String.valueOf(values[i]));
+      }
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
@@ -239,11 +290,21 @@ public class ChunkWriterImpl implements IChunkWriter {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
     }
+    if (distinctValues != null) {
+      for (int i = 0; i < batchSize; i++) {
+        distinctValues.add(String.valueOf(values[i]));
+      }
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
 
   public void write(long[] timestamps, Binary[] values, int batchSize) {
+    if (distinctValues != null) {
+      for (int i = 0; i < batchSize; i++) {
+        distinctValues.add(String.valueOf(values[i]));
+      }
+    }
     pageWriter.write(timestamps, values, batchSize);
     checkPageSizeAndMayOpenANewPage();
   }
@@ -316,6 +377,7 @@ public class ChunkWriterImpl implements IChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    initDistinctValues();
   }
 
   @Override
@@ -391,6 +453,10 @@ public class ChunkWriterImpl implements IChunkWriter {
           pageBuffer.size());
 
       statistics.mergeStatistics(header.getStatistics());
+      // the values of a page written as a whole are unknown, so the chunk gets no value bloom
+      // filter. The rewriting tools writing pages in this way take their schemas from the chunk
+      // headers, which never enable the filter.
+      distinctValues = null;
 
     } catch (IOException e) {
       throw new PageException("IO Exception in writeDataPageHeader,ignore this page", e);
@@ -443,6 +509,17 @@ public class ChunkWriterImpl implements IChunkWriter {
               + pageBuffer.size());
     }
 
+    if (distinctValues != null) {
+      BloomFilter bloomFilter =
+          BloomFilter.getEmptyBloomFilter(
+              TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate(),
+              distinctValues.size());
+      for (String value : distinctValues) {
+        bloomFilter.add(value);
+      }
+      writer.setCurrentChunkValueBloomFilter(bloomFilter);
+    }
+
     writer.endCurrentChunk();
   }
 
@@ -34,8 +34,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 
 /**
  * This writer is used to write time-value into a page. It consists of a time encoder, a value
@@ -60,6 +58,11 @@ public class PageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  /** buffers for assembling and compressing a page, reused when the pages are sealed */
+  private byte[] uncompressedBuffer = new byte[0];
+
+  private byte[] compressedBuffer = new byte[0];
+
   public PageWriter() {
     this(null, null);
   }
@@ -209,23 +212,35 @@ public class PageWriter {
       return 0;
     }
 
-    ByteBuffer pageData = getUncompressedBytes();
-    int uncompressedSize = pageData.remaining();
+    prepareEndWriteOnePage();
+    int uncompressedSize =
+        ReadWriteForEncodingUtils.uVarIntSize(timeOut.size()) + timeOut.size() + valueOut.size();
     int compressedSize;
     byte[] compressedBytes = null;
 
     if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
       compressedSize = uncompressedSize;
-    } else if (compressor.getType().equals(CompressionType.GZIP)) {
-      compressedBytes =
-          compressor.compress(pageData.array(), pageData.position(), uncompressedSize);
-      compressedSize = compressedBytes.length;
     } else {
-      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
-      // data is never a directByteBuffer now, so we can use data.array()
-      compressedSize =
-          compressor.compress(
-              pageData.array(), pageData.position(), uncompressedSize, compressedBytes);
+      // the page is assembled in and compressed into buffers reused by the following pages
+      if (uncompressedBuffer.length < uncompressedSize) {
+        uncompressedBuffer = new byte[uncompressedSize];
+      }
+      ByteBuffer pageData = ByteBuffer.wrap(uncompressedBuffer);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), pageData);
+      pageData.put(timeOut.getBuf(), 0, timeOut.size());
+      pageData.put(valueOut.getBuf(), 0, valueOut.size());
+      if (compressor.getType().equals(CompressionType.GZIP)) {
+        compressedBytes = compressor.compress(uncompressedBuffer, 0, uncompressedSize);
+        compressedSize = compressedBytes.length;
+      } else {
+        int maxCompressedSize = compressor.getMaxBytesForCompression(uncompressedSize);
+        if (compressedBuffer.length < maxCompressedSize) {
+          compressedBuffer = new byte[maxCompressedSize];
+        }
+        compressedBytes = compressedBuffer;
+        compressedSize =
+            compressor.compress(uncompressedBuffer, 0, uncompressedSize, compressedBytes);
+      }
     }
 
     // write the page header to IOWriter
@@ -244,9 +259,10 @@ public class PageWriter {
     // write page content to temp PBAOS
     logger.trace("start to flush a page data into buffer, buffer position {} ", pageBuffer.size());
     if (compressor.getType().equals(CompressionType.UNCOMPRESSED)) {
-      try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
-        channel.write(pageData);
-      }
+      // the encoded times and values are copied into the page buffer directly
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(timeOut.size(), pageBuffer);
+      pageBuffer.write(timeOut.getBuf(), 0, timeOut.size());
+      pageBuffer.write(valueOut.getBuf(), 0, valueOut.size());
     } else {
       pageBuffer.write(compressedBytes, 0, compressedSize);
     }
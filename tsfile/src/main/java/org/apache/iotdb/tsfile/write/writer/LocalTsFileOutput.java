@@ -18,56 +18,127 @@
  */
 package org.apache.iotdb.tsfile.write.writer;
 
-import java.io.BufferedOutputStream;
+import org.apache.iotdb.tsfile.utils.DirectBufferPool;
+
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * a TsFileOutput implementation with FileOutputStream. If the file is not existed, it will be
  * created. Otherwise the file will be written from position 0.
+ *
+ * <p>The written bytes are staged in a pooled direct buffer and written through the FileChannel of
+ * the stream, so that they are copied into native memory only once. Large writes, e.g., the pages
+ * of a chunk, are copied into several pooled direct buffers and written by one gathering write.
  */
 public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
 
+  /** at most so many direct buffers are filled before they are written by one gathering write */
+  private static final int MAX_GATHERED_BUFFER_NUM = 16;
+
   private FileOutputStream outputStream;
-  private BufferedOutputStream bufferedStream;
+  private FileChannel channel;
+  private ByteBuffer buffer;
   private long position;
 
   public LocalTsFileOutput(FileOutputStream outputStream) {
     this.outputStream = outputStream;
-    this.bufferedStream = new BufferedOutputStream(outputStream);
+    this.channel = outputStream.getChannel();
+    this.buffer = DirectBufferPool.getInstance().acquire();
     position = 0;
   }
 
   @Override
   public synchronized void write(int b) throws IOException {
-    bufferedStream.write(b);
+    if (!buffer.hasRemaining()) {
+      flushBuffer();
+    }
+    buffer.put((byte) b);
     position++;
   }
 
   @Override
   public synchronized void write(byte[] b) throws IOException {
-    bufferedStream.write(b);
-    position += b.length;
+    write(b, 0, b.length);
   }
 
   @Override
   public synchronized void write(byte b) throws IOException {
-    bufferedStream.write(b);
-    position++;
+    write((int) b);
   }
 
   @Override
-  public synchronized void write(byte[] buf, int start, int offset) throws IOException {
-    bufferedStream.write(buf, start, offset);
-    position += offset;
+  public synchronized void write(byte[] buf, int start, int length) throws IOException {
+    position += length;
+    if (length <= buffer.remaining()) {
+      buffer.put(buf, start, length);
+      return;
+    }
+
+    DirectBufferPool pool = DirectBufferPool.getInstance();
+    ByteBuffer[] gatheredBuffers = new ByteBuffer[MAX_GATHERED_BUFFER_NUM];
+    while (length > 0) {
+      gatheredBuffers[0] = buffer;
+      int bufferNum = 1;
+      ByteBuffer current = buffer;
+      while (true) {
+        int len = Math.min(current.remaining(), length);
+        current.put(buf, start, len);
+        start += len;
+        length -= len;
+        if (length == 0 || bufferNum == MAX_GATHERED_BUFFER_NUM) {
+          break;
+        }
+        current = pool.acquire();
+        gatheredBuffers[bufferNum++] = current;
+      }
+      for (int i = 0; i < bufferNum; i++) {
+        gatheredBuffers[i].flip();
+      }
+      writeFully(gatheredBuffers, bufferNum);
+      buffer.clear();
+      for (int i = 1; i < bufferNum; i++) {
+        pool.release(gatheredBuffers[i]);
+      }
+    }
   }
 
+  /**
+   * The content of b is written without changing its position. A direct buffer is written together
+   * with the staged bytes by one gathering write, without being copied.
+   */
   @Override
   public synchronized void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
-    position += b.array().length;
+    ByteBuffer src = b.duplicate();
+    if (src.hasArray()) {
+      write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+      return;
+    }
+    position += src.remaining();
+    buffer.flip();
+    writeFully(new ByteBuffer[] {buffer, src}, 2);
+    buffer.clear();
+  }
+
+  private void writeFully(ByteBuffer[] buffers, int bufferNum) throws IOException {
+    long remaining = 0;
+    for (int i = 0; i < bufferNum; i++) {
+      remaining += buffers[i].remaining();
+    }
+    while (remaining > 0) {
+      remaining -= channel.write(buffers, 0, bufferNum);
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
   }
 
   @Override
@@ -76,9 +147,17 @@ public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
   }
 
   @Override
-  public void close() throws IOException {
-    bufferedStream.close();
-    outputStream.close();
+  public synchronized void close() throws IOException {
+    if (buffer == null) {
+      return;
+    }
+    try {
+      flushBuffer();
+    } finally {
+      outputStream.close();
+      DirectBufferPool.getInstance().release(buffer);
+      buffer = null;
+    }
   }
 
   @Override
@@ -87,14 +166,14 @@ public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
   }
 
   @Override
-  public void flush() throws IOException {
-    this.bufferedStream.flush();
+  public synchronized void flush() throws IOException {
+    flushBuffer();
   }
 
   @Override
-  public void truncate(long size) throws IOException {
-    bufferedStream.flush();
-    outputStream.getChannel().truncate(size);
-    position = outputStream.getChannel().position();
+  public synchronized void truncate(long size) throws IOException {
+    flushBuffer();
+    channel.truncate(size);
+    position = channel.position();
   }
 }
@@ -37,6 +37,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -47,6 +48,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -79,6 +81,8 @@ public class TsFileIOWriter implements AutoCloseable {
   private ChunkMetadata currentChunkMetadata;
   // current flushed ChunkGroup
   protected List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+  // offset of chunk header -> bloom filter of the values in the chunk
+  private final TreeMap<Long, BloomFilter> valueBloomFilters = new TreeMap<>();
   // all flushed ChunkGroups
   protected List<ChunkGroupMetadata> chunkGroupMetadataList = new ArrayList<>();
 
@@ -224,7 +228,14 @@ public class TsFileIOWriter implements AutoCloseable {
             out.getPosition(),
             chunkMetadata.getStatistics());
     chunkHeader.serializeTo(out.wrapAsStream());
-    out.write(chunk.getData());
+    // the data may have been partly consumed by a reader, but the whole chunk should be copied
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    chunkData.rewind();
+    out.write(chunkData);
+    if (chunk.getValueBloomFilter() != null) {
+      // the values are unchanged, so the filter of the source chunk is kept at the new offset
+      setCurrentChunkValueBloomFilter(chunk.getValueBloomFilter());
+    }
     endCurrentChunk();
     if (logger.isDebugEnabled()) {
       logger.debug(
@@ -234,6 +245,14 @@ public class TsFileIOWriter implements AutoCloseable {
     }
   }
 
+  /**
+   * Attach a bloom filter of the values to the chunk being flushed, so that the chunk can be
+   * skipped by the queries looking for values absent in it.
+   */
+  public void setCurrentChunkValueBloomFilter(BloomFilter bloomFilter) {
+    valueBloomFilters.put(currentChunkMetadata.getOffsetOfChunkHeader(), bloomFilter);
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
@@ -285,6 +304,9 @@ public class TsFileIOWriter implements AutoCloseable {
       logger.debug("finish flushing the bloom filter file pos:{}", out.getPosition());
     }
 
+    // write bloom filters of values
+    size += tsFileMetaData.serializeValueBloomFilters(out.wrapAsStream(), valueBloomFilters);
+
     // write TsFileMetaData size
     ReadWriteIOUtils.write(size, out.wrapAsStream()); // write the size of the file metadata.
 
@@ -390,6 +412,8 @@ public class TsFileIOWriter implements AutoCloseable {
 
   public void reset() throws IOException {
     out.truncate(markedPosition);
+    // the chunks after the mark are discarded
+    valueBloomFilters.tailMap(markedPosition).clear();
   }
 
   /**
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChimpDecoderTest {
+
+  private static final double DELTA = 0;
+  private static final int REPEAT_COUNT = 3;
+
+  private static final List<Float> floatList = new ArrayList<>();
+  private static final List<Double> doubleList = new ArrayList<>();
+  private static final List<Integer> intList = new ArrayList<>();
+  private static final List<Long> longList = new ArrayList<>();
+
+  @BeforeClass
+  public static void setUp() {
+    Random random = new Random(42);
+    double reading = 20.0;
+    for (int i = 0; i < 5000; i++) {
+      if (i % 7 == 0) {
+        // a reading seen a while ago, which should be found in the previous values
+        int previous = Math.max(0, doubleList.size() - 1 - random.nextInt(100));
+        doubleList.add(i == 0 ? reading : doubleList.get(previous));
+      } else if (i % 11 == 0) {
+        doubleList.add(random.nextDouble() * Long.MAX_VALUE - Long.MAX_VALUE / 2.0);
+      } else {
+        // readings of a sensor with the precision of 0.1
+        reading += (random.nextInt(21) - 10) / 10.0;
+        doubleList.add(Math.round(reading * 10) / 10.0);
+      }
+      floatList.add(doubleList.get(i).floatValue());
+      // MIN_VALUE is the ending of the integers
+      long longValue = i % 13 == 0 ? random.nextLong() : (long) (doubleList.get(i) * 1000);
+      int intValue = i % 13 == 0 ? random.nextInt() : (int) (doubleList.get(i) * 10);
+      longList.add(Math.max(Long.MIN_VALUE + 1, longValue));
+      intList.add(Math.max(Integer.MIN_VALUE + 1, intValue));
+    }
+    floatList.add(0.0f);
+    floatList.add(-0.0f);
+    floatList.add(Float.MAX_VALUE);
+    floatList.add(Float.MIN_VALUE);
+    doubleList.add(0.0);
+    doubleList.add(-0.0);
+    doubleList.add(Double.MAX_VALUE);
+    doubleList.add(Double.MIN_VALUE);
+    intList.add(0);
+    intList.add(-1);
+    intList.add(Integer.MAX_VALUE);
+    longList.add(0L);
+    longList.add(-1L);
+    longList.add(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testSingleValue() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    encoder.encode(Math.PI, baos);
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    Decoder decoder = new DoublePrecisionChimpDecoder();
+    assertTrue(decoder.hasNext(buffer));
+    assertEquals(Math.PI, decoder.readDouble(buffer), DELTA);
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testInteger() throws IOException {
+    Encoder encoder = new IntChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      for (int value : intList) {
+        encoder.encode(value, baos);
+      }
+      encoder.flush(baos);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      Decoder decoder = new IntChimpDecoder();
+      for (int value : intList) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(value, decoder.readInt(buffer));
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    Encoder encoder = new LongChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      for (long value : longList) {
+        encoder.encode(value, baos);
+      }
+      encoder.flush(baos);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      Decoder decoder = new LongChimpDecoder();
+      for (long value : longList) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(value, decoder.readLong(buffer));
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    Encoder encoder = new SinglePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      for (float value : floatList) {
+        encoder.encode(value, baos);
+      }
+      encoder.flush(baos);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      Decoder decoder = new SinglePrecisionChimpDecoder();
+      for (float value : floatList) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Float.floatToRawIntBits(value), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      for (double value : doubleList) {
+        encoder.encode(value, baos);
+      }
+      encoder.flush(baos);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+    for (int i = 0; i < REPEAT_COUNT; i++) {
+      Decoder decoder = new DoublePrecisionChimpDecoder();
+      for (double value : doubleList) {
+        assertTrue(decoder.hasNext(buffer));
+        assertEquals(
+            Double.doubleToRawLongBits(value),
+            Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+      }
+      assertFalse(decoder.hasNext(buffer));
+    }
+  }
+}
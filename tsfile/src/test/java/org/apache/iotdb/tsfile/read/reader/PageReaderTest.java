@@ -20,21 +20,28 @@ package org.apache.iotdb.tsfile.read.reader;
 
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.encoding.decoder.DeltaBinaryDecoder;
+import org.apache.iotdb.tsfile.encoding.decoder.DictionaryDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.DoublePrecisionDecoderV1;
 import org.apache.iotdb.tsfile.encoding.decoder.IntRleDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.LongRleDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.PlainDecoder;
 import org.apache.iotdb.tsfile.encoding.decoder.SinglePrecisionDecoderV1;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoderV1;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -300,6 +307,63 @@ public class PageReaderTest {
     public abstract Object generateValueByIndex(int i);
   }
 
+  @Test
+  public void testDictionaryFilter() throws IOException {
+    String[] statuses = {"RUNNING", "IDLE", "FAULT", "STOPPED"};
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new DictionaryEncoder());
+    pageWriter.initStatistics(TSDataType.TEXT);
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, new Binary(statuses[i % 3]));
+    }
+    ByteBuffer pageData = pageWriter.getUncompressedBytes();
+    PageHeader pageHeader =
+        new PageHeader(pageData.remaining(), pageData.remaining(), pageWriter.getStatistics());
+
+    // the value filter is examined on the dictionary while the time filter on the points
+    Filter filter =
+        FilterFactory.and(TimeFilter.gtEq(100), ValueFilter.eq(new Binary(statuses[2])));
+    BatchData data = readDictionaryPage(pageHeader, pageData, filter);
+    int count = 0;
+    while (data.hasCurrent()) {
+      Assert.assertTrue(data.currentTime() >= 100);
+      Assert.assertEquals(2, data.currentTime() % 3);
+      Assert.assertEquals(new Binary(statuses[2]), data.currentValue());
+      data.next();
+      count++;
+    }
+    Assert.assertEquals(300, count);
+
+    // a filter mixing time and value is examined on the points
+    filter = FilterFactory.or(TimeFilter.lt(3), ValueFilter.like("R%"));
+    data = readDictionaryPage(pageHeader, pageData, filter);
+    count = 0;
+    while (data.hasCurrent()) {
+      Assert.assertTrue(data.currentTime() < 3 || data.currentTime() % 3 == 0);
+      data.next();
+      count++;
+    }
+    Assert.assertEquals(336, count);
+
+    // no value in the dictionary matches
+    data = readDictionaryPage(pageHeader, pageData, ValueFilter.eq(new Binary(statuses[3])));
+    Assert.assertFalse(data.hasCurrent());
+  }
+
+  private BatchData readDictionaryPage(PageHeader pageHeader, ByteBuffer pageData, Filter filter)
+      throws IOException {
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            pageData.duplicate(),
+            TSDataType.TEXT,
+            new DictionaryDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            filter);
+    return pageReader.getAllSatisfiedPageData();
+  }
+
   @Test
   public void testPageDelete() {
     LoopWriteReadTest test =
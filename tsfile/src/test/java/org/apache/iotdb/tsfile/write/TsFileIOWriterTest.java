@@ -24,15 +24,20 @@ import org.apache.iotdb.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.MeasurementGroup;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.Schema;
 import org.apache.iotdb.tsfile.write.schema.VectorMeasurementSchema;
@@ -46,6 +51,7 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -163,6 +169,58 @@ public class TsFileIOWriterTest {
     Assert.assertEquals(2, metaData.getMetadataIndex().getChildren().size());
   }
 
+  @Test
+  public void valueBloomFilterTest() throws IOException {
+    String filePath = TestConstant.BASE_OUTPUT_PATH.concat("ValueBloomFilterTest.tsfile");
+    Map<String, String> props = new HashMap<>();
+    props.put(ChunkWriterImpl.VALUE_BLOOM_FILTER, "true");
+    MeasurementSchema withBloomFilter =
+        new MeasurementSchema(
+            SENSOR_1, TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED, props);
+    MeasurementSchema withoutBloomFilter =
+        new MeasurementSchema("sensor2", TSDataType.TEXT, TSEncoding.PLAIN);
+    try {
+      TsFileIOWriter writer = new TsFileIOWriter(new File(filePath));
+      for (int i = 0; i < CHUNK_GROUP_NUM; i++) {
+        writer.startChunkGroup(DEVICE_1);
+        for (MeasurementSchema measurementSchema :
+            new MeasurementSchema[] {withBloomFilter, withoutBloomFilter}) {
+          ChunkWriterImpl chunkWriter = new ChunkWriterImpl(measurementSchema);
+          for (int j = 0; j < 100; j++) {
+            chunkWriter.write(j, new Binary("batch" + i + "_" + j % 10));
+          }
+          chunkWriter.writeToFileWriter(writer);
+        }
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+        List<ChunkMetadata> chunkMetadataList =
+            reader.getChunkMetadataList(new Path(DEVICE_1, SENSOR_1));
+        Assert.assertEquals(CHUNK_GROUP_NUM, chunkMetadataList.size());
+        for (int i = 0; i < CHUNK_GROUP_NUM; i++) {
+          BloomFilter bloomFilter =
+              reader.readValueBloomFilter(chunkMetadataList.get(i).getOffsetOfChunkHeader());
+          Assert.assertNotNull(bloomFilter);
+          for (int j = 0; j < 10; j++) {
+            Assert.assertTrue(bloomFilter.contains("batch" + i + "_" + j));
+          }
+          Assert.assertFalse(bloomFilter.contains("batch" + (i + CHUNK_GROUP_NUM) + "_0"));
+        }
+
+        for (ChunkMetadata chunkMetadata :
+            reader.getChunkMetadataList(new Path(DEVICE_1, "sensor2"))) {
+          Assert.assertNull(reader.readValueBloomFilter(chunkMetadata.getOffsetOfChunkHeader()));
+        }
+        // the bloom filter of the paths is still readable
+        Assert.assertTrue(reader.readBloomFilter().contains(DEVICE_1 + "." + SENSOR_1));
+      }
+    } finally {
+      new File(filePath).delete();
+    }
+  }
+
   private void writeChunkGroup(TsFileIOWriter writer, MeasurementSchema measurementSchema)
       throws IOException {
     for (int i = 0; i < CHUNK_GROUP_NUM; i++) {
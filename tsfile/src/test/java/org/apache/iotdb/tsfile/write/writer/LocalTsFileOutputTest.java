@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.utils.DirectBufferPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class LocalTsFileOutputTest {
+
+  private final File file = new File("target/LocalTsFileOutputTest.tsfile");
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testWrite() throws IOException {
+    Random random = new Random(0);
+    // larger than all the gathered direct buffers of one write
+    byte[] large = new byte[DirectBufferPool.BUFFER_SIZE * 20 + 17];
+    random.nextBytes(large);
+    byte[] direct = new byte[1000];
+    random.nextBytes(direct);
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(direct.length);
+    directBuffer.put(direct);
+    directBuffer.flip();
+
+    byte[] expected = new byte[1 + 3 + large.length + direct.length];
+    expected[0] = 7;
+    expected[1] = 1;
+    expected[2] = 2;
+    expected[3] = 3;
+    System.arraycopy(large, 0, expected, 4, large.length);
+    System.arraycopy(direct, 0, expected, 4 + large.length, direct.length);
+
+    try (LocalTsFileOutput output = new LocalTsFileOutput(new FileOutputStream(file))) {
+      output.write((byte) 7);
+      output.write(ByteBuffer.wrap(new byte[] {0, 1, 2, 3}, 1, 3));
+      output.write(large);
+      output.write(directBuffer);
+      // the content of the buffer is not consumed
+      assertEquals(direct.length, directBuffer.remaining());
+      assertEquals(expected.length, output.getPosition());
+    }
+    assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+  }
+
+  @Test
+  public void testTruncate() throws IOException {
+    byte[] bytes = new byte[100];
+    Arrays.fill(bytes, (byte) 1);
+    try (LocalTsFileOutput output = new LocalTsFileOutput(new FileOutputStream(file))) {
+      output.write(bytes);
+      output.truncate(40);
+      assertEquals(40, output.getPosition());
+      output.write(new byte[] {2, 2});
+    }
+    byte[] expected = Arrays.copyOf(bytes, 42);
+    expected[40] = 2;
+    expected[41] = 2;
+    assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+  }
+}